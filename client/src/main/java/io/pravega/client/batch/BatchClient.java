@@ -14,6 +14,8 @@ import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.stream.EventStreamReader;
 import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.Stream;
+import io.pravega.client.stream.impl.StreamCut;
+import java.util.Date;
 import java.util.Iterator;
 
 /**
@@ -67,5 +69,78 @@ public interface BatchClient {
      * @return A SegmentIterator over the requested segment at startingOffset
      */
     <T> SegmentIterator<T> readSegment(Segment segment, Serializer<T> deserializer, long startingOffset);
-    
+
+    /**
+     * Provides a SegmentIterator to read the events between the startingOffset and the endingOffset
+     * in the requested segment.
+     *
+     * Both offsets must be aligned to events, as described in
+     * {@link #readSegment(Segment, Serializer, long)}.
+     *
+     * @param <T> The type of events written to the segment.
+     * @param segment The segment to read from
+     * @param deserializer A deserializer to be used to parse events
+     * @param startingOffset The offset to start iterating from.
+     * @param endingOffset The offset to stop iterating at.
+     * @return A SegmentIterator over the requested segment between startingOffset and endingOffset
+     */
+    <T> SegmentIterator<T> readSegment(Segment segment, Serializer<T> deserializer, long startingOffset, long endingOffset);
+
+    /**
+     * Provides a range covering all the data currently in each segment of a given stream. Each
+     * range may be read in parallel with the others, and a range over a large segment may be
+     * further divided using {@link SegmentRange#split(java.util.Collection)}.
+     *
+     * @param stream the stream
+     * @return One range per segment in the requested stream.
+     */
+    Iterator<SegmentRange> getSegmentRanges(Stream stream);
+
+    /**
+     * Provides the ranges of data between two positions in a stream, so that the data in that window
+     * can be read without reading the rest of the stream. Only segments that have data between the
+     * two cuts are returned: a segment in the starting cut is read from its position in that cut, a
+     * segment in the ending cut up to its position in that cut, and any segment that was created and
+     * sealed in between in its entirety.
+     *
+     * @param fromStreamCut The position at which the window starts.
+     * @param toStreamCut The position at which the window ends. Must be in the same stream and not
+     *            before fromStreamCut.
+     * @return The ranges covering the data between the two cuts.
+     */
+    Iterator<SegmentRange> getSegmentRanges(StreamCut fromStreamCut, StreamCut toStreamCut);
+
+    /**
+     * Provides the ranges of data written to a stream in a window of time. The segments that were
+     * active at the start and at the end of the window are looked up by the controller, and the
+     * offsets in them using each segment's time index, with the segment store's clock.
+     * <p>
+     * The ranges contain all the data written in the window, and segments that are entirely
+     * outside of it are not returned. As the time index has a granularity of
+     * {@link io.pravega.shared.segment.SegmentTimeIndex#GRANULARITY}, a range may also contain up
+     * to that much data written before the window starts. It ends at the first index entry made
+     * after the window ends, which, if data is written to the segment continuously, is within that
+     * same granularity; otherwise (or if the segment has no index) the range extends to the end of
+     * the segment.
+     *
+     * @param stream the stream
+     * @param from The start of the window.
+     * @param to The end of the window.
+     * @return The ranges covering the data written in the window.
+     */
+    Iterator<SegmentRange> getSegmentRanges(Stream stream, Date from, Date to);
+
+    /**
+     * Provides a SegmentIterator to read the events in the requested range. Iterators created by
+     * this method read ahead more aggressively than the ones returned by the other
+     * {@code readSegment} methods, as they are intended to be used to scan large ranges in
+     * parallel.
+     *
+     * @param <T> The type of events written to the segment.
+     * @param range The range to read
+     * @param deserializer A deserializer to be used to parse events
+     * @return A SegmentIterator over the requested range
+     */
+    <T> SegmentIterator<T> readSegment(SegmentRange range, Serializer<T> deserializer);
+
 }
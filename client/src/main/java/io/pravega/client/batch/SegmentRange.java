@@ -0,0 +1,79 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.batch;
+
+import com.google.common.annotations.Beta;
+import io.pravega.client.segment.impl.Segment;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.TreeSet;
+import lombok.Data;
+
+/**
+ * A range of bytes within a segment, which can be read independently of (and in parallel with)
+ * other ranges via {@link BatchClient#readSegment(SegmentRange, io.pravega.client.stream.Serializer)}.
+ * <p>
+ * Both offsets must fall on event boundaries. Offsets returned by {@link SegmentIterator#getOffset()},
+ * {@link SegmentInfo#getStartingOffset()} and {@link SegmentInfo#getWriteOffset()} always do.
+ */
+@Beta
+@Data
+public class SegmentRange {
+
+    /**
+     * The segment this range is in.
+     */
+    private final Segment segment;
+
+    /**
+     * The offset of the first event in the range (inclusive).
+     */
+    private final long startOffset;
+
+    /**
+     * The offset at which the range ends (exclusive).
+     */
+    private final long endOffset;
+
+    /**
+     * Returns the number of bytes in the range.
+     *
+     * @return The length of the range.
+     */
+    public long getLength() {
+        return endOffset - startOffset;
+    }
+
+    /**
+     * Splits this range into consecutive, non-overlapping ranges at the given offsets, so that they
+     * can be read in parallel. Offsets outside of this range are ignored.
+     * <p>
+     * Each offset must fall on an event boundary, for example because it was obtained from
+     * {@link SegmentIterator#getOffset()} during a previous pass over the segment. There is no
+     * validation of this; splitting at any other offset results in corrupt data being passed to
+     * the deserializer.
+     *
+     * @param eventBoundaries Offsets at which to split this range.
+     * @return The resulting ranges, in offset order, which together cover exactly this range.
+     */
+    public List<SegmentRange> split(Collection<Long> eventBoundaries) {
+        List<SegmentRange> result = new ArrayList<>();
+        long start = startOffset;
+        for (long boundary : new TreeSet<>(eventBoundaries)) {
+            if (boundary > start && boundary < endOffset) {
+                result.add(new SegmentRange(segment, start, boundary));
+                start = boundary;
+            }
+        }
+        result.add(new SegmentRange(segment, start, endOffset));
+        return result;
+    }
+}
@@ -10,13 +10,16 @@
 package io.pravega.client.batch.impl;
 
 import com.google.common.annotations.Beta;
+import com.google.common.base.Preconditions;
 import com.google.common.collect.Iterators;
 import io.pravega.client.batch.BatchClient;
 import io.pravega.client.batch.SegmentInfo;
 import io.pravega.client.batch.SegmentIterator;
+import io.pravega.client.batch.SegmentRange;
 import io.pravega.client.batch.StreamInfo;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.segment.impl.SegmentAttribute;
 import io.pravega.client.segment.impl.SegmentInputStreamFactory;
 import io.pravega.client.segment.impl.SegmentInputStreamFactoryImpl;
 import io.pravega.client.segment.impl.SegmentMetadataClient;
@@ -27,9 +30,16 @@ import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.impl.Controller;
 import io.pravega.client.stream.impl.StreamCut;
 import io.pravega.client.stream.impl.StreamImpl;
+import io.pravega.shared.segment.SegmentTimeIndex;
+import java.util.ArrayList;
 import java.util.Date;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
+import java.util.List;
 import java.util.Map;
+import java.util.Map.Entry;
+import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
 import lombok.Cleanup;
@@ -39,6 +49,11 @@ import static io.pravega.common.concurrent.Futures.getAndHandleExceptions;
 
 @Beta
 public class BatchClientImpl implements BatchClient {
+    /**
+     * Read-ahead buffer for iterators over a SegmentRange. These are meant to scan a lot of data, so
+     * they buffer more ahead of the deserializer than the default.
+     */
+    static final int RANGE_READ_AHEAD_BUFFER_SIZE = 1024 * 1024;
 
     private final Controller controller;
     private final SegmentInputStreamFactory inputStreamFactory;
@@ -66,10 +81,7 @@ public class BatchClientImpl implements BatchClient {
 
     private Iterator<SegmentInfo> listSegments(Stream stream, Date from) {
         // modify iteration above but starting with a timestamp and ending with a break
-        Map<Segment, Long> segments = getAndHandleExceptions(controller.getSegmentsAtTime(new StreamImpl(stream.getScope(),
-                                                                                                         stream.getStreamName()),
-                                                                                          from.getTime()),
-                                                             RuntimeException::new);
+        Map<Segment, Long> segments = getSegmentsAtTime(stream, from);
         SortedSet<Segment> result = new TreeSet<>();
         result.addAll(segments.keySet());
         result.addAll(getAndHandleExceptions(controller.getSuccessors(new StreamCut(stream, segments)),
@@ -99,4 +111,102 @@ public class BatchClientImpl implements BatchClient {
         return new SegmentIteratorImpl<>(inputStreamFactory, segment, deserializer, startingOffset, segmentInfo.getWriteOffset());
     }
 
+    @Override
+    public <T> SegmentIterator<T> readSegment(Segment segment, Serializer<T> deserializer, long startingOffset, long endingOffset) {
+        Preconditions.checkArgument(startingOffset <= endingOffset, "startingOffset must not be after endingOffset");
+        return new SegmentIteratorImpl<>(inputStreamFactory, segment, deserializer, startingOffset, endingOffset);
+    }
+
+    @Override
+    public Iterator<SegmentRange> getSegmentRanges(Stream stream) {
+        return Iterators.transform(listSegments(stream),
+                                   info -> new SegmentRange(info.getSegment(), info.getStartingOffset(), info.getWriteOffset()));
+    }
+
+    @Override
+    public Iterator<SegmentRange> getSegmentRanges(StreamCut fromStreamCut, StreamCut toStreamCut) {
+        Preconditions.checkArgument(fromStreamCut.getStream().equals(toStreamCut.getStream()),
+                                    "Both StreamCuts must be from the same stream");
+        return getSegmentRanges(fromStreamCut.getStream(), fromStreamCut.getPositions(), toStreamCut.getPositions());
+    }
+
+    @Override
+    public Iterator<SegmentRange> getSegmentRanges(Stream stream, Date from, Date to) {
+        Preconditions.checkArgument(!from.after(to), "The window must not end before it starts");
+        Map<Segment, Long> fromPositions = getStartOffsetsAtTime(getSegmentsAtTime(stream, from), from.getTime());
+        Map<Segment, Long> toPositions = getEndOffsetsAtTime(getSegmentsAtTime(stream, to).keySet(), to.getTime());
+        return getSegmentRanges(stream, fromPositions, toPositions);
+    }
+
+    /**
+     * Moves the given positions forward to where each segment's time index says the data appended at or after the given
+     * time starts. Segments with no index entry at or before that time keep the position they had.
+     */
+    private Map<Segment, Long> getStartOffsetsAtTime(Map<Segment, Long> positions, long timestamp) {
+        Map<Segment, Long> result = new HashMap<>(positions.size());
+        for (Entry<Segment, Long> position : positions.entrySet()) {
+            @Cleanup
+            SegmentMetadataClient metadataClient = segmentMetadataClientFactory.createSegmentMetadataClient(position.getKey());
+            long offset = metadataClient.fetchOffsetAtTime(timestamp);
+            result.put(position.getKey(), offset == SegmentAttribute.NULL_VALUE ? position.getValue()
+                                                                                 : Math.max(offset, position.getValue()));
+        }
+        return result;
+    }
+
+    /**
+     * Finds, for each of the given segments, an offset before which it holds everything that was appended before the given
+     * time. That is the offset of the first time index entry after the time's bucket. A lookup returns the latest entry at
+     * or before a bucket, so the entry returned for the next bucket is known to be that one only if it differs from the
+     * one returned for the time's own bucket. Otherwise the segment is read to its end.
+     */
+    private Map<Segment, Long> getEndOffsetsAtTime(Set<Segment> segments, long timestamp) {
+        Map<Segment, Long> result = new HashMap<>(segments.size());
+        for (Segment segment : segments) {
+            @Cleanup
+            SegmentMetadataClient metadataClient = segmentMetadataClientFactory.createSegmentMetadataClient(segment);
+            long afterBucket = metadataClient.fetchOffsetAtTime(timestamp + SegmentTimeIndex.GRANULARITY.toMillis());
+            long inBucket = metadataClient.fetchOffsetAtTime(timestamp);
+            result.put(segment, afterBucket != SegmentAttribute.NULL_VALUE && afterBucket != inBucket ? afterBucket : Long.MAX_VALUE);
+        }
+        return result;
+    }
+
+    private Iterator<SegmentRange> getSegmentRanges(Stream stream, Map<Segment, Long> from, Map<Segment, Long> to) {
+        SortedSet<Segment> segments = new TreeSet<>(from.keySet());
+        segments.addAll(getAndHandleExceptions(controller.getSuccessors(new StreamCut(stream, from)), RuntimeException::new));
+
+        // Anything that follows the end of the window (other than the segments the window ends in) can be skipped.
+        Set<Segment> afterWindow = new HashSet<>(getAndHandleExceptions(controller.getSuccessors(new StreamCut(stream, to)),
+                                                                        RuntimeException::new));
+        afterWindow.removeAll(to.keySet());
+
+        List<SegmentRange> result = new ArrayList<>();
+        for (Segment segment : segments) {
+            if (afterWindow.contains(segment)) {
+                continue;
+            }
+            SegmentInfo info = segmentToInfo(segment);
+            long start = Math.max(info.getStartingOffset(), from.getOrDefault(segment, 0L));
+            long end = Math.min(info.getWriteOffset(), to.getOrDefault(segment, Long.MAX_VALUE));
+            if (start < end) {
+                result.add(new SegmentRange(segment, start, end));
+            }
+        }
+        return result.iterator();
+    }
+
+    private Map<Segment, Long> getSegmentsAtTime(Stream stream, Date time) {
+        return getAndHandleExceptions(controller.getSegmentsAtTime(new StreamImpl(stream.getScope(), stream.getStreamName()),
+                                                                   time.getTime()),
+                                      RuntimeException::new);
+    }
+
+    @Override
+    public <T> SegmentIterator<T> readSegment(SegmentRange range, Serializer<T> deserializer) {
+        Preconditions.checkArgument(range.getStartOffset() <= range.getEndOffset(), "Invalid range: %s", range);
+        return new SegmentIteratorImpl<>(inputStreamFactory, range.getSegment(), deserializer, range.getStartOffset(),
+                                         range.getEndOffset(), RANGE_READ_AHEAD_BUFFER_SIZE);
+    }
+
 }
@@ -35,12 +35,23 @@ public class SegmentIteratorImpl<T> implements SegmentIterator<T> {
 
     public SegmentIteratorImpl(SegmentInputStreamFactory factory, Segment segment,
             Serializer<T> deserializer, long startingOffset, long endingOffset) {
+        this(factory.createInputStreamForSegment(segment), segment, deserializer, startingOffset, endingOffset);
+    }
+
+    public SegmentIteratorImpl(SegmentInputStreamFactory factory, Segment segment,
+            Serializer<T> deserializer, long startingOffset, long endingOffset, int readAheadBufferSize) {
+        this(factory.createInputStreamForSegment(segment, readAheadBufferSize), segment, deserializer, startingOffset,
+             endingOffset);
+    }
+
+    private SegmentIteratorImpl(SegmentInputStream input, Segment segment,
+            Serializer<T> deserializer, long startingOffset, long endingOffset) {
         this.segment = segment;
         this.deserializer = deserializer;
         this.startingOffset = startingOffset;
         this.endingOffset = endingOffset;
-        input = factory.createInputStreamForSegment(segment);
-        input.setOffset(startingOffset);        
+        this.input = input;
+        input.setOffset(startingOffset);
     }
 
     @Override
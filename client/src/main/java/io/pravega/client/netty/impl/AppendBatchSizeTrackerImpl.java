@@ -9,38 +9,74 @@
  */
 package io.pravega.client.netty.impl;
 
+import com.google.common.annotations.VisibleForTesting;
 import io.pravega.common.ExponentialMovingAverage;
 import io.pravega.common.MathHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
+import io.pravega.shared.protocol.netty.WireCommands;
 
+import java.util.ArrayDeque;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * See {@link AppendBatchSizeTracker}.
- * 
- * This implementation tracks three things:
+ *
+ * This implementation tracks four things:
  * 1. The time between appends
  * 2. The size of each append
  * 3. The number of unackedAppends there are outstanding
- * 
+ * 4. The time between writing an append out to the connection and receiving its acknowledgement
+ *
  * If the number of unacked appends is <= 1 batching is disabled. This improves latency for low volume and synchronus writers.
- * Otherwise the batch size is set to the amount of data that will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+ * Otherwise the batch is held open for about as long as it takes the server to acknowledge an append (but no less than
+ * {@link #MIN_TARGET_BATCH_TIME_MILLIS}): while the previous batch is in flight, lingering costs little latency, and the
+ * slower the server responds, the larger the batches need to be to keep up. The linger time is bounded by the configured
+ * maximum linger time, and by the writer's latency budget (the target append latency): lingering plus the expected
+ * acknowledgement latency never exceeds it, so once the server alone takes up the whole budget, batching is disabled.
+ * The batch size is set to the amount of data that will be written during the linger time, capped at the configured
+ * maximum batch size. If fewer than two events are expected during that time (low volume writers), batching is disabled
+ * since lingering would only add latency.
+ *
+ * The acknowledgement latency is measured from the time the append was written out to the connection (that is, after
+ * its batch was closed), so that it does not include the time spent lingering.
  */
 class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
-    private static final int MAX_BATCH_TIME_MILLIS = 100;
-    private static final int TARGET_BATCH_TIME_MILLIS = 10;
-    private static final int MAX_BATCH_SIZE = 32 * 1024;
+    static final int DEFAULT_MAX_BATCH_TIME_MILLIS = 100;
+    static final int DEFAULT_MAX_BATCH_SIZE = 32 * 1024;
+    static final int DEFAULT_TARGET_LATENCY_MILLIS = 20;
+    static final int MIN_TARGET_BATCH_TIME_MILLIS = 10;
+    private static final int MIN_EVENTS_PER_BATCH = 2;
+    private static final int MAX_PENDING_ACK_SAMPLES = 1000;
 
+    private final int maxBatchTimeMillis;
+    private final int maxBatchSize;
+    private final int targetLatencyMillis;
     private final Supplier<Long> clock;
     private final AtomicLong lastAppendNumber;
     private final AtomicLong lastAppendTime;
     private final AtomicLong lastAckNumber;
     private final ExponentialMovingAverage eventSize = new ExponentialMovingAverage(1024, 0.1, true);
     private final ExponentialMovingAverage millisBetweenAppends = new ExponentialMovingAverage(10, 0.1, false);
+    private final ExponentialMovingAverage ackLatencyMillis = new ExponentialMovingAverage(0, 0.1, false);
+    @GuardedBy("pendingAcks")
+    private final ArrayDeque<PendingAck> pendingAcks = new ArrayDeque<>();
 
     AppendBatchSizeTrackerImpl() {
-        clock = System::currentTimeMillis;
+        this(DEFAULT_MAX_BATCH_TIME_MILLIS, DEFAULT_MAX_BATCH_SIZE, DEFAULT_TARGET_LATENCY_MILLIS);
+    }
+
+    AppendBatchSizeTrackerImpl(int maxBatchTimeMillis, int maxBatchSize, int targetLatencyMillis) {
+        this(maxBatchTimeMillis, maxBatchSize, targetLatencyMillis, System::currentTimeMillis);
+    }
+
+    @VisibleForTesting
+    AppendBatchSizeTrackerImpl(int maxBatchTimeMillis, int maxBatchSize, int targetLatencyMillis, Supplier<Long> clock) {
+        this.maxBatchTimeMillis = maxBatchTimeMillis;
+        this.maxBatchSize = MathHelpers.minMax(maxBatchSize, 0, WireCommands.MAX_WIRECOMMAND_SIZE / 2);
+        this.targetLatencyMillis = Math.max(0, targetLatencyMillis);
+        this.clock = clock;
         lastAppendTime = new AtomicLong(clock.get());
         lastAckNumber = new AtomicLong(0);
         lastAppendNumber = new AtomicLong(0);
@@ -55,13 +91,39 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
         eventSize.addNewSample(size);
     }
 
+    @Override
+    public void recordFlush(long eventNumber) {
+        long now = clock.get();
+        synchronized (pendingAcks) {
+            PendingAck lastPending = pendingAcks.peekLast();
+            if (lastPending != null && lastPending.eventNumber >= eventNumber) {
+                // Event numbers went backwards (i.e., a new writer on this connection); the pending samples are useless.
+                pendingAcks.clear();
+            }
+            if (pendingAcks.size() < MAX_PENDING_ACK_SAMPLES) {
+                pendingAcks.addLast(new PendingAck(eventNumber, now));
+            }
+        }
+    }
+
     @Override
     public void recordAck(long eventNumber) {
         lastAckNumber.getAndSet(eventNumber);
+        long now = clock.get();
+        PendingAck newestAcked = null;
+        synchronized (pendingAcks) {
+            while (!pendingAcks.isEmpty() && pendingAcks.peekFirst().eventNumber <= eventNumber) {
+                newestAcked = pendingAcks.pollFirst();
+            }
+        }
+        if (newestAcked != null) {
+            ackLatencyMillis.addNewSample(Math.max(0, now - newestAcked.flushTime));
+        }
     }
 
     /**
-     * Returns a block size that in an estimate of how much data will be written in the next {@link #TARGET_BATCH_TIME_MILLIS}
+     * Returns a block size that in an estimate of how much data will be written in the next {@link #getBatchTimeout()}
+     * milliseconds.
      */
     @Override
     public int getAppendBlockSize() {
@@ -69,12 +131,52 @@ class AppendBatchSizeTrackerImpl implements AppendBatchSizeTracker {
         if (numInflight <= 1) {
             return 0;
         }
-        return (int) MathHelpers.minMax((long) (TARGET_BATCH_TIME_MILLIS / millisBetweenAppends.getCurrentValue()
-                * eventSize.getCurrentValue()), 0, MAX_BATCH_SIZE);
+        double expectedEvents = getBatchTimeMillis() / Math.max(millisBetweenAppends.getCurrentValue(), Double.MIN_NORMAL);
+        if (expectedEvents < MIN_EVENTS_PER_BATCH) {
+            return 0;
+        }
+        return (int) MathHelpers.minMax((long) (expectedEvents * eventSize.getCurrentValue()), 0, maxBatchSize);
     }
 
+    /**
+     * Returns the time to hold a batch open for: the time it takes the server to acknowledge an append, but no less than
+     * {@link #MIN_TARGET_BATCH_TIME_MILLIS}, no more than the configured maximum linger time and no more than what is
+     * left of the target latency once the acknowledgement latency is accounted for.
+     */
     @Override
     public int getBatchTimeout() {
-        return MAX_BATCH_TIME_MILLIS;
+        return getBatchTimeMillis();
+    }
+
+    private int getBatchTimeMillis() {
+        long ackLatency = Math.round(ackLatencyMillis.getCurrentValue());
+        long remainingBudget = targetLatencyMillis - ackLatency;
+        long linger = Math.min(Math.max(ackLatency, MIN_TARGET_BATCH_TIME_MILLIS), remainingBudget);
+        return (int) MathHelpers.minMax(linger, 0, maxBatchTimeMillis);
+    }
+
+    /**
+     * Gets the moving average of the time, in milliseconds, between writing an append out and receiving its acknowledgement.
+     */
+    @VisibleForTesting
+    double getAckLatencyMillis() {
+        return ackLatencyMillis.getCurrentValue();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AckLatency = %.1fms, MillisBetweenAppends = %.2f, EventSize = %.0f, BatchTimeout = %dms, "
+                + "BlockSize = %d", getAckLatencyMillis(), millisBetweenAppends.getCurrentValue(), eventSize.getCurrentValue(),
+                getBatchTimeout(), getAppendBlockSize());
+    }
+
+    private static final class PendingAck {
+        private final long eventNumber;
+        private final long flushTime;
+
+        private PendingAck(long eventNumber, long flushTime) {
+            this.eventNumber = eventNumber;
+            this.flushTime = flushTime;
+        }
     }
 }
@@ -23,6 +23,7 @@ import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.ReusableFutureLatch;
 import io.pravega.shared.protocol.netty.Append;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
+import io.pravega.shared.protocol.netty.CommandEncoder;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.Reply;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
@@ -93,6 +94,12 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
         log.debug(connectionName + " processing reply: {}", cmd);
         if (cmd instanceof WireCommands.DataAppended) {
             batchSizeTracker.recordAck(((WireCommands.DataAppended) cmd).getEventNumber());
+        } else if (cmd instanceof WireCommands.Hello) {
+            // The encoder must not send anything the server does not understand (i.e. compressed events).
+            CommandEncoder encoder = ctx.pipeline().get(CommandEncoder.class);
+            if (encoder != null) {
+                encoder.setPeerVersion(((WireCommands.Hello) cmd).getHighVersion());
+            }
         }
         try {
             cmd.process(processor);
@@ -189,6 +196,8 @@ public class ClientConnectionInboundHandler extends ChannelInboundHandlerAdapter
             try {
                 if (!recentMessage.getAndSet(false)) {
                     send(new WireCommands.KeepAlive());
+                } else {
+                    log.debug("{} append batching: {}", connectionName, batchSizeTracker);
                 }
             } catch (Exception e) {
                 log.warn("Keep alive failed, killing connection {} due to {} ", connectionName, e.getMessage());
@@ -12,6 +12,7 @@ package io.pravega.client.netty.impl;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
 
@@ -30,6 +31,18 @@ public interface ConnectionFactory extends AutoCloseable {
      */
     CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp);
 
+    /**
+     * Establishes a connection that will be used to append events, batching and compressing them as specified by
+     * the writer's configuration.
+     *
+     * @param endpoint The Pravega Node URI.
+     * @param rp       Reply Processor instance.
+     * @param config   The configuration of the writer that will append on the connection.
+     * @return An instance of client connection.
+     */
+    CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri endpoint, ReplyProcessor rp,
+                                                            EventWriterConfig config);
+
     /**
      * Get the internal executor which is used by the client.
      * @return A ScheduledExecutorService.
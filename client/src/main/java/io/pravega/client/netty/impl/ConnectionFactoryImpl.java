@@ -31,11 +31,13 @@ import io.netty.handler.ssl.SslContext;
 import io.netty.handler.ssl.SslContextBuilder;
 import io.netty.handler.ssl.util.FingerprintTrustManagerFactory;
 import io.netty.util.concurrent.GlobalEventExecutor;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
 import io.pravega.shared.protocol.netty.CommandDecoder;
 import io.pravega.shared.protocol.netty.CommandEncoder;
+import io.pravega.shared.protocol.netty.CompressionCodec;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.ExceptionLoggingHandler;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
@@ -80,6 +82,21 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
 
     @Override
     public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp) {
+        return establishConnection(location, rp, new AppendBatchSizeTrackerImpl(), CompressionCodec.NONE);
+    }
+
+    @Override
+    public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp,
+                                                                   EventWriterConfig config) {
+        AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTrackerImpl(config.getMaxBatchLingerMillis(),
+                                                                                 config.getMaxBatchSizeBytes(),
+                                                                                 config.getTargetAppendLatencyMillis());
+        return establishConnection(location, rp, batchSizeTracker, config.getCompressionCodec());
+    }
+
+    private CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp,
+                                                                    AppendBatchSizeTracker batchSizeTracker,
+                                                                    CompressionCodec compressionCodec) {
         Preconditions.checkNotNull(location);
         Exceptions.checkNotClosed(closed.get(), this);
         final SslContext sslCtx;
@@ -95,7 +112,6 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
         } else {
             sslCtx = null;
         }
-        AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTrackerImpl();
         ClientConnectionInboundHandler handler = new ClientConnectionInboundHandler(location.getEndpoint(), rp, batchSizeTracker);
         Bootstrap b = new Bootstrap();
         b.group(group)
@@ -110,7 +126,7 @@ public final class ConnectionFactoryImpl implements ConnectionFactory {
                  }
                  // p.addLast(new LoggingHandler(LogLevel.INFO));
                  p.addLast(new ExceptionLoggingHandler(location.getEndpoint()),
-                         new CommandEncoder(batchSizeTracker),
+                         new CommandEncoder(batchSizeTracker, compressionCodec),
                          new LengthFieldBasedFrameDecoder(WireCommands.MAX_WIRECOMMAND_SIZE, 4, 4),
                          new CommandDecoder(),
                          handler);
@@ -13,6 +13,8 @@ import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.util.CircularBuffer;
+import io.pravega.shared.protocol.netty.CompressionCodec;
+import io.pravega.shared.protocol.netty.EventCompressor;
 import io.pravega.shared.protocol.netty.InvalidMessageException;
 import io.pravega.shared.protocol.netty.WireCommandType;
 import io.pravega.shared.protocol.netty.WireCommands;
@@ -52,6 +54,8 @@ class SegmentInputStreamImpl implements SegmentInputStream {
     private boolean receivedTruncated = false;
     @GuardedBy("$lock")
     private CompletableFuture<SegmentRead> outstandingRequest = null;
+    @GuardedBy("$lock")
+    private final EventCompressor decompressor = new EventCompressor(CompressionCodec.NONE);
 
     SegmentInputStreamImpl(AsyncSegmentInputStream asyncInput, long offset) {
         this(asyncInput, offset, DEFAULT_BUFFER_SIZE);
@@ -146,7 +150,8 @@ class SegmentInputStreamImpl implements SegmentInputStream {
         headerReadingBuffer.flip();
         int type = headerReadingBuffer.getInt();
         int length = headerReadingBuffer.getInt();
-        if (type != WireCommandType.EVENT.getCode()) {
+        boolean compressed = type == WireCommandType.COMPRESSED_EVENT.getCode();
+        if (type != WireCommandType.EVENT.getCode() && !compressed) {
             throw new InvalidMessageException("Event was of wrong type: " + type);
         }
         if (length < 0 || length > WireCommands.MAX_WIRECOMMAND_SIZE) {
@@ -160,7 +165,7 @@ class SegmentInputStreamImpl implements SegmentInputStream {
             offset += buffer.read(result);
         }
         result.flip();
-        return result;
+        return compressed ? decompressor.decompress(result) : result;
     }
 
     private boolean dataWaitingToGoInBuffer() {
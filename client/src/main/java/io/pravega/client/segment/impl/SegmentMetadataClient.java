@@ -10,6 +10,7 @@
 package io.pravega.client.segment.impl;
 
 import io.pravega.client.batch.SegmentInfo;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * A client for looking at and editing the metadata related to a specific segment.
@@ -30,6 +31,15 @@ public interface SegmentMetadataClient extends AutoCloseable {
      */
     abstract long fetchCurrentSegmentLength();
 
+    /**
+     * Returns the length of the current segment without blocking. i.e. the total length of all data written to the
+     * segment.
+     *
+     * @return A future for the length of the current segment. It fails with {@link NoSuchSegmentException} if the
+     *         segment does not exist.
+     */
+    abstract CompletableFuture<Long> fetchCurrentSegmentLengthAsync();
+
     /**
      * Gets the current value of the provided attribute.
      * @param attribute The attribute to get the value of.
@@ -37,6 +47,18 @@ public interface SegmentMetadataClient extends AutoCloseable {
      */
     abstract long fetchProperty(SegmentAttribute attribute);
 
+    /**
+     * Looks up, in the segment's time index, the offset from which to read in order to get all the data that was
+     * appended to the segment at or after the given time. The index has a granularity of
+     * {@link io.pravega.shared.segment.SegmentTimeIndex#GRANULARITY}, so this may include some data that was appended
+     * shortly before the given time.
+     *
+     * @param timestamp The time, in milliseconds since the epoch, as observed by the segment store.
+     * @return The offset, or {@link SegmentAttribute#NULL_VALUE} if the segment has no index entry at or before the
+     *         given time (in which case it should be read from its start).
+     */
+    abstract long fetchOffsetAtTime(long timestamp);
+
     /**
      * Atomically replaces the value of attribute with newValue if it is expectedValue.
      * 
@@ -27,6 +27,7 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentAttributeUpdated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentIsTruncated;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentTruncated;
 import io.pravega.shared.protocol.netty.WireCommands.StreamSegmentInfo;
+import io.pravega.shared.segment.SegmentTimeIndex;
 import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
@@ -275,11 +276,16 @@ class SegmentMetadataClientImpl implements SegmentMetadataClient {
     
     @Override
     public long fetchCurrentSegmentLength() {
+        return Futures.getThrowingException(fetchCurrentSegmentLengthAsync());
+    }
+
+    @Override
+    public CompletableFuture<Long> fetchCurrentSegmentLengthAsync() {
         Exceptions.checkNotClosed(closed.get(), this);
         val future = RETRY_SCHEDULE.retryingOn(ConnectionFailedException.class)
                                    .throwingOn(NoSuchSegmentException.class)
                                    .runAsync(() -> getStreamSegmentInfo(), connectionFactory.getInternalExecutor());
-        return Futures.getThrowingException(future).getWriteOffset();
+        return future.thenApply(StreamSegmentInfo::getWriteOffset);
     }
 
     @Override
@@ -292,6 +298,16 @@ class SegmentMetadataClientImpl implements SegmentMetadataClient {
         return Futures.getThrowingException(future).getValue();
     }
 
+    @Override
+    public long fetchOffsetAtTime(long timestamp) {
+        Exceptions.checkNotClosed(closed.get(), this);
+        val future = RETRY_SCHEDULE.retryingOn(ConnectionFailedException.class)
+                                   .throwingOn(NoSuchSegmentException.class)
+                                   .runAsync(() -> getPropertyAsync(SegmentTimeIndex.getAttributeId(timestamp)),
+                                             connectionFactory.getInternalExecutor());
+        return Futures.getThrowingException(future).getValue();
+    }
+
     @Override
     public boolean compareAndSetAttribute(SegmentAttribute attribute, long expectedValue, long newValue) {
         Exceptions.checkNotClosed(closed.get(), this);
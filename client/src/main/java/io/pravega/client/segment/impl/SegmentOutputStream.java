@@ -33,6 +33,9 @@ public interface SegmentOutputStream extends AutoCloseable {
      * 
      * The associated callback will be invoked when the operation is complete.
      * 
+     * This may be invoked concurrently from multiple threads. Events are appended in the order in which the calls
+     * to write are serialized by the implementation.
+     * 
      * @param event The event to be added to the segment.
      */
     public abstract void write(PendingEvent event);
@@ -34,13 +34,13 @@ public class SegmentOutputStreamFactoryImpl implements SegmentOutputStreamFactor
     public SegmentOutputStream createOutputStreamForTransaction(Segment segment, UUID txId, Consumer<Segment> segmentSealedCallback,
                                                                 EventWriterConfig config) {
         return new SegmentOutputStreamImpl(StreamSegmentNameUtils.getTransactionNameFromId(segment.getScopedName(), txId), controller, cf,
-                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config));
+                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), config);
     }
 
     @Override
     public SegmentOutputStream createOutputStreamForSegment(Segment segment, Consumer<Segment> segmentSealedCallback, EventWriterConfig config) {
         SegmentOutputStreamImpl result = new SegmentOutputStreamImpl(segment.getScopedName(), controller, cf,
-                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config));
+                UUID.randomUUID(), segmentSealedCallback, getRetryFromConfig(config), config);
         try {
             result.getConnection();
         } catch (RetriesExhaustedException | SegmentSealedException e) {
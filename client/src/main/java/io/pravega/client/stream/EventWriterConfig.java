@@ -9,6 +9,9 @@
  */
 package io.pravega.client.stream;
 
+import com.google.common.base.Preconditions;
+import io.pravega.shared.protocol.netty.CompressionCodec;
+import io.pravega.shared.protocol.netty.WireCommands;
 import java.io.Serializable;
 
 import lombok.Builder;
@@ -31,6 +34,29 @@ public class EventWriterConfig implements Serializable {
      * The maximum amount of time, in milliseconds after a scale operation has been initiated before a transaction is timed out. 
      */
     private final long transactionTimeoutScaleGracePeriod;
+    /**
+     * The maximum amount of time, in milliseconds, that events may be held by the writer in order to be batched with
+     * subsequent events before being sent.
+     */
+    private final int maxBatchLingerMillis;
+    /**
+     * The maximum size, in bytes, of a batch of events sent to the server. Smaller values reduce latency, larger
+     * values increase throughput.
+     */
+    private final int maxBatchSizeBytes;
+    /**
+     * The latency budget, in milliseconds, for appends. Time spent lingering to batch events together plus the expected
+     * time for the server to acknowledge them is kept within this budget; once the server alone takes up the whole
+     * budget, events are no longer batched. Smaller values reduce latency, larger values increase throughput.
+     */
+    private final int targetAppendLatencyMillis;
+    /**
+     * The codec used to compress events before they are sent. Events are stored compressed and are transparently
+     * decompressed by readers. Events are only compressed when the segment store supports it, but readers older than
+     * wire version {@link WireCommands#COMPRESSED_EVENT_VERSION} cannot read them, so this should only be enabled once
+     * all readers of the stream have been upgraded.
+     */
+    private final CompressionCodec compressionCodec;
     
     public static final class EventWriterConfigBuilder {
         private int initalBackoffMillis = 1;
@@ -39,6 +65,21 @@ public class EventWriterConfig implements Serializable {
         private int backoffMultiple = 10;
         private long transactionTimeoutTime = 60 * 60 * 1000;
         private long transactionTimeoutScaleGracePeriod = -1;
+        private int maxBatchLingerMillis = 100;
+        private int maxBatchSizeBytes = 32 * 1024;
+        private int targetAppendLatencyMillis = 20;
+        private CompressionCodec compressionCodec = CompressionCodec.NONE;
+
+        public EventWriterConfig build() {
+            Preconditions.checkArgument(maxBatchLingerMillis >= 0, "maxBatchLingerMillis must be non-negative");
+            Preconditions.checkArgument(maxBatchSizeBytes >= 0 && maxBatchSizeBytes <= WireCommands.MAX_WIRECOMMAND_SIZE / 2,
+                    "maxBatchSizeBytes must be between 0 and %s", WireCommands.MAX_WIRECOMMAND_SIZE / 2);
+            Preconditions.checkArgument(targetAppendLatencyMillis >= 0, "targetAppendLatencyMillis must be non-negative");
+            Preconditions.checkNotNull(compressionCodec, "compressionCodec");
+            return new EventWriterConfig(initalBackoffMillis, maxBackoffMillis, retryAttempts, backoffMultiple,
+                    transactionTimeoutTime, transactionTimeoutScaleGracePeriod, maxBatchLingerMillis, maxBatchSizeBytes,
+                    targetAppendLatencyMillis, compressionCodec);
+        }
     }
     
     
@@ -30,9 +30,11 @@ public class ReaderGroupConfig implements Serializable {
        private long automaticCheckpointIntervalMillis = 120000;
 
        /**
-         * Returns a config builder that started at a given time.
+         * Returns a config builder that started at a given time. Readers in the group start from the data that
+         * was written at (or shortly before) that time, as located by each segment's time index, rather than from
+         * the head of the stream.
          *
-         * @param time A time to create sequence at.
+         * @param time A time to create sequence at, in milliseconds since the epoch.
          * @return Reader group config builder.
          */
        public ReaderGroupConfigBuilder startingTime(long time) {
@@ -32,13 +32,14 @@ public class CheckpointState {
     @GuardedBy("$lock")
     private final Map<String, List<String>> uncheckpointedHosts = new HashMap<>();
     /**
-     *  Maps CheckpointId to positions in segments.
+     *  Maps CheckpointId to positions in segments. The positions are immutable, so they can be handed out without
+     *  copying them, and each reader that checkpoints replaces them with an updated copy.
      */
     @GuardedBy("$lock")
-    private final Map<String, Map<Segment, Long>> checkpointPositions = new HashMap<>();
+    private final Map<String, SegmentOffsetMap> checkpointPositions = new HashMap<>();
 
     @GuardedBy("$lock")
-    private Map<Segment, Long> lastCheckpointPosition;
+    private SegmentOffsetMap lastCheckpointPosition;
     
     @Synchronized
     void beginNewCheckpoint(String checkpointId, Set<String> currentReaders, Map<Segment, Long> knownPositions) {
@@ -46,7 +47,7 @@ public class CheckpointState {
             if (!currentReaders.isEmpty()) {
                 uncheckpointedHosts.put(checkpointId, new ArrayList<>(currentReaders));
             }
-            checkpointPositions.put(checkpointId, new HashMap<>(knownPositions));
+            checkpointPositions.put(checkpointId, SegmentOffsetMap.of(knownPositions));
             checkpoints.add(checkpointId);
         }
     }
@@ -83,12 +84,12 @@ public class CheckpointState {
         if (readers != null) {
             boolean removed = readers.remove(readerName);
             Preconditions.checkState(removed, "Reader already checkpointed.");
-            Map<Segment, Long> positions = checkpointPositions.get(checkpointId);
-            positions.putAll(position);
+            SegmentOffsetMap positions = checkpointPositions.get(checkpointId).withAll(position);
+            checkpointPositions.put(checkpointId, positions);
             if (readers.isEmpty()) {
                 uncheckpointedHosts.remove(checkpointId);
                 //checkpoint operation completed for all readers, update the last checkpoint position.
-                lastCheckpointPosition = checkpointPositions.get(checkpointId);
+                lastCheckpointPosition = positions;
             }
         }
     }
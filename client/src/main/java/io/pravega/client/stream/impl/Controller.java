@@ -17,6 +17,7 @@ import io.pravega.client.stream.Transaction;
 import io.pravega.client.stream.TxnFailedException;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
@@ -168,6 +169,19 @@ public interface Controller extends AutoCloseable {
      */
     CompletableFuture<Void> pingTransaction(final Stream stream, final UUID txId, final long lease);
 
+    /**
+     * API to send heartbeats for many transactions of the same stream in a single request, increasing the timeout of
+     * each of them by lease amount of milliseconds.
+     *
+     * @param stream     Stream name
+     * @param txIds      Transaction ids
+     * @param lease      Time for which transactions shall remain open with sending any heartbeat.
+     * @return           The ids of the transactions whose lease could not be renewed. Fails with
+     *                   UnsupportedOperationException if the controller does not support this request, in which case
+     *                   {@link #pingTransaction(Stream, UUID, long)} should be used instead.
+     */
+    CompletableFuture<Set<UUID>> pingTransactions(final Stream stream, final Collection<UUID> txIds, final long lease);
+
     /**
      * Commits a transaction, atomically committing all events to the stream, subject to the
      * ordering guarantees specified in {@link EventStreamWriter}. Will fail with
@@ -14,6 +14,7 @@ import com.google.common.base.Preconditions;
 
 import io.grpc.ManagedChannel;
 import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
 import io.grpc.StatusRuntimeException;
 import io.grpc.netty.NettyChannelBuilder;
 import io.grpc.stub.StreamObserver;
@@ -39,6 +40,8 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.GetSegmentsRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsRequest;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusRequest;
@@ -62,6 +65,7 @@ import lombok.val;
 import java.net.URI;
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.HashSet;
@@ -92,6 +96,9 @@ public class ControllerImpl implements Controller {
     // The internal retry object to handle RPC failures.
     private final Retry.RetryAndThrowExceptionally<StatusRuntimeException, Exception> retryConfig;
 
+    // The retry object for RPCs that older controllers may not implement; those fail right away.
+    private final Retry.RetryAndThrowConditionally<Exception> retryIfImplementedConfig;
+
     // The executor supplied by the appication to handle internal retries.
     private final ScheduledExecutorService executor;
 
@@ -141,6 +148,13 @@ public class ControllerImpl implements Controller {
                 config.getRetryAttempts(), config.getMaxBackoffMillis())
                 .retryingOn(StatusRuntimeException.class)
                 .throwingOn(Exception.class);
+        this.retryIfImplementedConfig = Retry.withExpBackoff(config.getInitialBackoffMillis(), config.getBackoffMultiple(),
+                config.getRetryAttempts(), config.getMaxBackoffMillis())
+                .retryWhen(e -> {
+                    Throwable cause = Exceptions.unwrap(e);
+                    return cause instanceof StatusRuntimeException && !isUnimplemented(cause);
+                })
+                .throwingOn(Exception.class);
 
         // Create Async RPC client.
         this.channel = channelBuilder.build();
@@ -778,6 +792,41 @@ public class ControllerImpl implements Controller {
                 });
     }
 
+    @Override
+    public CompletableFuture<Set<UUID>> pingTransactions(final Stream stream, final Collection<UUID> txIds, final long lease) {
+        Exceptions.checkNotClosed(closed.get(), this);
+        Preconditions.checkNotNull(stream, "stream");
+        Preconditions.checkNotNull(txIds, "txIds");
+        long traceId = LoggerHelpers.traceEnter(log, "pingTransactions", stream, txIds.size(), lease);
+
+        final CompletableFuture<PingTxnsResponse> result = this.retryIfImplementedConfig.runAsync(() -> {
+            RPCAsyncCallback<PingTxnsResponse> callback = new RPCAsyncCallback<>();
+            client.pingTransactions(PingTxnsRequest.newBuilder().setStreamInfo(
+                    ModelHelper.createStreamInfo(stream.getScope(), stream.getStreamName()))
+                            .addAllTxnId(txIds.stream().map(ModelHelper::decode).collect(Collectors.toList()))
+                            .setLease(lease).build(),
+                    callback);
+            return callback.getFuture();
+        }, this.executor);
+        return Futures.exceptionallyCompose(result, e -> {
+            if (isUnimplemented(Exceptions.unwrap(e))) {
+                return Futures.failedFuture(new UnsupportedOperationException("Controller does not support pingTransactions.", e));
+            }
+            return Futures.failedFuture(e);
+        }).thenApply(response -> {
+            Set<UUID> failed = new HashSet<>(txIds);
+            response.getEntriesList().stream()
+                    .filter(entry -> entry.getStatus().getStatus() == PingTxnStatus.Status.OK)
+                    .forEach(entry -> failed.remove(ModelHelper.encode(entry.getTxnId())));
+            return failed;
+        }).whenComplete((x, e) -> {
+            if (e != null) {
+                log.warn("pingTransactions failed: ", e);
+            }
+            LoggerHelpers.traceLeave(log, "pingTransactions", traceId);
+        });
+    }
+
     @Override
     public CompletableFuture<Void> commitTransaction(final Stream stream, final UUID txId) {
         Exceptions.checkNotClosed(closed.get(), this);
@@ -865,6 +914,12 @@ public class ControllerImpl implements Controller {
         }
     }
 
+    // Whether the controller rejected a request because it does not know about the RPC.
+    private static boolean isUnimplemented(Throwable e) {
+        return e instanceof StatusRuntimeException
+                && ((StatusRuntimeException) e).getStatus().getCode() == Status.Code.UNIMPLEMENTED;
+    }
+
     // Local callback definition to wrap gRPC responses in CompletableFutures used by the rest of our code.
     private static final class RPCAsyncCallback<T> implements StreamObserver<T> {
         private T result = null;
@@ -30,13 +30,16 @@ import io.pravega.client.stream.Serializer;
 import io.pravega.client.stream.TruncatedDataException;
 import io.pravega.common.Exceptions;
 import io.pravega.common.Timer;
-import io.pravega.shared.protocol.netty.WireCommands;
+import io.pravega.common.concurrent.Futures;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
@@ -62,6 +65,15 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     private Sequence lastRead;
     @GuardedBy("readers")
     private boolean atCheckpoint;
+    @GuardedBy("readers")
+    private final Map<Segment, SegmentMetadataClient> metadataClients = new HashMap<>();
+    @GuardedBy("readers")
+    private CompletableFuture<Void> backlogFetch = CompletableFuture.completedFuture(null);
+    /**
+     * Backlogs that have been fetched but not published yet.
+     */
+    private final AtomicReference<Map<Segment, Long>> fetchedBacklogs = new AtomicReference<>();
+    private volatile Map<Segment, Long> publishedBacklogs = null;
     private final ReaderGroupStateManager groupState;
     private final Supplier<Long> clock;
 
@@ -80,12 +92,14 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
 
     @Override
     public EventRead<Type> readNextEvent(long timeout) throws ReinitializationRequiredException, TruncatedDataException {
+        publishBacklogsIfNeeded();
         synchronized (readers) {
             Preconditions.checkState(!closed, "Reader is closed");
             long waitTime = Math.min(timeout, ReaderGroupStateManager.TIME_UNIT.toMillis());
             Timer timer = new Timer();
             Segment segment = null;
             long offset = -1;
+            long endOffset = -1;
             ByteBuffer buffer;
             do { 
                 String checkpoint = updateGroupStateIfNeeded();
@@ -101,6 +115,7 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
                     offset = segmentReader.getOffset();
                     try {
                         buffer = segmentReader.read(waitTime);
+                        endOffset = segmentReader.getOffset();
                     } catch (EndOfSegmentException e) {
                         handleEndOfSegment(segmentReader);
                         buffer = null;
@@ -115,7 +130,8 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
                return createEmptyEvent(null);
             } 
             lastRead = Sequence.create(segment.getSegmentNumber(), offset);
-            int length = buffer.remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
+            // The event may have been stored compressed, so its length in the segment is not the size of the buffer.
+            int length = (int) (endOffset - offset);
             return new EventReadImpl<>(lastRead,
                     deserializer.deserialize(buffer),
                     getPosition(),
@@ -170,19 +186,86 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
 
     @GuardedBy("readers")
     private void releaseSegmentsIfNeeded() throws ReinitializationRequiredException {
+        fetchBacklogsIfNeeded();
         Segment segment = groupState.findSegmentToReleaseIfRequired();
         if (segment != null) {
             log.info("{} releasing segment {}", this, segment);
             SegmentInputStream reader = readers.stream().filter(r -> r.getSegmentId().equals(segment)).findAny().orElse(null);
             if (reader != null) {
                 if (groupState.releaseSegment(segment, reader.getOffset(), getLag())) {
-                    readers.remove(reader);
-                    reader.close();
+                    removeReader(reader);
                 }
             }
         }
     }
 
+    /**
+     * Starts fetching how many bytes this reader is behind the tail of each of its segments, unless a fetch is already in
+     * progress. The lengths of all the segments are fetched in parallel; once they are all in, the backlogs are handed
+     * to {@link #publishBacklogsIfNeeded()}. Segments whose length cannot be fetched are left out.
+     */
+    @GuardedBy("readers")
+    private void fetchBacklogsIfNeeded() {
+        if (!backlogFetch.isDone()) {
+            return;
+        }
+        Map<Segment, CompletableFuture<Long>> backlogs = new HashMap<>();
+        for (SegmentInputStream reader : readers) {
+            Segment segmentId = reader.getSegmentId();
+            long offset = reader.getOffset();
+            SegmentMetadataClient metadataClient = getMetadataClient(segmentId);
+            backlogs.put(segmentId, metadataClient.fetchCurrentSegmentLengthAsync().handle((length, e) -> {
+                if (e != null) {
+                    log.debug("{} unable to fetch the length of segment {}", this, segmentId, e);
+                    return null;
+                }
+                return Math.max(0, length - offset);
+            }));
+        }
+        backlogFetch = Futures.allOf(backlogs.values()).thenRun(() -> {
+            Map<Segment, Long> result = new HashMap<>();
+            backlogs.forEach((segmentId, backlog) -> {
+                if (backlog.join() != null) {
+                    result.put(segmentId, backlog.join());
+                }
+            });
+            fetchedBacklogs.set(result);
+        });
+    }
+
+    /**
+     * Publishes the last backlogs fetched by {@link #fetchBacklogsIfNeeded()}, if they differ from the ones published
+     * before. This is called without holding the readers lock, and failures are only logged: the backlogs are merely
+     * a hint for balancing, and a reader that has been declared offline finds out when it next updates the group state.
+     */
+    private void publishBacklogsIfNeeded() {
+        Map<Segment, Long> backlogs = fetchedBacklogs.getAndSet(null);
+        if (backlogs == null || backlogs.equals(publishedBacklogs)) {
+            return;
+        }
+        try {
+            groupState.updateSegmentBacklogs(backlogs);
+            publishedBacklogs = backlogs;
+        } catch (ReinitializationRequiredException | RuntimeException e) {
+            log.warn("{} unable to publish segment backlogs", this, e);
+        }
+    }
+
+    @GuardedBy("readers")
+    private SegmentMetadataClient getMetadataClient(Segment segmentId) {
+        return metadataClients.computeIfAbsent(segmentId, metadataClientFactory::createSegmentMetadataClient);
+    }
+
+    @GuardedBy("readers")
+    private void removeReader(SegmentInputStream reader) {
+        readers.remove(reader);
+        reader.close();
+        SegmentMetadataClient metadataClient = metadataClients.remove(reader.getSegmentId());
+        if (metadataClient != null) {
+            metadataClient.close();
+        }
+    }
+
     @GuardedBy("readers")
     private void acquireSegmentsIfNeeded() throws ReinitializationRequiredException {
         Map<Segment, Long> newSegments = groupState.acquireNewSegmentsIfNeeded(getLag());
@@ -193,6 +276,9 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
                 in.setOffset(newSegment.getValue());
                 readers.add(in);
             }
+            // The backlogs of the new segments are not known to the group yet.
+            publishedBacklogs = null;
+            fetchBacklogsIfNeeded();
         }
     }
 
@@ -207,8 +293,7 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     private void handleEndOfSegment(SegmentInputStream oldSegment) throws ReinitializationRequiredException {
         try {
             log.info("{} encountered end of segment {} ", this, oldSegment.getSegmentId());
-            readers.remove(oldSegment);
-            oldSegment.close();
+            removeReader(oldSegment);
             groupState.handleEndOfSegment(oldSegment.getSegmentId());
         } catch (ReinitializationRequiredException e) {
             close();
@@ -219,10 +304,8 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
     private void handleSegmentTruncated(SegmentInputStream segmentReader) throws ReinitializationRequiredException, TruncatedDataException {
         Segment segmentId = segmentReader.getSegmentId();
         log.info("{} encountered truncation for segment {} ", this, segmentId);
-        @Cleanup
-        SegmentMetadataClient metadataClient = metadataClientFactory.createSegmentMetadataClient(segmentId);
         try {
-            long startingOffset = metadataClient.getSegmentInfo().getStartingOffset();
+            long startingOffset = getMetadataClient(segmentId).getSegmentInfo().getStartingOffset();
             segmentReader.setOffset(startingOffset);
         } catch (NoSuchSegmentException e) {
             handleEndOfSegment(segmentReader);
@@ -246,6 +329,10 @@ public class EventStreamReaderImpl<Type> implements EventStreamReader<Type> {
                     reader.close();
                 }
                 readers.clear();
+                for (SegmentMetadataClient metadataClient : metadataClients.values()) {
+                    metadataClient.close();
+                }
+                metadataClients.clear();
                 groupState.close();
             }
         }
@@ -32,7 +32,6 @@ import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.ReadWriteLock;
-import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.Consumer;
 import javax.annotation.concurrent.GuardedBy;
@@ -54,21 +53,18 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
     /**
      * This lock is used to enforce the following behaviour
      *
-     * a. When a Write is happening, segmentSealedCallback cannot be executed concurrently, this is used to handle
-     * missing event.
-     * b. When a Write is happening, a newer write cannot be executed concurrently.
-     * c. When a Write is happening, flush cannot be executed concurrently.
-     * d. When a Flush is being invoked, segmentSealedCallback can be executed concurrently.
-     * e. When a Flush is being invoked, write cannot be executed concurrently.
-     * f. When a Close is being invoked, write cannot be executed concurrently.
-     * g. When a Close is being invoked, Flush and segmentSealedCallback can be executed concurrently.
+     * a. Writes hold the read lock, so any number of application threads can write concurrently. Ordering of events
+     * within a segment is provided by its SegmentOutputStream.
+     * b. When a Write is happening, segmentSealedCallback cannot be executed concurrently, this is used to handle
+     * missing event. segmentSealedCallback holds the write lock, which also prevents two segmentSealedCallbacks (for
+     * different segments) from running simultaneously.
+     * c. Resending events after a missing writer is found is done under the write lock, so the resent events are
+     * always enqueued before any newer write for the same routing key.
+     * d. Flush and Close do not hold the lock while blocking on a SegmentOutputStream. They only take the read lock to
+     * obtain the set of writers, which guarantees that any in-progress segmentSealedCallback has finished resending.
+     * This allows Flush and Close to be invoked concurrently with writes and segmentSealedCallback.
      */
     private final ReadWriteLock writeFlushLock = new ReentrantReadWriteLock();
-    /*
-     * This lock is to ensure two segmentSealed Callbacks (for different segments) are not invoked simultaneously.
-     */
-    @GuardedBy("writeFlushLock")
-    private final ReentrantLock segmentSealedLock = new ReentrantLock();
     private final Stream stream;
     private final Serializer<Type> serializer;
     private final SegmentOutputStreamFactory outputStreamFactory;
@@ -116,17 +112,28 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
         Exceptions.checkNotClosed(closed.get(), this);
         ByteBuffer data = serializer.serialize(event);
         CompletableFuture<Boolean> ackFuture = new CompletableFuture<Boolean>();
-        writeFlushLock.writeLock().lock();
+        PendingEvent pendingEvent = new PendingEvent(routingKey, data, ackFuture);
+        writeFlushLock.readLock().lock();
         try {
             SegmentOutputStream segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
             while (segmentWriter == null) {
                 log.info("Don't have a writer for segment: {}", selector.getSegmentForEvent(routingKey));
-                handleMissingLog();
+                // The read lock cannot be upgraded, so release it and re-acquire it by downgrading the write lock.
+                writeFlushLock.readLock().unlock();
+                writeFlushLock.writeLock().lock();
+                try {
+                    if (selector.getSegmentOutputStreamForKey(routingKey) == null) {
+                        handleMissingLog();
+                    }
+                } finally {
+                    writeFlushLock.readLock().lock();
+                    writeFlushLock.writeLock().unlock();
+                }
                 segmentWriter = selector.getSegmentOutputStreamForKey(routingKey);
             }
-            segmentWriter.write(new PendingEvent(routingKey, data, ackFuture));
+            segmentWriter.write(pendingEvent);
         } finally {
-            writeFlushLock.writeLock().unlock();
+            writeFlushLock.readLock().unlock();
         }
 
         CompletableFuture<Void> result = new CompletableFuture<>();
@@ -158,19 +165,17 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
      */
     private void handleLogSealed(Segment segment) {
         retransmitPool.submit(() -> {
-            writeFlushLock.readLock().lock();
-            /* Using segmentSealedLock the following behaviour is enforced
+            /* Using the write lock the following behaviour is enforced
                - Prevent concurrent segmentSealedCallback for different segments from being invoked concurrently.
-               - Ensure waiting segmentSealedCallbacks are invoked before the next write is invoked.
+               - Ensure no write is in progress while the unacked events are collected and resent.
                This ensures that resend() would be invoked again if we observe a segment sealed exception.
              */
-            segmentSealedLock.lock();
+            writeFlushLock.writeLock().lock();
             try {
                 List<PendingEvent> toResend = selector.refreshSegmentEventWritersUponSealed(segment, segmentSealedCallBack);
                 resend(toResend);
             } finally {
-                segmentSealedLock.unlock();
-                writeFlushLock.readLock().unlock();
+                writeFlushLock.writeLock().unlock();
             }
         });
     }
@@ -342,21 +347,29 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
     }
     
     private void flushInternal() {
-        writeFlushLock.readLock().lock();
         boolean success = false;
-        try {
-            while (!success) {
-                success = true;
-                for (SegmentOutputStream writer : selector.getWriters()) {
-                    try {
-                        writer.flush();
-                    } catch (SegmentSealedException e) {
-                        // Segment sealed exception observed during a flush. Re-run flush on all the available writers.
-                        success = false;
-                        log.warn("Flush failed due to {}, it will be retried.", e.getMessage());
-                    }
+        while (!success) {
+            success = true;
+            for (SegmentOutputStream writer : getWriters()) {
+                try {
+                    writer.flush();
+                } catch (SegmentSealedException e) {
+                    // Segment sealed exception observed during a flush. Re-run flush on all the available writers.
+                    success = false;
+                    log.warn("Flush failed due to {}, it will be retried.", e.getMessage());
                 }
             }
+        }
+    }
+
+    /**
+     * Gets the current writers. Acquiring the read lock ensures that any segmentSealedCallback that is in progress has
+     * completed resending its events, so that they are included in a subsequent flush or close.
+     */
+    private List<SegmentOutputStream> getWriters() {
+        writeFlushLock.readLock().lock();
+        try {
+            return selector.getWriters();
         } finally {
             writeFlushLock.readLock().unlock();
         }
@@ -368,23 +381,18 @@ public class EventStreamWriterImpl<Type> implements EventStreamWriter<Type> {
             return;
         }
         pinger.close();
-        writeFlushLock.readLock().lock();
-        try {
-            boolean success = false;
-            while (!success) {
-                success = true;
-                for (SegmentOutputStream writer : selector.getWriters()) {
-                    try {
-                        writer.close();
-                    } catch (SegmentSealedException e) {
-                        // Segment sealed exception observed during a close. Re-run close on all the available writers.
-                        success = false;
-                        log.warn("Close failed due to {}, it will be retried.", e.getMessage());
-                    }
+        boolean success = false;
+        while (!success) {
+            success = true;
+            for (SegmentOutputStream writer : getWriters()) {
+                try {
+                    writer.close();
+                } catch (SegmentSealedException e) {
+                    // Segment sealed exception observed during a close. Re-run close on all the available writers.
+                    success = false;
+                    log.warn("Close failed due to {}, it will be retried.", e.getMessage());
                 }
             }
-        } finally {
-            writeFlushLock.readLock().unlock();
         }
         retransmitPool.shutdown();
     }
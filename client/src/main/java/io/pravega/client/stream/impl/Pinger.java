@@ -12,29 +12,25 @@ package io.pravega.client.stream.impl;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
-import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 import com.google.common.annotations.VisibleForTesting;
 import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.Stream;
+import io.pravega.common.Exceptions;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
-import io.pravega.common.concurrent.Futures;
 import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 
-import static io.pravega.common.concurrent.Futures.getException;
-
 /**
  * Pinger is used to send pings to renew the transaction lease for active transactions.
- * It invokes io.pravega.client.stream.impl.Controller#pingTransaction() on the controller to renew the lease of active
+ * It invokes io.pravega.client.stream.impl.Controller#pingTransactions() on the controller to renew the lease of active
  * transactions. Incase of a controller instance not being reachable the controller client takes care of retrying on a
  * different controller instance see io.pravega.client.stream.impl.ControllerResolverFactory for details.
+ * If the controller does not support pinging many transactions at once, each of them is pinged with
+ * io.pravega.client.stream.impl.Controller#pingTransaction() from then on.
  */
 @Slf4j
 public class Pinger implements AutoCloseable {
@@ -48,6 +44,7 @@ public class Pinger implements AutoCloseable {
             "pingTxnThread");
     private final List<UUID> txnList = Collections.synchronizedList(new ArrayList<>());
     private final AtomicBoolean isStarted = new AtomicBoolean();
+    private final AtomicBoolean bulkPingUnsupported = new AtomicBoolean();
 
     Pinger(EventWriterConfig config, Stream stream, Controller controller) {
         this.txnLeaseMillis = config.getTransactionTimeoutTime();
@@ -91,27 +88,51 @@ public class Pinger implements AutoCloseable {
     }
 
     /*
-     *  Ping all the transactions present in the list. Controller client performs retries in case of a failures. On a
-     *  failure the particular transaction it is removed from the ping list.
+     *  Ping all the transactions present in the list with a single request, or one request per transaction if the
+     *  controller does not support the former. Controller client performs retries in case of a failures.
      */
     private void pingTransactions() {
-        log.info("Start sending transaction pings.");
-        Map<UUID, CompletableFuture<Void>> pingResult =
-                txnList.stream().collect(Collectors.toMap(Function.identity(),
-                        uuid -> {
-                            log.debug("Sending ping request for txn ID: {} with lease: {}", uuid, txnLeaseMillis);
-                            return controller.pingTransaction(stream, uuid, txnLeaseMillis);
-                        }));
-        Futures.allOf(pingResult.values())
-               .whenComplete((v, ex) -> pingResult.entrySet().stream()
-                                                  .filter(e -> !Futures.isSuccessful(e.getValue()))
-                                                  .forEach(e -> {
-                                                      log.warn("Ping Transaction for txn ID:{} failed", e.getKey(),
-                                                              getException(e.getValue()));
-                                                  }));
+        final List<UUID> txns;
+        synchronized (txnList) {
+            txns = new ArrayList<>(txnList);
+        }
+        if (txns.isEmpty()) {
+            return;
+        }
+
+        log.info("Start sending transaction pings for {} transactions.", txns.size());
+        if (bulkPingUnsupported.get()) {
+            pingEachTransaction(txns);
+        } else {
+            controller.pingTransactions(stream, txns, txnLeaseMillis)
+                      .whenComplete((failed, ex) -> {
+                          if (ex == null) {
+                              failed.forEach(txnId -> log.warn("Ping Transaction for txn ID:{} failed", txnId));
+                          } else if (Exceptions.unwrap(ex) instanceof UnsupportedOperationException) {
+                              if (!bulkPingUnsupported.getAndSet(true)) {
+                                  log.info("Controller does not support pinging many transactions at once; pinging them one by one.");
+                              }
+                              pingEachTransaction(txns);
+                          } else {
+                              log.warn("Ping Transactions for {} transactions failed", txns.size(), ex);
+                          }
+                      });
+        }
         log.trace("Completed sending transaction pings.");
     }
 
+    private void pingEachTransaction(List<UUID> txns) {
+        txns.forEach(uuid -> {
+            log.debug("Sending ping request for txn ID: {} with lease: {}", uuid, txnLeaseMillis);
+            controller.pingTransaction(stream, uuid, txnLeaseMillis)
+                      .whenComplete((v, ex) -> {
+                          if (ex != null) {
+                              log.warn("Ping Transaction for txn ID:{} failed", uuid, ex);
+                          }
+                      });
+        });
+    }
+
     @Override
     public void close() {
         log.info("Closing Pinger periodic task");
@@ -14,6 +14,7 @@ import com.google.common.annotations.VisibleForTesting;
 import io.pravega.client.ClientFactory;
 import io.pravega.client.netty.impl.ConnectionFactory;
 import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.segment.impl.SegmentAttribute;
 import io.pravega.client.segment.impl.SegmentMetadataClient;
 import io.pravega.client.segment.impl.SegmentMetadataClientFactory;
 import io.pravega.client.segment.impl.SegmentMetadataClientFactoryImpl;
@@ -84,20 +85,39 @@ public class ReaderGroupImpl implements ReaderGroup, ReaderGroupMetrics {
     public void initializeGroup(ReaderGroupConfig config, Set<String> streams) {
         @Cleanup
         StateSynchronizer<ReaderGroupState> synchronizer = createSynchronizer();
-        Map<Segment, Long> segments = getSegmentsForStreams(streams);
+        Map<Segment, Long> segments = getSegmentsForStreams(config, streams);
         ReaderGroupStateManager.initializeReaderGroup(synchronizer, config, segments);
     }
     
-    private Map<Segment, Long> getSegmentsForStreams(Set<String> streams) {
+    private Map<Segment, Long> getSegmentsForStreams(ReaderGroupConfig config, Set<String> streams) {
+        long startingTime = config.getStartingPosition() == null ? 0L : config.getStartingPosition().getHighOrder();
         List<CompletableFuture<Map<Segment, Long>>> futures = new ArrayList<>(streams.size());
         for (String stream : streams) {
-            futures.add(controller.getSegmentsAtTime(new StreamImpl(scope, stream), 0L));
+            futures.add(controller.getSegmentsAtTime(new StreamImpl(scope, stream), startingTime));
         }
-        return getAndHandleExceptions(allOfWithResults(futures).thenApply(listOfMaps -> {
+        Map<Segment, Long> segments = getAndHandleExceptions(allOfWithResults(futures).thenApply(listOfMaps -> {
             return listOfMaps.stream()
                              .flatMap(map -> map.entrySet().stream())
                              .collect(Collectors.toMap(e -> e.getKey(), e -> e.getValue()));
         }), InvalidStreamException::new);
+        return startingTime > 0 ? getOffsetsAtTime(segments, startingTime) : segments;
+    }
+
+    /**
+     * Moves the given starting offsets forward to where each segment's time index says data from the given time starts,
+     * so readers do not have to read (and discard) everything that was written before then.
+     */
+    private Map<Segment, Long> getOffsetsAtTime(Map<Segment, Long> segments, long timestamp) {
+        SegmentMetadataClientFactory metaFactory = new SegmentMetadataClientFactoryImpl(controller, connectionFactory);
+        Map<Segment, Long> result = new HashMap<>(segments.size());
+        for (Entry<Segment, Long> segment : segments.entrySet()) {
+            @Cleanup
+            SegmentMetadataClient metadataClient = metaFactory.createSegmentMetadataClient(segment.getKey());
+            long offset = metadataClient.fetchOffsetAtTime(timestamp);
+            result.put(segment.getKey(), offset == SegmentAttribute.NULL_VALUE ? segment.getValue() : Math.max(offset, segment.getValue()));
+        }
+        log.debug("Starting offsets at time {} are {}", timestamp, result);
+        return result;
     }
 
     @Override
@@ -177,7 +197,7 @@ public class ReaderGroupImpl implements ReaderGroup, ReaderGroupMetrics {
     public void updateConfig(ReaderGroupConfig config, Set<String> streamNames) {
         @Cleanup
         StateSynchronizer<ReaderGroupState> synchronizer = createSynchronizer();
-        Map<Segment, Long> segments = getSegmentsForStreams(streamNames);
+        Map<Segment, Long> segments = getSegmentsForStreams(config, streamNames);
         synchronizer.updateStateUnconditionally(new ReaderGroupStateInit(config, segments));
     }
 
@@ -22,6 +22,7 @@ import io.pravega.common.Exceptions;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
@@ -40,6 +41,10 @@ import lombok.val;
 /**
  * This class encapsulates the state machine of a reader group. The class represents the full state, and each
  * of the nested classes are state transitions that can occur.
+ * <p>
+ * The segments assigned to each reader are kept in an immutable {@link SegmentOffsetMap} per reader, which an update
+ * replaces only for the readers it affects. So updates do not touch (or copy) the assignments of other readers, and
+ * queries can hand out a reader's assignment without copying it.
  */
 public class ReaderGroupState implements Revisioned {
 
@@ -56,9 +61,11 @@ public class ReaderGroupState implements Revisioned {
     @GuardedBy("$lock")
     private final Map<String, Long> distanceToTail = new HashMap<>();
     @GuardedBy("$lock")
+    private final Map<Segment, Long> segmentBacklogs = new HashMap<>();
+    @GuardedBy("$lock")
     private final Map<Segment, Set<Integer>> futureSegments = new HashMap<>();
     @GuardedBy("$lock")
-    private final Map<String, Map<Segment, Long>> assignedSegments = new HashMap<>();
+    private final Map<String, SegmentOffsetMap> assignedSegments = new HashMap<>();
     @GuardedBy("$lock")
     private final Map<Segment, Long> unassignedSegments;
 
@@ -87,7 +94,7 @@ public class ReaderGroupState implements Revisioned {
                 maxDistance = Math.max(Math.max(ASSUMED_LAG_MILLIS, entry.getValue()), maxDistance);
             }
         }
-        for (Entry<String, Map<Segment, Long>> entry : assignedSegments.entrySet()) {
+        for (Entry<String, SegmentOffsetMap> entry : assignedSegments.entrySet()) {
             if (entry.getValue().isEmpty()) {
                 result.put(entry.getKey(), 0.0);
             } else {
@@ -98,6 +105,51 @@ public class ReaderGroupState implements Revisioned {
         return result;
     }
     
+    /**
+     * @return A map from Reader to the number of bytes it is behind the tail of its segments, as last reported by the
+     *         readers. Readers that have segments for which no backlog has been reported are omitted. Readers
+     *         that have no segments have nothing to process, so their backlog is known to be 0.
+     */
+    @Synchronized
+    Map<String, Long> getReaderBacklogs() {
+        Map<String, Long> result = new HashMap<>();
+        for (Entry<String, SegmentOffsetMap> entry : assignedSegments.entrySet()) {
+            long total = 0;
+            boolean known = true;
+            for (Segment segment : entry.getValue().keySet()) {
+                Long backlog = segmentBacklogs.get(segment);
+                if (backlog == null) {
+                    known = false;
+                    break;
+                }
+                total += backlog;
+            }
+            if (known) {
+                result.put(entry.getKey(), total);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return A map from each of the segments assigned to the requested reader to the number of bytes it is behind the
+     *         tail of that segment, as last reported. Segments for which no backlog has been reported are omitted.
+     */
+    @Synchronized
+    Map<Segment, Long> getSegmentBacklogs(String reader) {
+        Map<Segment, Long> result = new HashMap<>();
+        SegmentOffsetMap segments = assignedSegments.get(reader);
+        if (segments != null) {
+            for (Segment segment : segments.keySet()) {
+                Long backlog = segmentBacklogs.get(segment);
+                if (backlog != null) {
+                    result.put(segment, backlog);
+                }
+            }
+        }
+        return result;
+    }
+
     @Synchronized
     int getNumberOfReaders() {
         return assignedSegments.size();
@@ -134,15 +186,15 @@ public class ReaderGroupState implements Revisioned {
     }
     
     /**
-     * Returns the list of segments assigned to the requested reader, or null if this reader does not exist.
+     * Returns the (immutable) set of segments assigned to the requested reader, or null if this reader does not exist.
      */
     @Synchronized
     Set<Segment> getSegments(String reader) {
-        Map<Segment, Long> segments = assignedSegments.get(reader);
+        SegmentOffsetMap segments = assignedSegments.get(reader);
         if (segments == null) {
             return null;
         }
-        return new HashSet<>(segments.keySet());
+        return segments.keySet();
     }
     
     @Synchronized
@@ -151,7 +203,7 @@ public class ReaderGroupState implements Revisioned {
         for (Entry<Segment, Long> entry : unassignedSegments.entrySet()) {
             result.computeIfAbsent(entry.getKey().getStream(), s -> new HashMap<>()).put(entry.getKey(), entry.getValue());
         }
-        for (Map<Segment, Long> assigned : assignedSegments.values()) {
+        for (SegmentOffsetMap assigned : assignedSegments.values()) {
             for (Entry<Segment, Long> entry : assigned.entrySet()) {
                 result.computeIfAbsent(entry.getKey().getStream(), s -> new HashMap<>()).put(entry.getKey(), entry.getValue());
             }
@@ -169,6 +221,20 @@ public class ReaderGroupState implements Revisioned {
         return new HashMap<>(unassignedSegments);
     }
 
+    /**
+     * Returns up to the given number of unassigned segments, in the order they became unassigned, without copying all
+     * of them.
+     */
+    @Synchronized
+    Map<Segment, Long> getUnassignedSegments(int maxCount) {
+        Map<Segment, Long> result = new LinkedHashMap<>();
+        for (Iterator<Entry<Segment, Long>> iter = unassignedSegments.entrySet().iterator(); iter.hasNext() && result.size() < maxCount;) {
+            Entry<Segment, Long> entry = iter.next();
+            result.put(entry.getKey(), entry.getValue());
+        }
+        return result;
+    }
+
     @Synchronized
     boolean isReaderOnline(String reader) {
         return assignedSegments.get(reader) != null;
@@ -185,7 +251,7 @@ public class ReaderGroupState implements Revisioned {
     @Synchronized
     Set<String> getStreamNames() {
         Set<String> result = new HashSet<>();
-        for (Map<Segment, Long> segments : assignedSegments.values()) {
+        for (SegmentOffsetMap segments : assignedSegments.values()) {
             for (Segment segment : segments.keySet()) {
                 result.add(segment.getStreamName());
             }
@@ -306,7 +372,7 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            Map<Segment, Long> oldPos = state.assignedSegments.putIfAbsent(readerId, new HashMap<>());
+            Map<Segment, Long> oldPos = state.assignedSegments.putIfAbsent(readerId, SegmentOffsetMap.EMPTY);
             if (oldPos != null) {
                 throw new IllegalStateException("Attempted to add a reader that is already online: " + readerId);
             }
@@ -328,12 +394,10 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            Map<Segment, Long> assignedSegments = state.assignedSegments.remove(readerId);
+            SegmentOffsetMap assignedSegments = state.assignedSegments.remove(readerId);
             Map<Segment, Long> finalPositions = new HashMap<>();
             if (assignedSegments != null) {
-                val iter = assignedSegments.entrySet().iterator();
-                while (iter.hasNext()) {
-                    Entry<Segment, Long> entry = iter.next();
+                for (Entry<Segment, Long> entry : assignedSegments.entrySet()) {
                     Segment segment = entry.getKey();
                     Long offset;
                     if (lastPosition == null) {
@@ -345,7 +409,7 @@ public class ReaderGroupState implements Revisioned {
                     }
                     finalPositions.put(segment, offset);
                     state.unassignedSegments.put(segment, offset);
-                    iter.remove();
+                    state.segmentBacklogs.remove(segment);
                 }
             }
             state.distanceToTail.remove(readerId);
@@ -368,13 +432,15 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            Map<Segment, Long> assigned = state.assignedSegments.get(readerId);
+            SegmentOffsetMap assigned = state.assignedSegments.get(readerId);
             Preconditions.checkState(assigned != null, "%s is not part of the readerGroup", readerId);
-            if (assigned.remove(segment) == null) {
+            if (!assigned.containsKey(segment)) {
                 throw new IllegalStateException(
                         readerId + " asked to release a segment that was not assigned to it " + segment);
             }
+            state.assignedSegments.put(readerId, assigned.without(segment));
             state.unassignedSegments.put(segment, offset);
+            state.segmentBacklogs.remove(segment);
         }
     }
 
@@ -392,13 +458,13 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            Map<Segment, Long> assigned = state.assignedSegments.get(readerId);
+            SegmentOffsetMap assigned = state.assignedSegments.get(readerId);
             Preconditions.checkState(assigned != null, "%s is not part of the readerGroup", readerId);
             Long offset = state.unassignedSegments.remove(segment);
             if (offset == null) {
                 throw new IllegalStateException("Segment: " + segment + " is not unassigned. " + state);
             }
-            assigned.put(segment, offset);
+            state.assignedSegments.put(readerId, assigned.with(segment, offset));
         }
     }
     
@@ -419,6 +485,31 @@ public class ReaderGroupState implements Revisioned {
             state.distanceToTail.put(readerId, Math.max(ASSUMED_LAG_MILLIS, distanceToTail));
         }
     }
+
+    /**
+     * Update how many bytes this reader is behind the tail of each of its segments for load balancing purposes. The
+     * backlog of a segment is dropped when it is released, and is unknown until its new owner reports.
+     */
+    @RequiredArgsConstructor
+    static class UpdateSegmentBacklogs extends ReaderGroupStateUpdate {
+        private static final long serialVersionUID = 1L;
+        private final String readerId;
+        private final Map<Segment, Long> bytesBehindTail; //Immutable
+
+        /**
+         * @see ReaderGroupState.ReaderGroupStateUpdate#update(ReaderGroupState)
+         */
+        @Override
+        void update(ReaderGroupState state) {
+            SegmentOffsetMap assigned = state.assignedSegments.get(readerId);
+            Preconditions.checkState(assigned != null, "%s is not part of the readerGroup", readerId);
+            for (Entry<Segment, Long> entry : bytesBehindTail.entrySet()) {
+                if (assigned.containsKey(entry.getKey())) {
+                    state.segmentBacklogs.put(entry.getKey(), Math.max(0L, entry.getValue()));
+                }
+            }
+        }
+    }
     
     /**
      * Updates a position object when the reader has completed a segment.
@@ -435,12 +526,14 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            Map<Segment, Long> assigned = state.assignedSegments.get(readerId);
+            SegmentOffsetMap assigned = state.assignedSegments.get(readerId);
             Preconditions.checkState(assigned != null, "%s is not part of the readerGroup", readerId);
-            if (assigned.remove(segmentCompleted) == null) {
+            if (!assigned.containsKey(segmentCompleted)) {
                 throw new IllegalStateException(
                         readerId + " asked to complete a segment that was not assigned to it " + segmentCompleted);
             }
+            state.assignedSegments.put(readerId, assigned.without(segmentCompleted));
+            state.segmentBacklogs.remove(segmentCompleted);
             for (Entry<Segment, List<Integer>> entry : successorsMappedToTheirPredecessors.entrySet()) {
                 if (!state.futureSegments.containsKey(entry.getKey())) {
                     Set<Integer> requiredToComplete = new HashSet<>(entry.getValue());
@@ -491,7 +584,7 @@ public class ReaderGroupState implements Revisioned {
          */
         @Override
         void update(ReaderGroupState state) {
-            state.checkpointState.beginNewCheckpoint(checkpointId, state.getOnlineReaders(), state.getUnassignedSegments());
+            state.checkpointState.beginNewCheckpoint(checkpointId, state.assignedSegments.keySet(), state.unassignedSegments);
         }
     }
     
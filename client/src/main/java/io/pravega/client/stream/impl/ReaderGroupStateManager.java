@@ -25,11 +25,13 @@ import io.pravega.client.stream.impl.ReaderGroupState.ReleaseSegment;
 import io.pravega.client.stream.impl.ReaderGroupState.RemoveReader;
 import io.pravega.client.stream.impl.ReaderGroupState.SegmentCompleted;
 import io.pravega.client.stream.impl.ReaderGroupState.UpdateDistanceToTail;
+import io.pravega.client.stream.impl.ReaderGroupState.UpdateSegmentBacklogs;
 import io.pravega.common.TimeoutTimer;
 import io.pravega.common.hash.HashHelper;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.Comparator;
 import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
@@ -60,6 +62,12 @@ import static io.pravega.common.concurrent.Futures.getAndHandleExceptions;
  * them by calling {@link #releaseSegment(Segment, long, long)}. A reader can tell if calling this method is
  * needed by calling {@link #findSegmentToReleaseIfRequired()}
  * 
+ * Segments are balanced by count, weighted by the reported time lag. If every reader has reported how far behind
+ * the tail of its segments it is (via {@link #updateSegmentBacklogs(Map)}), those byte backlogs are used as well: a
+ * reader whose backlog exceeds another's by at least {@link #MIN_BACKLOG_IMBALANCE} hands off its heaviest segment
+ * that it can give up without making the receiver the most loaded, a reader releasing a segment because of the count
+ * gives up the one with the least left to read, and the least loaded readers get to acquire released segments first.
+ * 
  * Finally when a segment is sealed it may have one or more successors. So when a reader comes to the end of a
  * segment it should call {@link #handleEndOfSegment(Segment)} so that it can continue reading from the
  * successor to that segment.
@@ -68,6 +76,10 @@ public class ReaderGroupStateManager {
     
     static final Duration TIME_UNIT = Duration.ofMillis(1000);
     static final Duration UPDATE_WINDOW = Duration.ofMillis(30000);
+    /**
+     * The smallest difference in backlog between two readers, in bytes, that is worth moving a segment for.
+     */
+    static final long MIN_BACKLOG_IMBALANCE = 8 * 1024 * 1024;
     private final Object decisionLock = new Object();
     private final HashHelper hashHelper;
     @Getter
@@ -193,9 +205,13 @@ public class ReaderGroupStateManager {
     
     /**
      * Returns true if this reader owns multiple segments and has more than a full segment more than
-     * the reader with the least assigned to it.
+     * the reader with the least assigned to it, or if the backlogs of all readers are known and this reader
+     * has a segment it should hand off to the least loaded reader.
      */
     private boolean doesReaderOwnTooManySegments(ReaderGroupState state) {
+        if (isBacklogKnown(state) && findSegmentToHandOff(state) != null) {
+            return true;
+        }
         Map<String, Double> sizesOfAssignemnts = state.getRelativeSizes();
         Set<Segment> assignedSegments = state.getSegments(readerId);
         if (sizesOfAssignemnts.isEmpty() || assignedSegments == null || assignedSegments.size() <= 1) {
@@ -206,16 +222,85 @@ public class ReaderGroupStateManager {
     }
 
     /**
-     * Given a set of segments returns one to release. The one returned is arbitrary.
+     * Given a set of segments returns one to release. If the backlogs of all readers are known this is the one
+     * picked by {@link #findSegmentToHandOff(ReaderGroupState)} or, if the backlogs are balanced, the one with the
+     * least left to read. Otherwise the one returned is arbitrary.
      */
     private Segment findSegmentToRelease() {
-        Set<Segment> segments = sync.getState().getSegments(readerId);
+        ReaderGroupState state = sync.getState();
+        Set<Segment> segments = state.getSegments(readerId);
+        if (isBacklogKnown(state)) {
+            Segment handOff = findSegmentToHandOff(state);
+            if (handOff != null) {
+                return handOff;
+            }
+            Map<Segment, Long> segmentBacklogs = state.getSegmentBacklogs(readerId);
+            return segments.stream()
+                           .min(Comparator.comparingLong(s -> segmentBacklogs.getOrDefault(s, 0L)))
+                           .orElse(null);
+        }
         return segments.stream()
                        .max((s1, s2) -> Double.compare(hashHelper.hashToRange(s1.getScopedName()),
                                                        hashHelper.hashToRange(s2.getScopedName())))
                        .orElse(null);
     }
 
+    private boolean isBacklogKnown(ReaderGroupState state) {
+        return state.getReaderBacklogs().size() == state.getNumberOfReaders();
+    }
+
+    /**
+     * Returns the heaviest of this reader's segments whose backlog is less than the difference between this reader's
+     * backlog and that of the least loaded other reader, or null if there is none or the difference is too small to
+     * bother. Moving such a segment to the least loaded reader leaves both with less than this reader had, so the
+     * segment will not be moved straight back.
+     */
+    private Segment findSegmentToHandOff(ReaderGroupState state) {
+        Map<String, Long> readerBacklogs = state.getReaderBacklogs();
+        Map<Segment, Long> segmentBacklogs = state.getSegmentBacklogs(readerId);
+        Long ownBacklog = readerBacklogs.get(readerId);
+        if (ownBacklog == null || segmentBacklogs.size() <= 1 || readerBacklogs.size() <= 1) {
+            return null;
+        }
+        long minBacklog = readerBacklogs.entrySet()
+                                        .stream()
+                                        .filter(e -> !e.getKey().equals(readerId))
+                                        .mapToLong(Entry::getValue)
+                                        .min()
+                                        .getAsLong();
+        long imbalance = ownBacklog - minBacklog;
+        if (imbalance < MIN_BACKLOG_IMBALANCE) {
+            return null;
+        }
+        return segmentBacklogs.entrySet()
+                              .stream()
+                              .filter(e -> e.getValue() > 0 && e.getValue() < imbalance)
+                              .max((e1, e2) -> Long.compare(e1.getValue(), e2.getValue()))
+                              .map(Entry::getKey)
+                              .orElse(null);
+    }
+
+    /**
+     * Publishes how many bytes this reader is behind the tail of each of its segments, so that segments can be
+     * balanced across the readers by backlog.
+     *
+     * @param bytesBehindTail A map from the reader's segments to how many bytes it has left to read in them.
+     * @throws ReinitializationRequiredException If the reader has been declared offline.
+     */
+    void updateSegmentBacklogs(Map<Segment, Long> bytesBehindTail) throws ReinitializationRequiredException {
+        AtomicBoolean reinitRequired = new AtomicBoolean(false);
+        sync.updateState(state -> {
+            if (!state.isReaderOnline(readerId)) {
+                reinitRequired.set(true);
+                return null;
+            }
+            return Collections.singletonList(new UpdateSegmentBacklogs(readerId, bytesBehindTail));
+        });
+        if (reinitRequired.get()) {
+            throw new ReinitializationRequiredException();
+        }
+    }
+
     /**
      * Releases a segment to another reader. This reader should no longer read from the segment. 
      * 
@@ -242,7 +327,12 @@ public class ReaderGroupStateManager {
         if (!state.isReaderOnline(readerId)) {
             throw new ReinitializationRequiredException();
         }
-        return !state.getSegments(readerId).contains(segment);
+        boolean released = !state.getSegments(readerId).contains(segment);
+        if (released && isBacklogKnown(state)) {
+            // Give the readers with less to process a chance to pick up the segment before this one does.
+            acquireTimer.reset(calculateAcquireTime(state));
+        }
+        return released;
     }
 
     private Duration calculateReleaseTime(ReaderGroupState state) {
@@ -305,7 +395,7 @@ public class ReaderGroupStateManager {
             if (toAcquire == 0) {
                 return null;
             }
-            Map<Segment, Long> unassignedSegments = state.getUnassignedSegments();
+            Map<Segment, Long> unassignedSegments = state.getUnassignedSegments(toAcquire);
             Map<Segment, Long> acquired = new HashMap<>(toAcquire);
             List<ReaderGroupStateUpdate> updates = new ArrayList<>(toAcquire);
             Iterator<Entry<Segment, Long>> iter = unassignedSegments.entrySet().iterator();
@@ -340,6 +430,12 @@ public class ReaderGroupStateManager {
     }
 
     private Duration calculateAcquireTime(ReaderGroupState state) {
+        Map<String, Long> readerBacklogs = state.getReaderBacklogs();
+        Long ownBacklog = readerBacklogs.get(readerId);
+        if (ownBacklog != null && readerBacklogs.size() == state.getNumberOfReaders()) {
+            // Readers with less to process acquire first.
+            return TIME_UNIT.multipliedBy(1 + readerBacklogs.values().stream().filter(b -> b < ownBacklog).count());
+        }
         return TIME_UNIT.multipliedBy(state.getNumberOfReaders() - state.getRanking(readerId));
     }
     
@@ -0,0 +1,67 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.hash.HashHelper;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A fixed size, direct-mapped cache of the hashes of routing keys.
+ *
+ * Writers typically use a small set of routing keys repeatedly, so rather than computing a murmur3 hash for every
+ * event, the most recently used hash for each slot is kept. Slots are selected using {@link String#hashCode()}, which is
+ * cached by the String itself, so a hit does not allocate.
+ *
+ * The cache is safe to use from multiple threads without locking: entries are immutable, so a reader either sees a
+ * complete entry or a stale/missing one, in which case it simply recomputes the hash.
+ */
+class RoutingKeyHashCache {
+    static final int DEFAULT_SIZE = 1024;
+
+    private final HashHelper hasher;
+    private final Entry[] entries;
+    private final int mask;
+
+    RoutingKeyHashCache(HashHelper hasher) {
+        this(hasher, DEFAULT_SIZE);
+    }
+
+    RoutingKeyHashCache(HashHelper hasher, int size) {
+        Preconditions.checkArgument(size > 0 && Integer.bitCount(size) == 1, "size must be a power of 2.");
+        this.hasher = Preconditions.checkNotNull(hasher);
+        this.entries = new Entry[size];
+        this.mask = size - 1;
+    }
+
+    /**
+     * Gets the hash of the given routing key in the range [0, 1], as computed by {@link HashHelper#hashToRange(String)}.
+     *
+     * @param routingKey The routing key.
+     * @return The hash of the key.
+     */
+    double hashToRange(String routingKey) {
+        int h = routingKey.hashCode();
+        int index = (h ^ (h >>> 16)) & mask;
+        Entry entry = entries[index];
+        if (entry != null && entry.routingKey.equals(routingKey)) {
+            return entry.hash;
+        }
+        double hash = hasher.hashToRange(routingKey);
+        entries[index] = new Entry(routingKey, hash);
+        return hash;
+    }
+
+    @RequiredArgsConstructor
+    private static final class Entry {
+        private final String routingKey;
+        private final double hash;
+    }
+}
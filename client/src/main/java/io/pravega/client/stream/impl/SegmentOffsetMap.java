@@ -0,0 +1,409 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.pravega.client.segment.impl.Segment;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An immutable, compact map from segment to offset.
+ * <p>
+ * Entries are kept sorted, in chunks of at most {@link #MAX_CHUNK_SIZE} entries, each made of an array of segments and
+ * a primitive array of offsets. This takes a fraction of the memory of a HashMap (there is no node or boxed Long per
+ * entry), which matters for reader groups over streams with many segments. The segments are the ones that were put in
+ * the map, so iterating over the keys does not create any objects. Lookups are binary searches.
+ * <p>
+ * Modifications ({@link #with}, {@link #withAll}, {@link #without}) return a new map and leave this one untouched, so
+ * instances can be shared freely (for example, handed out by {@link ReaderGroupState} without copying). The new map
+ * shares all the chunks but the one that changed with this one, so modifying a single entry only copies that chunk and
+ * the array of chunks, rather than the whole map.
+ */
+@Immutable
+final class SegmentOffsetMap extends AbstractMap<Segment, Long> {
+    static final SegmentOffsetMap EMPTY = new SegmentOffsetMap(new Chunk[0], 0);
+    @VisibleForTesting
+    static final int MAX_CHUNK_SIZE = 64;
+    /**
+     * Chunks smaller than this are merged into one of their neighbors.
+     */
+    private static final int MIN_CHUNK_SIZE = MAX_CHUNK_SIZE / 4;
+
+    private final Chunk[] chunks;
+    private final int size;
+
+    private SegmentOffsetMap(Chunk[] chunks, int size) {
+        this.chunks = chunks;
+        this.size = size;
+    }
+
+    /**
+     * Returns a SegmentOffsetMap with the same contents as the given map.
+     *
+     * @param map The map to copy.
+     * @return The given map if it already is a SegmentOffsetMap, otherwise a copy of it.
+     */
+    static SegmentOffsetMap of(Map<Segment, Long> map) {
+        if (map instanceof SegmentOffsetMap) {
+            return (SegmentOffsetMap) map;
+        }
+        return EMPTY.withAll(map);
+    }
+
+    /**
+     * Returns a map with the given segment set to the given offset, and otherwise the same contents as this one.
+     *
+     * @param segment The segment.
+     * @param offset  The offset.
+     * @return The new map, or this one if the segment is already set to the given offset.
+     */
+    SegmentOffsetMap with(Segment segment, long offset) {
+        if (chunks.length == 0) {
+            return new SegmentOffsetMap(new Chunk[] { new Chunk(new Segment[] { segment }, new long[] { offset }) }, 1);
+        }
+
+        int chunkIndex = chunkIndexOf(segment);
+        Chunk chunk = chunks[chunkIndex];
+        int index = chunk.indexOf(segment);
+        if (index >= 0) {
+            if (chunk.offsets[index] == offset) {
+                return this;
+            }
+            return replace(chunkIndex, 1, 0, chunk.withOffset(index, offset));
+        }
+
+        Chunk updated = chunk.insert(-index - 1, segment, offset);
+        if (updated.size() > MAX_CHUNK_SIZE) {
+            return replace(chunkIndex, 1, 1, updated.split());
+        }
+        return replace(chunkIndex, 1, 1, updated);
+    }
+
+    /**
+     * Returns a map with the given segments set to the given offsets, and otherwise the same contents as this one.
+     *
+     * @param positions The segments and offsets to set.
+     * @return The new map.
+     */
+    SegmentOffsetMap withAll(Map<Segment, Long> positions) {
+        if (positions.isEmpty()) {
+            return this;
+        }
+
+        if (positions.size() * MAX_CHUNK_SIZE <= size) {
+            // Few enough entries that updating the chunks they fall in is cheaper than rebuilding the map.
+            SegmentOffsetMap result = this;
+            for (Entry<Segment, Long> entry : positions.entrySet()) {
+                result = result.with(entry.getKey(), entry.getValue());
+            }
+            return result;
+        }
+
+        Segment[] added = positions.keySet().toArray(new Segment[positions.size()]);
+        Arrays.sort(added, SegmentOffsetMap::compare);
+        Segment[] segments = new Segment[size + added.length];
+        long[] offsets = new long[size + added.length];
+        int count = 0;
+        int addedIndex = 0;
+        for (Chunk chunk : chunks) {
+            for (int index = 0; index < chunk.size(); index++) {
+                while (addedIndex < added.length && compare(added[addedIndex], chunk.segments[index]) < 0) {
+                    segments[count] = added[addedIndex];
+                    offsets[count++] = positions.get(added[addedIndex++]);
+                }
+                if (addedIndex < added.length && compare(added[addedIndex], chunk.segments[index]) == 0) {
+                    segments[count] = added[addedIndex];
+                    offsets[count++] = positions.get(added[addedIndex++]);
+                } else {
+                    segments[count] = chunk.segments[index];
+                    offsets[count++] = chunk.offsets[index];
+                }
+            }
+        }
+        while (addedIndex < added.length) {
+            segments[count] = added[addedIndex];
+            offsets[count++] = positions.get(added[addedIndex++]);
+        }
+
+        return build(segments, offsets, count);
+    }
+
+    /**
+     * Returns a map without the given segment, and otherwise the same contents as this one.
+     *
+     * @param segment The segment to remove.
+     * @return The new map, or this one if it does not contain the segment.
+     */
+    SegmentOffsetMap without(Segment segment) {
+        if (chunks.length == 0) {
+            return this;
+        }
+
+        int chunkIndex = chunkIndexOf(segment);
+        Chunk chunk = chunks[chunkIndex];
+        int index = chunk.indexOf(segment);
+        if (index < 0) {
+            return this;
+        }
+
+        Chunk updated = chunk.remove(index);
+        if (chunks.length == 1) {
+            return updated.size() == 0 ? EMPTY : new SegmentOffsetMap(new Chunk[] { updated }, size - 1);
+        }
+        if (updated.size() >= MIN_CHUNK_SIZE) {
+            return replace(chunkIndex, 1, -1, updated);
+        }
+
+        // Merge the chunk with one of its neighbors, so that chunks do not get arbitrarily small.
+        int first = chunkIndex == chunks.length - 1 ? chunkIndex - 1 : chunkIndex;
+        Chunk merged = first == chunkIndex ? updated.concat(chunks[first + 1]) : chunks[first].concat(updated);
+        if (merged.size() > MAX_CHUNK_SIZE) {
+            return replace(first, 2, -1, merged.split());
+        }
+        return replace(first, 2, -1, merged);
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        return get(key) != null;
+    }
+
+    @Override
+    public Long get(Object key) {
+        if (!(key instanceof Segment) || chunks.length == 0) {
+            return null;
+        }
+
+        Chunk chunk = chunks[chunkIndexOf((Segment) key)];
+        int index = chunk.indexOf((Segment) key);
+        return index < 0 ? null : chunk.offsets[index];
+    }
+
+    @Override
+    public void forEach(BiConsumer<? super Segment, ? super Long> action) {
+        for (Chunk chunk : chunks) {
+            for (int index = 0; index < chunk.size(); index++) {
+                action.accept(chunk.segments[index], chunk.offsets[index]);
+            }
+        }
+    }
+
+    @Override
+    public Set<Segment> keySet() {
+        return new AbstractSet<Segment>() {
+            @Override
+            public Iterator<Segment> iterator() {
+                return new EntryIterator<Segment>() {
+                    @Override
+                    Segment createElement(Segment segment, long offset) {
+                        return segment;
+                    }
+                };
+            }
+
+            @Override
+            public boolean contains(Object o) {
+                return containsKey(o);
+            }
+
+            @Override
+            public int size() {
+                return SegmentOffsetMap.this.size();
+            }
+        };
+    }
+
+    @Override
+    public Set<Entry<Segment, Long>> entrySet() {
+        return new AbstractSet<Entry<Segment, Long>>() {
+            @Override
+            public Iterator<Entry<Segment, Long>> iterator() {
+                return new EntryIterator<Entry<Segment, Long>>() {
+                    @Override
+                    Entry<Segment, Long> createElement(Segment segment, long offset) {
+                        return new SimpleImmutableEntry<>(segment, offset);
+                    }
+                };
+            }
+
+            @Override
+            public int size() {
+                return SegmentOffsetMap.this.size();
+            }
+        };
+    }
+
+    /**
+     * Returns the index of the chunk that holds the given segment, or that it would be inserted in: the first chunk whose
+     * last segment is not smaller than the given one, or the last chunk if there is none. There must be at least one chunk.
+     */
+    private int chunkIndexOf(Segment segment) {
+        int low = 0;
+        int high = chunks.length - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(chunks[mid].last(), segment) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    /**
+     * Returns a map in which the given number of chunks starting at the given index are replaced with the given ones.
+     */
+    private SegmentOffsetMap replace(int index, int count, int sizeDelta, Chunk... replacements) {
+        Chunk[] result = new Chunk[chunks.length - count + replacements.length];
+        System.arraycopy(chunks, 0, result, 0, index);
+        System.arraycopy(replacements, 0, result, index, replacements.length);
+        System.arraycopy(chunks, index + count, result, index + replacements.length, chunks.length - index - count);
+        return new SegmentOffsetMap(result, size + sizeDelta);
+    }
+
+    /**
+     * Builds a map out of the given sorted entries, in chunks that are half full so there is room for them to grow.
+     */
+    private static SegmentOffsetMap build(Segment[] segments, long[] offsets, int count) {
+        int chunkCount = (count + MAX_CHUNK_SIZE / 2 - 1) / (MAX_CHUNK_SIZE / 2);
+        Chunk[] chunks = new Chunk[chunkCount];
+        for (int i = 0; i < chunkCount; i++) {
+            int from = (int) ((long) count * i / chunkCount);
+            int to = (int) ((long) count * (i + 1) / chunkCount);
+            chunks[i] = new Chunk(Arrays.copyOfRange(segments, from, to), Arrays.copyOfRange(offsets, from, to));
+        }
+        return chunkCount == 0 ? EMPTY : new SegmentOffsetMap(chunks, count);
+    }
+
+    private static int compare(Segment s1, Segment s2) {
+        int c = Objects.equals(s1.getScope(), s2.getScope()) ? 0
+                : s1.getScope() == null ? -1 : s2.getScope() == null ? 1 : s1.getScope().compareTo(s2.getScope());
+        if (c == 0) {
+            c = s1.getStreamName().compareTo(s2.getStreamName());
+        }
+        return c != 0 ? c : Integer.compare(s1.getSegmentNumber(), s2.getSegmentNumber());
+    }
+
+    /**
+     * Iterates over the entries in order.
+     */
+    private abstract class EntryIterator<T> implements Iterator<T> {
+        private int chunk = 0;
+        private int index = 0;
+
+        @Override
+        public boolean hasNext() {
+            return chunk < chunks.length;
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            Chunk current = chunks[chunk];
+            T result = createElement(current.segments[index], current.offsets[index]);
+            if (++index == current.size()) {
+                chunk++;
+                index = 0;
+            }
+            return result;
+        }
+
+        abstract T createElement(Segment segment, long offset);
+    }
+
+    /**
+     * A non-empty, sorted run of entries.
+     */
+    private static final class Chunk {
+        private final Segment[] segments;
+        private final long[] offsets;
+
+        Chunk(Segment[] segments, long[] offsets) {
+            this.segments = segments;
+            this.offsets = offsets;
+        }
+
+        int size() {
+            return segments.length;
+        }
+
+        Segment last() {
+            return segments[segments.length - 1];
+        }
+
+        /**
+         * Returns the index of the given segment, or (-(insertion point) - 1) if it is not in this chunk.
+         */
+        int indexOf(Segment segment) {
+            return Arrays.binarySearch(segments, segment, SegmentOffsetMap::compare);
+        }
+
+        Chunk withOffset(int index, long offset) {
+            long[] newOffsets = offsets.clone();
+            newOffsets[index] = offset;
+            return new Chunk(segments, newOffsets);
+        }
+
+        Chunk insert(int index, Segment segment, long offset) {
+            Segment[] newSegments = new Segment[segments.length + 1];
+            long[] newOffsets = new long[offsets.length + 1];
+            System.arraycopy(segments, 0, newSegments, 0, index);
+            System.arraycopy(offsets, 0, newOffsets, 0, index);
+            newSegments[index] = segment;
+            newOffsets[index] = offset;
+            System.arraycopy(segments, index, newSegments, index + 1, segments.length - index);
+            System.arraycopy(offsets, index, newOffsets, index + 1, offsets.length - index);
+            return new Chunk(newSegments, newOffsets);
+        }
+
+        Chunk remove(int index) {
+            Segment[] newSegments = new Segment[segments.length - 1];
+            long[] newOffsets = new long[offsets.length - 1];
+            System.arraycopy(segments, 0, newSegments, 0, index);
+            System.arraycopy(offsets, 0, newOffsets, 0, index);
+            System.arraycopy(segments, index + 1, newSegments, index, segments.length - index - 1);
+            System.arraycopy(offsets, index + 1, newOffsets, index, offsets.length - index - 1);
+            return new Chunk(newSegments, newOffsets);
+        }
+
+        Chunk concat(Chunk next) {
+            Segment[] newSegments = Arrays.copyOf(segments, segments.length + next.segments.length);
+            long[] newOffsets = Arrays.copyOf(offsets, offsets.length + next.offsets.length);
+            System.arraycopy(next.segments, 0, newSegments, segments.length, next.segments.length);
+            System.arraycopy(next.offsets, 0, newOffsets, offsets.length, next.offsets.length);
+            return new Chunk(newSegments, newOffsets);
+        }
+
+        Chunk[] split() {
+            int half = segments.length / 2;
+            return new Chunk[] {
+                    new Chunk(Arrays.copyOfRange(segments, 0, half), Arrays.copyOfRange(offsets, 0, half)),
+                    new Chunk(Arrays.copyOfRange(segments, half, segments.length), Arrays.copyOfRange(offsets, half, offsets.length))
+            };
+        }
+    }
+}
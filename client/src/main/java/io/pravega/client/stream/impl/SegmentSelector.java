@@ -23,12 +23,12 @@ import lombok.extern.slf4j.Slf4j;
 import javax.annotation.concurrent.GuardedBy;
 import java.util.ArrayList;
 import java.util.Collections;
-import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
-import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.function.Consumer;
 
 /**
@@ -36,6 +36,10 @@ import java.util.function.Consumer;
  * invoked on every writeEvent call to decide how to send a particular segment. It is acceptable for
  * it to cache the current set of segments for a stream, as it will be queried again if a segment
  * has been sealed.
+ *
+ * Lookups ({@link #getSegmentForEvent(String)}, {@link #getSegmentOutputStreamForKey(String)} and
+ * {@link #getWriters()}) do not take any lock: they read an immutable {@link StreamSegments} snapshot and a concurrent
+ * map of writers, so that many application threads can route events in parallel. Only updates are serialized.
  */
 @Slf4j
 @RequiredArgsConstructor
@@ -44,12 +48,9 @@ public class SegmentSelector {
     private final Stream stream;
     private final Controller controller;
     private final SegmentOutputStreamFactory outputStreamFactory;
-    @GuardedBy("$lock")
-    private final Random random = new Random();
-    @GuardedBy("$lock")
-    private StreamSegments currentSegments;
-    @GuardedBy("$lock")
-    private final Map<Segment, SegmentOutputStream> writers = new HashMap<>();
+    private volatile StreamSegments currentSegments;
+    private final Map<Segment, SegmentOutputStream> writers = new ConcurrentHashMap<>();
+    private final RoutingKeyHashCache keyHashCache = new RoutingKeyHashCache(StreamSegments.HASHER);
     private final EventWriterConfig config;
 
     /**
@@ -60,23 +61,49 @@ public class SegmentSelector {
      * @return The SegmentOutputStream for the segment that has been selected or null if
      *         {@link #refreshSegmentEventWriters()} needs to be called.
      */
-    @Synchronized
     public SegmentOutputStream getSegmentOutputStreamForKey(String routingKey) {
-        if (currentSegments == null) {
+        Segment segment = getSegmentForEvent(routingKey);
+        if (segment == null) {
             return null;
         }
-        return writers.get(getSegmentForEvent(routingKey));
+        return writers.get(segment);
     }
 
-    @Synchronized
     public Segment getSegmentForEvent(String routingKey) {
-        if (currentSegments == null) {
+        StreamSegments segments = currentSegments;
+        if (segments == null) {
             return null;
         }
+        return segments.getSegmentForKey(getKeyHash(routingKey));
+    }
+
+    /**
+     * Selects the segments for a batch of events. All of the events are routed using the same set of segments.
+     *
+     * @param routingKeys The routing keys of the events. Null keys are routed randomly.
+     * @return The segment for each event, in the same order as the routing keys, or null if
+     *         {@link #refreshSegmentEventWriters(Consumer)} needs to be called.
+     */
+    public Segment[] getSegmentsForEvents(List<String> routingKeys) {
+        StreamSegments segments = currentSegments;
+        if (segments == null) {
+            return null;
+        }
+        double[] keys = new double[routingKeys.size()];
+        int index = 0;
+        for (String routingKey : routingKeys) {
+            keys[index++] = getKeyHash(routingKey);
+        }
+        Segment[] result = new Segment[keys.length];
+        segments.getSegmentsForKeys(keys, result);
+        return result;
+    }
+
+    private double getKeyHash(String routingKey) {
         if (routingKey == null) {
-            return currentSegments.getSegmentForKey(random.nextDouble());
+            return ThreadLocalRandom.current().nextDouble();
         }
-        return currentSegments.getSegmentForKey(routingKey);
+        return keyHashCache.hashToRange(routingKey);
     }
 
     public List<PendingEvent> refreshSegmentEventWritersUponSealed(Segment sealedSegment, Consumer<Segment>
@@ -103,8 +130,8 @@ public class SegmentSelector {
     @Synchronized
     private List<PendingEvent> updateSegments(StreamSegments newSteamSegments, Consumer<Segment>
             segmentSealedCallBack) {
+        createMissingWriters(newSteamSegments, segmentSealedCallBack);
         currentSegments = newSteamSegments;
-        createMissingWriters(segmentSealedCallBack);
         List<PendingEvent> toResend = new ArrayList<>();
         Iterator<Entry<Segment, SegmentOutputStream>> iter = writers.entrySet().iterator();
         while (iter.hasNext()) {
@@ -126,16 +153,17 @@ public class SegmentSelector {
     @Synchronized
     private List<PendingEvent> updateSegmentsUponSealed(StreamSegments newStreamSegments, Segment sealedSegment,
                                                         Consumer<Segment> segmentSealedCallback) {
+        createMissingWriters(newStreamSegments, segmentSealedCallback);
         currentSegments = newStreamSegments;
-        createMissingWriters(segmentSealedCallback);
         log.trace("Fetch unacked events for segment :{}", sealedSegment);
         List<PendingEvent> toResend = writers.get(sealedSegment).getUnackedEventsOnSeal();
         writers.remove(sealedSegment); //remove this sealed segment writer.
         return toResend;
     }
 
-    private void createMissingWriters(Consumer<Segment> segmentSealedCallBack) {
-        for (Segment segment : currentSegments.getSegments()) {
+    @GuardedBy("$lock")
+    private void createMissingWriters(StreamSegments newStreamSegments, Consumer<Segment> segmentSealedCallBack) {
+        for (Segment segment : newStreamSegments.getSegments()) {
             if (!writers.containsKey(segment)) {
                 SegmentOutputStream out = outputStreamFactory.createOutputStreamForSegment(segment, segmentSealedCallBack, config);
                 writers.put(segment, out);
@@ -143,15 +171,14 @@ public class SegmentSelector {
         }
     }
 
-    @Synchronized
     public List<Segment> getSegments() {
-        if (currentSegments == null) {
+        StreamSegments segments = currentSegments;
+        if (segments == null) {
             return Collections.emptyList();
         }
-        return new ArrayList<>(currentSegments.getSegments());
+        return new ArrayList<>(segments.getSegments());
     }
 
-    @Synchronized
     public List<SegmentOutputStream> getWriters() {
         return new ArrayList<>(writers.values());
     }
@@ -16,9 +16,7 @@ import java.io.Serializable;
 import java.util.Map;
 import java.util.Set;
 
-import lombok.AccessLevel;
 import lombok.Data;
-import lombok.Getter;
 
 /**
  * A set of segment/offset pairs for a single stream that represent a consistent position in the
@@ -30,7 +28,9 @@ import lombok.Getter;
 public class StreamCut implements Serializable {
 
     private final Stream stream;
-    @Getter(value = AccessLevel.PACKAGE)
+    /**
+     * The offset within each segment at which this cut lies.
+     */
     private final Map<Segment, Long> positions;
 
     @VisibleForTesting
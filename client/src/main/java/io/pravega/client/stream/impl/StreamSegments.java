@@ -12,6 +12,7 @@ package io.pravega.client.stream.impl;
 import com.google.common.base.Preconditions;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.common.hash.HashHelper;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
@@ -23,11 +24,17 @@ import lombok.EqualsAndHashCode;
 
 /**
  * The segments that within a stream at a particular point in time.
+ *
+ * In addition to the map of segments, a routing table is precomputed consisting of two parallel arrays: the upper
+ * bounds of the key ranges in ascending order and the segments owning them. This allows keys to be routed by a binary
+ * search over a primitive array, without allocating or traversing map entries.
  */
-@EqualsAndHashCode
+@EqualsAndHashCode(of = "segments")
 public class StreamSegments {
-    private static final HashHelper HASHER = HashHelper.seededWith("EventRouter");
+    static final HashHelper HASHER = HashHelper.seededWith("EventRouter");
     private final NavigableMap<Double, Segment> segments;
+    private final double[] rangeUpperBounds;
+    private final Segment[] rangeSegments;
 
     /**
      * Creates a new instance of the StreamSegments class.
@@ -38,6 +45,14 @@ public class StreamSegments {
     public StreamSegments(NavigableMap<Double, Segment> segments) {
         this.segments = Collections.unmodifiableNavigableMap(segments);
         verifySegments();
+        this.rangeUpperBounds = new double[segments.size()];
+        this.rangeSegments = new Segment[segments.size()];
+        int index = 0;
+        for (Entry<Double, Segment> entry : segments.entrySet()) {
+            rangeUpperBounds[index] = entry.getKey();
+            rangeSegments[index] = entry.getValue();
+            index++;
+        }
     }
 
     private void verifySegments() {
@@ -55,7 +70,23 @@ public class StreamSegments {
     public Segment getSegmentForKey(double key) {
         Preconditions.checkArgument(key >= 0.0);
         Preconditions.checkArgument(key <= 1.0);
-        return segments.ceilingEntry(key).getValue();
+        int index = Arrays.binarySearch(rangeUpperBounds, key);
+        // If the key is not an upper bound, binarySearch returns (-(insertion point) - 1), where the insertion point is
+        // the index of the first upper bound that is greater than the key. That is, the segment that owns the key.
+        return rangeSegments[index >= 0 ? index : -index - 1];
+    }
+
+    /**
+     * Routes a batch of keys using the same set of segments.
+     *
+     * @param keys    The keys to route, each of which must be in the range [0, 1].
+     * @param results An array, at least as long as keys, that is filled with the segment for the key at the same index.
+     */
+    public void getSegmentsForKeys(double[] keys, Segment[] results) {
+        Preconditions.checkArgument(results.length >= keys.length, "Results array is too small.");
+        for (int i = 0; i < keys.length; i++) {
+            results[i] = getSegmentForKey(keys[i]);
+        }
     }
 
     public Collection<Segment> getSegments() {
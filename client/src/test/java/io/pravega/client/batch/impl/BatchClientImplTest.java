@@ -9,21 +9,36 @@
  */
 package io.pravega.client.batch.impl;
 
+import com.google.common.collect.Lists;
 import io.pravega.client.batch.SegmentInfo;
+import io.pravega.client.batch.SegmentRange;
 import io.pravega.client.netty.impl.ClientConnection;
+import io.pravega.client.segment.impl.Segment;
+import io.pravega.client.segment.impl.SegmentAttribute;
 import io.pravega.client.stream.ScalingPolicy;
 import io.pravega.client.stream.Stream;
 import io.pravega.client.stream.StreamConfiguration;
+import io.pravega.client.stream.impl.StreamCut;
 import io.pravega.client.stream.impl.StreamImpl;
 import io.pravega.client.stream.mock.MockConnectionFactoryImpl;
 import io.pravega.client.stream.mock.MockController;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.shared.protocol.netty.WireCommands.CreateSegment;
+import io.pravega.shared.protocol.netty.WireCommands.GetSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.GetStreamSegmentInfo;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentCreated;
 import io.pravega.shared.protocol.netty.WireCommands.StreamSegmentInfo;
+import io.pravega.shared.segment.SegmentTimeIndex;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.HashMap;
 import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
 import org.junit.Test;
 import org.mockito.Mockito;
 import org.mockito.invocation.InvocationOnMock;
@@ -82,4 +97,133 @@ public class BatchClientImplTest {
         assertFalse(segments.hasNext());
     }
 
+    @Test(timeout = 5000)
+    public void testSegmentRangesBetweenStreamCuts() throws ConnectionFailedException {
+        final long length = 100;
+        BatchClientImpl client = createClient(length);
+        Stream stream = new StreamImpl("scope", "stream");
+        Segment s0 = new Segment("scope", "stream", 0);
+        Segment s1 = new Segment("scope", "stream", 1);
+        Segment s2 = new Segment("scope", "stream", 2);
+        Map<Segment, Long> from = new HashMap<>();
+        from.put(s0, 10L);
+        from.put(s1, 0L);
+        from.put(s2, 50L);
+        Map<Segment, Long> to = new HashMap<>();
+        to.put(s0, 20L);
+        to.put(s1, length);
+        to.put(s2, 50L);
+
+        List<SegmentRange> ranges = Lists.newArrayList(client.getSegmentRanges(new StreamCut(stream, from),
+                                                                               new StreamCut(stream, to)));
+        // Segment 2 has no data in the window.
+        assertEquals(Arrays.asList(new SegmentRange(s0, 10, 20), new SegmentRange(s1, 0, length)), ranges);
+    }
+
+    @Test(timeout = 5000)
+    public void testSegmentRangesInTimeWindow() throws ConnectionFailedException {
+        final long length = 100;
+        final long bucket = SegmentTimeIndex.GRANULARITY.toMillis();
+        Map<Long, Long> timeIndex = new HashMap<>();
+        timeIndex.put(0L, 0L);
+        timeIndex.put(2 * bucket, 40L);
+        timeIndex.put(5 * bucket, 80L);
+        BatchClientImpl client = createClient(length, timeIndex);
+        Stream stream = new StreamImpl("scope", "stream");
+        Segment s0 = new Segment("scope", "stream", 0);
+        Segment s1 = new Segment("scope", "stream", 1);
+        Segment s2 = new Segment("scope", "stream", 2);
+
+        // The window ends in the bucket right before an index entry, so the ranges end at that entry.
+        List<SegmentRange> ranges = Lists.newArrayList(client.getSegmentRanges(stream, new Date(2 * bucket + 10),
+                                                                               new Date(4 * bucket + 10)));
+        assertEquals(Arrays.asList(new SegmentRange(s0, 40, 80), new SegmentRange(s1, 40, 80),
+                                   new SegmentRange(s2, 40, 80)), ranges);
+
+        // The start is rounded down to the latest index entry at or before it.
+        ranges = Lists.newArrayList(client.getSegmentRanges(stream, new Date(bucket + 10), new Date(4 * bucket + 10)));
+        assertEquals(Arrays.asList(new SegmentRange(s0, 0, 80), new SegmentRange(s1, 0, 80),
+                                   new SegmentRange(s2, 0, 80)), ranges);
+
+        // Nothing is known to follow the end of the window until the next index entry, so read to the end.
+        ranges = Lists.newArrayList(client.getSegmentRanges(stream, new Date(2 * bucket), new Date(3 * bucket)));
+        assertEquals(Arrays.asList(new SegmentRange(s0, 40, length), new SegmentRange(s1, 40, length),
+                                   new SegmentRange(s2, 40, length)), ranges);
+
+        // Without a time index the segments active in the window are read in their entirety.
+        client = createClient(length);
+        ranges = Lists.newArrayList(client.getSegmentRanges(stream, new Date(0L), new Date(1L)));
+        assertEquals(Arrays.asList(new SegmentRange(s0, 0, length), new SegmentRange(s1, 0, length),
+                                   new SegmentRange(s2, 0, length)), ranges);
+    }
+
+    private BatchClientImpl createClient(long segmentLength) throws ConnectionFailedException {
+        return createClient(segmentLength, new HashMap<>());
+    }
+
+    /**
+     * Creates a client for a stream with three segments of the given length, which all have the given time index (a map
+     * from the start of each index bucket to the offset recorded for it).
+     */
+    private BatchClientImpl createClient(long segmentLength, Map<Long, Long> timeIndex) throws ConnectionFailedException {
+        Map<UUID, Long> attributes = new HashMap<>();
+        // Add the entries in order, the way the segment store does as appends come in.
+        new TreeMap<>(timeIndex).forEach((time, offset) -> {
+            UUID attributeId = SegmentTimeIndex.getAttributeId(time);
+            attributes.put(attributeId, SegmentTimeIndex.getNewEntryValue(attributes, attributeId, offset));
+            SegmentTimeIndex.compact(attributes, 0).forEach((id, value) -> {
+                if (value == null) {
+                    attributes.remove(id);
+                } else {
+                    attributes.put(id, value);
+                }
+            });
+        });
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        ClientConnection connection = Mockito.mock(ClientConnection.class);
+        PravegaNodeUri location = new PravegaNodeUri("localhost", 0);
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                CreateSegment request = (CreateSegment) invocation.getArgument(0);
+                connectionFactory.getProcessor(location)
+                                 .segmentCreated(new SegmentCreated(request.getRequestId(), request.getSegment()));
+                return null;
+            }
+        }).when(connection).send(Mockito.any(CreateSegment.class));
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                GetStreamSegmentInfo request = (GetStreamSegmentInfo) invocation.getArgument(0);
+                connectionFactory.getProcessor(location)
+                                 .streamSegmentInfo(new StreamSegmentInfo(request.getRequestId(),
+                                                                          request.getSegmentName(), true, false, false,
+                                                                          0, segmentLength, 0));
+                return null;
+            }
+        }).when(connection).send(Mockito.any(GetStreamSegmentInfo.class));
+        Mockito.doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                GetSegmentAttribute request = (GetSegmentAttribute) invocation.getArgument(0);
+                Long offset = SegmentTimeIndex.findOffset(attributes, request.getAttributeId());
+                connectionFactory.getProcessor(location)
+                                 .segmentAttribute(new WireCommands.SegmentAttribute(request.getRequestId(),
+                                                                                     offset == null ? SegmentAttribute.NULL_VALUE : offset));
+                return null;
+            }
+        }).when(connection).send(Mockito.any(GetSegmentAttribute.class));
+        connectionFactory.provideConnection(location, connection);
+        MockController mockController = new MockController(location.getEndpoint(), location.getPort(),
+                                                           connectionFactory);
+        mockController.createScope("scope");
+        mockController.createStream(StreamConfiguration.builder()
+                                                       .scope("scope")
+                                                       .streamName("stream")
+                                                       .scalingPolicy(ScalingPolicy.fixed(3))
+                                                       .build())
+                      .join();
+        return new BatchClientImpl(mockController, connectionFactory);
+    }
+
 }
@@ -9,6 +9,7 @@
  */
 package io.pravega.client.batch.impl;
 
+import io.pravega.client.batch.SegmentRange;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentMetadataClient;
 import io.pravega.client.segment.impl.SegmentOutputStream;
@@ -18,8 +19,12 @@ import io.pravega.client.stream.impl.JavaSerializer;
 import io.pravega.client.stream.impl.PendingEvent;
 import io.pravega.client.stream.mock.MockSegmentStreamFactory;
 import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.NoSuchElementException;
 import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 import lombok.Cleanup;
 import org.junit.Test;
 
@@ -109,6 +114,53 @@ public class SegmentIteratorTest {
         assertFalse(iter.hasNext());
     }
     
+    @Test(timeout = 5000)
+    public void testReadRanges() {
+        MockSegmentStreamFactory factory = new MockSegmentStreamFactory();
+        Segment segment = new Segment("Scope", "Stream", 1);
+        EventWriterConfig config = EventWriterConfig.builder().build();
+        SegmentOutputStream outputStream = factory.createOutputStreamForSegment(segment, c -> { }, config);
+        for (int i = 0; i < 10; i++) {
+            sendData(Integer.toString(i), outputStream);
+        }
+        SegmentMetadataClient metadataClient = factory.createSegmentMetadataClient(segment);
+        long length = metadataClient.getSegmentInfo().getWriteOffset();
+
+        // Record some event boundaries, then split the segment at them.
+        List<Long> boundaries = new ArrayList<>();
+        @Cleanup
+        SegmentIteratorImpl<String> iter = new SegmentIteratorImpl<>(factory, segment, stringSerializer, 0, length);
+        while (iter.hasNext()) {
+            iter.next();
+            if (iter.getOffset() % 3 == 0) {
+                boundaries.add(iter.getOffset());
+            }
+        }
+        boundaries.add(length / 10 * 3);
+        boundaries.add(length / 10 * 7);
+        boundaries.add(length + 1);
+        List<SegmentRange> ranges = new SegmentRange(segment, 0, length).split(boundaries);
+        assertTrue(ranges.size() >= 3);
+        assertEquals(0, ranges.get(0).getStartOffset());
+        assertEquals(length, ranges.get(ranges.size() - 1).getEndOffset());
+
+        List<String> read = new ArrayList<>();
+        long expectedStart = 0;
+        for (SegmentRange range : ranges) {
+            assertEquals(expectedStart, range.getStartOffset());
+            expectedStart = range.getEndOffset();
+            @Cleanup
+            SegmentIteratorImpl<String> rangeIter = new SegmentIteratorImpl<>(factory, range.getSegment(), stringSerializer,
+                                                                              range.getStartOffset(), range.getEndOffset(),
+                                                                              BatchClientImpl.RANGE_READ_AHEAD_BUFFER_SIZE);
+            while (rangeIter.hasNext()) {
+                read.add(rangeIter.next());
+            }
+            assertEquals(range.getEndOffset(), rangeIter.getOffset());
+        }
+        assertEquals(IntStream.range(0, 10).mapToObj(Integer::toString).collect(Collectors.toList()), read);
+    }
+
     private void sendData(String data, SegmentOutputStream outputStream) {
         outputStream.write(new PendingEvent("routingKey", stringSerializer.serialize(data), new CompletableFuture<>()));
     }
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.netty.impl;
+
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class AppendBatchSizeTrackerImplTest {
+
+    private static final int MAX_BATCH_TIME_MILLIS = 100;
+    private static final int MAX_BATCH_SIZE = 32 * 1024;
+    private static final int UNBOUNDED_LATENCY_MILLIS = Integer.MAX_VALUE / 2;
+
+    @Test
+    public void testNoBatchingWhenNothingInflight() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock);
+        for (int i = 1; i <= 100; i++) {
+            tracker.recordAppend(i, 100);
+            tracker.recordAck(i);
+        }
+        assertEquals(0, tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testNoBatchingForLowRateWriter() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock);
+        // One event every 50ms, with plenty inflight: lingering would not batch anything, only add latency.
+        for (int i = 1; i <= 100; i++) {
+            clock.addAndGet(50);
+            tracker.recordAppend(i, 100);
+        }
+        assertEquals(0, tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testBatchingForHighRateWriter() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock);
+        // Many events per millisecond: the block should be capped at the maximum size.
+        for (int i = 1; i <= 1000; i++) {
+            if (i % 10 == 0) {
+                clock.incrementAndGet();
+            }
+            tracker.recordAppend(i, 1000);
+        }
+        assertEquals(MAX_BATCH_SIZE, tracker.getAppendBlockSize());
+        assertEquals(AppendBatchSizeTrackerImpl.MIN_TARGET_BATCH_TIME_MILLIS, tracker.getBatchTimeout());
+    }
+
+    @Test
+    public void testLingerGrowsWithAckLatency() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock);
+
+        // Acks take 15ms: we should linger for about as long.
+        long eventNumber = recordRoundTrips(tracker, clock, 0, 15);
+        assertEquals(15, tracker.getAckLatencyMillis(), 1);
+        assertEquals(15, tracker.getBatchTimeout(), 1);
+
+        // The server slows down: we should linger for longer, up to the maximum.
+        eventNumber = recordRoundTrips(tracker, clock, eventNumber, 50);
+        assertEquals(50, tracker.getBatchTimeout(), 1);
+        eventNumber = recordRoundTrips(tracker, clock, eventNumber, 10 * MAX_BATCH_TIME_MILLIS);
+        assertEquals(MAX_BATCH_TIME_MILLIS, tracker.getBatchTimeout());
+
+        // The server speeds up again: we should linger for the minimum amount of time.
+        recordRoundTrips(tracker, clock, eventNumber, 0);
+        assertEquals(AppendBatchSizeTrackerImpl.MIN_TARGET_BATCH_TIME_MILLIS, tracker.getBatchTimeout());
+    }
+
+    @Test
+    public void testLingerBoundedByLatencyBudget() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock, 20);
+
+        // Acks take 5ms: linger for the minimum, well within the budget.
+        long eventNumber = recordRoundTrips(tracker, clock, 0, 5);
+        assertEquals(AppendBatchSizeTrackerImpl.MIN_TARGET_BATCH_TIME_MILLIS, tracker.getBatchTimeout());
+
+        // Acks take 15ms: only what is left of the budget may be spent lingering.
+        eventNumber = recordRoundTrips(tracker, clock, eventNumber, 15);
+        int linger = tracker.getBatchTimeout();
+        assertTrue(linger > 0);
+        assertTrue(linger + Math.round(tracker.getAckLatencyMillis()) <= 20);
+
+        // The server alone takes up the whole budget: don't batch at all.
+        recordRoundTrips(tracker, clock, eventNumber, 30);
+        assertEquals(0, tracker.getBatchTimeout());
+        for (int i = 1; i <= 1000; i++) {
+            tracker.recordAppend(eventNumber + 100 + i, 1000);
+        }
+        assertEquals(0, tracker.getAppendBlockSize());
+    }
+
+    @Test
+    public void testAckLatencyExcludesLinger() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock);
+        for (int i = 1; i <= 100; i++) {
+            // Each append lingers for 30ms before its batch is written out, and is acked 5ms after that.
+            tracker.recordAppend(i, 100);
+            clock.addAndGet(30);
+            tracker.recordFlush(i);
+            clock.addAndGet(5);
+            tracker.recordAck(i);
+        }
+        assertEquals(5, tracker.getAckLatencyMillis(), 1);
+    }
+
+    @Test
+    public void testBatchSizeFollowsLinger() {
+        AtomicLong clock = new AtomicLong(0);
+        AppendBatchSizeTrackerImpl tracker = createTracker(clock);
+        // One 100 byte event per millisecond, with a fast server: we should batch for the minimum amount of time.
+        for (int i = 1; i <= 200; i++) {
+            clock.incrementAndGet();
+            tracker.recordAppend(i, 100);
+        }
+        int fastServerBlockSize = tracker.getAppendBlockSize();
+        assertTrue(fastServerBlockSize > 0);
+        assertTrue(fastServerBlockSize <= AppendBatchSizeTrackerImpl.MIN_TARGET_BATCH_TIME_MILLIS * 100 + 100);
+
+        // With a slower server we linger for longer, so the blocks should be larger.
+        long eventNumber = recordRoundTrips(tracker, clock, 200, 50);
+        for (int i = 1; i <= 200; i++) {
+            clock.incrementAndGet();
+            tracker.recordAppend(eventNumber + i, 100);
+        }
+        assertTrue(tracker.getAppendBlockSize() > fastServerBlockSize);
+    }
+
+    private long recordRoundTrips(AppendBatchSizeTrackerImpl tracker, AtomicLong clock, long lastEventNumber, int latencyMillis) {
+        long eventNumber = lastEventNumber;
+        for (int i = 0; i < 100; i++) {
+            eventNumber++;
+            tracker.recordAppend(eventNumber, 100);
+            tracker.recordFlush(eventNumber);
+            clock.addAndGet(latencyMillis);
+            tracker.recordAck(eventNumber);
+        }
+        return eventNumber;
+    }
+
+    private AppendBatchSizeTrackerImpl createTracker(AtomicLong clock) {
+        return createTracker(clock, UNBOUNDED_LATENCY_MILLIS);
+    }
+
+    private AppendBatchSizeTrackerImpl createTracker(AtomicLong clock, int targetLatencyMillis) {
+        return new AppendBatchSizeTrackerImpl(MAX_BATCH_TIME_MILLIS, MAX_BATCH_SIZE, targetLatencyMillis, clock::get);
+    }
+}
@@ -9,14 +9,27 @@
  */
 package io.pravega.client.segment.impl;
 
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.handler.codec.LengthFieldBasedFrameDecoder;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.util.ByteBufferUtils;
+import io.pravega.shared.protocol.netty.Append;
+import io.pravega.shared.protocol.netty.AppendBatchSizeTracker;
+import io.pravega.shared.protocol.netty.AppendDecoder;
+import io.pravega.shared.protocol.netty.CommandDecoder;
+import io.pravega.shared.protocol.netty.CommandEncoder;
+import io.pravega.shared.protocol.netty.CompressionCodec;
 import io.pravega.shared.protocol.netty.ConnectionFailedException;
 import io.pravega.shared.protocol.netty.WireCommandType;
 import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentRead;
+import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.test.common.AssertExtensions;
 import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.UUID;
 import java.util.Vector;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.atomic.AtomicBoolean;
@@ -80,6 +93,68 @@ public class SegmentInputStreamTest {
         return wireData;
     }
 
+    @Test
+    public void testReadCompressedEventsFromEncoder() throws Exception {
+        // Encode events the way a writer does, frame them into appends the way the segment store does, then read them back.
+        byte[] compressible = new byte[1000];
+        Arrays.fill(compressible, (byte) 'a');
+        byte[] small = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
+        UUID writerId = UUID.randomUUID();
+        AppendBatchSizeTracker batchSizeTracker = new AppendBatchSizeTracker() {
+            @Override
+            public void recordAppend(long eventNumber, int size) {
+            }
+
+            @Override
+            public void recordFlush(long eventNumber) {
+            }
+
+            @Override
+            public void recordAck(long eventNumber) {
+            }
+
+            @Override
+            public int getAppendBlockSize() {
+                return 1024;
+            }
+
+            @Override
+            public int getBatchTimeout() {
+                return 10;
+            }
+        };
+        CommandEncoder encoder = new CommandEncoder(batchSizeTracker, CompressionCodec.DEFLATE);
+        encoder.setPeerVersion(WireCommands.WIRE_VERSION);
+        EmbeddedChannel writer = new EmbeddedChannel(encoder);
+        EmbeddedChannel server = new EmbeddedChannel(new LengthFieldBasedFrameDecoder(WireCommands.MAX_WIRECOMMAND_SIZE, 4, 4),
+                new CommandDecoder(), new AppendDecoder());
+        writer.writeOutbound(new SetupAppend(1, writerId, segment.getScopedName()),
+                new Append(segment.getScopedName(), writerId, 1, Unpooled.wrappedBuffer(compressible), null),
+                new Append(segment.getScopedName(), writerId, 2, Unpooled.wrappedBuffer(small), null),
+                new Append(segment.getScopedName(), writerId, 3, Unpooled.wrappedBuffer(compressible, 100, 800), null),
+                new WireCommands.KeepAlive());
+        for (Object bytes = writer.readOutbound(); bytes != null; bytes = writer.readOutbound()) {
+            server.writeInbound(bytes);
+        }
+        ByteBuf stored = Unpooled.buffer();
+        for (Object request = server.readInbound(); request != null; request = server.readInbound()) {
+            if (request instanceof Append) {
+                stored.writeBytes(((Append) request).getData());
+            }
+        }
+        assertTrue("Events were not compressed.", stored.readableBytes() < compressible.length + small.length);
+
+        ByteBuffer wireData = stored.nioBuffer();
+        TestAsyncSegmentInputStream fakeNetwork = new TestAsyncSegmentInputStream(segment, 3);
+        fakeNetwork.complete(0, new WireCommands.SegmentRead(segment.getScopedName(), 0, false, false, wireData));
+        @Cleanup
+        SegmentInputStreamImpl stream = new SegmentInputStreamImpl(fakeNetwork, 0);
+        assertEquals(ByteBuffer.wrap(compressible), stream.read());
+        assertEquals(ByteBuffer.wrap(small), stream.read());
+        assertEquals(ByteBuffer.wrap(compressible, 100, 800), stream.read());
+        assertEquals(stored.readableBytes(), stream.getOffset());
+    }
+
     @Test
     public void testRead() {
         byte[] data = new byte[]{0, 1, 2, 3, 4, 5, 6, 7, 8, 9};
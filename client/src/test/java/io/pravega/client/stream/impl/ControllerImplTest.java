@@ -33,6 +33,8 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.GetSegmentsRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsRequest;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusRequest;
@@ -57,6 +59,8 @@ import io.pravega.test.common.TestUtils;
 import java.io.IOException;
 import java.net.URI;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -533,6 +537,24 @@ public class ControllerImplTest {
                 }
             }
 
+            @Override
+            public void pingTransactions(PingTxnsRequest request,
+                    StreamObserver<PingTxnsResponse> responseObserver) {
+                if (request.getStreamInfo().getStream().equals("stream1")) {
+                    PingTxnsResponse.Builder response = PingTxnsResponse.newBuilder();
+                    for (int i = 0; i < request.getTxnIdCount(); i++) {
+                        PingTxnStatus.Status status = i == 0 ? PingTxnStatus.Status.OK : PingTxnStatus.Status.LEASE_TOO_LARGE;
+                        response.addEntries(PingTxnsResponse.TxnPingEntry.newBuilder()
+                                .setTxnId(request.getTxnId(i))
+                                .setStatus(PingTxnStatus.newBuilder().setStatus(status).build()));
+                    }
+                    responseObserver.onNext(response.build());
+                    responseObserver.onCompleted();
+                } else {
+                    responseObserver.onError(Status.INTERNAL.withDescription("Server error").asRuntimeException());
+                }
+            }
+
             @Override
             public void checkTransactionState(TxnRequest request, StreamObserver<TxnState> responseObserver) {
                 if (request.getStreamInfo().getStream().equals("stream1")) {
@@ -978,6 +1000,18 @@ public class ControllerImplTest {
         AssertExtensions.assertThrows("Should throw Exception", transaction, throwable -> true);
     }
 
+    @Test
+    public void testPingTransactions() throws Exception {
+        UUID txnId1 = UUID.randomUUID();
+        UUID txnId2 = UUID.randomUUID();
+        CompletableFuture<Set<UUID>> failed;
+        failed = controllerClient.pingTransactions(new StreamImpl("scope1", "stream1"), Arrays.asList(txnId1, txnId2), 0);
+        assertEquals(Collections.singleton(txnId2), failed.get());
+
+        failed = controllerClient.pingTransactions(new StreamImpl("scope1", "stream2"), Arrays.asList(txnId1, txnId2), 0);
+        AssertExtensions.assertThrows("Should throw Exception", failed, throwable -> true);
+    }
+
     @Test
     public void testChecktransactionState() throws Exception {
         CompletableFuture<Transaction.Status> transaction;
@@ -22,6 +22,7 @@ import io.pravega.client.stream.ReaderConfig;
 import io.pravega.client.stream.ReinitializationRequiredException;
 import io.pravega.client.stream.TruncatedDataException;
 import io.pravega.client.stream.mock.MockSegmentStreamFactory;
+import io.pravega.shared.protocol.netty.WireCommands;
 import io.pravega.test.common.AssertExtensions;
 import java.nio.ByteBuffer;
 import java.util.Collections;
@@ -35,6 +36,7 @@ import org.mockito.Mockito;
 
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
@@ -131,6 +133,64 @@ public class EventStreamReaderTest {
         reader.close();
     }
 
+    @Test(timeout = 10000)
+    public void testPublishBacklogs() throws SegmentSealedException, ReinitializationRequiredException {
+        AtomicLong clock = new AtomicLong();
+        MockSegmentStreamFactory segmentStreamFactory = new MockSegmentStreamFactory();
+        Orderer orderer = new Orderer();
+        ReaderGroupStateManager groupState = Mockito.mock(ReaderGroupStateManager.class);
+        EventStreamReaderImpl<byte[]> reader = new EventStreamReaderImpl<>(segmentStreamFactory, segmentStreamFactory,
+                                                                           new ByteArraySerializer(), groupState,
+                                                                           orderer, clock::get,
+                                                                           ReaderConfig.builder().build());
+        Segment segment = Segment.fromScopedName("Foo/Bar/0");
+        Mockito.when(groupState.acquireNewSegmentsIfNeeded(0L))
+               .thenReturn(ImmutableMap.of(segment, 0L))
+               .thenReturn(Collections.emptyMap());
+        SegmentOutputStream stream = segmentStreamFactory.createOutputStreamForSegment(segment, segmentSealedCallback, writerConfig);
+        int eventLength = writeInt(stream, 1).remaining() + WireCommands.TYPE_PLUS_LENGTH_SIZE;
+        for (int i = 2; i <= 5; i++) {
+            writeInt(stream, i);
+        }
+
+        // The backlog is fetched when the segment is acquired, and published on the next read.
+        assertEquals(1, readInt(reader.readNextEvent(0)));
+        Mockito.verify(groupState, Mockito.never()).updateSegmentBacklogs(Mockito.any());
+        assertEquals(2, readInt(reader.readNextEvent(0)));
+        Mockito.verify(groupState).updateSegmentBacklogs(ImmutableMap.of(segment, 5L * eventLength));
+
+        // After a checkpoint it is fetched again.
+        Mockito.when(groupState.getCheckpoint()).thenReturn("checkpoint1").thenReturn(null);
+        assertTrue(reader.readNextEvent(0).isCheckpoint());
+        assertEquals(3, readInt(reader.readNextEvent(0)));
+        assertEquals(4, readInt(reader.readNextEvent(0)));
+        Mockito.verify(groupState).updateSegmentBacklogs(ImmutableMap.of(segment, 3L * eventLength));
+
+        // It is not published again if it has not changed.
+        writeInt(stream, 6);
+        writeInt(stream, 7);
+        Mockito.when(groupState.getCheckpoint()).thenReturn("checkpoint2").thenReturn(null);
+        assertTrue(reader.readNextEvent(0).isCheckpoint());
+        assertEquals(5, readInt(reader.readNextEvent(0)));
+        assertEquals(6, readInt(reader.readNextEvent(0)));
+        Mockito.verify(groupState, Mockito.times(2)).updateSegmentBacklogs(Mockito.any());
+
+        // Failing to publish it does not fail the read.
+        Mockito.doThrow(new ReinitializationRequiredException()).when(groupState).updateSegmentBacklogs(Mockito.any());
+        Mockito.when(groupState.getCheckpoint()).thenReturn("checkpoint3").thenReturn(null);
+        assertTrue(reader.readNextEvent(0).isCheckpoint());
+        assertEquals(7, readInt(reader.readNextEvent(0)));
+        writeInt(stream, 8);
+        assertEquals(8, readInt(reader.readNextEvent(0)));
+        Mockito.verify(groupState).updateSegmentBacklogs(ImmutableMap.of(segment, eventLength + 0L));
+        reader.close();
+    }
+
+    private int readInt(EventRead<byte[]> event) {
+        assertNotNull(event.getEvent());
+        return ByteBuffer.wrap(event.getEvent()).getInt();
+    }
+
     private ByteBuffer writeInt(SegmentOutputStream stream, int value) throws SegmentSealedException {
         ByteBuffer buffer = ByteBuffer.allocate(4).putInt(value);
         buffer.flip();
@@ -33,6 +33,9 @@ import java.util.NavigableMap;
 import java.util.TreeMap;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.function.Consumer;
 import javax.annotation.concurrent.NotThreadSafe;
 import lombok.Cleanup;
@@ -633,4 +636,111 @@ public class EventStreamWriterTest {
         assertEquals("Foo", serializer.deserialize(outputStream3.getUnackedEventsOnSeal().get(0).getData()));
         assertEquals("Bar", serializer.deserialize(outputStream3.getUnackedEventsOnSeal().get(1).getData()));
     }
+
+    @Test(timeout = 20000)
+    public void testConcurrentWritesDuringSegmentSealed() throws Exception {
+        String scope = "scope";
+        String streamName = "stream";
+        StreamImpl stream = new StreamImpl(scope, streamName);
+        Segment segment1 = new Segment(scope, streamName, 0);
+        Segment segment2 = new Segment(scope, streamName, 1);
+        EventWriterConfig config = EventWriterConfig.builder().build();
+        SegmentOutputStreamFactory streamFactory = Mockito.mock(SegmentOutputStreamFactory.class);
+        Controller controller = Mockito.mock(Controller.class);
+        SynchronizedSegmentOutputStream outputStream1 = new SynchronizedSegmentOutputStream(segment1);
+        SynchronizedSegmentOutputStream outputStream2 = new SynchronizedSegmentOutputStream(segment2);
+        Mockito.when(controller.getCurrentSegments(scope, streamName)).thenReturn(getSegmentsFuture(segment1));
+        Mockito.when(controller.getSuccessors(segment1)).thenReturn(getReplacement(segment1, segment2));
+        Mockito.when(streamFactory.createOutputStreamForSegment(eq(segment1), any(), any())).thenAnswer(i -> {
+            outputStream1.callBackForSealed = i.getArgument(1);
+            return outputStream1;
+        });
+        Mockito.when(streamFactory.createOutputStreamForSegment(eq(segment2), any(), any())).thenAnswer(i -> {
+            outputStream2.callBackForSealed = i.getArgument(1);
+            return outputStream2;
+        });
+
+        JavaSerializer<String> serializer = new JavaSerializer<>();
+        ExecutorService retransmitPool = Executors.newSingleThreadExecutor();
+        @Cleanup
+        EventStreamWriter<String> writer = new EventStreamWriterImpl<>(stream, controller, streamFactory, serializer,
+                config, retransmitPool);
+
+        // Several threads write concurrently while segment1 is sealed half way through.
+        int writerCount = 4;
+        int eventsPerWriter = 500;
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int w = 0; w < writerCount; w++) {
+            String routingKey = "key" + w;
+            boolean sealer = w == 0;
+            Thread thread = new Thread(() -> {
+                Exceptions.handleInterrupted(start::await);
+                for (int i = 0; i < eventsPerWriter; i++) {
+                    writer.writeEvent(routingKey, routingKey + ":" + i);
+                    if (sealer && i == eventsPerWriter / 2) {
+                        outputStream1.invokeSealedCallBack();
+                    }
+                }
+            });
+            thread.start();
+            threads.add(thread);
+        }
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // The pool is single threaded, so this waits for the sealed callback to complete.
+        retransmitPool.submit(() -> null).get();
+
+        // Every event ends up in segment2 exactly once, and in order for each routing key.
+        List<PendingEvent> events = outputStream2.getUnackedEventsOnSeal();
+        assertEquals(writerCount * eventsPerWriter, events.size());
+        Map<String, Integer> nextExpected = new HashMap<>();
+        for (PendingEvent event : events) {
+            String[] parts = serializer.deserialize(event.getData()).split(":");
+            int expected = nextExpected.getOrDefault(parts[0], 0);
+            assertEquals("Unexpected event for " + parts[0], expected, Integer.parseInt(parts[1]));
+            nextExpected.put(parts[0], expected + 1);
+        }
+    }
+
+    /**
+     * Records writes like FakeSegmentOutputStream, but can be written to by multiple threads.
+     */
+    @RequiredArgsConstructor
+    private static final class SynchronizedSegmentOutputStream implements SegmentOutputStream {
+        private final Segment segment;
+        private volatile Consumer<Segment> callBackForSealed;
+        private final ArrayList<PendingEvent> writes = new ArrayList<>();
+
+        private void invokeSealedCallBack() {
+            if (callBackForSealed != null) {
+                callBackForSealed.accept(segment);
+            }
+        }
+
+        @Override
+        public synchronized void write(PendingEvent event) {
+            writes.add(event);
+        }
+
+        @Override
+        public void close() throws SegmentSealedException {
+        }
+
+        @Override
+        public void flush() throws SegmentSealedException {
+        }
+
+        @Override
+        public synchronized List<PendingEvent> getUnackedEventsOnSeal() {
+            return new ArrayList<>(writes);
+        }
+
+        @Override
+        public String getSegmentName() {
+            return segment.getScopedName();
+        }
+    }
 }
@@ -9,6 +9,8 @@
  */
 package io.pravega.client.stream.impl;
 
+import java.util.Collections;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
@@ -18,19 +20,23 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
 import org.mockito.Mock;
 import org.mockito.Spy;
 import org.mockito.junit.MockitoJUnitRunner;
 
 import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.client.stream.Stream;
+import io.pravega.common.concurrent.Futures;
 import lombok.Cleanup;
 import lombok.extern.slf4j.Slf4j;
 
 import static java.util.concurrent.TimeUnit.SECONDS;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
@@ -54,8 +60,8 @@ public class PingerTest {
         config = EventWriterConfig.builder().build();
         stream = new StreamImpl("testScope", "testStream");
 
-        when(controller.pingTransaction(eq(stream), any(UUID.class), anyLong())).thenReturn(CompletableFuture
-                .completedFuture(null));
+        when(controller.pingTransactions(eq(stream), anyCollection(), anyLong())).thenReturn(CompletableFuture
+                .completedFuture(Collections.emptySet()));
         when(executor.scheduleAtFixedRate(any(Runnable.class), anyLong(), anyLong(), any(TimeUnit.class)))
                 .thenAnswer(invocation -> {
                     Runnable runnable = (Runnable) invocation.getArgument(0);
@@ -79,7 +85,7 @@ public class PingerTest {
         long expectedKeepAliveInterval = (long) (PING_INTERVAL_FACTOR * config.getTransactionTimeoutTime());
         verify(executor, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(),
                 eq(expectedKeepAliveInterval), eq(TimeUnit.MILLISECONDS));
-        verify(controller, times(1)).pingTransaction(eq(stream), eq(txnID), eq(config.getTransactionTimeoutTime()));
+        verify(controller, times(1)).pingTransactions(eq(stream), eq(Collections.singletonList(txnID)), eq(config.getTransactionTimeoutTime()));
     }
 
     @Test
@@ -94,7 +100,7 @@ public class PingerTest {
 
             verify(executor, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(),
                 eq(SECONDS.toMillis(5)), eq(TimeUnit.MILLISECONDS));
-        verify(controller, times(1)).pingTransaction(eq(stream), eq(txnID),
+        verify(controller, times(1)).pingTransactions(eq(stream), eq(Collections.singletonList(txnID)),
                 eq(smallTxnLeaseTime.getTransactionTimeoutTime()));
     }
 
@@ -102,9 +108,9 @@ public class PingerTest {
     public void startTxnKeepAliveError() throws Exception {
         final UUID txnID = UUID.randomUUID();
 
-        CompletableFuture<Void> failedFuture = new CompletableFuture<>();
+        CompletableFuture<Set<UUID>> failedFuture = new CompletableFuture<>();
         failedFuture.completeExceptionally(new RuntimeException("Error"));
-        when(controller.pingTransaction(eq(stream), eq(txnID), anyLong())).thenReturn(failedFuture);
+        when(controller.pingTransactions(eq(stream), anyCollection(), anyLong())).thenReturn(failedFuture);
 
         @Cleanup
         Pinger pinger = new Pinger(config, stream, controller, executor);
@@ -113,7 +119,8 @@ public class PingerTest {
         long expectedKeepAliveInterval = (long) (PING_INTERVAL_FACTOR * config.getTransactionTimeoutTime());
         verify(executor, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(),
                 eq(expectedKeepAliveInterval), eq(TimeUnit.MILLISECONDS));
-        verify(controller, times(1)).pingTransaction(eq(stream), eq(txnID), eq(config.getTransactionTimeoutTime()));
+        verify(controller, times(1)).pingTransactions(eq(stream), eq(Collections.singletonList(txnID)), eq(config.getTransactionTimeoutTime()));
+        verify(controller, never()).pingTransaction(any(Stream.class), any(UUID.class), anyLong());
     }
 
     @Test
@@ -129,4 +136,43 @@ public class PingerTest {
         verify(executor, times(1)).scheduleAtFixedRate(any(Runnable.class), anyLong(),
                 eq(expectedKeepAliveInterval), eq(TimeUnit.MILLISECONDS));
     }
+
+    @Test
+    public void startTxnKeepAlivePartialFailure() throws Exception {
+        final UUID txnID1 = UUID.randomUUID();
+        when(controller.pingTransactions(eq(stream), anyCollection(), anyLong())).thenReturn(CompletableFuture
+                .completedFuture(Collections.singleton(txnID1)));
+        @Cleanup
+        Pinger pinger = new Pinger(config, stream, controller, executor);
+
+        pinger.startPing(txnID1);
+        verify(controller, times(1)).pingTransactions(eq(stream), eq(Collections.singletonList(txnID1)),
+                eq(config.getTransactionTimeoutTime()));
+    }
+
+    @Test
+    public void startTxnKeepAliveBulkPingUnsupported() throws Exception {
+        final UUID txnID1 = UUID.randomUUID();
+        final UUID txnID2 = UUID.randomUUID();
+        final long lease = config.getTransactionTimeoutTime();
+        when(controller.pingTransactions(eq(stream), anyCollection(), anyLong()))
+                .thenReturn(Futures.failedFuture(new UnsupportedOperationException("Unsupported")));
+        when(controller.pingTransaction(eq(stream), any(UUID.class), anyLong())).thenReturn(CompletableFuture.completedFuture(null));
+        @Cleanup
+        Pinger pinger = new Pinger(config, stream, controller, executor);
+
+        // The first ping falls back to pinging each transaction right away.
+        pinger.startPing(txnID1);
+        verify(controller, times(1)).pingTransactions(eq(stream), eq(Collections.singletonList(txnID1)), eq(lease));
+        verify(controller, times(1)).pingTransaction(eq(stream), eq(txnID1), eq(lease));
+
+        // Later pings do not try the bulk request again.
+        pinger.startPing(txnID2);
+        ArgumentCaptor<Runnable> pingTask = ArgumentCaptor.forClass(Runnable.class);
+        verify(executor).scheduleAtFixedRate(pingTask.capture(), anyLong(), anyLong(), any(TimeUnit.class));
+        pingTask.getValue().run();
+        verify(controller, times(1)).pingTransactions(eq(stream), anyCollection(), anyLong());
+        verify(controller, times(2)).pingTransaction(eq(stream), eq(txnID1), eq(lease));
+        verify(controller, times(1)).pingTransaction(eq(stream), eq(txnID2), eq(lease));
+    }
 }
@@ -27,6 +27,7 @@ import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.test.common.AssertExtensions;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.Map;
 import java.util.Map.Entry;
 import java.util.concurrent.CompletableFuture;
@@ -418,6 +419,147 @@ public class ReaderGroupStateManagerTest {
         assertNull(reader3.findSegmentToReleaseIfRequired());
     }
 
+    @Test(timeout = 10000)
+    public void testReleaseByBacklog() throws ReinitializationRequiredException {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory, streamFactory);
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        @Cleanup
+        StateSynchronizer<ReaderGroupState> stateSynchronizer = clientFactory.createStateSynchronizer(stream,
+                                                                                                      new JavaSerializer<>(),
+                                                                                                      new JavaSerializer<>(),
+                                                                                                      config);
+        AtomicLong clock = new AtomicLong();
+        Map<Segment, Long> segments = new HashMap<>();
+        segments.put(new Segment(scope, stream, 0), 0L);
+        segments.put(new Segment(scope, stream, 1), 1L);
+        segments.put(new Segment(scope, stream, 2), 2L);
+        segments.put(new Segment(scope, stream, 3), 3L);
+        ReaderGroupStateManager.initializeReaderGroup(stateSynchronizer, ReaderGroupConfig.builder().build(), segments);
+
+        ReaderGroupStateManager reader1 = new ReaderGroupStateManager("reader1", stateSynchronizer, controller,
+                clock::get);
+        reader1.initializeReader(0);
+        ReaderGroupStateManager reader2 = new ReaderGroupStateManager("reader2", stateSynchronizer, controller,
+                clock::get);
+        reader2.initializeReader(0);
+        Map<Segment, Long> segments1 = reader1.acquireNewSegmentsIfNeeded(0);
+        assertEquals(2, segments1.size());
+        Map<Segment, Long> segments2 = reader2.acquireNewSegmentsIfNeeded(0);
+        assertEquals(2, segments2.size());
+
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+
+        // Reader1 is far behind on one of its segments, but until all readers report it falls back to segment counts.
+        Iterator<Segment> iter = segments1.keySet().iterator();
+        Segment heavy = iter.next();
+        Segment light = iter.next();
+        long heavyBacklog = 10 * ReaderGroupStateManager.MIN_BACKLOG_IMBALANCE;
+        reader1.updateSegmentBacklogs(ImmutableMap.of(heavy, heavyBacklog, light, 1L));
+        assertNull(reader1.findSegmentToReleaseIfRequired());
+
+        Map<Segment, Long> caughtUp = new HashMap<>();
+        segments2.keySet().forEach(segment -> caughtUp.put(segment, 0L));
+        reader2.updateSegmentBacklogs(caughtUp);
+        assertEquals(heavy, reader1.findSegmentToReleaseIfRequired());
+        assertNull(reader2.findSegmentToReleaseIfRequired());
+        assertTrue(reader1.releaseSegment(heavy, 0, 0));
+
+        // The less loaded reader picks the segment up first, and then reports its backlog.
+        assertTrue(reader1.acquireNewSegmentsIfNeeded(0).isEmpty());
+        assertEquals(Collections.singleton(heavy), reader2.acquireNewSegmentsIfNeeded(0).keySet());
+        assertFalse(stateSynchronizer.getState().getReaderBacklogs().containsKey("reader2"));
+        Map<Segment, Long> withHeavy = new HashMap<>(caughtUp);
+        withHeavy.put(heavy, heavyBacklog);
+        reader2.updateSegmentBacklogs(withHeavy);
+
+        // Moving it back would not help, but reader2 now owns more segments than reader1, so it gives up one of the
+        // caught up ones instead.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertNull(reader1.findSegmentToReleaseIfRequired());
+        Segment toRelease = reader2.findSegmentToReleaseIfRequired();
+        assertNotNull(toRelease);
+        assertEquals(0L, (long) withHeavy.get(toRelease));
+    }
+
+    @Test(timeout = 10000)
+    public void testReaderJoinsCaughtUpGroup() throws ReinitializationRequiredException {
+        String scope = "scope";
+        String stream = "stream";
+        PravegaNodeUri endpoint = new PravegaNodeUri("localhost", SERVICE_PORT);
+        MockConnectionFactoryImpl connectionFactory = new MockConnectionFactoryImpl();
+        MockController controller = new MockController(endpoint.getEndpoint(), endpoint.getPort(), connectionFactory);
+        MockSegmentStreamFactory streamFactory = new MockSegmentStreamFactory();
+        @Cleanup
+        ClientFactory clientFactory = new ClientFactoryImpl(scope, controller, connectionFactory, streamFactory, streamFactory, streamFactory);
+        SynchronizerConfig config = SynchronizerConfig.builder().build();
+        @Cleanup
+        StateSynchronizer<ReaderGroupState> stateSynchronizer = clientFactory.createStateSynchronizer(stream,
+                                                                                                      new JavaSerializer<>(),
+                                                                                                      new JavaSerializer<>(),
+                                                                                                      config);
+        AtomicLong clock = new AtomicLong();
+        Map<Segment, Long> segments = new HashMap<>();
+        for (int i = 0; i < 6; i++) {
+            segments.put(new Segment(scope, stream, i), (long) i);
+        }
+        ReaderGroupStateManager.initializeReaderGroup(stateSynchronizer, ReaderGroupConfig.builder().build(), segments);
+
+        ReaderGroupStateManager reader1 = new ReaderGroupStateManager("reader1", stateSynchronizer, controller,
+                clock::get);
+        reader1.initializeReader(0);
+        ReaderGroupStateManager reader2 = new ReaderGroupStateManager("reader2", stateSynchronizer, controller,
+                clock::get);
+        reader2.initializeReader(0);
+        Map<Segment, Long> segments1 = reader1.acquireNewSegmentsIfNeeded(0);
+        assertEquals(3, segments1.size());
+        Map<Segment, Long> segments2 = reader2.acquireNewSegmentsIfNeeded(0);
+        assertEquals(3, segments2.size());
+
+        // Both readers are at the tail of all of their segments.
+        Map<Segment, Long> caughtUp1 = new HashMap<>();
+        segments1.keySet().forEach(segment -> caughtUp1.put(segment, 0L));
+        reader1.updateSegmentBacklogs(caughtUp1);
+        Map<Segment, Long> caughtUp2 = new HashMap<>();
+        segments2.keySet().forEach(segment -> caughtUp2.put(segment, 0L));
+        reader2.updateSegmentBacklogs(caughtUp2);
+
+        // A third reader joins. All backlogs are known and balanced, so the segments are balanced by count.
+        ReaderGroupStateManager reader3 = new ReaderGroupStateManager("reader3", stateSynchronizer, controller,
+                clock::get);
+        reader3.initializeReader(0);
+        assertTrue(reader3.acquireNewSegmentsIfNeeded(0).isEmpty());
+        assertEquals(0L, (long) stateSynchronizer.getState().getReaderBacklogs().get("reader3"));
+
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        Segment released1 = reader1.findSegmentToReleaseIfRequired();
+        assertNotNull(released1);
+        assertTrue(reader1.releaseSegment(released1, 0, 0));
+        assertEquals(Collections.singleton(released1), reader3.acquireNewSegmentsIfNeeded(0).keySet());
+        reader3.updateSegmentBacklogs(ImmutableMap.of(released1, 0L));
+
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertNull(reader1.findSegmentToReleaseIfRequired());
+        Segment released2 = reader2.findSegmentToReleaseIfRequired();
+        assertNotNull(released2);
+        assertTrue(reader2.releaseSegment(released2, 0, 0));
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertEquals(Collections.singleton(released2), reader3.acquireNewSegmentsIfNeeded(0).keySet());
+
+        // Two segments each: nothing left to move.
+        clock.addAndGet(ReaderGroupStateManager.UPDATE_WINDOW.toNanos());
+        assertNull(reader1.findSegmentToReleaseIfRequired());
+        assertNull(reader2.findSegmentToReleaseIfRequired());
+        assertNull(reader3.findSegmentToReleaseIfRequired());
+        assertEquals(2, stateSynchronizer.getState().getSegments("reader3").size());
+    }
+
     @Test(timeout = 10000)
     public void testCheckpoint() throws ReinitializationRequiredException {
         String scope = "scope";
@@ -19,6 +19,7 @@ import org.junit.Test;
 import org.junit.runner.RunWith;
 import org.mockito.Mock;
 import org.mockito.junit.MockitoJUnitRunner;
+import com.google.common.collect.ImmutableMap;
 import com.google.common.collect.ImmutableSet;
 import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.state.Revision;
@@ -83,6 +84,29 @@ public class ReaderGroupStateTest {
         assertEquals(3L, latestPosition.get().get(getStream("S2")).get(getSegment("S2")).longValue());
     }
 
+    @Test
+    public void segmentBacklogsDroppedWithAssignment() throws Exception {
+        Segment s1 = getSegment("S1");
+        Segment s2 = getSegment("S2");
+        new ReaderGroupState.AddReader("r1").update(readerState);
+        new ReaderGroupState.AcquireSegment("r1", s1).update(readerState);
+        new ReaderGroupState.AcquireSegment("r1", s2).update(readerState);
+        new ReaderGroupState.UpdateSegmentBacklogs("r1", ImmutableMap.of(s1, 10L, s2, 20L)).update(readerState);
+        assertEquals(ImmutableMap.of("r1", 30L), readerState.getReaderBacklogs());
+
+        // The backlog of a released segment is not carried over to its next owner.
+        new ReaderGroupState.ReleaseSegment("r1", s2, 1L).update(readerState);
+        new ReaderGroupState.AddReader("r2").update(readerState);
+        new ReaderGroupState.AcquireSegment("r2", s2).update(readerState);
+        assertEquals(ImmutableMap.of("r1", 10L), readerState.getReaderBacklogs());
+
+        // Nor are the backlogs of the segments of a reader that goes away.
+        new ReaderGroupState.RemoveReader("r1", null).update(readerState);
+        new ReaderGroupState.AcquireSegment("r2", s1).update(readerState);
+        assertTrue(readerState.getReaderBacklogs().isEmpty());
+        assertTrue(readerState.getSegmentBacklogs("r2").isEmpty());
+    }
+
     private Segment getSegment(String streamName) {
         return new Segment(SCOPE, streamName, 0);
     }
@@ -0,0 +1,146 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.client.stream.impl;
+
+import com.google.common.collect.ImmutableMap;
+import io.pravega.client.segment.impl.Segment;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+public class SegmentOffsetMapTest {
+
+    @Test
+    public void testCopyOnWrite() {
+        Segment s1 = new Segment("scope", "a", 1);
+        Segment s2 = new Segment("scope", "a", 2);
+        Segment s3 = new Segment("scope", "b", 1);
+
+        SegmentOffsetMap empty = SegmentOffsetMap.EMPTY;
+        SegmentOffsetMap one = empty.with(s2, 20L);
+        SegmentOffsetMap three = one.withAll(ImmutableMap.of(s3, 30L, s1, 10L));
+        SegmentOffsetMap updated = three.with(s2, 25L);
+        SegmentOffsetMap removed = updated.without(s1);
+
+        assertTrue(empty.isEmpty());
+        assertEquals(ImmutableMap.of(s2, 20L), one);
+        assertEquals(ImmutableMap.of(s1, 10L, s2, 20L, s3, 30L), three);
+        assertEquals(ImmutableMap.of(s1, 10L, s2, 25L, s3, 30L), updated);
+        assertEquals(ImmutableMap.of(s2, 25L, s3, 30L), removed);
+        assertSame(removed, removed.without(s1));
+        assertTrue(removed.without(s2).without(s3).isEmpty());
+
+        assertTrue(three.keySet().contains(s1));
+        assertFalse(removed.keySet().contains(s1));
+        assertNull(removed.get(s1));
+        assertNull(removed.get(new Segment("other", "a", 2)));
+        assertNull(removed.get("scope/a/2"));
+        assertEquals(25L, (long) removed.get(new Segment("scope", "a", 2)));
+    }
+
+    @Test
+    public void testMatchesHashMap() {
+        Random random = new Random(0);
+        Map<Segment, Long> expected = new HashMap<>();
+        SegmentOffsetMap actual = SegmentOffsetMap.EMPTY;
+        for (int i = 0; i < 1000; i++) {
+            Segment segment = new Segment("scope" + random.nextInt(2), "stream" + random.nextInt(5), random.nextInt(50));
+            if (random.nextInt(4) == 0) {
+                expected.remove(segment);
+                actual = actual.without(segment);
+            } else if (random.nextInt(10) == 0) {
+                Map<Segment, Long> batch = new HashMap<>();
+                batch.put(segment, (long) i);
+                batch.put(new Segment(segment.getScope(), segment.getStreamName(), random.nextInt(50)), (long) -i);
+                expected.putAll(batch);
+                actual = actual.withAll(batch);
+            } else {
+                expected.put(segment, (long) i);
+                actual = actual.with(segment, i);
+            }
+            assertEquals(expected.size(), actual.size());
+        }
+
+        assertEquals(expected, actual);
+        assertEquals(actual, expected);
+        assertEquals(expected.hashCode(), actual.hashCode());
+        assertEquals(expected.keySet(), actual.keySet());
+        assertEquals(expected, SegmentOffsetMap.of(expected));
+
+        // Iteration is in segment order.
+        List<Segment> keys = new ArrayList<>(actual.keySet());
+        for (int i = 1; i < keys.size(); i++) {
+            assertTrue(keys.get(i - 1).compareTo(keys.get(i)) < 0);
+        }
+    }
+
+    @Test(timeout = 20000)
+    public void testScale() {
+        final int count = 100000;
+        List<Segment> segments = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            segments.add(new Segment("scope", "stream" + i % 10, i / 10));
+        }
+        Collections.shuffle(segments, new Random(0));
+
+        // Segments are added one at a time, the way readers acquire them. This would take quadratic time if every
+        // update copied the whole map.
+        SegmentOffsetMap map = SegmentOffsetMap.EMPTY;
+        for (int i = 0; i < count; i++) {
+            map = map.with(segments.get(i), i);
+        }
+        assertEquals(count, map.size());
+        for (int i = 0; i < count; i++) {
+            assertEquals(i, (long) map.get(segments.get(i)));
+        }
+
+        // Iterating hands out the segments that were added rather than creating new ones.
+        Set<Segment> added = Collections.newSetFromMap(new IdentityHashMap<>());
+        added.addAll(segments);
+        for (Segment segment : map.keySet()) {
+            assertTrue(added.contains(segment));
+        }
+
+        // A checkpoint's worth of positions from one reader.
+        Map<Segment, Long> positions = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            positions.put(segments.get(i), -1L);
+        }
+        SegmentOffsetMap updated = map.withAll(positions);
+        assertEquals(count, updated.size());
+        assertEquals(-1L, (long) updated.get(segments.get(0)));
+        assertEquals(0L, (long) map.get(segments.get(0)));
+        assertEquals(100L, (long) updated.get(segments.get(100)));
+
+        // Segments are removed in a different order.
+        Collections.shuffle(segments, new Random(1));
+        for (int i = 0; i < count; i++) {
+            map = map.without(segments.get(i));
+            if (i % 1000 == 0) {
+                assertEquals(count - i - 1, map.size());
+                assertNull(map.get(segments.get(i)));
+                assertTrue(map.containsKey(segments.get(count - 1)));
+            }
+        }
+        assertTrue(map.isEmpty());
+    }
+}
@@ -13,6 +13,7 @@ import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.segment.impl.SegmentOutputStreamFactory;
 import io.pravega.client.stream.EventWriterConfig;
 import java.util.Arrays;
+import java.util.List;
 import java.util.TreeMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Consumer;
@@ -21,7 +22,9 @@ import org.junit.Test;
 import org.mockito.Mockito;
 
 import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
 import static org.junit.Assert.assertTrue;
 
 public class SegmentSelectorTest {
@@ -110,4 +113,31 @@ public class SegmentSelectorTest {
         assertArrayEquals(new int[] { 20, 0, 0, 0 }, counts);
     }
 
+    @Test
+    public void testSegmentsForEvents() {
+        Controller controller = Mockito.mock(Controller.class);
+        SegmentOutputStreamFactory factory = Mockito.mock(SegmentOutputStreamFactory.class);
+        SegmentSelector selector = new SegmentSelector(new StreamImpl(scope, streamName), controller, factory, config);
+        List<String> keys = Arrays.asList("Foo", "Bar", "Foo", null, "Baz");
+        assertNull(selector.getSegmentsForEvents(keys));
+        TreeMap<Double, Segment> segments = new TreeMap<>();
+        segments.put(0.25, new Segment(scope, streamName, 0));
+        segments.put(0.5, new Segment(scope, streamName, 1));
+        segments.put(0.75, new Segment(scope, streamName, 2));
+        segments.put(1.0, new Segment(scope, streamName, 3));
+        StreamSegments streamSegments = new StreamSegments(segments);
+
+        Mockito.when(controller.getCurrentSegments(scope, streamName))
+               .thenReturn(CompletableFuture.completedFuture(streamSegments));
+        selector.refreshSegmentEventWriters(segmentSealedCallback);
+        Segment[] result = selector.getSegmentsForEvents(keys);
+        assertEquals(keys.size(), result.length);
+        for (int i = 0; i < keys.size(); i++) {
+            assertNotNull(result[i]);
+            if (keys.get(i) != null) {
+                assertEquals(streamSegments.getSegmentForKey(keys.get(i)), result[i]);
+                assertEquals(selector.getSegmentForEvent(keys.get(i)), result[i]);
+            }
+        }
+    }
 }
@@ -130,4 +130,36 @@ public class StreamSegmentsTest {
         assertArrayEquals(new int[] { 20, 0, 0, 0 }, counts);
     }
 
+    @Test
+    public void testRangeBoundaries() {
+        TreeMap<Double, Segment> segments = new TreeMap<>();
+        segments.put(0.25, new Segment(scope, streamName, 0));
+        segments.put(0.5, new Segment(scope, streamName, 1));
+        segments.put(0.75, new Segment(scope, streamName, 2));
+        segments.put(1.0, new Segment(scope, streamName, 3));
+        StreamSegments streamSegments = new StreamSegments(segments);
+
+        double[] keys = new double[] { 0.0, 0.1, 0.25, 0.2500001, 0.5, 0.6, 0.75, 0.9, 1.0 };
+        Segment[] results = new Segment[keys.length];
+        streamSegments.getSegmentsForKeys(keys, results);
+        for (int i = 0; i < keys.length; i++) {
+            Segment expected = segments.ceilingEntry(keys[i]).getValue();
+            assertEquals(expected, streamSegments.getSegmentForKey(keys[i]));
+            assertEquals(expected, results[i]);
+        }
+    }
+
+    @Test
+    public void testRoutingKeyHashCache() {
+        TreeMap<Double, Segment> segments = new TreeMap<>();
+        segments.put(0.5, new Segment(scope, streamName, 0));
+        segments.put(1.0, new Segment(scope, streamName, 1));
+        StreamSegments streamSegments = new StreamSegments(segments);
+        RoutingKeyHashCache cache = new RoutingKeyHashCache(StreamSegments.HASHER, 4);
+        for (int i = 0; i < 100; i++) {
+            String key = "" + (i % 10);
+            assertEquals(StreamSegments.HASHER.hashToRange(key), cache.hashToRange(key), 0.0);
+            assertEquals(streamSegments.getSegmentForKey(key), streamSegments.getSegmentForKey(cache.hashToRange(key)));
+        }
+    }
 }
@@ -12,6 +12,7 @@ package io.pravega.client.stream.mock;
 import com.google.common.base.Preconditions;
 import io.pravega.client.netty.impl.ClientConnection;
 import io.pravega.client.netty.impl.ConnectionFactory;
+import io.pravega.client.stream.EventWriterConfig;
 import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
 import io.pravega.shared.protocol.netty.ReplyProcessor;
@@ -39,6 +40,12 @@ public class MockConnectionFactoryImpl implements ConnectionFactory {
         return CompletableFuture.completedFuture(connection);
     }
 
+    @Override
+    public CompletableFuture<ClientConnection> establishConnection(PravegaNodeUri location, ReplyProcessor rp,
+                                                                   EventWriterConfig config) {
+        return establishConnection(location, rp);
+    }
+
     @Override
     public ScheduledExecutorService getInternalExecutor() {
         return executor;
@@ -25,6 +25,7 @@ import java.nio.ByteBuffer;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicBoolean;
 import javax.annotation.concurrent.GuardedBy;
@@ -75,6 +76,12 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
         return writeOffset;
     }
 
+    @Override
+    @Synchronized
+    public CompletableFuture<Long> fetchCurrentSegmentLengthAsync() {
+        return CompletableFuture.completedFuture(writeOffset);
+    }
+
     
     @Override
     public ByteBuffer read() throws EndOfSegmentException, SegmentTruncatedException {
@@ -151,6 +158,11 @@ public class MockSegmentIoStreams implements SegmentOutputStream, SegmentInputSt
         return result == null ? SegmentAttribute.NULL_VALUE : result;
     }
 
+    @Override
+    public long fetchOffsetAtTime(long timestamp) {
+        return SegmentAttribute.NULL_VALUE;
+    }
+
     @Override
     public boolean compareAndSetAttribute(SegmentAttribute attribute, long expectedValue, long newValue) {
         attributes.putIfAbsent(attribute, SegmentAttribute.NULL_VALUE);
@@ -9,6 +9,7 @@
  */
 package io.pravega.common.util;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
 import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectClosedException;
@@ -17,11 +18,18 @@ import java.util.Collection;
 import java.util.Collections;
 import java.util.Queue;
 import java.util.concurrent.CompletableFuture;
-import javax.annotation.concurrent.GuardedBy;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
 
 /**
  * Represents a thread-safe queue that dequeues all elements at once. Blocks the Dequeue if empty until new elements arrive.
+ * <p>
+ * This class is lock-free: any number of threads may add() items concurrently without contending on a monitor. It is
+ * intended to be used with a single consumer (only one poll() or take() may be in progress at any given time).
  *
  * @param <T> The type of the items in the queue.
  */
@@ -29,12 +37,10 @@ import javax.annotation.concurrent.ThreadSafe;
 public class BlockingDrainingQueue<T> {
     //region Members
 
-    @GuardedBy("contents")
-    private final ArrayDeque<T> contents;
-    @GuardedBy("contents")
-    private CompletableFuture<Queue<T>> pendingTake;
-    @GuardedBy("contents")
-    private boolean closed;
+    private final ConcurrentLinkedQueue<T> contents;
+    private final AtomicInteger size;
+    private final AtomicReference<PendingTake<T>> pendingTake;
+    private final AtomicBoolean closed;
 
     ///endregion
 
@@ -44,7 +50,10 @@ public class BlockingDrainingQueue<T> {
      * Creates a new instance of the BlockingDrainingQueue class.
      */
     public BlockingDrainingQueue() {
-        this.contents = new ArrayDeque<>();
+        this.contents = new ConcurrentLinkedQueue<>();
+        this.size = new AtomicInteger();
+        this.pendingTake = new AtomicReference<>();
+        this.closed = new AtomicBoolean();
     }
 
     //endregion
@@ -58,23 +67,17 @@ public class BlockingDrainingQueue<T> {
      * returned both here and via takeAllItems().
      */
     public Collection<T> close() {
-        CompletableFuture<Queue<T>> pending = null;
-        Collection<T> result = null;
-        synchronized (this.contents) {
-            if (!this.closed) {
-                this.closed = true;
-                pending = this.pendingTake;
-                this.pendingTake = null;
-                result = fetch(this.contents.size());
-            }
+        if (this.closed.getAndSet(true)) {
+            return Collections.emptyList();
         }
 
         // Cancel any pending poll request.
+        PendingTake<T> pending = this.pendingTake.getAndSet(null);
         if (pending != null) {
-            pending.cancel(true);
+            pending.result.cancel(true);
         }
 
-        return result != null ? result : Collections.emptyList();
+        return fetch(Integer.MAX_VALUE);
     }
 
     /**
@@ -84,20 +87,27 @@ public class BlockingDrainingQueue<T> {
      * @throws ObjectClosedException If the Queue is closed.
      */
     public void add(T item) {
-        CompletableFuture<Queue<T>> pending;
-        Queue<T> result = null;
-        synchronized (this.contents) {
-            Exceptions.checkNotClosed(this.closed, this);
-            this.contents.addLast(item);
-            pending = this.pendingTake;
-            this.pendingTake = null;
-            if (pending != null) {
-                result = fetch(this.contents.size());
-            }
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        this.size.incrementAndGet();
+        this.contents.add(item);
+        if (this.closed.get() && this.contents.remove(item)) {
+            // We raced with close(), and it did not pick up our item. Since nobody will ever see it, we must fail the call.
+            this.size.decrementAndGet();
+            throw new ObjectClosedException(this);
         }
 
+        notifyPendingTake();
+    }
+
+    /**
+     * Completes the pending take() request, if any, using the items currently in the queue. This is invoked by add() after
+     * it has queued its item, but by that time the item may have already been picked up by another add() or take().
+     */
+    @VisibleForTesting
+    void notifyPendingTake() {
+        PendingTake<T> pending = this.pendingTake.getAndSet(null);
         if (pending != null) {
-            pending.complete(result);
+            completePendingTake(pending);
         }
     }
 
@@ -109,18 +119,16 @@ public class BlockingDrainingQueue<T> {
      * @throws IllegalStateException If there is a pending take() operation which hasn't completed yet.
      */
     public Queue<T> poll(int maxCount) {
-        synchronized (this.contents) {
-            Exceptions.checkNotClosed(this.closed, this);
-            Preconditions.checkState(this.pendingTake == null, "Cannot call poll() when there is a pending take() request.");
-            return fetch(maxCount);
-        }
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.pendingTake.get() == null, "Cannot call poll() when there is a pending take() request.");
+        return fetch(maxCount);
     }
 
     /**
      * Returns the next items from the queue. If the queue is empty, it blocks the call until at least one item is added.
      *
-     * @param maxCount The maximum number of items to return. This argument will be ignored if the queue is currently empty,
-     *                 but in that case the result will always be completed with exactly one element.
+     * @param maxCount The maximum number of items to return. If the queue is currently empty, the result will contain at
+     *                 least one and at most maxCount of the items that were added until the Future is completed.
      * @return A CompletableFuture that, when completed, will contain the requested result. If the queue is not currently
      * empty, this Future will already be completed, otherwise it will be completed the next time the add() method is called.
      * If the queue is closed and this Future is not yet completed, it will be cancelled.
@@ -128,17 +136,23 @@ public class BlockingDrainingQueue<T> {
      * @throws IllegalStateException If another call to take() is in progress.
      */
     public CompletableFuture<Queue<T>> take(int maxCount) {
-        synchronized (this.contents) {
-            Exceptions.checkNotClosed(this.closed, this);
-            Preconditions.checkState(this.pendingTake == null, "Cannot have more than one concurrent pending take() request.");
-            Queue<T> result = fetch(maxCount);
-            if (result.size() > 0) {
-                return CompletableFuture.completedFuture(result);
-            } else {
-                this.pendingTake = new CompletableFuture<>();
-                return this.pendingTake;
-            }
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        Preconditions.checkState(this.pendingTake.get() == null, "Cannot have more than one concurrent pending take() request.");
+        Queue<T> result = fetch(maxCount);
+        if (result.size() > 0) {
+            return CompletableFuture.completedFuture(result);
+        }
+
+        PendingTake<T> pending = new PendingTake<>(new CompletableFuture<>(), maxCount);
+        Preconditions.checkState(this.pendingTake.compareAndSet(null, pending), "Cannot have more than one concurrent pending take() request.");
+
+        // An item may have been added (or the queue closed) after we checked, but before we published our pending take().
+        // If so, and nobody else picked it up in the meantime, we must complete it ourselves.
+        if (isReady() && this.pendingTake.compareAndSet(pending, null)) {
+            completePendingTake(pending);
         }
+
+        return pending.result;
     }
 
     /**
@@ -147,21 +161,59 @@ public class BlockingDrainingQueue<T> {
      * @return The size.
      */
     public int size() {
-        synchronized (this.contents) {
-            return this.contents.size();
-        }
+        return Math.max(0, this.size.get());
+    }
+
+    private void completePendingTake(PendingTake<T> pending) {
+        do {
+            Queue<T> result = fetch(pending.maxCount);
+            if (!result.isEmpty()) {
+                pending.result.complete(result);
+                return;
+            } else if (this.closed.get()) {
+                // close() drained the queue concurrently.
+                pending.result.cancel(true);
+                return;
+            } else if (!this.pendingTake.compareAndSet(null, pending)) {
+                // Only one take() may be pending at any time, so nobody could have registered another one in the meantime.
+                pending.result.completeExceptionally(new IllegalStateException("Cannot have more than one concurrent pending take() request."));
+                return;
+            }
+
+            // The items we were woken up for have already been picked up (the caller raced with another add() or take()),
+            // so we re-registered the pending take(). Same as in take(), re-check in case an item was added (or the queue
+            // closed) in the meantime and nobody else picked up the pending take().
+        } while (isReady() && this.pendingTake.compareAndSet(pending, null));
+    }
+
+    private boolean isReady() {
+        return !this.contents.isEmpty() || this.closed.get();
     }
 
-    @GuardedBy("contents")
     private Queue<T> fetch(int maxCount) {
-        int count = Math.min(maxCount, this.contents.size());
-        ArrayDeque<T> result = new ArrayDeque<>(count);
-        while (result.size() < count) {
-            result.addLast(this.contents.pollFirst());
+        ArrayDeque<T> result = new ArrayDeque<>(Math.max(0, Math.min(maxCount, this.size.get())));
+        while (result.size() < maxCount) {
+            T item = this.contents.poll();
+            if (item == null) {
+                break;
+            }
+
+            result.addLast(item);
         }
 
+        this.size.addAndGet(-result.size());
         return result;
     }
 
     // endregion
+
+    //region PendingTake
+
+    @RequiredArgsConstructor
+    private static class PendingTake<T> {
+        final CompletableFuture<Queue<T>> result;
+        final int maxCount;
+    }
+
+    //endregion
 }
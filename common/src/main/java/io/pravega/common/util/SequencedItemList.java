@@ -18,6 +18,10 @@ import lombok.RequiredArgsConstructor;
 
 /**
  * Represents a List that can append only on one end and can truncate from the other, which provides random reads.
+ * <p>
+ * Modifications (add, truncate, clear) are serialized among themselves, but reads never acquire any lock: all links
+ * between nodes are volatile, so readers can traverse the list concurrently with any modification. Since there is
+ * usually a single writer and many readers, this eliminates virtually all contention on this class.
  *
  * @param <T> The type of the list items.
  */
@@ -25,10 +29,9 @@ import lombok.RequiredArgsConstructor;
 public class SequencedItemList<T extends SequencedItemList.Element> {
     //region Members
 
-    @GuardedBy("lock")
-    private ListNode<T> head;
-    @GuardedBy("lock")
-    private ListNode<T> tail;
+    private volatile ListNode<T> head;
+    private volatile ListNode<T> tail;
+    private volatile int size;
     private final Object lock = new Object();
 
     //endregion
@@ -70,6 +73,7 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
             }
 
             this.tail = node;
+            this.size++;
         }
 
         return true;
@@ -95,6 +99,8 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
             if (this.head == null) {
                 this.tail = null;
             }
+
+            this.size -= count;
         }
 
         return count;
@@ -111,18 +117,27 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
             }
 
             this.tail = null;
+            this.size = 0;
         }
     }
 
+    /**
+     * Gets the number of items currently in the list.
+     *
+     * @return The number of items.
+     */
+    public int size() {
+        return this.size;
+    }
+
     /**
      * Gets the last element in the list, if any.
      *
      * @return The last element, or null if the list is empty.
      */
     public T getLast() {
-        synchronized (this.lock) {
-            return this.tail == null ? null : this.tail.item;
-        }
+        ListNode<T> last = this.tail;
+        return last == null ? null : last.item;
     }
 
     /**
@@ -133,26 +148,28 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
      * @return An Iterator with the resulting items. If no results are available for the given parameters, an empty iterator is returned.
      */
     public Iterator<T> read(long afterSequenceNumber, int count) {
-        ListNode<T> firstNode;
-        synchronized (this.lock) {
-            firstNode = this.head;
-        }
-
-        // Find the first node that has a Sequence Number after the given one, but make sure we release and reacquire
-        // the lock with every iteration. This will prevent long-list scans from blocking adds.
+        // Find the first node that has a Sequence Number after the given one. This does not block (nor is it blocked by)
+        // any concurrent modifications.
+        ListNode<T> firstNode = this.head;
         while (firstNode != null && firstNode.item.getSequenceNumber() <= afterSequenceNumber) {
-            synchronized (this.lock) {
-                firstNode = firstNode.next;
+            ListNode<T> next = firstNode.next;
+            if (next == null && firstNode.truncated) {
+                // We were scanning through a section that has just been truncated; resume from the new head.
+                next = this.head;
             }
+
+            firstNode = next;
         }
 
-        return new NodeIterator<>(firstNode, count, this.lock);
+        return new NodeIterator<>(firstNode, count);
     }
 
+    @GuardedBy("lock")
     private ListNode<T> trim(ListNode<T> node) {
+        // Mark the node as truncated before unlinking it, so that any reader positioned on it stops right away.
         ListNode<T> next = node.next;
-        node.next = null;
         node.truncated = true;
+        node.next = null;
         return next;
     }
 
@@ -163,8 +180,8 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
     @RequiredArgsConstructor
     private static class ListNode<T> {
         final T item;
-        ListNode<T> next;
-        boolean truncated;
+        volatile ListNode<T> next;
+        volatile boolean truncated;
 
         @Override
         public String toString() {
@@ -185,14 +202,12 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
         private ListNode<T> currentNode;
         private final int maxCount;
         private int countSoFar;
-        private final Object lock;
 
-        NodeIterator(ListNode<T> firstNode, int maxCount, Object lock) {
+        NodeIterator(ListNode<T> firstNode, int maxCount) {
             Preconditions.checkArgument(maxCount >= 0, "maxCount must be a positive integer");
 
             this.currentNode = firstNode;
             this.maxCount = maxCount;
-            this.lock = lock;
         }
 
         //region Iterator Implementation
@@ -217,15 +232,13 @@ public class SequencedItemList<T extends SequencedItemList.Element> {
         }
 
         private void fetchNext() {
-            synchronized (this.lock) {
-                if (hasNext()) {
-                    // We haven't exceeded our max count and we still have nodes to advance to.
-                    this.currentNode = this.currentNode.next;
-                    this.countSoFar++;
-                } else {
-                    // Either exceeded the max count or cannot advance anymore (truncated or end of list).
-                    this.currentNode = null;
-                }
+            if (hasNext()) {
+                // We haven't exceeded our max count and we still have nodes to advance to.
+                this.currentNode = this.currentNode.next;
+                this.countSoFar++;
+            } else {
+                // Either exceeded the max count or cannot advance anymore (truncated or end of list).
+                this.currentNode = null;
             }
         }
 
@@ -11,7 +11,10 @@ package io.pravega.common.util;
 
 import io.pravega.common.concurrent.Futures;
 import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.List;
 import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
@@ -155,6 +158,48 @@ public class BlockingDrainingQueueTests {
         Assert.assertEquals("Queue was not emptied out after take() completed successfully.", 0, remainingItems.size());
     }
 
+    /**
+     * Tests the case when an add() is delayed after queuing its item, and, by the time it tries to complete the pending take(),
+     * its item has already been returned by a previous take() and the consumer has issued a new take(). That new take() must
+     * not be completed (or cancelled) until a new item is added.
+     */
+    @Test
+    public void testDelayedAddNotification() throws Exception {
+        @Cleanup
+        BlockingDrainingQueue<Integer> queue = new BlockingDrainingQueue<>();
+
+        // An add() queues its item (its notification is "delayed" as there is no pending take() at this time), after which
+        // the consumer picks up that item and issues a new take().
+        queue.add(1);
+        val take1 = queue.take(MAX_READ_COUNT);
+        Assert.assertEquals("Unexpected result from first take().", 1, (int) take1.join().peek());
+        val take2 = queue.take(MAX_READ_COUNT);
+
+        // The add() resumes and tries to complete the pending take(), but there is nothing left in the queue.
+        queue.notifyPendingTake();
+        Assert.assertFalse("Pending take() was completed without an item being added.", take2.isDone());
+        AssertExtensions.assertThrows(
+                "take() succeeded even though the previous take() request was re-registered.",
+                () -> queue.take(MAX_READ_COUNT),
+                ex -> ex instanceof IllegalStateException);
+
+        // Only a new add() should complete it.
+        queue.add(2);
+        val result = take2.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+        Assert.assertEquals("Unexpected number of items returned by pending take().", 1, result.size());
+        Assert.assertEquals("Unexpected value returned by pending take().", 2, (int) result.peek());
+
+        // A re-registered take() must still be cancelled when the queue is closed.
+        val take3 = queue.take(MAX_READ_COUNT);
+        queue.notifyPendingTake();
+        Assert.assertFalse("Pending take() was completed without an item being added.", take3.isDone());
+        queue.close();
+        AssertExtensions.assertThrows(
+                "Future was not cancelled with the correct exception.",
+                () -> take3.get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS),
+                ex -> ex instanceof CancellationException);
+    }
+
     /**
      * Tests the ability of the queue to cancel a take() request if it is closed.
      */
@@ -192,6 +237,52 @@ public class BlockingDrainingQueueTests {
         }
     }
 
+    /**
+     * Tests many concurrent producers with a single consumer using take(). Every item must be returned exactly once, and
+     * items from the same producer must be returned in the order in which they were added.
+     */
+    @Test(timeout = TIMEOUT_MILLIS * 3)
+    public void testConcurrentAddTake() throws Exception {
+        final int producerCount = 8;
+        final int perProducerCount = 20000;
+        @Cleanup
+        BlockingDrainingQueue<Integer> queue = new BlockingDrainingQueue<>();
+        List<Thread> producers = new ArrayList<>();
+        for (int p = 0; p < producerCount; p++) {
+            final int producerId = p;
+            producers.add(new Thread(() -> {
+                for (int i = 0; i < perProducerCount; i++) {
+                    queue.add(producerId * perProducerCount + i);
+                }
+            }));
+        }
+
+        producers.forEach(Thread::start);
+        int[] lastValues = new int[producerCount];
+        Arrays.fill(lastValues, -1);
+        int receivedCount = 0;
+        while (receivedCount < producerCount * perProducerCount) {
+            Queue<Integer> items = queue.take(MAX_READ_COUNT).get(TIMEOUT_MILLIS, TimeUnit.MILLISECONDS);
+            Assert.assertFalse("take() returned an empty result.", items.isEmpty());
+            for (int value : items) {
+                int producerId = value / perProducerCount;
+                Assert.assertTrue("Items out of order or duplicated.", value > lastValues[producerId]);
+                lastValues[producerId] = value;
+                receivedCount++;
+            }
+        }
+
+        for (Thread t : producers) {
+            t.join();
+        }
+
+        for (int p = 0; p < producerCount; p++) {
+            Assert.assertEquals("Not all items were received.", (p + 1) * perProducerCount - 1, lastValues[p]);
+        }
+
+        Assert.assertEquals("Not expecting any items left.", 0, queue.size());
+    }
+
     private void populate(BlockingDrainingQueue<Integer> queue) {
         for (int i = 0; i < ITEM_COUNT; i++) {
             queue.add(i);
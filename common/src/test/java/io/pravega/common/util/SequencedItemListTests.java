@@ -10,8 +10,12 @@
 package io.pravega.common.util;
 
 import io.pravega.test.common.AssertExtensions;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
 import lombok.Data;
 import org.junit.Assert;
 import org.junit.Test;
@@ -86,6 +90,7 @@ public class SequencedItemListTests {
         // Truncate 25% of items.
         list.truncate(ITEM_COUNT / 4 - 1);
         checkRange("Truncate 25%", ITEM_COUNT / 4, ITEM_COUNT - 1, list.read(START, ITEM_COUNT));
+        Assert.assertEquals("Unexpected size after truncation.", ITEM_COUNT - ITEM_COUNT / 4, list.size());
 
         // Truncate the same 25% of items - verify no change.
         list.truncate(ITEM_COUNT / 4 - 1);
@@ -93,6 +98,7 @@ public class SequencedItemListTests {
 
         // Truncate all items.
         list.truncate(END);
+        Assert.assertEquals("Unexpected size after truncating everything.", 0, list.size());
         Iterator<Item> readResult = list.read(START, ITEM_COUNT * 2);
         Assert.assertFalse("List should be empty.", readResult.hasNext());
     }
@@ -152,6 +158,62 @@ public class SequencedItemListTests {
         Assert.assertFalse("List should be empty.", readResult.hasNext());
     }
 
+    /**
+     * Tests concurrent reads while a single writer adds and truncates items. Every read must return a contiguous range of
+     * items, in order.
+     */
+    @Test(timeout = 30000)
+    public void testConcurrentReadWrite() throws Exception {
+        final int totalCount = 100000;
+        final int readerCount = 4;
+        final int truncateEvery = 1000;
+        SequencedItemList<Item> list = new SequencedItemList<>();
+        AtomicBoolean writerDone = new AtomicBoolean();
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        List<Thread> readers = new ArrayList<>();
+        for (int r = 0; r < readerCount; r++) {
+            readers.add(new Thread(() -> {
+                try {
+                    while (!writerDone.get()) {
+                        long previous = -1;
+                        Iterator<Item> readResult = list.read(START, ITEM_COUNT);
+                        while (readResult.hasNext()) {
+                            long current;
+                            try {
+                                current = readResult.next().getSequenceNumber();
+                            } catch (NoSuchElementException ex) {
+                                // Truncated between hasNext() and next(); this is expected.
+                                break;
+                            }
+
+                            Assert.assertTrue("Read items are not contiguous.", previous < 0 || current == previous + 1);
+                            previous = current;
+                        }
+                    }
+                } catch (Throwable ex) {
+                    failure.set(ex);
+                }
+            }));
+        }
+
+        readers.forEach(Thread::start);
+        for (int i = 0; i < totalCount; i++) {
+            Assert.assertTrue("Unable to add item.", list.add(new Item(i)));
+            if (i % truncateEvery == 0) {
+                list.truncate(i - truncateEvery / 2);
+            }
+        }
+
+        writerDone.set(true);
+        for (Thread t : readers) {
+            t.join();
+        }
+
+        Assert.assertNull("Unexpected failure in reader.", failure.get());
+        Assert.assertEquals("Unexpected last item.", totalCount - 1, list.getLast().getSequenceNumber());
+        checkRange("Final.", totalCount - truncateEvery / 2, totalCount - 1, list.read(totalCount - truncateEvery / 2 - 1, totalCount));
+    }
+
     private void checkRange(String testDescription, int startElement, int endElement, Iterator<Item> readResult) {
         for (int i = startElement; i <= endElement; i++) {
             Assert.assertTrue(testDescription + ": Unexpected value from hasNext when more elements are expected.", readResult.hasNext());
@@ -21,4 +21,17 @@ import java.util.concurrent.CompletableFuture;
 @FunctionalInterface
 public interface RequestHandler<Request extends ControllerEvent> {
     CompletableFuture<Void> process(Request request);
+
+    /**
+     * Processes the request. A handler that holds a request back until earlier requests complete (for example, earlier
+     * requests for the same stream) calls onWaiting when it does, so that the caller can stop counting the request
+     * against its concurrency limit while it waits. onWaiting may be called more than once for the same request.
+     *
+     * @param request   request to process.
+     * @param onWaiting callback invoked when the request has to wait before it can be processed.
+     * @return future that completes when the request has been processed.
+     */
+    default CompletableFuture<Void> process(Request request, Runnable onWaiting) {
+        return process(request);
+    }
 }
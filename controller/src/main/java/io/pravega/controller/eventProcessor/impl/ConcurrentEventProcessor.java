@@ -22,7 +22,7 @@ import lombok.Synchronized;
 import lombok.extern.slf4j.Slf4j;
 
 import java.util.Comparator;
-import java.util.List;
+import java.util.NavigableSet;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentSkipListSet;
 import java.util.concurrent.ScheduledExecutorService;
@@ -32,7 +32,6 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 import static io.pravega.controller.eventProcessor.impl.EventProcessorHelper.indefiniteRetries;
 import static io.pravega.controller.eventProcessor.impl.EventProcessorHelper.withRetries;
@@ -52,6 +51,7 @@ public class ConcurrentEventProcessor<R extends ControllerEvent, H extends Reque
     private final ConcurrentSkipListSet<PositionCounter> running;
     private final ConcurrentSkipListSet<PositionCounter> completed;
     private final AtomicReference<PositionCounter> checkpoint;
+    private final AtomicReference<PositionCounter> lastStoredCheckpoint = new AtomicReference<>();
     private final ScheduledExecutorService executor;
     private final H requestHandler;
     private final AtomicLong counter = new AtomicLong(0);
@@ -93,15 +93,23 @@ public class ConcurrentEventProcessor<R extends ControllerEvent, H extends Reque
     protected void process(R request, Position position) {
         // Limiting number of concurrent processing using semaphores. Otherwise we will keep picking messages from the stream
         // and it could lead to memory overload.
+        // The permit is given back early if the request handler holds the event back behind other events (for the same
+        // stream), so that a backlog on one stream cannot use up all the permits and stall events for every other stream.
         if (!stop.get()) {
             semaphore.acquireUninterruptibly();
+            AtomicBoolean permitHeld = new AtomicBoolean(true);
+            Runnable releasePermit = () -> {
+                if (permitHeld.compareAndSet(true, false)) {
+                    semaphore.release();
+                }
+            };
 
             long next = counter.incrementAndGet();
             PositionCounter pc = new PositionCounter(position, next);
             running.add(pc);
 
             // In case of a retryable exception, retry few times before putting the event back into event stream.
-            withRetries(() -> requestHandler.process(request), executor)
+            withRetries(() -> requestHandler.process(request, releasePermit), executor)
                     .whenCompleteAsync((r, e) -> {
                         CompletableFuture<Void> future;
                         if (e != null) {
@@ -114,7 +122,7 @@ public class ConcurrentEventProcessor<R extends ControllerEvent, H extends Reque
 
                         future.thenAcceptAsync(x -> {
                             checkpoint(pc);
-                            semaphore.release();
+                            releasePermit.run();
                         }, executor);
                     }, executor);
         } else {
@@ -177,24 +185,28 @@ public class ConcurrentEventProcessor<R extends ControllerEvent, H extends Reque
         running.remove(pc);
         completed.add(pc);
 
+        // Everything completed below the smallest running position is a checkpoint candidate. The sets are sorted, so
+        // this is a view over their head rather than a scan of all completed positions.
         final PositionCounter smallest = running.isEmpty() ? MAX : running.first();
-        final List<PositionCounter> checkpointCandidates = completed.stream()
-                .filter(x -> positionCounterComparator.compare(x, smallest) < 0).collect(Collectors.toList());
-        if (checkpointCandidates.size() > 0) {
-            final PositionCounter checkpointPosition = checkpointCandidates.get(checkpointCandidates.size() - 1);
-            completed.removeAll(checkpointCandidates);
+        final NavigableSet<PositionCounter> checkpointCandidates = completed.headSet(smallest, false);
+        if (!checkpointCandidates.isEmpty()) {
+            final PositionCounter checkpointPosition = checkpointCandidates.last();
+            checkpointCandidates.clear();
             checkpoint.set(checkpointPosition);
         }
     }
 
     private void periodicCheckpoint() {
         try {
-            if (checkpoint.get() != null && checkpoint.get().position != null) {
+            // Only the latest checkpoint of each period is stored, and nothing is stored if it has not moved.
+            final PositionCounter latest = checkpoint.get();
+            if (latest != null && latest.position != null && latest != lastStoredCheckpoint.get()) {
                 if (checkpointer != null) {
-                    checkpointer.store(checkpoint.get().position);
+                    checkpointer.store(latest.position);
                 } else if (getCheckpointer() != null) {
-                    getCheckpointer().store(checkpoint.get().position);
+                    getCheckpointer().store(latest.position);
                 }
+                lastStoredCheckpoint.set(latest);
             }
         } catch (Exception e) {
             log.warn("error while trying to store checkpoint in the store {}", e);
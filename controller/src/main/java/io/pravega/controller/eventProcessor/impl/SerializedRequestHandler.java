@@ -10,9 +10,11 @@
 package io.pravega.controller.eventProcessor.impl;
 
 import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
 import io.pravega.controller.eventProcessor.RequestHandler;
 import io.pravega.shared.controller.event.ControllerEvent;
-import lombok.AllArgsConstructor;
+import io.pravega.shared.metrics.DynamicLogger;
+import io.pravega.shared.metrics.MetricsProvider;
 import lombok.Data;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -24,7 +26,11 @@ import java.util.Map;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+import static io.pravega.shared.MetricsNames.CONTROLLER_EVENT_QUEUE_SIZE;
 
 /**
  * SerializedRequestHandler class is used to serialize requests for a key and process them.
@@ -34,37 +40,66 @@ import java.util.stream.Collectors;
  * The processing is then scheduled asynchronously for the key.
  *
  * Once all pending processing for a key ends, the key is removed from the work map the moment its queue becomes empty.
+ *
+ * The work map is sharded by the hash of the key (the stream), each shard with its own lock, so that requests for
+ * different streams do not contend with each other. Each shard reports the number of requests waiting in it as a gauge
+ * named after the handler and the shard, so a hot stream shows up as a deep shard.
+ *
+ * A request that has to wait behind earlier requests for the same key is reported to the caller through the onWaiting
+ * callback of {@link #process(ControllerEvent, Runnable)}, so that it does not count against the caller's concurrency
+ * limit while it waits.
  */
-@AllArgsConstructor
 public abstract class SerializedRequestHandler<T extends ControllerEvent> implements RequestHandler<T> {
+    private static final int SHARD_COUNT = 16;
+    private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
 
     protected final ScheduledExecutorService executor;
 
-    private final Object lock = new Object();
-    @GuardedBy("lock")
-    private final Map<String, ConcurrentLinkedQueue<Work>> workers = new HashMap<>();
+    private final List<Shard> shards;
+
+    /**
+     * Creates a new instance of the SerializedRequestHandler class.
+     *
+     * @param name     Name of the handler, used to name its queue size gauges. It must be unique among the handlers in
+     *                 the process.
+     * @param executor Executor to process requests on.
+     */
+    protected SerializedRequestHandler(final String name, final ScheduledExecutorService executor) {
+        Preconditions.checkNotNull(name, "name");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.shards = IntStream.range(0, SHARD_COUNT).mapToObj(id -> new Shard(name, id)).collect(Collectors.toList());
+    }
 
     @Override
     public final CompletableFuture<Void> process(final T streamEvent) {
+        return process(streamEvent, () -> { });
+    }
+
+    @Override
+    public final CompletableFuture<Void> process(final T streamEvent, final Runnable onWaiting) {
         CompletableFuture<Void> result = new CompletableFuture<>();
-        Work work = new Work(streamEvent, System.currentTimeMillis(), result);
+        Work work = new Work(streamEvent, System.currentTimeMillis(), result, onWaiting);
         String key = streamEvent.getKey();
+        Shard shard = getShard(key);
 
         final ConcurrentLinkedQueue<Work> queue;
 
-        synchronized (lock) {
-            if (workers.containsKey(key)) {
-                workers.get(key).add(work);
+        synchronized (shard.lock) {
+            if (shard.workers.containsKey(key)) {
+                shard.workers.get(key).add(work);
                 queue = null;
             } else {
                 queue = new ConcurrentLinkedQueue<>();
                 queue.add(work);
-                workers.put(key, queue);
+                shard.workers.put(key, queue);
             }
         }
+        shard.queued(1);
 
         if (queue != null) {
             executor.execute(() -> run(key, queue));
+        } else {
+            onWaiting.run();
         }
 
         return result;
@@ -86,6 +121,7 @@ public abstract class SerializedRequestHandler<T extends ControllerEvent> implem
      */
     private void run(String key, ConcurrentLinkedQueue<Work> workQueue) {
         Work work = workQueue.poll();
+        getShard(key).queued(-1);
         processEvent(work.getEvent()).whenComplete((r, e) -> {
             if (e != null && toPostpone(work.getEvent(), work.getPickupTime(), e)) {
                 handleWorkPostpone(key, workQueue, work);
@@ -107,8 +143,15 @@ public abstract class SerializedRequestHandler<T extends ControllerEvent> implem
         // Note: we have not completed the work's result future here.
         // Since there is at least one event in the queue (we just
         // added) so we will call run again.
-        synchronized (lock) {
-            workers.get(key).add(work);
+        Shard shard = getShard(key);
+        boolean waiting;
+        synchronized (shard.lock) {
+            waiting = !workQueue.isEmpty();
+            shard.workers.get(key).add(work);
+        }
+        shard.queued(1);
+        if (waiting) {
+            work.getOnWaiting().run();
         }
 
         executor.execute(() -> run(key, workQueue));
@@ -117,9 +160,10 @@ public abstract class SerializedRequestHandler<T extends ControllerEvent> implem
     private void handleWorkComplete(String key, ConcurrentLinkedQueue<Work> workQueue, Work work) {
         work.getResult().whenComplete((rw, ew) -> {
             boolean toExecute = false;
-            synchronized (lock) {
+            Shard shard = getShard(key);
+            synchronized (shard.lock) {
                 if (workQueue.isEmpty()) {
-                    workers.remove(key);
+                    shard.workers.remove(key);
                 } else {
                     toExecute = true;
                 }
@@ -134,21 +178,43 @@ public abstract class SerializedRequestHandler<T extends ControllerEvent> implem
     @VisibleForTesting
     List<Pair<T, CompletableFuture<Void>>> getEventQueueForKey(String key) {
         List<Pair<T, CompletableFuture<Void>>> retVal = null;
+        Shard shard = getShard(key);
 
-        synchronized (lock) {
-            if (workers.containsKey(key)) {
-                retVal = workers.get(key).stream().map(x -> new ImmutablePair<>(x.getEvent(), x.getResult())).collect(Collectors.toList());
+        synchronized (shard.lock) {
+            if (shard.workers.containsKey(key)) {
+                retVal = shard.workers.get(key).stream().map(x -> new ImmutablePair<>(x.getEvent(), x.getResult())).collect(Collectors.toList());
             }
         }
 
         return retVal;
     }
 
+    private Shard getShard(String key) {
+        return shards.get(Math.floorMod(key.hashCode(), SHARD_COUNT));
+    }
+
+    private class Shard {
+        private final Object lock = new Object();
+        @GuardedBy("lock")
+        private final Map<String, ConcurrentLinkedQueue<Work>> workers = new HashMap<>();
+        private final AtomicInteger queueSize = new AtomicInteger();
+        private final String queueSizeMetric;
+
+        Shard(String handlerName, int id) {
+            this.queueSizeMetric = String.format("%s.%s.shard_%d", CONTROLLER_EVENT_QUEUE_SIZE, handlerName, id);
+        }
+
+        void queued(int delta) {
+            DYNAMIC_LOGGER.reportGaugeValue(queueSizeMetric, queueSize.addAndGet(delta));
+        }
+    }
+
     @Data
     private class Work {
         private final T event;
         private final long pickupTime;
         private final CompletableFuture<Void> result;
+        private final Runnable onWaiting;
     }
 
 }
@@ -26,6 +26,7 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteScopeStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.DeleteStreamStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentId;
@@ -321,6 +322,26 @@ public class ControllerService {
         return streamTransactionMetadataTasks.pingTxn(scope, stream, txId, lease, null);
     }
 
+    public CompletableFuture<PingTxnsResponse> pingTransactions(final String scope,
+                                                                final String stream,
+                                                                final List<TxnId> txnIds,
+                                                                final long lease) {
+        Exceptions.checkNotNullOrEmpty(scope, "scope");
+        Exceptions.checkNotNullOrEmpty(stream, "stream");
+        Preconditions.checkNotNull(txnIds, "txnIds");
+        List<UUID> txIds = txnIds.stream().map(ModelHelper::encode).collect(Collectors.toList());
+
+        return streamTransactionMetadataTasks.pingTxns(scope, stream, txIds, lease, null)
+                .thenApply(statuses -> PingTxnsResponse.newBuilder()
+                        .addAllEntries(statuses.entrySet().stream()
+                                .map(e -> PingTxnsResponse.TxnPingEntry.newBuilder()
+                                        .setTxnId(ModelHelper.decode(e.getKey()))
+                                        .setStatus(e.getValue())
+                                        .build())
+                                .collect(Collectors.toList()))
+                        .build());
+    }
+
     public CompletableFuture<TxnState> checkTransactionStatus(final String scope, final String stream,
             final TxnId txnId) {
         Exceptions.checkNotNullOrEmpty(scope, "scope");
@@ -30,7 +30,9 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
 import io.pravega.controller.stream.api.grpc.v1.Controller.SegmentRange;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
 import io.pravega.shared.protocol.netty.PravegaNodeUri;
+import java.util.Collection;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
 import java.util.NavigableMap;
@@ -295,6 +297,19 @@ public class LocalController implements Controller {
                 PingFailedException::new);
     }
 
+    @Override
+    public CompletableFuture<Set<UUID>> pingTransactions(Stream stream, Collection<UUID> txIds, long lease) {
+        return controller.pingTransactions(stream.getScope(), stream.getStreamName(),
+                txIds.stream().map(ModelHelper::decode).collect(Collectors.toList()), lease)
+                .thenApply(response -> {
+                    Set<UUID> failed = new HashSet<>(txIds);
+                    response.getEntriesList().stream()
+                            .filter(entry -> entry.getStatus().getStatus() == PingTxnStatus.Status.OK)
+                            .forEach(entry -> failed.remove(ModelHelper.encode(entry.getTxnId())));
+                    return failed;
+                });
+    }
+
     @Override
     public CompletableFuture<Void> commitTransaction(Stream stream, UUID txnId) {
         return controller
@@ -54,7 +54,7 @@ public class AbortRequestHandler extends SerializedRequestHandler<AbortEvent> {
                                final SegmentHelper segmentHelper,
                                final ConnectionFactory connectionFactory,
                                final BlockingQueue<AbortEvent> queue) {
-        super(executor);
+        super("abort_requests", executor);
         this.streamMetadataStore = streamMetadataStore;
         this.streamMetadataTasks = streamMetadataTasks;
         this.hostControllerStore = hostControllerStore;
@@ -70,7 +70,7 @@ public class AbortRequestHandler extends SerializedRequestHandler<AbortEvent> {
                                final ScheduledExecutorService executor,
                                final SegmentHelper segmentHelper,
                                final ConnectionFactory connectionFactory) {
-        super(executor);
+        super("abort_requests", executor);
         this.streamMetadataStore = streamMetadataStore;
         this.streamMetadataTasks = streamMetadataTasks;
         this.hostControllerStore = hostControllerStore;
@@ -51,7 +51,7 @@ public class StreamRequestHandler extends SerializedRequestHandler<ControllerEve
                                 DeleteStreamTask deleteStreamTask,
                                 TruncateStreamTask truncateStreamTask,
                                 ScheduledExecutorService executor) {
-        super(executor);
+        super("stream_requests", executor);
         this.autoScaleTask = autoScaleTask;
         this.scaleOperationTask = scaleOperationTask;
         this.updateStreamTask = updateStreamTask;
@@ -21,6 +21,8 @@ import io.pravega.controller.stream.api.grpc.v1.Controller.GetSegmentsRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.NodeUri;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsRequest;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleStatusRequest;
 import io.pravega.controller.stream.api.grpc.v1.Controller.ScaleResponse;
@@ -229,6 +231,17 @@ public class ControllerServiceImpl extends ControllerServiceGrpc.ControllerServi
                       responseObserver);
     }
 
+    @Override
+    public void pingTransactions(PingTxnsRequest request, StreamObserver<PingTxnsResponse> responseObserver) {
+        log.info("pingTransactions called for stream {}/{}, {} txns", request.getStreamInfo().getScope(),
+                request.getStreamInfo().getStream(), request.getTxnIdCount());
+        processResult(controllerService.pingTransactions(request.getStreamInfo().getScope(),
+                                                         request.getStreamInfo().getStream(),
+                                                         request.getTxnIdList(),
+                                                         request.getLease()),
+                      responseObserver);
+    }
+
     @Override
     public void checkTransactionState(TxnRequest request, StreamObserver<TxnState> responseObserver) {
         log.info("checkTransactionState called for stream {}/{}, txnId={}.", request.getStreamInfo().getScope(),
@@ -17,6 +17,7 @@ import lombok.Data;
 import lombok.Lombok;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.transaction.CuratorOp;
 import org.apache.zookeeper.CreateMode;
 import org.apache.zookeeper.KeeperException;
 import org.apache.zookeeper.data.Stat;
@@ -24,16 +25,34 @@ import org.apache.zookeeper.data.Stat;
 import java.io.Serializable;
 import java.nio.ByteBuffer;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Function;
 import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
 
 /**
  * Zookeeper based checkpoint store.
+ * <p>
+ * Reader positions are by far the most frequent writes, so they get special treatment:
+ * <ul>
+ * <li> A position that is identical to the last one this store wrote for that reader is not written again.
+ * <li> Concurrent position updates are group-committed: whichever caller finds no write in progress writes all pending
+ * updates as a single ZooKeeper multi-op, while the others wait for it. Updates for the same reader that pile up in
+ * the meantime are coalesced, so only the latest position is written. Each caller returns once a position at least
+ * as recent as its own has been written.
+ * <li> A caller writes at most one batch, the one containing its own update. If more updates arrived while it was
+ * writing, it hands the next batch over to one of the callers waiting for them.
+ * </ul>
+ * This assumes that, as in the controller, only this store writes the positions of the readers it checkpoints.
  */
 @Slf4j
 class ZKCheckpointStore implements CheckpointStore {
@@ -42,6 +61,12 @@ class ZKCheckpointStore implements CheckpointStore {
     private final CuratorFramework client;
     private final JavaSerializer<Position> positionSerializer;
     private final JavaSerializer<ReaderGroupData> groupDataSerializer;
+    private final Map<String, byte[]> lastWrittenPositions = new ConcurrentHashMap<>();
+    private final Object positionLock = new Object();
+    @GuardedBy("positionLock")
+    private final Map<String, PositionUpdate> pendingPositions = new LinkedHashMap<>();
+    @GuardedBy("positionLock")
+    private boolean writingPositions;
 
     ZKCheckpointStore(CuratorFramework client) {
         this.client = client;
@@ -61,9 +86,123 @@ class ZKCheckpointStore implements CheckpointStore {
         private final List<String> readerIds;
     }
 
+    private static class PositionUpdate {
+        private byte[] data;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+        // Completed when a caller waiting for this update is to write the next batch.
+        private final CompletableFuture<Void> writeTurn = new CompletableFuture<>();
+        private final AtomicBoolean writeTurnTaken = new AtomicBoolean();
+
+        PositionUpdate(byte[] data) {
+            this.data = data;
+        }
+    }
+
     @Override
     public void setPosition(String process, String readerGroup, String readerId, Position position) throws CheckpointStoreException {
-        updateNode(getReaderPath(process, readerGroup, readerId), positionSerializer.serialize(position).array());
+        String path = getReaderPath(process, readerGroup, readerId);
+        byte[] data = positionSerializer.serialize(position).array();
+        if (Arrays.equals(lastWrittenPositions.get(path), data)) {
+            return;
+        }
+
+        PositionUpdate update;
+        synchronized (positionLock) {
+            update = pendingPositions.get(path);
+            if (update == null) {
+                update = new PositionUpdate(data);
+                pendingPositions.put(path, update);
+            } else {
+                // Not written yet; coalesce with the pending update.
+                update.data = data;
+            }
+            if (!writingPositions) {
+                writingPositions = true;
+                update.writeTurn.complete(null);
+            }
+        }
+
+        // Either someone else writes our update, or we are handed the batch that contains it. Callers sharing a
+        // coalesced update also share its turn, so only one of them takes it.
+        CompletableFuture.anyOf(update.result, update.writeTurn).handle((r, e) -> null).join();
+        if (!update.result.isDone() && update.writeTurnTaken.compareAndSet(false, true)) {
+            writePendingPositions();
+        }
+
+        try {
+            update.result.join();
+        } catch (Exception e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof CheckpointStoreException) {
+                throw (CheckpointStoreException) cause;
+            }
+            throw new CheckpointStoreException(cause != null ? cause : e);
+        }
+    }
+
+    /**
+     * Writes all pending position updates as one batch, then hands the next batch (if any updates arrived in the
+     * meantime) to one of the callers waiting for it.
+     */
+    private void writePendingPositions() {
+        Map<String, PositionUpdate> batch;
+        synchronized (positionLock) {
+            batch = new LinkedHashMap<>(pendingPositions);
+            pendingPositions.clear();
+        }
+
+        try {
+            if (batch.size() == 1 || !writePositionBatch(batch)) {
+                // A single update, or a batch that failed as a whole: write them one by one so that each gets its own outcome.
+                batch.forEach(this::writePosition);
+            }
+        } finally {
+            synchronized (positionLock) {
+                if (pendingPositions.isEmpty()) {
+                    writingPositions = false;
+                } else {
+                    pendingPositions.values().iterator().next().writeTurn.complete(null);
+                }
+            }
+        }
+    }
+
+    private boolean writePositionBatch(Map<String, PositionUpdate> batch) {
+        try {
+            List<CuratorOp> ops = new ArrayList<>(batch.size());
+            for (Map.Entry<String, PositionUpdate> entry : batch.entrySet()) {
+                ops.add(client.transactionOp().setData().forPath(entry.getKey(), entry.getValue().data));
+            }
+            client.transaction().forOperations(ops);
+        } catch (KeeperException.ConnectionLossException | KeeperException.OperationTimeoutException
+                | KeeperException.SessionExpiredException e) {
+            batch.forEach((path, update) -> {
+                lastWrittenPositions.remove(path);
+                update.result.completeExceptionally(
+                        new CheckpointStoreException(CheckpointStoreException.Type.Connectivity, e));
+            });
+            return true;
+        } catch (Exception e) {
+            log.debug("Unable to write {} reader positions in a single batch.", batch.size(), e);
+            return false;
+        }
+
+        batch.forEach((path, update) -> {
+            lastWrittenPositions.put(path, update.data);
+            update.result.complete(null);
+        });
+        return true;
+    }
+
+    private void writePosition(String path, PositionUpdate update) {
+        try {
+            updateNode(path, update.data);
+            lastWrittenPositions.put(path, update.data);
+            update.result.complete(null);
+        } catch (Exception e) {
+            lastWrittenPositions.remove(path);
+            update.result.completeExceptionally(e);
+        }
     }
 
     @Override
@@ -178,6 +317,7 @@ class ZKCheckpointStore implements CheckpointStore {
         String path = getReaderGroupPath(process, readerGroup);
 
         try {
+            lastWrittenPositions.remove(getReaderPath(process, readerGroup, readerId));
             removeEmptyNode(getReaderPath(process, readerGroup, readerId));
 
             updateReaderGroupData(path, groupData -> {
@@ -20,6 +20,7 @@ import io.pravega.controller.store.stream.StoreException.DataNotFoundException;
 import io.pravega.controller.store.stream.tables.ActiveTxnRecord;
 import io.pravega.controller.store.stream.tables.CompletedTxnRecord;
 import io.pravega.controller.store.stream.tables.Data;
+import io.pravega.controller.store.stream.tables.EpochIndex;
 import io.pravega.controller.store.stream.tables.HistoryRecord;
 import io.pravega.controller.store.stream.tables.IndexRecord;
 import io.pravega.controller.store.stream.tables.RetentionRecord;
@@ -31,7 +32,6 @@ import lombok.extern.slf4j.Slf4j;
 import lombok.val;
 import org.apache.commons.lang3.SerializationUtils;
 import org.apache.commons.lang3.tuple.ImmutablePair;
-import org.apache.commons.lang3.tuple.ImmutableTriple;
 import org.apache.commons.lang3.tuple.Pair;
 
 import java.util.AbstractMap;
@@ -45,6 +45,7 @@ import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Supplier;
 import java.util.stream.Collectors;
 import java.util.stream.IntStream;
@@ -56,10 +57,12 @@ public abstract class PersistentStreamBase<T> implements Stream {
 
     private final String scope;
     private final String name;
+    private final AtomicReference<EpochIndex> epochIndex;
 
     PersistentStreamBase(final String scope, final String name) {
         this.scope = scope;
         this.name = name;
+        this.epochIndex = new AtomicReference<>(EpochIndex.EMPTY);
     }
 
     @Override
@@ -336,20 +339,9 @@ public abstract class PersistentStreamBase<T> implements Stream {
     }
 
     private CompletableFuture<List<Segment>> getSuccessorsForSegment(final int number) {
-        return getHistoryTable()
-                .thenApply(historyTable -> {
-                    CompletableFuture<Segment> segmentFuture = getSegment(number);
-                    CompletableFuture<Data<T>> indexTableFuture = getIndexTable();
-                    return new ImmutableTriple<>(historyTable, segmentFuture, indexTableFuture);
-                })
-                .thenCompose(triple -> CompletableFuture.allOf(triple.getMiddle(), triple.getRight())
-                        .thenCompose(x -> {
-                            final Segment segment = triple.getMiddle().join();
-                            List<Integer> candidates = TableHelper.findSegmentSuccessorCandidates(segment,
-                                    triple.getRight().join().getData(),
-                                    triple.getLeft().getData());
-                            return findOverlapping(segment, candidates);
-                        }));
+        return getEpochIndex()
+                .thenCompose(epochIndex -> getSegment(number)
+                        .thenCompose(segment -> findOverlapping(segment, epochIndex.getSuccessorCandidates(number))));
     }
 
     @Override
@@ -358,19 +350,12 @@ public abstract class PersistentStreamBase<T> implements Stream {
         // segment table followed by history table. So if a record exists in history table, then we are guaranteed to find it in
         // segment table.
         return verifyLegalState()
-                .thenCompose(legal -> getHistoryTable()
-                        .thenApply(historyTable -> new ImmutableTriple<>(historyTable, getIndexTable(), getSuccessorsForSegment(number)))
-                        .thenCompose(triple -> CompletableFuture.allOf(triple.getMiddle(), triple.getRight())
-                                .thenCompose(x -> {
+                .thenCompose(legal -> getEpochIndex()
+                        .thenCompose(epochIndex -> getSuccessorsForSegment(number)
+                                .thenCompose(successors -> {
                                     List<CompletableFuture<Map.Entry<Segment, List<Integer>>>> resultFutures = new ArrayList<>();
-                                    List<Segment> successors = triple.getRight().join();
-                                    Data<T> indexTable = triple.getMiddle().join();
-                                    Data<T> historyTable = triple.getLeft();
-
                                     for (Segment successor : successors) {
-                                        List<Integer> candidates = TableHelper.findSegmentPredecessorCandidates(successor,
-                                                indexTable.getData(),
-                                                historyTable.getData());
+                                        List<Integer> candidates = epochIndex.getPredecessorCandidates(successor.getNumber());
                                         resultFutures.add(findOverlapping(successor, candidates).thenApply(
                                                 list -> new SimpleImmutableEntry<>(successor, list.stream().map(Segment::getNumber)
                                                         .collect(Collectors.toList()))));
@@ -388,30 +373,20 @@ public abstract class PersistentStreamBase<T> implements Stream {
      */
     @Override
     public CompletableFuture<List<Integer>> getPredecessors(final int number) {
-        return verifyLegalState().thenCompose(x -> getHistoryTable()
-                .thenApply(historyTable -> new ImmutableTriple<>(historyTable, getSegment(number), getIndexTable())))
-                .thenCompose(triple -> CompletableFuture.allOf(triple.getMiddle(), triple.getRight()).thenCompose(x -> {
-                    final Segment segment = triple.getMiddle().join();
-                    Data<T> indexTable = triple.getRight().join();
-                    Data<T> historyTable = triple.getLeft();
-                    List<Integer> candidates = TableHelper.findSegmentPredecessorCandidates(segment,
-                            indexTable.getData(),
-                            historyTable.getData());
-                    return findOverlapping(segment, candidates);
-                }).thenApply(list -> list.stream().map(Segment::getNumber).collect(Collectors.toList())));
+        return verifyLegalState().thenCompose(x -> getEpochIndex())
+                .thenCompose(epochIndex -> getSegment(number)
+                        .thenCompose(segment -> findOverlapping(segment, epochIndex.getPredecessorCandidates(number))))
+                .thenApply(list -> list.stream().map(Segment::getNumber).collect(Collectors.toList()));
     }
 
     @Override
     public CompletableFuture<List<Integer>> getActiveSegments() {
-        return verifyLegalState().thenCompose(v -> getHistoryTable()).thenApply(x -> TableHelper.getActiveSegments(x.getData()));
+        return verifyLegalState().thenCompose(v -> getEpochIndex()).thenApply(EpochIndex::getActiveSegments);
     }
 
     /**
-     * if timestamp is < create time of stream, we will return empty list.
-     * 1. perform binary searchIndex on index table to find timestamp
-     * 2. fetch the record from history table for the pointer in index.
-     * Note: index may be stale so we may need to fall through
-     * 3. parse the row and return the list of integers
+     * Finds the epoch that was active at the given time with a binary search over the decoded epochs, and reconciles
+     * it with the truncation record.
      *
      * @param timestamp point in time.
      * @return : list of active segment numbers at given time stamp
@@ -420,20 +395,34 @@ public abstract class PersistentStreamBase<T> implements Stream {
     public CompletableFuture<List<Integer>> getActiveSegments(final long timestamp) {
         return getTruncationRecord()
                 .thenCompose(truncationRecord ->
-                        getHistoryTable().thenCompose(historyTable ->
-                                getIndexTable().thenCompose(indexTable ->
-                                        getSegmentTable().thenApply(segmentTable ->
-                                                TableHelper.getActiveSegments(timestamp,
-                                                        indexTable.getData(),
-                                                        historyTable.getData(),
-                                                        segmentTable.getData(),
-                                                        truncationRecord
-                                                )))));
+                        getEpochIndex().thenCompose(epochIndex ->
+                                getSegmentTable().thenApply(segmentTable ->
+                                        TableHelper.getActiveSegments(timestamp,
+                                                epochIndex,
+                                                segmentTable.getData(),
+                                                truncationRecord
+                                        ))));
     }
 
     @Override
     public CompletableFuture<List<Integer>> getActiveSegments(final int epoch) {
-        return getHistoryTable().thenApply(table -> TableHelper.getSegmentsInEpoch(table.getData(), epoch));
+        return getEpochIndex().thenApply(epochIndex -> epochIndex.getSegmentsInEpoch(epoch));
+    }
+
+    /**
+     * Fetches the history table and brings the in-memory epoch index up to date with it. Since the history table is
+     * append-only, only records added since the last call are decoded. A history table that was read before the one
+     * the index was last built from does not roll the index back.
+     *
+     * @return future of the up to date epoch index. The index is immutable and will not change under the caller.
+     */
+    private CompletableFuture<EpochIndex> getEpochIndex() {
+        // TODO: this only saves decoding. Every read still fetches the whole history table, and every scale still
+        // rewrites the whole history, index and segment tables, each of which is a single node bounded by the ZK node
+        // size limit (1MB by default). Splitting them into chunked, append-only nodes changes the persisted format and
+        // needs a migration path for existing streams.
+        return getHistoryTable().thenApply(historyTable ->
+                this.epochIndex.updateAndGet(index -> index.update(historyTable.getData())));
     }
 
     /**
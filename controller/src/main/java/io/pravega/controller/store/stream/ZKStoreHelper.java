@@ -45,9 +45,12 @@ public class ZKStoreHelper {
     @Getter(AccessLevel.PACKAGE)
     private final CuratorFramework client;
     private final Executor executor;
+    @Getter(AccessLevel.PACKAGE)
+    private final ZKWriteBatcher batcher;
     public ZKStoreHelper(final CuratorFramework cf, Executor executor) {
         client = cf;
         this.executor = executor;
+        this.batcher = new ZKWriteBatcher(cf, executor);
     }
 
     /**
@@ -237,6 +240,21 @@ public class ZKStoreHelper {
         return createZNodeIfNotExist(path, true);
     }
 
+    // The batched methods below have the same semantics as their non-batched counterparts, but concurrent calls are
+    // grouped into a single ZooKeeper multi-op. Meant for small, frequent writes such as those made for transactions.
+
+    CompletableFuture<Void> batchedCreateZNodeIfNotExist(final String path, final byte[] data, final boolean createParent) {
+        return batcher.create(path, data, () -> createZNodeIfNotExist(path, data, createParent));
+    }
+
+    CompletableFuture<Void> batchedSetData(final String path, final Data<Integer> data) {
+        return batcher.setData(path, data, () -> setData(path, data));
+    }
+
+    CompletableFuture<Void> batchedDeletePath(final String path) {
+        return batcher.delete(path, () -> deletePath(path, false));
+    }
+
     CompletableFuture<Void> createZNodeIfNotExist(final String path, final boolean createParent) {
         final CompletableFuture<Void> result = new CompletableFuture<>();
 
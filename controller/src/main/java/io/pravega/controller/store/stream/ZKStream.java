@@ -328,7 +328,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
             final String activePath = getActiveTxPath(pair.getKey(), txId.toString());
             final byte[] txnRecord = new ActiveTxnRecord(timestamp, leaseExpiryTime, maxExecutionExpiryTime,
                     scaleGracePeriod, TxnStatus.OPEN).toByteArray();
-            return store.createZNodeIfNotExist(activePath, txnRecord, false)
+            return store.batchedCreateZNodeIfNotExist(activePath, txnRecord, false)
                     .thenApply(x -> cache.invalidateCache(activePath))
                     .thenApply(y -> pair.getKey());
         });
@@ -364,7 +364,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Void> updateActiveTx(final int epoch, final UUID txId, final Data<Integer> data) {
         final String activeTxPath = getActiveTxPath(epoch, txId.toString());
-        return store.setData(activeTxPath, data).whenComplete((r, e) -> cache.invalidateCache(activeTxPath));
+        return store.batchedSetData(activeTxPath, data).whenComplete((r, e) -> cache.invalidateCache(activeTxPath));
     }
 
     @Override
@@ -377,7 +377,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
                             previous.getScaleGracePeriod(),
                             commit ? TxnStatus.COMMITTING : TxnStatus.ABORTING);
         final Data<Integer> data = new Data<>(updated.toByteArray(), version);
-        return store.setData(activePath, data).thenApply(x -> cache.invalidateCache(activePath))
+        return store.batchedSetData(activePath, data).thenApply(x -> cache.invalidateCache(activePath))
                             .whenComplete((r, e) -> cache.invalidateCache(activePath));
     }
 
@@ -393,7 +393,7 @@ class ZKStream extends PersistentStreamBase<Integer> {
         return store.checkExists(activePath)
                 .thenCompose(x -> {
                     if (x) {
-                        return store.deletePath(activePath, false)
+                        return store.batchedDeletePath(activePath)
                                 .whenComplete((r, e) -> cache.invalidateCache(activePath));
                     } else {
                         return CompletableFuture.completedFuture(null);
@@ -404,8 +404,8 @@ class ZKStream extends PersistentStreamBase<Integer> {
     @Override
     CompletableFuture<Void> createCompletedTxEntry(final UUID txId, final TxnStatus complete, final long timestamp) {
         final String completedTxPath = getCompletedTxPath(txId.toString());
-        return store.createZNodeIfNotExist(completedTxPath,
-                new CompletedTxnRecord(timestamp, complete).toByteArray())
+        return store.batchedCreateZNodeIfNotExist(completedTxPath,
+                new CompletedTxnRecord(timestamp, complete).toByteArray(), true)
                 .whenComplete((r, e) -> cache.invalidateCache(completedTxPath));
     }
 
@@ -0,0 +1,280 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import com.google.common.annotations.VisibleForTesting;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.controller.store.stream.tables.Data;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.curator.framework.CuratorFramework;
+import org.apache.curator.framework.api.CuratorEvent;
+import org.apache.curator.framework.api.transaction.CuratorOp;
+import org.apache.curator.framework.api.transaction.CuratorTransactionResult;
+import org.apache.zookeeper.KeeperException;
+
+/**
+ * Groups concurrent ZooKeeper writes into multi-operation transactions.
+ * <p>
+ * Writes are queued and, whenever no batch is in flight, everything queued so far is sent to ZooKeeper as a single
+ * multi-op. While that is in flight, new writes accumulate for the next batch. A write that arrives when nothing is
+ * in flight is sent by itself immediately, so this never adds latency; it only cuts the number of ZooKeeper round
+ * trips (and proposals) when there are many concurrent writes, such as when creating, pinging and committing many
+ * transactions at once.
+ * <p>
+ * A write's future completes only once ZooKeeper has acknowledged the batch that contains it, so writes are exactly as
+ * durable as if they were issued one by one. A multi-op is atomic, so if any write in a batch fails, the whole batch
+ * does. In that case the write that failed is retried by itself, which gives its caller the outcome it would have had
+ * without batching (for example, a create-if-not-exists tolerating an existing node), and once that is done the other
+ * writes are put back at the head of the queue to be batched again. If ZooKeeper does not say which write failed, each
+ * write is retried by itself. Connection failures are reported to all the writes in the batch, as they would be for
+ * individual writes.
+ */
+@Slf4j
+@ThreadSafe
+class ZKWriteBatcher {
+    private static final int DEFAULT_MAX_BATCH_SIZE = 100;
+
+    private final CuratorFramework client;
+    private final Executor executor;
+    private final int maxBatchSize;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final ArrayDeque<PendingWrite> pending = new ArrayDeque<>();
+    @GuardedBy("lock")
+    private boolean batchInProgress;
+    private final AtomicLong batchCount = new AtomicLong();
+    private final AtomicLong retryCount = new AtomicLong();
+
+    ZKWriteBatcher(CuratorFramework client, Executor executor) {
+        this(client, executor, DEFAULT_MAX_BATCH_SIZE);
+    }
+
+    @VisibleForTesting
+    ZKWriteBatcher(CuratorFramework client, Executor executor, int maxBatchSize) {
+        this.client = client;
+        this.executor = executor;
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    /**
+     * Queues the creation of a node.
+     *
+     * @param path       Path of the node.
+     * @param data       Data for the node.
+     * @param individual Performs this write by itself, with the desired semantics. Used when the write cannot be
+     *                   batched, or when the batch it was in failed.
+     * @return A future that completes when the write has been applied.
+     */
+    CompletableFuture<Void> create(final String path, final byte[] data, final Supplier<CompletableFuture<Void>> individual) {
+        return submit(path, () -> client.transactionOp().create().forPath(path, data), individual);
+    }
+
+    /**
+     * Queues an update of a node's data.
+     *
+     * @param path       Path of the node.
+     * @param data       New data, and the version it is conditional upon (if any).
+     * @param individual Performs this write by itself, with the desired semantics.
+     * @return A future that completes when the write has been applied.
+     */
+    CompletableFuture<Void> setData(final String path, final Data<Integer> data,
+                                    final Supplier<CompletableFuture<Void>> individual) {
+        return submit(path, () -> data.getVersion() == null
+                        ? client.transactionOp().setData().forPath(path, data.getData())
+                        : client.transactionOp().setData().withVersion(data.getVersion()).forPath(path, data.getData()),
+                individual);
+    }
+
+    /**
+     * Queues the deletion of a node.
+     *
+     * @param path       Path of the node.
+     * @param individual Performs this write by itself, with the desired semantics.
+     * @return A future that completes when the write has been applied.
+     */
+    CompletableFuture<Void> delete(final String path, final Supplier<CompletableFuture<Void>> individual) {
+        return submit(path, () -> client.transactionOp().delete().forPath(path), individual);
+    }
+
+    /**
+     * Gets the number of multi-op batches that have been sent to ZooKeeper.
+     */
+    @VisibleForTesting
+    long getBatchCount() {
+        return this.batchCount.get();
+    }
+
+    /**
+     * Gets the number of writes that were retried by themselves because the batch they were in failed.
+     */
+    @VisibleForTesting
+    long getRetryCount() {
+        return this.retryCount.get();
+    }
+
+    private CompletableFuture<Void> submit(final String path, final OpSupplier op,
+                                           final Supplier<CompletableFuture<Void>> individual) {
+        PendingWrite write;
+        try {
+            write = new PendingWrite(path, op.get(), individual);
+        } catch (Exception e) {
+            log.debug("Unable to batch write to {}; executing it individually.", path, e);
+            return individual.get();
+        }
+
+        boolean start;
+        synchronized (this.lock) {
+            this.pending.addLast(write);
+            start = !this.batchInProgress;
+            this.batchInProgress = true;
+        }
+
+        if (start) {
+            executeNextBatch();
+        }
+
+        return write.result;
+    }
+
+    private void executeNextBatch() {
+        List<PendingWrite> batch = new ArrayList<>();
+        synchronized (this.lock) {
+            while (!this.pending.isEmpty() && batch.size() < this.maxBatchSize) {
+                batch.add(this.pending.removeFirst());
+            }
+
+            if (batch.isEmpty()) {
+                this.batchInProgress = false;
+                return;
+            }
+        }
+
+        if (batch.size() == 1) {
+            // Nothing to group with; no need for a multi-op.
+            executeIndividually(batch).whenComplete((r, e) -> executeNextBatch());
+            return;
+        }
+
+        this.batchCount.incrementAndGet();
+        try {
+            this.client.transaction()
+                       .inBackground((c, event) -> onBatchCompleted(batch, event), this.executor)
+                       .forOperations(batch.stream().map(w -> w.op).collect(Collectors.toList()));
+        } catch (Exception e) {
+            log.warn("Unable to execute batch of {} writes; executing them individually.", batch.size(), e);
+            executeIndividually(batch).whenComplete((r, ex) -> executeNextBatch());
+        }
+    }
+
+    private void onBatchCompleted(final List<PendingWrite> batch, final CuratorEvent event) {
+        int resultCode = event.getResultCode();
+        if (resultCode == KeeperException.Code.OK.intValue()) {
+            batch.forEach(w -> w.result.complete(null));
+        } else if (isConnectionError(resultCode)) {
+            batch.forEach(w -> w.result.completeExceptionally(StoreException.create(StoreException.Type.CONNECTION_ERROR, w.path)));
+        } else {
+            int failedIndex = getFailedIndex(event.getOpResults(), batch.size());
+            if (failedIndex < 0) {
+                log.debug("Batch of {} writes failed with {}; executing them individually.", batch.size(),
+                        KeeperException.Code.get(resultCode));
+                this.retryCount.addAndGet(batch.size());
+                executeIndividually(batch).whenComplete((r, e) -> executeNextBatch());
+                return;
+            }
+
+            // Only the failed write needs its own outcome; the others were rolled back only because of it. Retry it by
+            // itself, then batch the others again (they stay ahead of anything queued after them).
+            PendingWrite failed = batch.get(failedIndex);
+            List<PendingWrite> others = new ArrayList<>(batch);
+            others.remove(failedIndex);
+            log.debug("Write to {} failed with {}; executing it individually and re-batching {} other writes.",
+                    failed.path, KeeperException.Code.get(resultCode), others.size());
+            this.retryCount.incrementAndGet();
+            executeIndividually(Collections.singletonList(failed)).whenComplete((r, e) -> {
+                synchronized (this.lock) {
+                    for (int i = others.size() - 1; i >= 0; i--) {
+                        this.pending.addFirst(others.get(i));
+                    }
+                }
+                executeNextBatch();
+            });
+            return;
+        }
+
+        executeNextBatch();
+    }
+
+    /**
+     * Finds the write that failed a multi-op. ZooKeeper reports OK for the writes before it, and RUNTIMEINCONSISTENCY for
+     * the writes after it.
+     *
+     * @return The index of the failed write, or -1 if it cannot be determined.
+     */
+    private static int getFailedIndex(final List<CuratorTransactionResult> results, final int batchSize) {
+        if (results == null || results.size() != batchSize) {
+            return -1;
+        }
+
+        for (int i = 0; i < results.size(); i++) {
+            int error = results.get(i).getError();
+            if (error != KeeperException.Code.OK.intValue() && error != KeeperException.Code.RUNTIMEINCONSISTENCY.intValue()) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private CompletableFuture<Void> executeIndividually(final List<PendingWrite> writes) {
+        List<CompletableFuture<Void>> results = writes.stream()
+                                                      .map(w -> {
+                                                          Futures.completeAfter(() -> w.individual.get(), w.result);
+                                                          return w.result;
+                                                      })
+                                                      .collect(Collectors.toList());
+        return Futures.allOf(results).handle((r, e) -> null);
+    }
+
+    private static boolean isConnectionError(int resultCode) {
+        return resultCode == KeeperException.Code.CONNECTIONLOSS.intValue() ||
+                resultCode == KeeperException.Code.SESSIONEXPIRED.intValue() ||
+                resultCode == KeeperException.Code.SESSIONMOVED.intValue() ||
+                resultCode == KeeperException.Code.OPERATIONTIMEOUT.intValue();
+    }
+
+    @FunctionalInterface
+    private interface OpSupplier {
+        CuratorOp get() throws Exception;
+    }
+
+    private static class PendingWrite {
+        private final String path;
+        private final CuratorOp op;
+        private final Supplier<CompletableFuture<Void>> individual;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+
+        PendingWrite(String path, CuratorOp op, Supplier<CompletableFuture<Void>> individual) {
+            this.path = path;
+            this.op = op;
+            this.individual = individual;
+        }
+    }
+}
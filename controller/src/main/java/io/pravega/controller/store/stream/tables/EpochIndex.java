@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream.tables;
+
+import com.google.common.base.Preconditions;
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import io.pravega.common.util.BitConverter;
+import io.pravega.controller.store.stream.StoreException;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * Decoded, in-memory view of a stream's history table.
+ * <p>
+ * The history table is append-only: a scale appends a partial record, which is later completed by appending its scale
+ * time. This class takes advantage of that by only decoding the bytes that were appended since the history table it was
+ * built from, and it keeps, for every segment, the epoch in which it was created and the epoch in which it was sealed.
+ * That makes successor, predecessor and epoch lookups constant time and time-based lookups a binary search over the
+ * (already decoded) epochs, instead of a walk over the serialized history and index tables.
+ * <p>
+ * Instances are immutable: update() returns a new EpochIndex (or this one, if there is nothing new), so a caller may
+ * keep using the instance it got while other callers update the index concurrently. A history table that is shorter
+ * than the one this index was built from, but that starts with the same record, was read before it and is ignored. A
+ * history table that does not extend the one this index was built from (for example, because the stream was deleted
+ * and recreated) causes the index to be rebuilt from scratch.
+ */
+@Immutable
+public final class EpochIndex {
+    /**
+     * An EpochIndex that has not been built from any history table.
+     */
+    public static final EpochIndex EMPTY = new EpochIndex(ImmutableList.of(), ImmutableMap.of(), ImmutableMap.of(), null, 0, 0);
+
+    private final List<HistoryRecord> epochs;
+    private final Map<Integer, Integer> creationEpochs;
+    private final Map<Integer, Integer> sealEpochs;
+    private final HistoryRecord partialRecord;
+    private final int decodedLength;
+    private final int tableLength;
+
+    private EpochIndex(List<HistoryRecord> epochs, Map<Integer, Integer> creationEpochs, Map<Integer, Integer> sealEpochs,
+                       HistoryRecord partialRecord, int decodedLength, int tableLength) {
+        this.epochs = epochs;
+        this.creationEpochs = creationEpochs;
+        this.sealEpochs = sealEpochs;
+        this.partialRecord = partialRecord;
+        this.decodedLength = decodedLength;
+        this.tableLength = tableLength;
+    }
+
+    /**
+     * Creates an index that is up to date with the given history table, decoding only the records that have been appended
+     * since the history table this index was built from.
+     *
+     * @param historyTable history table
+     * @return up to date index; this instance if the history table has no new records or was read before this one's
+     */
+    public EpochIndex update(final byte[] historyTable) {
+        boolean sameOrigin = hasSameOrigin(historyTable);
+        if (sameOrigin && historyTable.length <= this.tableLength) {
+            // Either nothing was appended, or this history table was read before the one we were built from.
+            return this;
+        }
+
+        Builder builder = sameOrigin && isExtendedBy(historyTable) ? new Builder(this) : new Builder();
+        return builder.decode(historyTable);
+    }
+
+    /**
+     * Returns the segments in the latest complete epoch.
+     *
+     * @return active segments
+     */
+    public List<Integer> getActiveSegments() {
+        return this.epochs.isEmpty() ? new ArrayList<>() : new ArrayList<>(getLastEpoch().getSegments());
+    }
+
+    /**
+     * Returns the latest complete history record whose scale time is at or before the given timestamp. If the timestamp
+     * predates the first record, the first record is returned. The segments of the returned record cannot be modified.
+     *
+     * @param timestamp timestamp
+     * @return history record active at the given time, if any
+     */
+    public Optional<HistoryRecord> getRecordAt(final long timestamp) {
+        if (this.epochs.isEmpty()) {
+            return Optional.empty();
+        }
+
+        int low = 0;
+        int high = this.epochs.size() - 1;
+        while (low < high) {
+            int mid = (low + high + 1) / 2;
+            if (this.epochs.get(mid).getScaleTime() <= timestamp) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+
+        return Optional.of(this.epochs.get(low));
+    }
+
+    /**
+     * Returns the segments in the given epoch. A partially recorded epoch is included. If the epoch is beyond the
+     * latest one, the segments of the latest epoch are returned.
+     *
+     * @param epoch epoch
+     * @return segments in the epoch
+     */
+    public List<Integer> getSegmentsInEpoch(final int epoch) {
+        if (this.partialRecord != null && epoch >= this.partialRecord.getEpoch()) {
+            return new ArrayList<>(this.partialRecord.getSegments());
+        }
+
+        if (epoch < 0 || this.epochs.isEmpty()) {
+            throw StoreException.create(StoreException.Type.DATA_NOT_FOUND, "Epoch: " + epoch + " not found in history table");
+        }
+
+        return new ArrayList<>(this.epochs.get(Math.min(epoch, this.epochs.size() - 1)).getSegments());
+    }
+
+    /**
+     * Returns the segments of the epoch that immediately follows the one in which the given segment was sealed. If the
+     * segment has not been sealed (or is not yet in the history table) an empty list is returned.
+     *
+     * @param segmentNumber segment number
+     * @return successor candidates
+     */
+    public List<Integer> getSuccessorCandidates(final int segmentNumber) {
+        Integer sealEpoch = this.sealEpochs.get(segmentNumber);
+        if (sealEpoch != null) {
+            return new ArrayList<>(this.epochs.get(sealEpoch).getSegments());
+        }
+
+        if (this.partialRecord != null && this.creationEpochs.containsKey(segmentNumber)
+                && !this.partialRecord.getSegments().contains(segmentNumber)) {
+            // Being sealed by an ongoing scale.
+            return new ArrayList<>(this.partialRecord.getSegments());
+        }
+
+        return new ArrayList<>();
+    }
+
+    /**
+     * Returns the segments of the epoch that immediately precedes the one in which the given segment was created. If the
+     * segment was created with the stream (or is not yet in the history table) an empty list is returned.
+     *
+     * @param segmentNumber segment number
+     * @return predecessor candidates
+     */
+    public List<Integer> getPredecessorCandidates(final int segmentNumber) {
+        Integer creationEpoch = this.creationEpochs.get(segmentNumber);
+        if (creationEpoch != null) {
+            return creationEpoch == 0 ? new ArrayList<>() : new ArrayList<>(this.epochs.get(creationEpoch - 1).getSegments());
+        }
+
+        if (this.partialRecord != null && this.partialRecord.getSegments().contains(segmentNumber)) {
+            // Being created by an ongoing scale.
+            return new ArrayList<>(getLastEpoch().getSegments());
+        }
+
+        return new ArrayList<>();
+    }
+
+    private boolean hasSameOrigin(final byte[] historyTable) {
+        if (this.epochs.isEmpty()) {
+            return false;
+        }
+
+        // Guard against a recreated stream whose history table happens to have the same shape.
+        Optional<HistoryRecord> first = HistoryRecord.readRecord(historyTable, 0, true);
+        return first.isPresent() && first.get().getScaleTime() == this.epochs.get(0).getScaleTime()
+                && first.get().getSegments().equals(this.epochs.get(0).getSegments());
+    }
+
+    private boolean isExtendedBy(final byte[] historyTable) {
+        return historyTable.length >= this.decodedLength
+                && BitConverter.readInt(historyTable, this.decodedLength - Integer.BYTES) == getLastEpoch().getLength();
+    }
+
+    private HistoryRecord getLastEpoch() {
+        return this.epochs.get(this.epochs.size() - 1);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("EpochIndex[Epochs = %d, Partial = %s, Segments = %d]",
+                this.epochs.size(), this.partialRecord != null, this.creationEpochs.size());
+    }
+
+    //region Builder
+
+    /**
+     * Decodes history records on top of (a copy of) an existing index.
+     */
+    private static class Builder {
+        private final List<HistoryRecord> epochs;
+        private final Map<Integer, Integer> creationEpochs;
+        private final Map<Integer, Integer> sealEpochs;
+        private int decodedLength;
+
+        Builder() {
+            this.epochs = new ArrayList<>();
+            this.creationEpochs = new HashMap<>();
+            this.sealEpochs = new HashMap<>();
+            this.decodedLength = 0;
+        }
+
+        Builder(EpochIndex base) {
+            this.epochs = new ArrayList<>(base.epochs);
+            this.creationEpochs = new HashMap<>(base.creationEpochs);
+            this.sealEpochs = new HashMap<>(base.sealEpochs);
+            this.decodedLength = base.decodedLength;
+        }
+
+        EpochIndex decode(final byte[] historyTable) {
+            HistoryRecord partialRecord = null;
+            Optional<HistoryRecord> recordOpt = HistoryRecord.readRecord(historyTable, this.decodedLength, false);
+            while (recordOpt.isPresent()) {
+                HistoryRecord record = freeze(recordOpt.get());
+                if (record.getEpoch() != this.epochs.size()) {
+                    // Epochs are expected to be contiguous; if they are not, we cannot trust what we have decoded so far.
+                    Preconditions.checkState(this.decodedLength > 0, "History table does not start at epoch 0.");
+                    reset();
+                    recordOpt = HistoryRecord.readRecord(historyTable, 0, false);
+                    continue;
+                }
+
+                if (record.isPartial()) {
+                    partialRecord = record;
+                    break;
+                }
+
+                add(record);
+                this.decodedLength = record.getOffset() + record.getLength();
+                recordOpt = HistoryRecord.readRecord(historyTable, this.decodedLength, false);
+            }
+
+            return new EpochIndex(ImmutableList.copyOf(this.epochs), ImmutableMap.copyOf(this.creationEpochs),
+                    ImmutableMap.copyOf(this.sealEpochs), partialRecord, this.decodedLength, historyTable.length);
+        }
+
+        private void add(final HistoryRecord record) {
+            int epoch = record.getEpoch();
+            for (int segment : record.getSegments()) {
+                this.creationEpochs.putIfAbsent(segment, epoch);
+            }
+
+            if (epoch > 0) {
+                Set<Integer> active = new HashSet<>(record.getSegments());
+                for (int segment : this.epochs.get(this.epochs.size() - 1).getSegments()) {
+                    if (!active.contains(segment)) {
+                        this.sealEpochs.put(segment, epoch);
+                    }
+                }
+            }
+
+            this.epochs.add(record);
+        }
+
+        private void reset() {
+            this.epochs.clear();
+            this.creationEpochs.clear();
+            this.sealEpochs.clear();
+            this.decodedLength = 0;
+        }
+
+        private static HistoryRecord freeze(final HistoryRecord record) {
+            return new HistoryRecord(record.getEpoch(), ImmutableList.copyOf(record.getSegments()), record.getScaleTime(),
+                    record.getOffset(), record.isPartial());
+        }
+    }
+
+    //endregion
+}
@@ -11,6 +11,7 @@ package io.pravega.controller.store.stream.tables;
 
 import io.pravega.common.util.BitConverter;
 import com.google.common.base.Preconditions;
+import lombok.AccessLevel;
 import lombok.Getter;
 import org.apache.commons.lang3.tuple.ImmutablePair;
 import org.apache.commons.lang3.tuple.Pair;
@@ -33,6 +34,7 @@ public class HistoryRecord {
     private static final int REMAINING_FIELDS_FIXED_LENGTH = Long.BYTES + Integer.BYTES;
     private static final int FIXED_FIELDS_LENGTH = PARTIAL_FIELDS_FIXED_LENGTH + REMAINING_FIELDS_FIXED_LENGTH;
 
+    @Getter(AccessLevel.PACKAGE)
     private final int length;
     @Getter
     private final int epoch;
@@ -98,40 +98,33 @@ public class TableHelper {
     }
 
     /**
-     * Get active segments at given timestamp.
-     * Perform binary search on index table to find the record corresponding to timestamp.
-     * Note: index table may be stale or not reflect lastest state of history table.
-     * So we may need to fall through in the history table from the record being pointed to by index
-     * until we find the correct record.
+     * Get active segments at given timestamp, using the decoded epochs in the given EpochIndex instead of searching
+     * through the index and history tables.
      * Once we find the segments, compare them to truncationRecord and take the more recent of the two.
      * @param timestamp        timestamp
-     * @param indexTable       index table
-     * @param historyTable     history table
+     * @param epochIndex       epoch index, up to date with the history table
      * @param segmentTable     segment table
      * @param truncationRecord truncation record
      * @return list of active segments.
      */
-    public static List<Integer> getActiveSegments(final long timestamp, final byte[] indexTable, final byte[] historyTable,
+    public static List<Integer> getActiveSegments(final long timestamp, final EpochIndex epochIndex,
                                                   final byte[] segmentTable, final StreamTruncationRecord truncationRecord) {
-        Optional<HistoryRecord> recordOpt = HistoryRecord.readRecord(historyTable, 0, true);
-        if (recordOpt.isPresent() && timestamp > recordOpt.get().getScaleTime()) {
-            final Optional<IndexRecord> indexOpt = IndexRecord.search(timestamp, indexTable).getValue();
-            final int startingOffset = indexOpt.map(IndexRecord::getHistoryOffset).orElse(0);
-
-            recordOpt = findRecordInHistoryTable(startingOffset, timestamp, historyTable, true);
-        }
+        return applyTruncation(epochIndex.getRecordAt(timestamp), segmentTable, truncationRecord);
+    }
 
+    private static List<Integer> applyTruncation(final Optional<HistoryRecord> recordOpt, final byte[] segmentTable,
+                                                 final StreamTruncationRecord truncationRecord) {
         return recordOpt.map(record -> {
             List<Integer> segments;
             if (truncationRecord == null) {
-                segments = record.getSegments();
+                segments = new ArrayList<>(record.getSegments());
             } else {
                 // case 1: if record.epoch is before truncation, simply pick the truncation stream cut
                 if (record.getEpoch() < truncationRecord.getTruncationEpochLow()) {
                     segments = Lists.newArrayList(truncationRecord.getStreamCut().keySet());
                 } else if (record.getEpoch() > truncationRecord.getTruncationEpochHigh()) {
                     // case 2: if record.epoch is after truncation, simply use the record epoch
-                    segments = record.getSegments();
+                    segments = new ArrayList<>(record.getSegments());
                 } else {
                     // case 3: overlap between requested epoch and stream cut.
                     // take segments from stream cut that are from or aftergit re this epoch.
@@ -201,130 +194,6 @@ public class TableHelper {
         return candidates.stream().filter(x -> x.overlaps(current)).map(x -> x.getNumber()).collect(Collectors.toList());
     }
 
-    /**
-     * Find history record from the event when the given segment was sealed.
-     * If segment is never sealed this method returns an empty list.
-     * If segment is yet to be created, this method still returns empty list.
-     * <p>
-     * Find index that corresponds to segment start event.
-     * Perform binary search on index+history records to find segment seal event.
-     * <p>
-     * If index table is not up to date we may have two cases:
-     * 1. Segment create time > highest event time in index
-     * 2. Segment seal time > highest event time in index
-     * <p>
-     * For 1 we cant have any searches in index and will need to fall through
-     * History table starting from last indexed record.
-     * <p>
-     * For 2, fall through History Table starting from last indexed record
-     * to find segment sealed event in history table.
-     *
-     * @param segment      segment
-     * @param indexTable   index table
-     * @param historyTable history table
-     * @return
-     */
-    public static List<Integer> findSegmentSuccessorCandidates(
-            final Segment segment,
-            final byte[] indexTable,
-            final byte[] historyTable) {
-        // fetch segment start time from segment Is
-        // fetch last index Ic
-        // fetch record corresponding to Ic. If segment present in that history record, fall through history table
-        // else perform binary searchIndex
-        // Note: if segment is present at Ic, we will fall through in the history table one record at a time
-        final Optional<HistoryRecord> segmentCreatedHistoryRecordOpt = segmentCreationHistoryRecord(segment, indexTable, historyTable);
-
-        // segment information not in history table
-        if (!segmentCreatedHistoryRecordOpt.isPresent()) {
-            return new ArrayList<>();
-        }
-
-        // take index of segment created event instead of searched index based on segment.startTime.
-        final int lower = IndexRecord.search(segmentCreatedHistoryRecordOpt.get().getScaleTime(), indexTable).getKey() / IndexRecord.INDEX_RECORD_SIZE;
-
-        final int upper = (indexTable.length - IndexRecord.INDEX_RECORD_SIZE) / IndexRecord.INDEX_RECORD_SIZE;
-
-        // index table may be stale, whereby we may not find segment.start to match an entry in the index table
-        final Optional<IndexRecord> indexRecord = IndexRecord.readLatestRecord(indexTable);
-        // if nothing is indexed read the first record in history table, hence offset = 0
-        final int lastIndexedRecordOffset = indexRecord.isPresent() ? indexRecord.get().getHistoryOffset() : 0;
-
-        final Optional<HistoryRecord> lastIndexedRecord = HistoryRecord.readRecord(historyTable, lastIndexedRecordOffset, false);
-
-        // if segment is present in history table but its offset is greater than last indexed record,
-        // we cant do anything on index table, fall through. OR
-        // if segment exists at the last indexed record in history table, fall through,
-        // no binary search possible on index
-        // Note: lower will always be lessThanEq upper. So if upper.getScaleTime < segmentCreatedRecord.ScaleTime then lower < segmentCreatedRecord.ScaleTime.
-        if (lastIndexedRecord.get().getScaleTime() < segmentCreatedHistoryRecordOpt.get().getScaleTime() ||
-                lastIndexedRecord.get().getSegments().contains(segment.getNumber())) {
-            // segment was sealed after the last index entry
-            HistoryRecord startPoint = lastIndexedRecord.get().getScaleTime() < segmentCreatedHistoryRecordOpt.get().getScaleTime() ?
-                    segmentCreatedHistoryRecordOpt.get() : lastIndexedRecord.get();
-            Optional<HistoryRecord> next = HistoryRecord.fetchNext(startPoint, historyTable, false);
-
-            while (next.isPresent() && next.get().getSegments().contains(segment.getNumber())) {
-                startPoint = next.get();
-                next = HistoryRecord.fetchNext(startPoint, historyTable, false);
-            }
-
-            if (next.isPresent()) {
-                return next.get().getSegments();
-            } else { // we have reached end of history table which means segment was never sealed
-                return new ArrayList<>();
-            }
-        } else {
-            // segment is definitely sealed and segment sealed event is also present in index table
-            // we should be able to find it by doing binary search on Index table
-            final Optional<HistoryRecord> record = findSegmentSealedEvent(
-                    lower,
-                    upper,
-                    segment.getNumber(),
-                    indexTable,
-                    historyTable);
-
-            return record.isPresent() ? record.get().getSegments() : new ArrayList<>();
-        }
-    }
-
-    /**
-     * Method to find candidates for predecessors.
-     * If segment was created at the time of creation of stream (= no predecessors)
-     * it returns an empty list.
-     * <p>
-     * First find the segment start time entry in the history table by using a binary
-     * search on index followed by fall through History table if index is not up to date.
-     * <p>
-     * Fetch the record in history table that immediately preceeds segment created entry.
-     *
-     * @param segment      segment
-     * @param indexTable   index table
-     * @param historyTable history table
-     * @return
-     */
-    public static List<Integer> findSegmentPredecessorCandidates(
-            final Segment segment,
-            final byte[] indexTable,
-            final byte[] historyTable) {
-        Optional<HistoryRecord> historyRecordOpt = segmentCreationHistoryRecord(segment, indexTable, historyTable);
-        if (!historyRecordOpt.isPresent()) {
-            // cant compute predecessors because the creation event is not present in history table yet.
-            return new ArrayList<>();
-        }
-
-        final HistoryRecord record = historyRecordOpt.get();
-
-        final Optional<HistoryRecord> previous = HistoryRecord.fetchPrevious(record, historyTable);
-
-        if (!previous.isPresent()) {
-            return new ArrayList<>();
-        } else {
-            assert !previous.get().getSegments().contains(segment.getNumber());
-            return previous.get().getSegments();
-        }
-    }
-
     /**
      * Add new segments to the segment table.
      * This method is designed to work with chunked creation. So it takes a
@@ -648,67 +517,6 @@ public class TableHelper {
         return Optional.of(record);
     }
 
-    /**
-     * It finds the segment sealed event between lower and upper where 'lower' offset is guaranteed to be greater than or equal to segmentCreatedEvent
-     * @param lower starting record number in index table from where to search
-     * @param upper last record number in index table till where to search
-     * @param segmentNumber segment number to find sealed event
-     * @param indexTable index table
-     * @param historyTable history table
-     * @return returns history record where segment was sealed
-     */
-    private static Optional<HistoryRecord> findSegmentSealedEvent(final int lower,
-                                                                  final int upper,
-                                                                  final int segmentNumber,
-                                                                  final byte[] indexTable,
-                                                                  final byte[] historyTable) {
-
-        if (lower > upper || historyTable.length == 0) {
-            return Optional.empty();
-        }
-
-        final int offset = ((lower + upper) / 2) * IndexRecord.INDEX_RECORD_SIZE;
-
-        final Optional<IndexRecord> indexRecord = IndexRecord.readRecord(indexTable, offset);
-
-        final Optional<IndexRecord> previousIndex = indexRecord.isPresent() ?
-                IndexRecord.fetchPrevious(indexTable, offset) :
-                Optional.empty();
-
-        final int historyTableOffset = indexRecord.isPresent() ? indexRecord.get().getHistoryOffset() : 0;
-        final Optional<HistoryRecord> record = HistoryRecord.readRecord(historyTable, historyTableOffset, false);
-
-        // if segment is not present in history record, check if it is present in previous
-        // if yes, we have found the segment sealed event
-        // else repeat binary searchIndex
-        if (!record.get().getSegments().contains(segmentNumber)) {
-            assert previousIndex.isPresent();
-
-            final Optional<HistoryRecord> previousRecord = HistoryRecord.readRecord(historyTable,
-                    previousIndex.get().getHistoryOffset(), false);
-            if (previousRecord.get().getSegments().contains(segmentNumber)) {
-                return record; // search complete
-            } else { // binary search lower
-                return findSegmentSealedEvent(lower,
-                        (lower + upper) / 2 - 1,
-                        segmentNumber,
-                        indexTable,
-                        historyTable);
-            }
-        } else { // binary search upper
-            // not sealed in the current location: look in second half
-            return findSegmentSealedEvent((lower + upper) / 2 + 1,
-                    upper,
-                    segmentNumber,
-                    indexTable,
-                    historyTable);
-        }
-    }
-
-    private static Optional<HistoryRecord> segmentCreationHistoryRecord(Segment segment, byte[] indexTable, byte[] historyTable) {
-        return segmentCreationHistoryRecord(segment.getNumber(), segment.getStart(), indexTable, historyTable);
-    }
-
     private static Optional<HistoryRecord> segmentCreationHistoryRecord(int segmentNumber, long startTime,
                                                                         byte[] indexTable, byte[] historyTable) {
         final Optional<IndexRecord> recordOpt = IndexRecord.search(startTime, indexTable)
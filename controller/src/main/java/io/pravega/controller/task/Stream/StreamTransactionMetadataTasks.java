@@ -41,6 +41,7 @@ import org.apache.commons.lang3.tuple.Pair;
 import java.time.Duration;
 import java.util.AbstractMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.BlockingQueue;
@@ -233,6 +234,35 @@ public class StreamTransactionMetadataTasks implements AutoCloseable {
         }, executor);
     }
 
+    /**
+     * Transaction heartbeat for many transactions of the same stream. Each transaction's lease is renewed exactly as
+     * {@link #pingTxn} would do it, but all of them are renewed concurrently under a single operation context, so that
+     * the stream metadata is fetched once and the resulting transaction record updates can be grouped by the store.
+     * A transaction whose ping fails has {@link Status#FAILURE} as its status, without failing the others.
+     *
+     * @param scope      Stream scope.
+     * @param stream     Stream name.
+     * @param txIds      Transaction identifiers.
+     * @param lease      Amount of time in milliseconds by which to extend the transaction leases.
+     * @param contextOpt operational context
+     * @return Ping status of each transaction.
+     */
+    public CompletableFuture<Map<UUID, PingTxnStatus>> pingTxns(final String scope,
+                                                                final String stream,
+                                                                final List<UUID> txIds,
+                                                                final long lease,
+                                                                final OperationContext contextOpt) {
+        return checkReady().thenComposeAsync(x -> {
+            final OperationContext context = getNonNullOperationContext(scope, stream, contextOpt);
+            return Futures.allOfWithResults(txIds.stream().distinct().collect(Collectors.toMap(txId -> txId,
+                    txId -> pingTxnBody(scope, stream, txId, lease, context)
+                            .exceptionally(e -> {
+                                log.warn("Txn={}, ping failed", txId, e);
+                                return createStatus(Status.FAILURE);
+                            }))));
+        }, executor);
+    }
+
     /**
      * Abort transaction.
      *
@@ -88,6 +88,38 @@ public class ConcurrentEPSerializedRHTest {
         stop.set(true);
     }
 
+    @Test(timeout = 10000)
+    public void testBacklogOnOneStreamDoesNotStallOthers() {
+        ScheduledExecutorService executor = Executors.newScheduledThreadPool(2);
+        CompletableFuture<Void> hotStreamBlocked = new CompletableFuture<>();
+        CompletableFuture<Void> otherStreamProcessed = new CompletableFuture<>();
+        SerializedRequestHandler<TestBase> requestHandler = new SerializedRequestHandler<TestBase>("backlog", executor) {
+            @Override
+            public CompletableFuture<Void> processEvent(TestBase event) {
+                if (event.getStream().equals("hot")) {
+                    return hotStreamBlocked;
+                }
+                otherStreamProcessed.complete(null);
+                return CompletableFuture.completedFuture(null);
+            }
+        };
+        ConcurrentEventProcessor<TestBase, SerializedRequestHandler<TestBase>> processor = new ConcurrentEventProcessor<>(
+                requestHandler, 2, executor, null, writer, 1, TimeUnit.SECONDS);
+
+        // With two permits, the first hot stream event keeps one while it runs. The events queued behind it must give
+        // theirs back, or the event for the other stream could never be picked up.
+        CompletableFuture.runAsync(() -> {
+            for (int i = 0; i < 10; i++) {
+                processor.process(new TestEvent2("hot", i), null);
+            }
+            processor.process(new TestEvent2("other", 0), null);
+        });
+
+        assertTrue(Futures.await(otherStreamProcessed));
+        hotStreamBlocked.complete(null);
+        executor.shutdownNow();
+    }
+
     // region exceptions
     private static class TestStartException extends RuntimeException {
     }
@@ -183,7 +215,7 @@ public class ConcurrentEPSerializedRHTest {
         private final List<ControllerEvent> receivedForProcessing;
 
         TestRequestHandler2(ScheduledExecutorService executor) {
-            super(executor);
+            super("test", executor);
             receivedForProcessing = Collections.synchronizedList(new ArrayList<>());
         }
 
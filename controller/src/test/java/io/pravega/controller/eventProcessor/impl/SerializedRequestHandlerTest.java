@@ -28,7 +28,9 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.stream.Collectors;
+import java.util.stream.IntStream;
 
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertNotNull;
 import static org.junit.Assert.assertNull;
@@ -40,7 +42,7 @@ public class SerializedRequestHandlerTest extends ThreadPooledTestSuite {
     public void testProcessEvent() throws InterruptedException, ExecutionException {
         final ConcurrentHashMap<String, List<Integer>> orderOfProcessing = new ConcurrentHashMap<>();
 
-        SerializedRequestHandler<TestEvent> requestHandler = new SerializedRequestHandler<TestEvent>(executorService()) {
+        SerializedRequestHandler<TestEvent> requestHandler = new SerializedRequestHandler<TestEvent>("test1", executorService()) {
             @Override
             public CompletableFuture<Void> processEvent(TestEvent event) {
                 orderOfProcessing.compute(event.getKey(), (x, y) -> {
@@ -157,7 +159,7 @@ public class SerializedRequestHandlerTest extends ThreadPooledTestSuite {
         AtomicInteger postponeS1e2Count = new AtomicInteger();
         AtomicBoolean allowCompletion = new AtomicBoolean(false);
 
-        SerializedRequestHandler<TestEvent> requestHandler = new SerializedRequestHandler<TestEvent>(executorService()) {
+        SerializedRequestHandler<TestEvent> requestHandler = new SerializedRequestHandler<TestEvent>("test2", executorService()) {
             @Override
             public CompletableFuture<Void> processEvent(TestEvent event) {
                 if (!event.future.isDone()) {
@@ -226,6 +228,38 @@ public class SerializedRequestHandlerTest extends ThreadPooledTestSuite {
         stop.set(true);
     }
 
+    @Test(timeout = 10000)
+    public void testManyStreams() {
+        final ConcurrentHashMap<String, List<Integer>> orderOfProcessing = new ConcurrentHashMap<>();
+
+        SerializedRequestHandler<TestEvent> requestHandler = new SerializedRequestHandler<TestEvent>("test3", executorService()) {
+            @Override
+            public CompletableFuture<Void> processEvent(TestEvent event) {
+                orderOfProcessing.computeIfAbsent(event.getKey(), x -> new ArrayList<>()).add(event.getNumber());
+                return event.getFuture();
+            }
+        };
+
+        // Events for many streams are interleaved; each stream's events must still be processed in order.
+        List<CompletableFuture<Void>> results = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            for (int j = 0; j < 100; j++) {
+                TestEvent event = new TestEvent("scope", "stream" + j, i);
+                event.complete();
+                results.add(requestHandler.process(event));
+            }
+        }
+        Futures.allOf(results).join();
+
+        for (int j = 0; j < 100; j++) {
+            List<Integer> expected = IntStream.range(0, 10).boxed().collect(Collectors.toList());
+            assertEquals(expected, orderOfProcessing.get(getKeyForStream("scope", "stream" + j)));
+            final String key = getKeyForStream("scope", "stream" + j);
+            Futures.loop(() -> requestHandler.getEventQueueForKey(key) != null,
+                    () -> CompletableFuture.completedFuture(null), executorService()).join();
+        }
+    }
+
     private void runBackgroundStreamProcessing(String streamName, SerializedRequestHandler<TestEvent> requestHandler, AtomicBoolean stop) {
         CompletableFuture.runAsync(() -> {
             while (!stop.get()) {
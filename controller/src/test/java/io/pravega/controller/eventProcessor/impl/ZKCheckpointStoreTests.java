@@ -9,8 +9,10 @@
  */
 package io.pravega.controller.eventProcessor.impl;
 
+import io.pravega.client.segment.impl.Segment;
 import io.pravega.client.stream.Position;
 import io.pravega.client.stream.impl.PositionImpl;
+import io.pravega.common.concurrent.Futures;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.TestingServerStarter;
 import io.pravega.controller.store.checkpoint.CheckpointStoreException;
@@ -19,11 +21,16 @@ import org.apache.curator.framework.CuratorFramework;
 import org.apache.curator.framework.CuratorFrameworkFactory;
 import org.apache.curator.retry.RetryOneTime;
 import org.apache.curator.test.TestingServer;
+import org.junit.Assert;
 import org.junit.Test;
 
 import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
 import java.util.function.Predicate;
 
 /**
@@ -85,5 +92,51 @@ public class ZKCheckpointStoreTests extends CheckpointStoreTests {
         AssertExtensions.assertThrows("failed removeReaderGroup",
                 () -> checkpointStore.removeReaderGroup(process1, readerGroup1), predicate);
     }
-}
 
+    @Test
+    public void concurrentPositionUpdatesTest() throws Exception {
+        final String process = "process1";
+        final String readerGroup = "rg1";
+        final int readerCount = 10;
+        checkpointStore.addReaderGroup(process, readerGroup);
+        for (int i = 0; i < readerCount; i++) {
+            checkpointStore.addReader(process, readerGroup, "reader" + i);
+        }
+
+        // Many concurrent updates, which get batched and coalesced; the latest position of each reader must win.
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        for (int i = 0; i < readerCount; i++) {
+            final String reader = "reader" + i;
+            final Segment segment = new Segment("scope", "stream", i);
+            updates.add(CompletableFuture.runAsync(() -> {
+                for (long offset = 0; offset <= 20; offset++) {
+                    try {
+                        checkpointStore.setPosition(process, readerGroup, reader,
+                                new PositionImpl(Collections.singletonMap(segment, offset)));
+                    } catch (CheckpointStoreException e) {
+                        throw new RuntimeException(e);
+                    }
+                }
+            }));
+        }
+        Futures.allOf(updates).join();
+
+        Map<String, Position> positions = checkpointStore.getPositions(process, readerGroup);
+        for (int i = 0; i < readerCount; i++) {
+            Position expected = new PositionImpl(Collections.singletonMap(new Segment("scope", "stream", i), 20L));
+            Assert.assertEquals(expected, positions.get("reader" + i));
+        }
+
+        // An unchanged position must not be written again.
+        String path = String.format("/eventProcessors/%s/%s/%s", process, readerGroup, "reader0");
+        int version = cli.checkExists().forPath(path).getVersion();
+        checkpointStore.setPosition(process, readerGroup, "reader0", positions.get("reader0"));
+        Assert.assertEquals(version, cli.checkExists().forPath(path).getVersion());
+
+        // Once the reader is removed and re-added, its position must be written again.
+        checkpointStore.removeReader(process, readerGroup, "reader0");
+        checkpointStore.addReader(process, readerGroup, "reader0");
+        checkpointStore.setPosition(process, readerGroup, "reader0", positions.get("reader0"));
+        Assert.assertEquals(positions.get("reader0"), checkpointStore.getPositions(process, readerGroup).get("reader0"));
+    }
+}
@@ -0,0 +1,165 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.controller.store.stream;
+
+import com.google.common.collect.Lists;
+import io.pravega.controller.store.stream.tables.EpochIndex;
+import io.pravega.controller.store.stream.tables.HistoryRecord;
+import io.pravega.controller.store.stream.tables.TableHelper;
+import io.pravega.test.common.AssertExtensions;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+public class EpochIndexTest {
+
+    @Test
+    public void incrementalUpdateTest() {
+        EpochIndex epochIndex = EpochIndex.EMPTY;
+        byte[] historyTable = TableHelper.createHistoryTable(10L, Lists.newArrayList(0, 1, 2));
+        epochIndex = epochIndex.update(historyTable);
+        assertEquals(Lists.newArrayList(0, 1, 2), epochIndex.getActiveSegments());
+        assertEquals(Collections.emptyList(), epochIndex.getPredecessorCandidates(0));
+        assertEquals(Collections.emptyList(), epochIndex.getSuccessorCandidates(0));
+
+        // Scale started: the new epoch is only partially recorded.
+        historyTable = TableHelper.addPartialRecordToHistoryTable(historyTable, Lists.newArrayList(0, 3));
+        epochIndex = epochIndex.update(historyTable);
+        assertEquals(Lists.newArrayList(0, 1, 2), epochIndex.getActiveSegments());
+        assertEquals(Lists.newArrayList(0, 3), epochIndex.getSegmentsInEpoch(1));
+        assertEquals(Lists.newArrayList(0, 3), epochIndex.getSuccessorCandidates(1));
+        assertEquals(Lists.newArrayList(0, 1, 2), epochIndex.getPredecessorCandidates(3));
+        assertEquals(Collections.emptyList(), epochIndex.getSuccessorCandidates(0));
+
+        // Scale completed.
+        historyTable = completeScale(historyTable, 20L);
+        epochIndex = epochIndex.update(historyTable);
+        assertEquals(Lists.newArrayList(0, 3), epochIndex.getActiveSegments());
+
+        historyTable = TableHelper.addPartialRecordToHistoryTable(historyTable, Lists.newArrayList(3, 4, 5));
+        historyTable = completeScale(historyTable, 30L);
+        epochIndex = epochIndex.update(historyTable);
+        assertEquals(Lists.newArrayList(3, 4, 5), epochIndex.getActiveSegments());
+
+        // Successors and predecessors.
+        assertEquals(Lists.newArrayList(0, 3), epochIndex.getSuccessorCandidates(1));
+        assertEquals(Lists.newArrayList(0, 3), epochIndex.getSuccessorCandidates(2));
+        assertEquals(Lists.newArrayList(3, 4, 5), epochIndex.getSuccessorCandidates(0));
+        assertEquals(Collections.emptyList(), epochIndex.getSuccessorCandidates(3));
+        assertEquals(Collections.emptyList(), epochIndex.getSuccessorCandidates(6));
+        assertEquals(Lists.newArrayList(0, 1, 2), epochIndex.getPredecessorCandidates(3));
+        assertEquals(Lists.newArrayList(0, 3), epochIndex.getPredecessorCandidates(4));
+        assertEquals(Collections.emptyList(), epochIndex.getPredecessorCandidates(6));
+
+        // Epochs and timestamps.
+        assertEquals(Lists.newArrayList(0, 1, 2), epochIndex.getSegmentsInEpoch(0));
+        assertEquals(Lists.newArrayList(3, 4, 5), epochIndex.getSegmentsInEpoch(5));
+        final EpochIndex finalIndex = epochIndex;
+        AssertExtensions.assertThrows(StoreException.DataNotFoundException.class, () -> {
+            finalIndex.getSegmentsInEpoch(-1);
+        });
+        assertEquals(0, epochIndex.getRecordAt(5L).get().getEpoch());
+        assertEquals(0, epochIndex.getRecordAt(19L).get().getEpoch());
+        assertEquals(1, epochIndex.getRecordAt(20L).get().getEpoch());
+        assertEquals(1, epochIndex.getRecordAt(29L).get().getEpoch());
+        assertEquals(2, epochIndex.getRecordAt(Long.MAX_VALUE).get().getEpoch());
+    }
+
+    @Test
+    public void matchesTableHelperTest() {
+        EpochIndex epochIndex = EpochIndex.EMPTY;
+        byte[] historyTable = TableHelper.createHistoryTable(1L, Lists.newArrayList(0, 1));
+        int nextSegment = 2;
+        for (int i = 1; i <= 50; i++) {
+            List<Integer> active = TableHelper.getActiveSegments(historyTable);
+            List<Integer> newActive = Lists.newArrayList(active.subList(1, active.size()));
+            newActive.add(nextSegment++);
+            newActive.add(nextSegment++);
+            historyTable = TableHelper.addPartialRecordToHistoryTable(historyTable, newActive);
+            historyTable = completeScale(historyTable, 1L + i * 10);
+            if (i % 7 == 0) {
+                epochIndex = epochIndex.update(historyTable);
+            }
+        }
+
+        epochIndex = epochIndex.update(historyTable);
+        assertEquals(TableHelper.getActiveSegments(historyTable), epochIndex.getActiveSegments());
+        for (int epoch = 0; epoch <= 50; epoch++) {
+            assertEquals(TableHelper.getSegmentsInEpoch(historyTable, epoch), epochIndex.getSegmentsInEpoch(epoch));
+        }
+    }
+
+    @Test
+    public void recreatedStreamTest() {
+        EpochIndex epochIndex = EpochIndex.EMPTY;
+        byte[] historyTable = TableHelper.createHistoryTable(10L, Lists.newArrayList(0, 1));
+        historyTable = TableHelper.addPartialRecordToHistoryTable(historyTable, Lists.newArrayList(2, 3));
+        historyTable = completeScale(historyTable, 20L);
+        epochIndex = epochIndex.update(historyTable);
+        assertEquals(Lists.newArrayList(2, 3), epochIndex.getActiveSegments());
+
+        // A history table that does not extend the previous one must cause the index to be rebuilt.
+        byte[] recreated = TableHelper.createHistoryTable(30L, Lists.newArrayList(0, 1));
+        epochIndex = epochIndex.update(recreated);
+        assertEquals(Lists.newArrayList(0, 1), epochIndex.getActiveSegments());
+        assertEquals(Collections.emptyList(), epochIndex.getSuccessorCandidates(0));
+        assertFalse(epochIndex.getRecordAt(20L).get().getScaleTime() == 20L);
+    }
+
+    @Test
+    public void staleHistoryTableTest() {
+        byte[] first = TableHelper.createHistoryTable(10L, Lists.newArrayList(0, 1));
+        byte[] partial = TableHelper.addPartialRecordToHistoryTable(first, Lists.newArrayList(1, 2));
+        byte[] completed = completeScale(partial, 20L);
+        EpochIndex epochIndex = EpochIndex.EMPTY.update(completed);
+        assertEquals(Lists.newArrayList(1, 2), epochIndex.getActiveSegments());
+
+        // History tables that were read before the one the index was built from must not roll it back.
+        assertSame(epochIndex, epochIndex.update(first));
+        assertSame(epochIndex, epochIndex.update(partial));
+        assertSame(epochIndex, epochIndex.update(completed));
+        assertEquals(Lists.newArrayList(1, 2), epochIndex.getActiveSegments());
+        assertEquals(Lists.newArrayList(0, 1), epochIndex.getPredecessorCandidates(2));
+    }
+
+    @Test
+    public void immutableSnapshotTest() {
+        byte[] historyTable = TableHelper.createHistoryTable(10L, Lists.newArrayList(0, 1));
+        EpochIndex before = EpochIndex.EMPTY.update(historyTable);
+        historyTable = TableHelper.addPartialRecordToHistoryTable(historyTable, Lists.newArrayList(1, 2));
+        historyTable = completeScale(historyTable, 20L);
+        EpochIndex after = before.update(historyTable);
+
+        // Updating creates a new index and leaves the one a caller already holds untouched.
+        assertNotSame(before, after);
+        assertEquals(Lists.newArrayList(0, 1), before.getActiveSegments());
+        assertEquals(Collections.emptyList(), before.getSuccessorCandidates(0));
+        assertEquals(Lists.newArrayList(1, 2), after.getActiveSegments());
+        assertEquals(Lists.newArrayList(1, 2), after.getSuccessorCandidates(0));
+
+        // Lists handed out belong to the caller.
+        after.getActiveSegments().clear();
+        after.getSegmentsInEpoch(1).clear();
+        assertEquals(Lists.newArrayList(1, 2), after.getActiveSegments());
+        assertEquals(Lists.newArrayList(1, 2), after.getSegmentsInEpoch(1));
+        AssertExtensions.assertThrows(UnsupportedOperationException.class, () -> after.getRecordAt(20L).get().getSegments().clear());
+    }
+
+    private byte[] completeScale(byte[] historyTable, long timestamp) {
+        HistoryRecord partial = HistoryRecord.readLatestRecord(historyTable, false).get();
+        return TableHelper.completePartialRecordInHistoryTable(historyTable, partial, timestamp);
+    }
+}
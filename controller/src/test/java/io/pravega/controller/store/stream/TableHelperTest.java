@@ -10,6 +10,7 @@
 package io.pravega.controller.store.stream;
 
 import com.google.common.collect.Lists;
+import io.pravega.controller.store.stream.tables.EpochIndex;
 import io.pravega.controller.store.stream.tables.HistoryRecord;
 import io.pravega.controller.store.stream.tables.SegmentRecord;
 import io.pravega.controller.store.stream.tables.StreamTruncationRecord;
@@ -81,22 +82,22 @@ public class TableHelperTest {
         activeSegments = TableHelper.getActiveSegments(historyTable);
         assertEquals(activeSegments, newSegments);
 
-        activeSegments = TableHelper.getActiveSegments(timestamp, new byte[0], historyTable, null, null);
+        activeSegments = TableHelper.getActiveSegments(timestamp, EpochIndex.EMPTY.update(historyTable), null, null);
         assertEquals(startSegments, activeSegments);
 
-        activeSegments = TableHelper.getActiveSegments(0, new byte[0], historyTable, null, null);
+        activeSegments = TableHelper.getActiveSegments(0, EpochIndex.EMPTY.update(historyTable), null, null);
         assertEquals(startSegments, activeSegments);
 
-        activeSegments = TableHelper.getActiveSegments(timestamp - 1, new byte[0], historyTable, null, null);
+        activeSegments = TableHelper.getActiveSegments(timestamp - 1, EpochIndex.EMPTY.update(historyTable), null, null);
         assertEquals(startSegments, activeSegments);
 
-        activeSegments = TableHelper.getActiveSegments(timestamp + 1, new byte[0], historyTable, null, null);
+        activeSegments = TableHelper.getActiveSegments(timestamp + 1, EpochIndex.EMPTY.update(historyTable), null, null);
         assertEquals(startSegments, activeSegments);
 
-        activeSegments = TableHelper.getActiveSegments(timestamp + 2, new byte[0], historyTable, null, null);
+        activeSegments = TableHelper.getActiveSegments(timestamp + 2, EpochIndex.EMPTY.update(historyTable), null, null);
         assertEquals(newSegments, activeSegments);
 
-        activeSegments = TableHelper.getActiveSegments(timestamp + 3, new byte[0], historyTable, null, null);
+        activeSegments = TableHelper.getActiveSegments(timestamp + 3, EpochIndex.EMPTY.update(historyTable), null, null);
         assertEquals(newSegments, activeSegments);
     }
 
@@ -158,17 +159,12 @@ public class TableHelperTest {
 
         // find predecessors and successors when update to index table hasn't happened
         predecessors = TableHelper.getOverlaps(five,
-                TableHelper
-                        .findSegmentPredecessorCandidates(five,
-                                indexTable,
-                                historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(five,
-                TableHelper.findSegmentSuccessorCandidates(five,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -285,9 +281,7 @@ public class TableHelperTest {
 
         timestamp = 1503933409806L;
         // find successor candidates before completing scale.
-        List<Integer> candidates5 = TableHelper.findSegmentSuccessorCandidates(five,
-                indexTable,
-                historyTable);
+        List<Integer> candidates5 = EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber());
 
         assertTrue(candidates5.containsAll(Arrays.asList(2, 3, 4, 6, 7)));
         // complete record in history table by adding time
@@ -295,9 +289,7 @@ public class TableHelperTest {
         historyRecord = HistoryRecord.readLatestRecord(historyTable, false).get();
 
         // verify successor candidates after completing history record but before adding index entry
-        candidates5 = TableHelper.findSegmentSuccessorCandidates(five,
-                indexTable,
-                historyTable);
+        candidates5 = EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber());
         assertTrue(candidates5.containsAll(Arrays.asList(2, 3, 4, 6, 7)));
 
         indexTable = TableHelper.updateIndexTable(indexTable,
@@ -305,9 +297,7 @@ public class TableHelperTest {
                 historyRecord.getOffset());
 
         // verify successor candidates after index is updated
-        candidates5 = TableHelper.findSegmentSuccessorCandidates(five,
-                indexTable,
-                historyTable);
+        candidates5 = EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber());
         assertTrue(candidates5.containsAll(Arrays.asList(2, 3, 4, 6, 7)));
 
         // scale down 6, 7 -> 8
@@ -333,9 +323,7 @@ public class TableHelperTest {
                 historyRecord.getOffset());
 
         // verify successors again after a new scale entry comes in
-        candidates5 = TableHelper.findSegmentSuccessorCandidates(five,
-                indexTable,
-                historyTable);
+        candidates5 = EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber());
 
         assertTrue(candidates5.containsAll(Arrays.asList(2, 3, 4, 6, 7)));
     }
@@ -366,17 +354,12 @@ public class TableHelperTest {
 
         // find predecessors and successors when update to history and index table hasnt happened
         predecessors = TableHelper.getOverlaps(zero,
-                TableHelper
-                        .findSegmentPredecessorCandidates(zero,
-                                new byte[0],
-                                new byte[0])
+                EpochIndex.EMPTY.update(new byte[0]).getPredecessorCandidates(zero.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(zero,
-                TableHelper.findSegmentSuccessorCandidates(zero,
-                        new byte[0],
-                        new byte[0])
+                EpochIndex.EMPTY.update(new byte[0]).getSuccessorCandidates(zero.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -399,17 +382,13 @@ public class TableHelperTest {
 
         // check predecessor segment in partial record
         predecessors = TableHelper.getOverlaps(five,
-                TableHelper.findSegmentPredecessorCandidates(five,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         // check that segment from partial record is returned as successor
         successors = TableHelper.getOverlaps(three,
-                TableHelper.findSegmentSuccessorCandidates(three,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(three.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -438,16 +417,12 @@ public class TableHelperTest {
 
         // check that previous partial record is not a regular record and its successor and predecessors are returned successfully
         predecessors = TableHelper.getOverlaps(five,
-                TableHelper.findSegmentPredecessorCandidates(five,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(five,
-                TableHelper.findSegmentSuccessorCandidates(five,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -478,16 +453,12 @@ public class TableHelperTest {
 
         // find predecessor and successor with index table being stale
         predecessors = TableHelper.getOverlaps(ten,
-                TableHelper.findSegmentPredecessorCandidates(ten,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(ten.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(seven,
-                TableHelper.findSegmentSuccessorCandidates(seven,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(seven.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -502,16 +473,12 @@ public class TableHelperTest {
         // 1 has a successor few rows down
 
         predecessors = TableHelper.getOverlaps(zero,
-                TableHelper.findSegmentPredecessorCandidates(zero,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(zero.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(zero,
-                TableHelper.findSegmentSuccessorCandidates(zero,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(zero.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -520,16 +487,12 @@ public class TableHelperTest {
         assertEquals(successors, new ArrayList<Integer>());
 
         predecessors = TableHelper.getOverlaps(one,
-                TableHelper.findSegmentPredecessorCandidates(one,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(one.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(one,
-                TableHelper.findSegmentSuccessorCandidates(one,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(one.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments))
                         .collect(Collectors.toList()));
@@ -537,150 +500,110 @@ public class TableHelperTest {
         assertEquals(successors, Lists.newArrayList(6, 7));
 
         predecessors = TableHelper.getOverlaps(two,
-                TableHelper.findSegmentPredecessorCandidates(two,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(two.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(two,
-                TableHelper.findSegmentSuccessorCandidates(two,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(two.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, new ArrayList<Integer>());
         assertEquals(successors, Lists.newArrayList(8));
 
         predecessors = TableHelper.getOverlaps(three,
-                TableHelper.findSegmentPredecessorCandidates(three,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(three.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(three,
-                TableHelper.findSegmentSuccessorCandidates(three,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(three.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, new ArrayList<Integer>());
         assertEquals(successors, Lists.newArrayList(5));
 
         predecessors = TableHelper.getOverlaps(four,
-                TableHelper.findSegmentPredecessorCandidates(four,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(four.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(four,
-                TableHelper.findSegmentSuccessorCandidates(four,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(four.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, new ArrayList<Integer>());
         assertEquals(successors, Lists.newArrayList(5));
 
         predecessors = TableHelper.getOverlaps(five,
-                TableHelper.findSegmentPredecessorCandidates(five,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(five,
-                TableHelper.findSegmentSuccessorCandidates(five,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(five.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(3, 4));
         assertEquals(successors, Lists.newArrayList(8));
 
         predecessors = TableHelper.getOverlaps(six,
-                TableHelper.findSegmentPredecessorCandidates(six,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(six.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(six,
-                TableHelper.findSegmentSuccessorCandidates(six,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(six.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(1));
         assertEquals(successors, new ArrayList<>());
 
         predecessors = TableHelper.getOverlaps(seven,
-                TableHelper.findSegmentPredecessorCandidates(seven,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(seven.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(seven,
-                TableHelper.findSegmentSuccessorCandidates(seven,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(seven.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(1));
         assertEquals(successors, Lists.newArrayList(9, 10));
 
         predecessors = TableHelper.getOverlaps(eight,
-                TableHelper.findSegmentPredecessorCandidates(eight,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(eight.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(eight,
-                TableHelper.findSegmentSuccessorCandidates(eight,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(eight.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(2, 5));
         assertEquals(successors, Lists.newArrayList(10, 11));
 
         predecessors = TableHelper.getOverlaps(nine,
-                TableHelper.findSegmentPredecessorCandidates(nine,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(nine.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(nine,
-                TableHelper.findSegmentSuccessorCandidates(nine,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(nine.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(7));
         assertEquals(successors, new ArrayList<>());
 
         predecessors = TableHelper.getOverlaps(ten,
-                TableHelper.findSegmentPredecessorCandidates(ten,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(ten.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(ten,
-                TableHelper.findSegmentSuccessorCandidates(ten,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(ten.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(7, 8));
         assertEquals(successors, new ArrayList<>());
 
         predecessors = TableHelper.getOverlaps(eleven,
-                TableHelper.findSegmentPredecessorCandidates(eleven,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getPredecessorCandidates(eleven.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         successors = TableHelper.getOverlaps(eleven,
-                TableHelper.findSegmentSuccessorCandidates(eleven,
-                        indexTable,
-                        historyTable)
+                EpochIndex.EMPTY.update(historyTable).getSuccessorCandidates(eleven.getNumber())
                         .stream()
                         .map(x -> getSegment(x, segments)).collect(Collectors.toList()));
         assertEquals(predecessors, Lists.newArrayList(8));
@@ -9,6 +9,8 @@
  */
 package io.pravega.controller.store.stream;
 
+import io.pravega.common.concurrent.Futures;
+import io.pravega.controller.store.stream.tables.Data;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.TestingServerStarter;
 import org.apache.curator.framework.CuratorFramework;
@@ -23,6 +25,9 @@ import org.junit.Test;
 import org.junit.rules.Timeout;
 
 import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -83,4 +88,53 @@ public class ZKStoreHelperTest {
         AssertExtensions.assertThrows("Should throw UnknownException", zkStoreHelper.deleteNode("/test/test1"),
                 e -> e instanceof StoreException.StoreConnectionException);
     }
+
+    @Test
+    public void testBatchedWrites() throws Exception {
+        Assert.assertNull(zkStoreHelper.addNode("/txn").get());
+        Assert.assertNull(zkStoreHelper.addNode("/txn/existing").get());
+
+        // Issued concurrently, these get grouped into multi-ops.
+        List<CompletableFuture<Void>> creates = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            creates.add(zkStoreHelper.batchedCreateZNodeIfNotExist("/txn/" + i, new byte[]{(byte) i}, false));
+        }
+        Futures.allOf(creates).get();
+        Assert.assertTrue(zkStoreHelper.getBatcher().getBatchCount() > 0);
+        for (int i = 0; i < 50; i++) {
+            Assert.assertEquals(i, zkStoreHelper.getData("/txn/" + i).get().getData()[0]);
+        }
+
+        // A failing write must not affect the others in its batch, and each must keep its own semantics.
+        List<CompletableFuture<Void>> updates = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            updates.add(zkStoreHelper.batchedSetData("/txn/" + i, new Data<>(new byte[]{(byte) (i + 100)}, 0)));
+        }
+        CompletableFuture<Void> conflict = zkStoreHelper.batchedSetData("/txn/10", new Data<>(new byte[0], 5));
+        CompletableFuture<Void> existing = zkStoreHelper.batchedCreateZNodeIfNotExist("/txn/existing", new byte[0], false);
+        CompletableFuture<Void> withParent = zkStoreHelper.batchedCreateZNodeIfNotExist("/txn/parent/child", new byte[0], true);
+        CompletableFuture<Void> deleted = zkStoreHelper.batchedDeletePath("/txn/11");
+        CompletableFuture<Void> deletedMissing = zkStoreHelper.batchedDeletePath("/txn/missing");
+
+        Futures.allOf(updates).get();
+        AssertExtensions.assertThrows("Should throw WriteConflictException", conflict,
+                e -> e instanceof StoreException.WriteConflictException);
+        Assert.assertNull(existing.get());
+        Assert.assertNull(withParent.get());
+        Assert.assertNull(deleted.get());
+        Assert.assertNull(deletedMissing.get());
+        for (int i = 0; i < 10; i++) {
+            Assert.assertEquals(i + 100, zkStoreHelper.getData("/txn/" + i).get().getData()[0]);
+        }
+        Assert.assertTrue(zkStoreHelper.checkExists("/txn/parent/child").get());
+        Assert.assertFalse(zkStoreHelper.checkExists("/txn/11").get());
+
+        // Only the writes that failed are retried by themselves; the rest of their batches are batched again.
+        Assert.assertTrue(zkStoreHelper.getBatcher().getRetryCount() <= 4);
+
+        zkServer.stop();
+        AssertExtensions.assertThrows("Should throw StoreConnectionException",
+                zkStoreHelper.batchedSetData("/txn/12", new Data<>(new byte[0], null)),
+                e -> e instanceof StoreException.StoreConnectionException);
+    }
 }
@@ -33,6 +33,7 @@ import io.pravega.controller.store.task.TaskMetadataStore;
 import io.pravega.controller.store.task.TaskStoreFactory;
 import io.pravega.controller.stream.api.grpc.v1.Controller;
 import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnStatus;
+import io.pravega.controller.stream.api.grpc.v1.Controller.PingTxnsResponse;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnId;
 import io.pravega.controller.stream.api.grpc.v1.Controller.TxnState;
 import io.pravega.controller.task.Stream.StreamMetadataTasks;
@@ -40,12 +41,15 @@ import io.pravega.controller.task.Stream.StreamTransactionMetadataTasks;
 import io.pravega.controller.util.Config;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.TestingServerStarter;
+import java.util.Arrays;
+import java.util.Map;
 import java.util.Optional;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
 
 import lombok.Cleanup;
 import lombok.extern.slf4j.Slf4j;
@@ -237,6 +241,36 @@ public class TimeoutServiceTest {
         Assert.assertEquals(TxnState.State.ABORTING, txnState.getState());
     }
 
+    @Test(timeout = 10000)
+    public void testControllerBulkPing() throws InterruptedException {
+        TxnId txnId1 = controllerService.createTransaction(SCOPE, STREAM, LEASE, SCALE_GRACE_PERIOD)
+                .thenApply(x -> ModelHelper.decode(x.getKey()))
+                .join();
+        TxnId txnId2 = controllerService.createTransaction(SCOPE, STREAM, LEASE, SCALE_GRACE_PERIOD)
+                .thenApply(x -> ModelHelper.decode(x.getKey()))
+                .join();
+        TxnId unknown = ModelHelper.decode(UUID.randomUUID());
+
+        Optional<Throwable> result = timeoutService.getTaskCompletionQueue().poll((long) (0.75 * LEASE), TimeUnit.MILLISECONDS);
+        Assert.assertNull(result);
+
+        PingTxnsResponse response = controllerService.pingTransactions(SCOPE, STREAM,
+                Arrays.asList(txnId1, txnId2, unknown), LEASE).join();
+        Map<TxnId, PingTxnStatus.Status> statuses = response.getEntriesList().stream()
+                .collect(Collectors.toMap(PingTxnsResponse.TxnPingEntry::getTxnId, e -> e.getStatus().getStatus()));
+        Assert.assertEquals(3, statuses.size());
+        Assert.assertEquals(PingTxnStatus.Status.OK, statuses.get(txnId1));
+        Assert.assertEquals(PingTxnStatus.Status.OK, statuses.get(txnId2));
+        Assert.assertEquals(PingTxnStatus.Status.FAILURE, statuses.get(unknown));
+
+        // Both leases were extended, so neither transaction may time out yet.
+        result = timeoutService.getTaskCompletionQueue().poll((long) (0.5 * LEASE), TimeUnit.MILLISECONDS);
+        Assert.assertNull(result);
+
+        Assert.assertEquals(TxnState.State.OPEN, controllerService.checkTransactionStatus(SCOPE, STREAM, txnId1).join().getState());
+        Assert.assertEquals(TxnState.State.OPEN, controllerService.checkTransactionStatus(SCOPE, STREAM, txnId2).join().getState());
+    }
+
     @Test(timeout = 30000)
     public void testPingOwnershipTransfer() throws Exception {
         StreamMetadataStore streamStore2 = StreamStoreFactory.createZKStore(client, executor);
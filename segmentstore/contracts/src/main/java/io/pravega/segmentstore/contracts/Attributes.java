@@ -16,7 +16,8 @@ import java.util.UUID;
  */
 public final class Attributes {
     /**
-     * Prefix (Most Significant Bits) of the Id of all well-known attributes.
+     * Prefix (Most Significant Bits) of the Id of all well-known attributes. Ids with this prefix and Least Significant
+     * Bits of 2^32 - 1 or more are reserved for the Segment time index (see io.pravega.shared.segment.SegmentTimeIndex).
      */
     public static final long WELL_KNOWN_ID_PREFIX = Long.MIN_VALUE;
 
@@ -102,7 +102,7 @@ public final class ServiceStarter {
                 .createSegmentStatsRecorder(service, builderConfig.getConfig(AutoScalerConfig::builder));
 
         this.listener = new PravegaConnectionListener(false, this.serviceConfig.getListeningIPAddress(),
-                this.serviceConfig.getListeningPort(), service, statsRecorder);
+                this.serviceConfig.getListeningPort(), service, statsRecorder, this.serviceConfig.getMaxSegmentCounters());
         this.listener.startListening();
         log.info("PravegaConnectionListener started successfully.");
         log.info("StreamSegmentService started.");
@@ -29,7 +29,6 @@ import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import io.pravega.segmentstore.contracts.WrongHostException;
 import io.pravega.segmentstore.server.SegmentMetadata;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsRecorder;
-import io.pravega.shared.metrics.DynamicLogger;
 import io.pravega.shared.metrics.MetricsProvider;
 import io.pravega.shared.metrics.OpStatsLogger;
 import io.pravega.shared.metrics.StatsLogger;
@@ -48,24 +47,25 @@ import io.pravega.shared.protocol.netty.WireCommands.SegmentAlreadyExists;
 import io.pravega.shared.protocol.netty.WireCommands.SegmentIsSealed;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
+import io.pravega.shared.segment.SegmentTimeIndex;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
 import java.time.Duration;
-import java.util.Arrays;
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
+import java.util.function.Supplier;
 import javax.annotation.concurrent.GuardedBy;
 import lombok.Getter;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.commons.lang3.tuple.Pair;
 
 import static io.pravega.segmentstore.contracts.Attributes.EVENT_COUNT;
-import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_BYTES;
-import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_EVENTS;
 import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_LATENCY;
-import static io.pravega.shared.MetricsNames.nameFromSegment;
 
 /**
  * Process incoming Append requests and write them to the SegmentStore.
@@ -78,7 +78,6 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private static final int HIGH_WATER_MARK = 128 * 1024;
     private static final int LOW_WATER_MARK = 64 * 1024;
     private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("segmentstore");
-    private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
     private static final OpStatsLogger WRITE_STREAM_SEGMENT = STATS_LOGGER.createStats(SEGMENT_WRITE_LATENCY);
     private final StreamSegmentStore store;
     private final ServerConnection connection;
@@ -86,6 +85,8 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private final RequestProcessor nextRequestProcessor;
     private final Object lock = new Object();
     private final SegmentStatsRecorder statsRecorder;
+    private final Supplier<Long> clock;
+    private final SegmentCounters segmentCounters;
 
     @GuardedBy("lock")
     private final LinkedListMultimap<UUID, Append> waitingAppends = LinkedListMultimap.create(2);
@@ -93,6 +94,10 @@ public class AppendProcessor extends DelegatingRequestProcessor {
     private final HashMap<Pair<String, UUID>, Long> latestEventNumbers = new HashMap<>();
     @GuardedBy("lock")
     private Append outstandingAppend = null;
+    @GuardedBy("lock")
+    private UUID timeIndexBucketId = null;
+    @GuardedBy("lock")
+    private final HashSet<String> timeIndexedSegments = new HashSet<>();
 
     //endregion
 
@@ -108,7 +113,21 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      */
     @VisibleForTesting
     public AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next) {
-        this(store, connection, next, null);
+        this(store, connection, next, null, null, SegmentCounters.DEFAULT);
+    }
+
+    /**
+     * Creates a new instance of the AppendProcessor class.
+     *
+     * @param store         The SegmentStore to send append requests to.
+     * @param connection    The ServerConnection to send responses to.
+     * @param next          The RequestProcessor to invoke next.
+     * @param statsRecorder   (Optional) A StatsRecorder to record Metrics.
+     * @param segmentCounters The per-Segment Counters to update.
+     */
+    AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder,
+                    SegmentCounters segmentCounters) {
+        this(store, connection, next, statsRecorder, System::currentTimeMillis, segmentCounters);
     }
 
     /**
@@ -118,12 +137,19 @@ public class AppendProcessor extends DelegatingRequestProcessor {
      * @param connection    The ServerConnection to send responses to.
      * @param next          The RequestProcessor to invoke next.
      * @param statsRecorder (Optional) A StatsRecorder to record Metrics.
+     * @param clock         (Optional) A clock to use for maintaining the time index of the Segments appended to (see
+     *                      SegmentTimeIndex). If null, no time index is maintained.
+     * @param segmentCounters The per-Segment Counters to update.
      */
-    AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder) {
+    @VisibleForTesting
+    AppendProcessor(StreamSegmentStore store, ServerConnection connection, RequestProcessor next, SegmentStatsRecorder statsRecorder,
+                    Supplier<Long> clock, SegmentCounters segmentCounters) {
         this.store = Preconditions.checkNotNull(store, "store");
         this.connection = Preconditions.checkNotNull(connection, "connection");
         this.nextRequestProcessor = Preconditions.checkNotNull(next, "next");
         this.statsRecorder = statsRecorder;
+        this.clock = clock;
+        this.segmentCounters = Preconditions.checkNotNull(segmentCounters, "segmentCounters");
     }
 
     //endregion
@@ -236,9 +262,15 @@ public class AppendProcessor extends DelegatingRequestProcessor {
             lastEventNumber = latestEventNumbers.get(Pair.of(append.getSegment(), append.getWriterId()));
         }
 
-        List<AttributeUpdate> attributes = Arrays.asList(
-                new AttributeUpdate(append.getWriterId(), AttributeUpdateType.ReplaceIfEquals, append.getEventNumber(), lastEventNumber),
-                new AttributeUpdate(EVENT_COUNT, AttributeUpdateType.Accumulate, append.getEventCount()));
+        List<AttributeUpdate> attributes = new ArrayList<>(3);
+        attributes.add(new AttributeUpdate(append.getWriterId(), AttributeUpdateType.ReplaceIfEquals, append.getEventNumber(), lastEventNumber));
+        attributes.add(new AttributeUpdate(EVENT_COUNT, AttributeUpdateType.Accumulate, append.getEventCount()));
+        UUID timeIndexId = getTimeIndexUpdate(append.getSegment());
+        if (timeIndexId != null) {
+            // The value is set by the Segment Store to the offset of the append, unless it already has an entry.
+            attributes.add(new AttributeUpdate(timeIndexId, AttributeUpdateType.Replace, 0));
+        }
+
         ByteBuf buf = append.getData().asReadOnly();
         byte[] bytes = new byte[buf.readableBytes()];
         buf.readBytes(bytes);
@@ -249,6 +281,32 @@ public class AppendProcessor extends DelegatingRequestProcessor {
         }
     }
 
+    /**
+     * Gets the Id of the time index entry (see SegmentTimeIndex) to include with an append to the given Segment, if this
+     * is the first append to it (from this connection) in the current time index bucket. Every connection includes the
+     * entry with its first append in a bucket, and the Segment Store only keeps the first one, so the entry points at the
+     * first append made in that bucket. Transactions are not indexed, as their data is only readable once merged into
+     * their parent Segment.
+     *
+     * @return The Attribute Id of the entry, or null if there is no need to include it.
+     */
+    private UUID getTimeIndexUpdate(String segment) {
+        if (clock == null || StreamSegmentNameUtils.getParentStreamSegmentName(segment) != null) {
+            return null;
+        }
+
+        UUID indexId = SegmentTimeIndex.getAttributeId(clock.get());
+        synchronized (lock) {
+            if (!indexId.equals(timeIndexBucketId)) {
+                // A new bucket: forget about the Segments indexed in the previous one.
+                timeIndexBucketId = indexId;
+                timeIndexedSegments.clear();
+            }
+
+            return timeIndexedSegments.add(segment) ? indexId : null;
+        }
+    }
+
     private void handleAppendResult(final Append append, Throwable exception) {
         try {
             boolean conditionalFailed = exception != null && (Exceptions.unwrap(exception) instanceof BadOffsetException);
@@ -275,8 +333,8 @@ public class AppendProcessor extends DelegatingRequestProcessor {
                         previousEventNumber);
                 log.trace("Sending DataAppended : {}", dataAppendedAck);
                 connection.send(dataAppendedAck);
-                DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_WRITE_BYTES, append.getSegment()), append.getDataLength());
-                DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_WRITE_EVENTS, append.getSegment()), append.getEventCount());
+                this.segmentCounters.writeBytes.add(append.getSegment(), append.getDataLength());
+                this.segmentCounters.writeEvents.add(append.getSegment(), append.getEventCount());
             }
 
             /* Reply (DataAppended in case of success, else an error Reply based on exception) has been sent. Next,
@@ -33,11 +33,13 @@ import io.netty.util.internal.logging.Slf4JLoggerFactory;
 import io.pravega.common.Exceptions;
 import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsRecorder;
+import io.pravega.segmentstore.server.store.ServiceConfig;
 import io.pravega.shared.protocol.netty.AppendDecoder;
 import io.pravega.shared.protocol.netty.CommandDecoder;
 import io.pravega.shared.protocol.netty.CommandEncoder;
 import io.pravega.shared.protocol.netty.ExceptionLoggingHandler;
 import java.security.cert.CertificateException;
+import java.util.concurrent.TimeUnit;
 import javax.net.ssl.SSLException;
 
 import static io.pravega.shared.protocol.netty.WireCommands.MAX_WIRECOMMAND_SIZE;
@@ -56,6 +58,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
     private EventLoopGroup bossGroup;
     private EventLoopGroup workerGroup;
     private final SegmentStatsRecorder statsRecorder;
+    private final SegmentCounters segmentCounters;
 
     //endregion
 
@@ -74,7 +77,7 @@ public final class PravegaConnectionListener implements AutoCloseable {
     }
 
     /**
-     * Creates a new instance of the PravegaConnectionListener class.
+     * Creates a new instance of the PravegaConnectionListener class with the default limit on per-Segment metrics Counters.
      *
      * @param ssl                Whether to use SSL.
      * @param host               The name of the host to listen to.
@@ -84,11 +87,27 @@ public final class PravegaConnectionListener implements AutoCloseable {
      */
     public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
                                      SegmentStatsRecorder statsRecorder) {
+        this(ssl, host, port, streamSegmentStore, statsRecorder, ServiceConfig.MAX_SEGMENT_COUNTERS.getDefaultValue());
+    }
+
+    /**
+     * Creates a new instance of the PravegaConnectionListener class.
+     *
+     * @param ssl                Whether to use SSL.
+     * @param host               The name of the host to listen to.
+     * @param port               The port to listen on.
+     * @param streamSegmentStore The SegmentStore to delegate all requests to.
+     * @param statsRecorder      (Optional) A StatsRecorder for Metrics.
+     * @param maxSegmentCounters The maximum number of Segments to keep bound per-Segment metrics Counters for.
+     */
+    public PravegaConnectionListener(boolean ssl, String host, int port, StreamSegmentStore streamSegmentStore,
+                                     SegmentStatsRecorder statsRecorder, int maxSegmentCounters) {
         this.ssl = ssl;
         this.host = Exceptions.checkNotNullOrEmpty(host, "host");
         this.port = port;
         this.store = Preconditions.checkNotNull(streamSegmentStore, "streamSegmentStore");
         this.statsRecorder = statsRecorder;
+        this.segmentCounters = new SegmentCounters(maxSegmentCounters);
         InternalLoggerFactory.setDefaultFactory(Slf4JLoggerFactory.INSTANCE);
     }
 
@@ -139,11 +158,16 @@ public final class PravegaConnectionListener implements AutoCloseable {
                          lsh);
                  lsh.setRequestProcessor(new AppendProcessor(store,
                          lsh,
-                         new PravegaRequestProcessor(store, lsh, statsRecorder),
-                         statsRecorder));
+                         new PravegaRequestProcessor(store, lsh, statsRecorder, segmentCounters),
+                         statsRecorder,
+                         segmentCounters));
              }
          });
 
+        // Release the per-Segment Counters of Segments that are no longer being written to or read from.
+        workerGroup.scheduleWithFixedDelay(segmentCounters::releaseIdle, SegmentCounters.IDLE_RELEASE_INTERVAL_MINUTES,
+                SegmentCounters.IDLE_RELEASE_INTERVAL_MINUTES, TimeUnit.MINUTES);
+
         // Start the server.
         serverChannel = b.bind(host, port).awaitUninterruptibly().channel();
     }
@@ -32,7 +32,6 @@ import io.pravega.segmentstore.contracts.StreamSegmentStore;
 import io.pravega.segmentstore.contracts.StreamSegmentTruncatedException;
 import io.pravega.segmentstore.contracts.WrongHostException;
 import io.pravega.segmentstore.server.host.stat.SegmentStatsRecorder;
-import io.pravega.shared.metrics.DynamicLogger;
 import io.pravega.shared.metrics.MetricsProvider;
 import io.pravega.shared.metrics.OpStatsLogger;
 import io.pravega.shared.metrics.StatsLogger;
@@ -71,6 +70,7 @@ import io.pravega.shared.protocol.netty.WireCommands.TruncateSegment;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentAttribute;
 import io.pravega.shared.protocol.netty.WireCommands.UpdateSegmentPolicy;
 import io.pravega.shared.protocol.netty.WireCommands.WrongHost;
+import io.pravega.shared.segment.SegmentTimeIndex;
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import java.io.IOException;
 import java.nio.ByteBuffer;
@@ -99,11 +99,7 @@ import static io.pravega.segmentstore.contracts.ReadResultEntryType.EndOfStreamS
 import static io.pravega.segmentstore.contracts.ReadResultEntryType.Future;
 import static io.pravega.segmentstore.contracts.ReadResultEntryType.Truncated;
 import static io.pravega.shared.MetricsNames.SEGMENT_CREATE_LATENCY;
-import static io.pravega.shared.MetricsNames.SEGMENT_READ_BYTES;
 import static io.pravega.shared.MetricsNames.SEGMENT_READ_LATENCY;
-import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_BYTES;
-import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_EVENTS;
-import static io.pravega.shared.MetricsNames.nameFromSegment;
 import static io.pravega.shared.protocol.netty.WireCommands.TYPE_PLUS_LENGTH_SIZE;
 import static java.lang.Math.max;
 import static java.lang.Math.min;
@@ -119,7 +115,6 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     static final Duration TIMEOUT = Duration.ofMinutes(1);
     private static final int MAX_READ_SIZE = 2 * 1024 * 1024;
     private static final StatsLogger STATS_LOGGER = MetricsProvider.createStatsLogger("segmentstore");
-    private static final DynamicLogger DYNAMIC_LOGGER = MetricsProvider.getDynamicLogger();
     @VisibleForTesting
     @Getter(AccessLevel.PACKAGE)
     private final OpStatsLogger createStreamSegment = STATS_LOGGER.createStats(SEGMENT_CREATE_LATENCY);
@@ -127,6 +122,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
     private final StreamSegmentStore segmentStore;
     private final ServerConnection connection;
     private final SegmentStatsRecorder statsRecorder;
+    private final SegmentCounters segmentCounters;
 
     //endregion
 
@@ -140,7 +136,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
      */
     @VisibleForTesting
     public PravegaRequestProcessor(StreamSegmentStore segmentStore, ServerConnection connection) {
-        this(segmentStore, connection, null);
+        this(segmentStore, connection, null, SegmentCounters.DEFAULT);
     }
 
     /**
@@ -148,12 +144,15 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
      *
      * @param segmentStore  The StreamSegmentStore to attach to (and issue requests to).
      * @param connection    The ServerConnection to attach to (and send responses to).
-     * @param statsRecorder (Optional) A StatsRecorder for Metrics.
+     * @param statsRecorder   (Optional) A StatsRecorder for Metrics.
+     * @param segmentCounters The per-Segment Counters to update.
      */
-    PravegaRequestProcessor(StreamSegmentStore segmentStore, ServerConnection connection, SegmentStatsRecorder statsRecorder) {
+    PravegaRequestProcessor(StreamSegmentStore segmentStore, ServerConnection connection, SegmentStatsRecorder statsRecorder,
+                            SegmentCounters segmentCounters) {
         this.segmentStore = Preconditions.checkNotNull(segmentStore, "segmentStore");
         this.connection = Preconditions.checkNotNull(connection, "connection");
         this.statsRecorder = statsRecorder;
+        this.segmentCounters = Preconditions.checkNotNull(segmentCounters, "segmentCounters");
     }
 
     //endregion
@@ -169,8 +168,12 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         segmentStore.read(segment, readSegment.getOffset(), readSize, TIMEOUT)
                 .thenAccept(readResult -> {
                     LoggerHelpers.traceLeave(log, "readSegment", trace, readResult);
-                    handleReadResult(readSegment, readResult);
-                    DYNAMIC_LOGGER.incCounterValue(nameFromSegment(SEGMENT_READ_BYTES, segment), readResult.getConsumedLength());
+                    boolean endOfSegment = handleReadResult(readSegment, readResult);
+                    this.segmentCounters.readBytes.add(segment, readResult.getConsumedLength());
+                    if (endOfSegment) {
+                        // The Segment is sealed and this reader is done with it; most likely no one will read it again.
+                        this.segmentCounters.releaseReadCounters(segment);
+                    }
                     readStreamSegment.reportSuccessEvent(timer.getElapsed());
                 })
                 .exceptionally(ex -> handleException(readSegment.getOffset(), segment, "Read segment", ex));
@@ -182,8 +185,10 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
      * Otherwise the call will request the data and setup a callback to return the data when it is available.
      * If no data is available but it was detected that the Segment had been truncated beyond the current offset,
      * an appropriate message is sent back over the connection.
+     *
+     * @return True if the read reached the end of a sealed Segment.
      */
-    private void handleReadResult(ReadSegment request, ReadResult result) {
+    private boolean handleReadResult(ReadSegment request, ReadResult result) {
         String segment = request.getSegment();
         ArrayList<ReadResultEntryContents> cachedEntries = new ArrayList<>();
         ReadResultEntry nonCachedEntry = collectCachedEntries(request.getOffset(), result, cachedEntries);
@@ -224,6 +229,8 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                     })
                     .exceptionally(e -> handleException(nonCachedEntry.getStreamSegmentOffset(), segment, "Read segment", e));
         }
+
+        return endOfSegment;
     }
 
     /**
@@ -304,7 +311,9 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                         connection.send(new NoSuchSegment(requestId, segmentName));
                     } else {
                         Map<UUID, Long> attributes = properties.getAttributes();
-                        Long value = attributes.get(attributeId);
+                        Long value = SegmentTimeIndex.isTimeIndexAttribute(attributeId)
+                                ? SegmentTimeIndex.findOffset(attributes, attributeId)
+                                : attributes.get(attributeId);
                         if (value == null) {
                             value = WireCommands.NULL_ATTRIBUTE_VALUE;
                         }
@@ -457,13 +466,17 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                         }));
         val merge = segmentStore
                 .mergeTransaction(transactionName, TIMEOUT)
-                .thenAccept(v -> connection.send(new TransactionCommitted(requestId, commitTx.getSegment(), commitTx.getTxid())));
+                .thenAccept(v -> {
+                    connection.send(new TransactionCommitted(requestId, commitTx.getSegment(), commitTx.getTxid()));
+                    this.segmentCounters.releaseAll(transactionName);
+                });
 
         CompletableFuture.allOf(seal, merge)
                 .exceptionally(e -> {
                     if (Exceptions.unwrap(e) instanceof StreamSegmentMergedException) {
                         log.info("Stream segment is already merged '{}'.", transactionName);
                         connection.send(new TransactionCommitted(requestId, commitTx.getSegment(), commitTx.getTxid()));
+                        this.segmentCounters.releaseAll(transactionName);
                         return null;
                     } else {
                         return handleException(requestId, transactionName, "Commit transaction", e);
@@ -477,10 +490,14 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         String transactionName = StreamSegmentNameUtils.getTransactionNameFromId(abortTx.getSegment(), abortTx.getTxid());
         log.debug("Aborting transaction {} ", abortTx);
         segmentStore.deleteStreamSegment(transactionName, TIMEOUT)
-                .thenRun(() -> connection.send(new TransactionAborted(requestId, abortTx.getSegment(), abortTx.getTxid())))
+                .thenRun(() -> {
+                    connection.send(new TransactionAborted(requestId, abortTx.getSegment(), abortTx.getTxid()));
+                    this.segmentCounters.releaseAll(transactionName);
+                })
                 .exceptionally(e -> {
                     if (Exceptions.unwrap(e) instanceof StreamSegmentNotExistsException) {
                         connection.send(new TransactionAborted(requestId, abortTx.getSegment(), abortTx.getTxid()));
+                        this.segmentCounters.releaseAll(transactionName);
                         return null;
                     } else {
                         return handleException(requestId, transactionName, "Abort transaction", e);
@@ -498,8 +515,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
                     if (e != null) {
                         handleException(sealSegment.getRequestId(), segment, "Seal segment", e);
                     } else {
-                        DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_BYTES, segment));
-                        DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_EVENTS, segment));
+                        this.segmentCounters.releaseWriteCounters(segment);
                         if (statsRecorder != null) {
                             statsRecorder.sealSegment(sealSegment.getSegment());
                         }
@@ -524,9 +540,7 @@ public class PravegaRequestProcessor extends FailingRequestProcessor implements
         segmentStore.deleteStreamSegment(segment, TIMEOUT)
                 .thenRun(() -> {
                     connection.send(new SegmentDeleted(deleteSegment.getRequestId(), segment));
-                    DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_BYTES, segment));
-                    DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_WRITE_EVENTS, segment));
-                    DYNAMIC_LOGGER.freezeCounter(nameFromSegment(SEGMENT_READ_BYTES, segment));
+                    this.segmentCounters.releaseAll(segment);
                 })
                 .exceptionally(e -> handleException(deleteSegment.getRequestId(), segment, "Delete segment", e));
     }
@@ -0,0 +1,96 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.host.handler;
+
+import io.pravega.segmentstore.server.store.ServiceConfig;
+import io.pravega.shared.metrics.MetricsProvider;
+import io.pravega.shared.metrics.TaggedCounter;
+
+import static io.pravega.shared.MetricsNames.SEGMENT_READ_BYTES;
+import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_BYTES;
+import static io.pravega.shared.MetricsNames.SEGMENT_WRITE_EVENTS;
+import static io.pravega.shared.MetricsNames.nameFromSegment;
+
+/**
+ * Per-Segment Counters that are updated for every append or read. A single instance of this class is shared by all the
+ * connections of a PravegaConnectionListener, so that a Segment's Counters are only created (and their names built) once.
+ *
+ * Counters are released as soon as the Segment can no longer be updated in the corresponding way: write Counters when the
+ * Segment is sealed, the read Counter once a reader reaches the end of a sealed Segment, and all of them when the Segment
+ * is deleted or merged (as is the case for Transactions). Counters of Segments that go idle without any of these happening
+ * (for instance because they have been evicted from the Container Metadata) are released by releaseIdle().
+ */
+final class SegmentCounters {
+    /**
+     * An instance used by the RequestProcessors that are not created by a PravegaConnectionListener (i.e., in tests).
+     */
+    static final SegmentCounters DEFAULT = new SegmentCounters(ServiceConfig.MAX_SEGMENT_COUNTERS.getDefaultValue());
+    /**
+     * How often to release the Counters that have not been updated since the previous run.
+     */
+    static final long IDLE_RELEASE_INTERVAL_MINUTES = 5;
+    final TaggedCounter writeBytes;
+    final TaggedCounter writeEvents;
+    final TaggedCounter readBytes;
+
+    /**
+     * Creates a new instance of the SegmentCounters class.
+     *
+     * @param maxSegmentCount The maximum number of Segments to keep bound Counters for.
+     */
+    SegmentCounters(int maxSegmentCount) {
+        this.writeBytes = create(SEGMENT_WRITE_BYTES, maxSegmentCount);
+        this.writeEvents = create(SEGMENT_WRITE_EVENTS, maxSegmentCount);
+        this.readBytes = create(SEGMENT_READ_BYTES, maxSegmentCount);
+    }
+
+    /**
+     * Releases the Counters that are updated when writing to the given Segment.
+     *
+     * @param segmentName The name of the Segment that was sealed.
+     */
+    void releaseWriteCounters(String segmentName) {
+        this.writeBytes.release(segmentName);
+        this.writeEvents.release(segmentName);
+    }
+
+    /**
+     * Releases the Counter that is updated when reading from the given Segment. If the Segment is read again, the Counter
+     * is recreated.
+     *
+     * @param segmentName The name of the Segment that was read to the end.
+     */
+    void releaseReadCounters(String segmentName) {
+        this.readBytes.release(segmentName);
+    }
+
+    /**
+     * Releases all the Counters for the given Segment.
+     *
+     * @param segmentName The name of the Segment that was deleted or merged.
+     */
+    void releaseAll(String segmentName) {
+        releaseWriteCounters(segmentName);
+        releaseReadCounters(segmentName);
+    }
+
+    /**
+     * Releases the Counters that have not been updated since the last time this method was invoked.
+     */
+    void releaseIdle() {
+        this.writeBytes.releaseIdle();
+        this.writeEvents.releaseIdle();
+        this.readBytes.releaseIdle();
+    }
+
+    private static TaggedCounter create(String metric, int maxSegmentCount) {
+        return new TaggedCounter(MetricsProvider.getDynamicLogger(), segmentName -> nameFromSegment(metric, segmentName), maxSegmentCount);
+    }
+}
@@ -27,15 +27,19 @@ import io.pravega.shared.protocol.netty.WireCommands.ConditionalCheckFailed;
 import io.pravega.shared.protocol.netty.WireCommands.DataAppended;
 import io.pravega.shared.protocol.netty.WireCommands.OperationUnsupported;
 import io.pravega.shared.protocol.netty.WireCommands.SetupAppend;
+import io.pravega.shared.segment.SegmentTimeIndex;
 import lombok.Cleanup;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
 import org.junit.Ignore;
 import org.junit.Test;
 import org.mockito.InOrder;
@@ -50,6 +54,7 @@ import static org.mockito.Mockito.atLeast;
 import static org.mockito.Mockito.atMost;
 import static org.mockito.Mockito.doAnswer;
 import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
 import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.verifyNoMoreInteractions;
@@ -488,6 +493,57 @@ public class AppendProcessorTest {
         verifyNoMoreInteractions(store);
     }
 
+    @Test
+    public void testTimeIndex() {
+        String streamSegmentName = "testTimeIndex";
+        String otherSegmentName = "testTimeIndexOther";
+        UUID clientId = UUID.randomUUID();
+        UUID otherClientId = UUID.randomUUID();
+        byte[] data = new byte[] { 1, 2, 3, 4, 6, 7, 8, 9 };
+        long bucket = SegmentTimeIndex.GRANULARITY.toMillis();
+        AtomicLong clock = new AtomicLong(10 * bucket);
+        StreamSegmentStore store = mock(StreamSegmentStore.class);
+        ServerConnection connection = mock(ServerConnection.class);
+        AppendProcessor processor = new AppendProcessor(store, connection, new FailingRequestProcessor(), null, clock::get, SegmentCounters.DEFAULT);
+
+        setupGetStreamSegmentInfo(streamSegmentName, clientId, store);
+        setupGetStreamSegmentInfo(otherSegmentName, otherClientId, store);
+        when(store.append(anyString(), any(), any(), eq(AppendProcessor.TIMEOUT)))
+                .thenReturn(CompletableFuture.completedFuture(null));
+        processor.setupAppend(new SetupAppend(1, clientId, streamSegmentName));
+        processor.setupAppend(new SetupAppend(2, otherClientId, otherSegmentName));
+
+        // The first append in a bucket carries the index entry, which the Segment Store sets to the offset of the append.
+        processor.append(new Append(streamSegmentName, clientId, 1, Unpooled.wrappedBuffer(data), null));
+        verify(store).append(streamSegmentName, data, updateTimeIndex(updateEventNumber(clientId, 1, 0, 1), clock.get()),
+                AppendProcessor.TIMEOUT);
+
+        // Further appends in the same bucket do not.
+        clock.addAndGet(bucket / 2);
+        processor.append(new Append(streamSegmentName, clientId, 2, Unpooled.wrappedBuffer(data), null));
+        verify(store).append(streamSegmentName, data, updateEventNumber(clientId, 2, 1, 1), AppendProcessor.TIMEOUT);
+
+        // Each bucket gets its own entry, for each Segment.
+        clock.addAndGet(bucket);
+        processor.append(new Append(otherSegmentName, otherClientId, 1, Unpooled.wrappedBuffer(data), null));
+        processor.append(new Append(streamSegmentName, clientId, 3, Unpooled.wrappedBuffer(data), null));
+        verify(store).append(otherSegmentName, data, updateTimeIndex(updateEventNumber(otherClientId, 1, 0, 1), clock.get()),
+                AppendProcessor.TIMEOUT);
+        verify(store).append(streamSegmentName, data, updateTimeIndex(updateEventNumber(clientId, 3, 2, 1), clock.get()),
+                AppendProcessor.TIMEOUT);
+
+        // The index does not need any other requests to the Segment Store.
+        verify(store, never()).getStreamSegmentInfo(anyString(), eq(false), any());
+        verify(store, never()).updateAttributes(anyString(), any(), any());
+        verify(connection).send(new DataAppended(clientId, 3, 2));
+    }
+
+    private Collection<AttributeUpdate> updateTimeIndex(Collection<AttributeUpdate> updates, long timestamp) {
+        List<AttributeUpdate> result = new ArrayList<>(updates);
+        result.add(new AttributeUpdate(SegmentTimeIndex.getAttributeId(timestamp), AttributeUpdateType.Replace, 0));
+        return result;
+    }
+
     @Test
     @Ignore
     public void testRecoveryFromFailure() {
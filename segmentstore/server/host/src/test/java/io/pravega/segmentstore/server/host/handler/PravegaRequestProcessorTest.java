@@ -444,6 +444,56 @@ public class PravegaRequestProcessorTest {
         order.verifyNoMoreInteractions();
     }
 
+    @Test(timeout = 20000)
+    public void testSegmentCountersReleased() throws Exception {
+        String streamSegmentName = "testSegmentCounters";
+        String txnParentName = "testSegmentCountersTxn";
+        UUID txnid = UUID.randomUUID();
+        String txnName = StreamSegmentNameUtils.getTransactionNameFromId(txnParentName, txnid);
+        @Cleanup
+        ServiceBuilder serviceBuilder = newInlineExecutionInMemoryBuilder(getBuilderConfig());
+        serviceBuilder.initialize();
+        StreamSegmentStore store = serviceBuilder.createStreamSegmentService();
+        ServerConnection connection = mock(ServerConnection.class);
+        SegmentCounters counters = new SegmentCounters(10);
+        PravegaRequestProcessor processor = new PravegaRequestProcessor(store, connection, null, counters);
+
+        processor.createSegment(new WireCommands.CreateSegment(1, streamSegmentName, WireCommands.CreateSegment.NO_SCALE, 0));
+        assertTrue(append(streamSegmentName, 1, store));
+        counters.writeBytes.add(streamSegmentName, 1);
+        counters.writeEvents.add(streamSegmentName, 1);
+        processor.readSegment(new WireCommands.ReadSegment(streamSegmentName, 0, 10));
+        assertEquals(1, counters.writeBytes.size());
+        assertEquals(1, counters.readBytes.size());
+
+        // Sealing releases the write counters, but the segment may still be read.
+        processor.sealSegment(new WireCommands.SealSegment(2, streamSegmentName));
+        assertEquals(0, counters.writeBytes.size());
+        assertEquals(0, counters.writeEvents.size());
+        assertEquals(1, counters.readBytes.size());
+
+        // Reading to the end of the sealed segment releases the read counter.
+        processor.readSegment(new WireCommands.ReadSegment(streamSegmentName, 0, 10));
+        assertEquals(0, counters.readBytes.size());
+
+        // Transactions release their counters when they are merged or aborted.
+        processor.createSegment(new WireCommands.CreateSegment(3, txnParentName, WireCommands.CreateSegment.NO_SCALE, 0));
+        processor.createTransaction(new WireCommands.CreateTransaction(4, txnParentName, txnid));
+        assertTrue(append(txnName, 1, store));
+        counters.writeBytes.add(txnName, 1);
+        processor.commitTransaction(new WireCommands.CommitTransaction(5, txnParentName, txnid));
+        verify(connection).send(new WireCommands.TransactionCommitted(5, txnParentName, txnid));
+        assertEquals(0, counters.writeBytes.size());
+
+        txnid = UUID.randomUUID();
+        txnName = StreamSegmentNameUtils.getTransactionNameFromId(txnParentName, txnid);
+        processor.createTransaction(new WireCommands.CreateTransaction(6, txnParentName, txnid));
+        counters.writeBytes.add(txnName, 1);
+        processor.abortTransaction(new WireCommands.AbortTransaction(7, txnParentName, txnid));
+        verify(connection).send(new WireCommands.TransactionAborted(7, txnParentName, txnid));
+        assertEquals(0, counters.writeBytes.size());
+    }
+
     @Test(timeout = 20000)
     public void testUnsupportedOperation() throws Exception {
         // Set up PravegaRequestProcessor instance to execute requests against
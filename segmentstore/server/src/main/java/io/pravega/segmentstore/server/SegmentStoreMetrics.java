@@ -122,6 +122,12 @@ public final class SegmentStoreMetrics {
          */
         private final OpStatsLogger operationProcessorDelay;
 
+        /**
+         * Amount of time the OperationProcessor delays each batch of operations by in order to apply
+         * back-pressure when Tier2 falls behind.
+         */
+        private final OpStatsLogger operationProcessorThrottleDelay;
+
         /**
          * Amount of time spent committing an operation after being written to Tier1 (this includes in-memory structures
          * and Cache).
@@ -150,12 +156,14 @@ public final class SegmentStoreMetrics {
         private final OpStatsLogger processOperationsLatency;
         private final OpStatsLogger processOperationsBatchSize;
         private final String operationLogSize;
+        private final String unflushedBytes;
 
         public OperationProcessor(int containerId) {
             this.operationQueueSize = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_QUEUE_SIZE, containerId));
             this.operationsInFlight = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_PROCESSOR_IN_FLIGHT, containerId));
             this.operationQueueWaitTime = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_QUEUE_WAIT_TIME, containerId));
             this.operationProcessorDelay = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_PROCESSOR_DELAY_MILLIS, containerId));
+            this.operationProcessorThrottleDelay = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_PROCESSOR_THROTTLE_DELAY_MILLIS, containerId));
             this.operationCommitLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_COMMIT_LATENCY, containerId));
             this.operationLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_LATENCY, containerId));
             this.memoryCommitLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.OPERATION_COMMIT_MEMORY_LATENCY, containerId));
@@ -163,6 +171,7 @@ public final class SegmentStoreMetrics {
             this.processOperationsLatency = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.PROCESS_OPERATIONS_LATENCY, containerId));
             this.processOperationsBatchSize = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.PROCESS_OPERATIONS_BATCH_SIZE, containerId));
             this.operationLogSize = "segmentstore." + MetricsNames.nameFromContainer(MetricsNames.OPERATION_LOG_SIZE, containerId);
+            this.unflushedBytes = MetricsNames.nameFromContainer(MetricsNames.CONTAINER_UNFLUSHED_BYTES, containerId);
         }
 
         @Override
@@ -171,6 +180,7 @@ public final class SegmentStoreMetrics {
             this.operationsInFlight.close();
             this.operationQueueWaitTime.close();
             this.operationProcessorDelay.close();
+            this.operationProcessorThrottleDelay.close();
             this.operationCommitLatency.close();
             this.operationLatency.close();
             this.memoryCommitLatency.close();
@@ -188,6 +198,11 @@ public final class SegmentStoreMetrics {
             this.operationProcessorDelay.reportSuccessValue(millis);
         }
 
+        public void throttle(int delayMillis, long unflushedBytes) {
+            this.operationProcessorThrottleDelay.reportSuccessValue(delayMillis);
+            DYNAMIC_LOGGER.reportGaugeValue(this.unflushedBytes, unflushedBytes);
+        }
+
         public void operationQueueWaitTime(long queueWaitTimeMillis) {
             this.operationQueueWaitTime.reportSuccessValue(queueWaitTimeMillis);
         }
@@ -235,6 +250,51 @@ public final class SegmentStoreMetrics {
 
     //endregion
 
+    //region StorageReadScheduler
+
+    /**
+     * StorageReadScheduler metrics.
+     */
+    public final static class StorageReadScheduler implements AutoCloseable {
+        /**
+         * Amount of time a Tail Storage Read spends in the queue, before being executed.
+         */
+        private final OpStatsLogger tailReadQueueDelay;
+
+        /**
+         * Amount of time a Catch-up Storage Read spends in the queue, before being executed.
+         */
+        private final OpStatsLogger catchupReadQueueDelay;
+
+        /**
+         * Number of Storage Reads waiting to be executed.
+         */
+        private final OpStatsLogger queueSize;
+
+        public StorageReadScheduler(int containerId) {
+            this.tailReadQueueDelay = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.STORAGE_TAIL_READ_QUEUE_DELAY, containerId));
+            this.catchupReadQueueDelay = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.STORAGE_CATCHUP_READ_QUEUE_DELAY, containerId));
+            this.queueSize = STATS_LOGGER.createStats(MetricsNames.nameFromContainer(MetricsNames.STORAGE_READ_QUEUE_SIZE, containerId));
+        }
+
+        @Override
+        public void close() {
+            this.tailReadQueueDelay.close();
+            this.catchupReadQueueDelay.close();
+            this.queueSize.close();
+        }
+
+        public void readQueued(int queueSize) {
+            this.queueSize.reportSuccessValue(queueSize);
+        }
+
+        public void readStarted(boolean tailRead, Duration queueDelay) {
+            (tailRead ? this.tailReadQueueDelay : this.catchupReadQueueDelay).reportSuccessEvent(queueDelay);
+        }
+    }
+
+    //endregion
+
     //region Metadata
 
     /**
@@ -28,6 +28,8 @@ public class ContainerConfig {
             5 * MINIMUM_SEGMENT_METADATA_EXPIRATION_SECONDS);
     public static final Property<Integer> MAX_ACTIVE_SEGMENT_COUNT = Property.named("maxActiveSegmentCount", 10000);
     public static final Property<Integer> MAX_CONCURRENT_SEGMENT_EVICTION_COUNT = Property.named("maxConcurrentSegmentEvictionCount", 250);
+    public static final Property<Long> READ_ONLY_CACHE_SIZE_BYTES = Property.named("readOnlyCacheSizeBytes", 256 * 1024 * 1024L);
+    public static final Property<Integer> READ_ONLY_READ_AHEAD_BLOCK_COUNT = Property.named("readOnlyReadAheadBlockCount", 4);
     private static final String COMPONENT_CODE = "containers";
 
     /**
@@ -48,6 +50,18 @@ public class ContainerConfig {
     @Getter
     private int maxConcurrentSegmentEvictionCount;
 
+    /**
+     * The maximum number of bytes that a ReadOnlySegmentContainer may cache from Storage.
+     */
+    @Getter
+    private long readOnlyCacheSizeBytes;
+
+    /**
+     * The number of blocks that a ReadOnlySegmentContainer reads ahead of a read for a Sealed Segment.
+     */
+    @Getter
+    private int readOnlyReadAheadBlockCount;
+
     //endregion
 
     //region Constructor
@@ -74,6 +88,16 @@ public class ContainerConfig {
         if (this.maxConcurrentSegmentEvictionCount <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_CONCURRENT_SEGMENT_EVICTION_COUNT));
         }
+
+        this.readOnlyCacheSizeBytes = properties.getLong(READ_ONLY_CACHE_SIZE_BYTES);
+        if (this.readOnlyCacheSizeBytes < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative number.", READ_ONLY_CACHE_SIZE_BYTES));
+        }
+
+        this.readOnlyReadAheadBlockCount = properties.getInt(READ_ONLY_READ_AHEAD_BLOCK_COUNT);
+        if (this.readOnlyReadAheadBlockCount < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative integer.", READ_ONLY_READ_AHEAD_BLOCK_COUNT));
+        }
     }
 
     /**
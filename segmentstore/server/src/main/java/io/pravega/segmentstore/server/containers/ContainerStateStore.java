@@ -0,0 +1,1081 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.TimeoutTimer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.common.function.Callbacks;
+import io.pravega.common.io.EnhancedByteArrayOutputStream;
+import io.pravega.common.util.AsyncMap;
+import io.pravega.common.util.BitConverter;
+import io.pravega.common.util.ByteArraySegment;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import io.pravega.segmentstore.storage.SegmentRollingPolicy;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.SneakyThrows;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Stores and Retrieves Segment States for all the Segments in a Segment Container using a single, log-structured
+ * meta-Segment in Storage (the State Log), as opposed to one State Segment per Segment (see SegmentStateStore).
+ * <p>
+ * Every call to put() or remove() appends a record to the State Log (concurrent calls are batched into a single Storage
+ * write). An in-memory index maps every Segment Name to the location of its latest record, so a get() requires at most
+ * one Storage read. Once more than half of the State Log consists of obsolete records, the live records are copied
+ * into a new State Log (compaction) and the old one is deleted.
+ * <p>
+ * There are two State Log Segments, which are used alternately by successive compactions. Each begins with a header
+ * record containing its generation and whether it is the result of a compaction. A compacted State Log is only valid once
+ * it contains a compaction-end record. Upon recovery, the valid State Log with the highest generation is used and the
+ * other one is deleted.
+ * <p>
+ * If a Legacy Store is provided, it will be used to look up Segments that have no record in the State Log and all calls
+ * to remove() will be forwarded to it as well. This allows reading states that were written by a SegmentStateStore.
+ * <p>
+ * The State Log is loaded on first use (or when initialize() is invoked). If there is data in Storage but no valid State
+ * Log can be recovered from it, the store fails all operations with a DataCorruptionException, instead of starting an
+ * empty State Log (which would discard all Segment States).
+ * <p>
+ * A read-only instance (see readOnly()) can be used to read the State Log while another instance (owned by the Segment
+ * Container) is writing to it. Before every get(), it reads any records that were appended since the last call, and it
+ * reloads the State Log from scratch if it was compacted. It never modifies anything in Storage.
+ * <p>
+ * Expected concurrency behavior:
+ * <ul>
+ * <li> Concurrent calls to any method with different Keys (SegmentName) will work without issue.
+ * <li> Concurrent calls to get() with the same key will work without issue.
+ * <li> Concurrent calls to put() or remove() with the same key will be applied in the order in which they were invoked
+ * (the last one wins).
+ * </ul>
+ */
+@Slf4j
+@ThreadSafe
+class ContainerStateStore implements AsyncMap<String, SegmentState>, AutoCloseable {
+    //region Members
+
+    private static final long DEFAULT_COMPACTION_MIN_LENGTH = 16 * 1024 * 1024;
+    private static final byte RECORD_HEADER = 0;
+    private static final byte RECORD_PUT = 1;
+    private static final byte RECORD_REMOVE = 2;
+    private static final byte RECORD_COMPACTION_END = 3;
+    private static final int FRAME_HEADER_LENGTH = Integer.BYTES;
+    private static final int MAX_RECORD_LENGTH = 16 * 1024 * 1024;
+    private static final int READ_BUFFER_SIZE = 1024 * 1024;
+    private static final int MAX_WRITE_LENGTH = 1024 * 1024;
+    private static final Duration MAINTENANCE_TIMEOUT = Duration.ofSeconds(60);
+
+    private final String traceObjectId;
+    private final String logName;
+    private final Storage storage;
+    private final AsyncMap<String, SegmentState> legacyStore;
+    private final long compactionMinLength;
+    private final Executor executor;
+    private final boolean readOnly;
+    private final AtomicBoolean closed;
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final ArrayDeque<PendingRecord> pendingRecords;
+    @GuardedBy("lock")
+    private LogIndex index;
+    @GuardedBy("lock")
+    private long generation;
+    @GuardedBy("lock")
+    private long logLength;
+    @GuardedBy("lock")
+    private SegmentHandle writeHandle;
+    @GuardedBy("lock")
+    private SegmentHandle readHandle;
+    @GuardedBy("lock")
+    private CompletableFuture<Void> initialized;
+    @GuardedBy("lock")
+    private boolean writeInProgress;
+    @GuardedBy("lock")
+    private LogInfo readOnlyLog;
+    @GuardedBy("lock")
+    private List<Long> readOnlyLogLengths;
+    @GuardedBy("lock")
+    private CompletableFuture<Void> refreshInProgress;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the ContainerStateStore class.
+     *
+     * @param containerId The Id of the Segment Container this State Store belongs to.
+     * @param storage     The Storage to use.
+     * @param legacyStore (Optional) An AsyncMap to fall back to for Segments that have no state in this store.
+     * @param executor    The Executor to use for asynchronous operations.
+     */
+    ContainerStateStore(int containerId, Storage storage, AsyncMap<String, SegmentState> legacyStore, Executor executor) {
+        this(containerId, storage, legacyStore, DEFAULT_COMPACTION_MIN_LENGTH, false, executor);
+    }
+
+    /**
+     * Creates a new instance of the ContainerStateStore class.
+     *
+     * @param containerId         The Id of the Segment Container this State Store belongs to.
+     * @param storage             The Storage to use.
+     * @param legacyStore         (Optional) An AsyncMap to fall back to for Segments that have no state in this store.
+     * @param compactionMinLength The minimum length of the State Log before it is considered for compaction.
+     * @param executor            The Executor to use for asynchronous operations.
+     */
+    @VisibleForTesting
+    ContainerStateStore(int containerId, Storage storage, AsyncMap<String, SegmentState> legacyStore, long compactionMinLength, Executor executor) {
+        this(containerId, storage, legacyStore, compactionMinLength, false, executor);
+    }
+
+    private ContainerStateStore(int containerId, Storage storage, AsyncMap<String, SegmentState> legacyStore, long compactionMinLength,
+                                boolean readOnly, Executor executor) {
+        Preconditions.checkArgument(compactionMinLength > 0, "compactionMinLength must be a positive number.");
+        this.storage = Preconditions.checkNotNull(storage, "storage");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.legacyStore = legacyStore;
+        this.compactionMinLength = compactionMinLength;
+        this.readOnly = readOnly;
+        this.closed = new AtomicBoolean();
+        this.logName = StreamSegmentNameUtils.getContainerStateSegmentName(containerId);
+        this.traceObjectId = String.format("ContainerStateStore[%d]", containerId);
+        this.pendingRecords = new ArrayDeque<>();
+        this.index = new LogIndex();
+    }
+
+    /**
+     * Creates a new read-only instance of the ContainerStateStore class, which can be used to read the State Log of a
+     * Segment Container that is owned (and written to) by someone else.
+     *
+     * @param containerId The Id of the Segment Container whose State Log to read.
+     * @param storage     The Storage to use. Nothing will be modified in it.
+     * @param legacyStore (Optional) An AsyncMap to fall back to for Segments that have no state in this store.
+     * @param executor    The Executor to use for asynchronous operations.
+     * @return A new read-only ContainerStateStore.
+     */
+    static ContainerStateStore readOnly(int containerId, Storage storage, AsyncMap<String, SegmentState> legacyStore, Executor executor) {
+        return new ContainerStateStore(containerId, storage, legacyStore, DEFAULT_COMPACTION_MIN_LENGTH, true, executor);
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        if (this.closed.compareAndSet(false, true)) {
+            List<PendingRecord> toFail;
+            synchronized (this.lock) {
+                toFail = new ArrayList<>(this.pendingRecords);
+                this.pendingRecords.clear();
+            }
+
+            ObjectClosedException ex = new ObjectClosedException(this);
+            toFail.forEach(record -> record.getResult().completeExceptionally(ex));
+            log.info("{}: Closed.", this.traceObjectId);
+        }
+    }
+
+    //endregion
+
+    //region AsyncMap Implementation
+
+    @Override
+    public CompletableFuture<SegmentState> get(String segmentName, Duration timeout) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        return (this.readOnly ? refresh() : initialize()).thenComposeAsync(v -> getInternal(segmentName, timer), this.executor);
+    }
+
+    @Override
+    public CompletableFuture<Void> put(String segmentName, SegmentState state, Duration timeout) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        if (this.readOnly) {
+            return unsupported("put");
+        }
+
+        byte[] record = serializeRecord(RECORD_PUT, output -> {
+            output.writeUTF(segmentName);
+            state.serialize(output);
+        });
+        return append(new PendingRecord(segmentName, record, false, timeout));
+    }
+
+    @Override
+    public CompletableFuture<Void> remove(String segmentName, Duration timeout) {
+        Exceptions.checkNotClosed(this.closed.get(), this);
+        if (this.readOnly) {
+            return unsupported("remove");
+        }
+
+        TimeoutTimer timer = new TimeoutTimer(timeout);
+        byte[] record = serializeRecord(RECORD_REMOVE, output -> output.writeUTF(segmentName));
+        CompletableFuture<Void> result = append(new PendingRecord(segmentName, record, true, timeout));
+        if (this.legacyStore != null) {
+            result = result.thenComposeAsync(v -> this.legacyStore.remove(segmentName, timer.getRemaining()), this.executor);
+        }
+
+        return result;
+    }
+
+    //endregion
+
+    //region Initialization and Recovery
+
+    /**
+     * Loads the State Log from Storage and builds the in-memory index, if not already done. If a previous attempt to
+     * write to the State Log failed, this will reload the State Log.
+     *
+     * @return A CompletableFuture that, when completed, will indicate that the State Store is ready for use.
+     */
+    CompletableFuture<Void> initialize() {
+        CompletableFuture<Void> result;
+        boolean recover = false;
+        synchronized (this.lock) {
+            if (this.initialized == null) {
+                this.initialized = new CompletableFuture<>();
+                recover = true;
+            }
+
+            result = this.initialized;
+        }
+
+        if (recover) {
+            log.info("{}: Recovering.", this.traceObjectId);
+            recover().whenComplete((r, ex) -> {
+                if (ex == null) {
+                    log.info("{}: Recovered.", this.traceObjectId);
+                    result.complete(null);
+                } else {
+                    log.error("{}: Recovery failed.", this.traceObjectId, ex);
+                    result.completeExceptionally(Exceptions.unwrap(ex));
+                    invalidate();
+                }
+            });
+        }
+
+        return result;
+    }
+
+    private CompletableFuture<Void> recover() {
+        return Futures
+                .allOfWithResults(Arrays.asList(readLog(getLogName(0)), readLog(getLogName(1))))
+                .thenComposeAsync(logs -> {
+                    LogInfo active = logs.stream()
+                                         .filter(l -> l != null && l.isValid())
+                                         .max(Comparator.comparingLong(LogInfo::getGeneration))
+                                         .orElse(null);
+                    if (active == null && logs.stream().anyMatch(l -> l != null && l.getLength() > 0)) {
+                        // There is data in Storage, but we cannot tell which of it is current. Starting a new State Log
+                        // would silently discard all Segment States, so we refuse to do so.
+                        throw new CompletionException(new DataCorruptionException(String.format(
+                                "Unable to recover State Log '%s': no valid State Log found (%s).", this.logName, logs)));
+                    }
+
+                    if (this.readOnly) {
+                        installReadOnly(active, logs);
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+
+                    List<CompletableFuture<Void>> deletions = logs.stream()
+                                                                  .filter(l -> l != null && l != active)
+                                                                  .map(l -> deleteIfExists(l.getName()))
+                                                                  .collect(Collectors.toList());
+                    return Futures.allOf(deletions).thenComposeAsync(v -> {
+                        if (active == null) {
+                            return createLog();
+                        } else if (active.getValidLength() < active.getLength()) {
+                            // The tail of the State Log is incomplete (a previous write failed). We cannot append after
+                            // it, so we compact the valid part into a new State Log.
+                            log.warn("{}: State Log '{}' has an incomplete tail (Valid = {}, Length = {}); compacting.",
+                                    this.traceObjectId, active.getName(), active.getValidLength(), active.getLength());
+                            return compact(active.getName(), active.getReadHandle(), active.getValidLength(), active.getGeneration(), active.getIndex());
+                        } else {
+                            return this.storage
+                                    .openWrite(active.getName())
+                                    .thenAccept(handle -> install(active.getGeneration(), active.getIndex(), active.getLength(), handle, active.getReadHandle()));
+                        }
+                    }, this.executor);
+                }, this.executor);
+    }
+
+    /**
+     * Reads the entire contents of the given State Log.
+     *
+     * @param name The name of the State Log Segment.
+     * @return A CompletableFuture that, when completed, will contain a LogInfo describing the State Log, or null if
+     * there is no such Segment.
+     */
+    private CompletableFuture<LogInfo> readLog(String name) {
+        return this.storage
+                .getStreamSegmentInfo(name, MAINTENANCE_TIMEOUT)
+                .thenComposeAsync(si -> this.storage
+                        .openRead(name)
+                        .thenCompose(handle -> {
+                            LogInfo info = new LogInfo(name, si.getLength(), handle);
+                            return scan(handle, 0, si.getLength(), info::apply, null)
+                                    .thenApply(validLength -> {
+                                        info.validLength = validLength;
+                                        return info;
+                                    });
+                        }), this.executor)
+                .exceptionally(this::handleSegmentNotExistsException);
+    }
+
+    /**
+     * Creates a new, empty State Log and installs it as the active one.
+     */
+    private CompletableFuture<Void> createLog() {
+        String name = getLogName(0);
+        return this.storage
+                .create(name, SegmentRollingPolicy.NO_ROLLING, MAINTENANCE_TIMEOUT)
+                .thenComposeAsync(v -> this.storage.openWrite(name), this.executor)
+                .thenComposeAsync(handle -> {
+                    LogWriter writer = new LogWriter(handle);
+                    writer.add(serializeHeader(0, false));
+                    return writer.flush(true)
+                                 .thenCompose(v -> this.storage.openRead(name))
+                                 .thenAccept(readHandle -> install(0, new LogIndex(), writer.getLength(), handle, readHandle));
+                }, this.executor);
+    }
+
+    /**
+     * Copies all live records from the given State Log into a new State Log, installs the new one as the active one
+     * and deletes the given one.
+     */
+    private CompletableFuture<Void> compact(String sourceName, SegmentHandle sourceHandle, long sourceLength, long sourceGeneration,
+                                            LogIndex sourceIndex) {
+        long targetGeneration = sourceGeneration + 1;
+        String targetName = getLogName(targetGeneration);
+        LogIndex targetIndex = new LogIndex();
+        log.info("{}: Compacting State Log '{}' (Generation = {}, Length = {}, Live = {}).", this.traceObjectId,
+                sourceName, sourceGeneration, sourceLength, sourceIndex.getLiveLength());
+        return deleteIfExists(targetName)
+                .thenComposeAsync(v -> this.storage.create(targetName, SegmentRollingPolicy.NO_ROLLING, MAINTENANCE_TIMEOUT), this.executor)
+                .thenComposeAsync(v -> this.storage.openWrite(targetName), this.executor)
+                .thenComposeAsync(targetHandle -> {
+                    LogWriter writer = new LogWriter(targetHandle);
+                    writer.add(serializeHeader(targetGeneration, true));
+                    RecordConsumer copyLiveRecords = (offset, record, array, arrayOffset, length) -> {
+                        if (record.getType() == RECORD_PUT && sourceIndex.isAt(record.getKey(), offset)) {
+                            targetIndex.put(record.getKey(), new RecordPointer(writer.getLength(), length));
+                            writer.add(array, arrayOffset, length);
+                        }
+
+                        return true;
+                    };
+
+                    return scan(sourceHandle, 0, sourceLength, copyLiveRecords, () -> writer.flush(false))
+                            .thenCompose(v -> {
+                                writer.add(serializeRecord(RECORD_COMPACTION_END, Callbacks::doNothing));
+                                return writer.flush(true);
+                            })
+                            .thenCompose(v -> this.storage.openRead(targetName))
+                            .thenAccept(readHandle -> install(targetGeneration, targetIndex, writer.getLength(), targetHandle, readHandle));
+                }, this.executor)
+                .thenComposeAsync(v -> deleteIfExists(sourceName)
+                        .exceptionally(ex -> {
+                            // This is not a problem; the next recovery will pick the newer State Log and delete this one.
+                            log.warn("{}: Unable to delete compacted State Log '{}'.", this.traceObjectId, sourceName, ex);
+                            return null;
+                        }), this.executor);
+    }
+
+    private void install(long generation, LogIndex index, long length, SegmentHandle writeHandle, SegmentHandle readHandle) {
+        log.info("{}: Using State Log '{}' (Generation = {}, Length = {}, Live = {}).", this.traceObjectId,
+                writeHandle.getSegmentName(), generation, length, index.getLiveLength());
+        synchronized (this.lock) {
+            this.generation = generation;
+            this.index = index;
+            this.logLength = length;
+            this.writeHandle = writeHandle;
+            this.readHandle = readHandle;
+        }
+    }
+
+    private void installReadOnly(LogInfo active, List<LogInfo> logs) {
+        log.info("{}: Using State Log '{}' in read-only mode (Generation = {}, Length = {}).", this.traceObjectId,
+                active == null ? null : active.getName(), active == null ? 0 : active.getGeneration(), active == null ? 0 : active.getValidLength());
+        synchronized (this.lock) {
+            this.readOnlyLog = active;
+            this.readOnlyLogLengths = logs.stream().map(l -> l == null ? null : l.getLength()).collect(Collectors.toList());
+            this.generation = active == null ? 0 : active.getGeneration();
+            this.index = active == null ? new LogIndex() : active.getIndex();
+            this.logLength = active == null ? 0 : active.getValidLength();
+            this.readHandle = active == null ? null : active.getReadHandle();
+        }
+    }
+
+    /**
+     * Brings a read-only instance up to date with the State Log: reads any records appended since the last refresh, or
+     * reloads the State Log entirely if it has been compacted (or created) since.
+     *
+     * @return A CompletableFuture that, when completed, will indicate that the refresh is done. If a refresh is already
+     * in progress, its result is returned instead.
+     */
+    private CompletableFuture<Void> refresh() {
+        CompletableFuture<Void> result;
+        synchronized (this.lock) {
+            if (this.refreshInProgress != null) {
+                return this.refreshInProgress;
+            }
+
+            result = new CompletableFuture<>();
+            this.refreshInProgress = result;
+        }
+
+        initialize()
+                .thenComposeAsync(v -> Futures.allOfWithResults(Arrays.asList(getLength(getLogName(0)), getLength(getLogName(1)))), this.executor)
+                .thenComposeAsync(this::refreshFromLengths, this.executor)
+                .whenComplete((r, ex) -> {
+                    synchronized (this.lock) {
+                        this.refreshInProgress = null;
+                    }
+
+                    if (ex == null) {
+                        result.complete(null);
+                    } else {
+                        invalidate();
+                        result.completeExceptionally(Exceptions.unwrap(ex));
+                    }
+                });
+        return result;
+    }
+
+    private CompletableFuture<Void> refreshFromLengths(List<Long> currentLengths) {
+        LogInfo active;
+        List<Long> loadedLengths;
+        synchronized (this.lock) {
+            active = this.readOnlyLog;
+            loadedLengths = this.readOnlyLogLengths;
+        }
+
+        int activeIndex = active == null ? -1 : (int) (active.getGeneration() & 1);
+        boolean reload = false;
+        for (int i = 0; i < currentLengths.size(); i++) {
+            if (i == activeIndex) {
+                // The active State Log may only grow; if it is gone, it has been compacted into the other one.
+                reload |= currentLengths.get(i) == null;
+            } else {
+                // Any change to the other State Log means a compaction (or the first State Log) is in progress.
+                reload |= !Objects.equals(currentLengths.get(i), loadedLengths.get(i));
+            }
+        }
+
+        if (reload) {
+            invalidate();
+            return initialize();
+        } else if (active == null || currentLengths.get(activeIndex) <= active.getValidLength()) {
+            return CompletableFuture.completedFuture(null);
+        }
+
+        RecordConsumer applyNewRecords = (offset, record, array, arrayOffset, length) -> {
+            synchronized (this.lock) {
+                return active.apply(offset, record, array, arrayOffset, length);
+            }
+        };
+
+        return scan(active.getReadHandle(), active.getValidLength(), currentLengths.get(activeIndex), applyNewRecords, null)
+                .thenAccept(validLength -> {
+                    synchronized (this.lock) {
+                        active.validLength = validLength;
+                        this.logLength = validLength;
+                    }
+                });
+    }
+
+    private CompletableFuture<Long> getLength(String segmentName) {
+        return this.storage
+                .getStreamSegmentInfo(segmentName, MAINTENANCE_TIMEOUT)
+                .thenApply(SegmentProperties::getLength)
+                .exceptionally(this::handleSegmentNotExistsException);
+    }
+
+    /**
+     * Indicates that the in-memory state may no longer reflect the State Log, which will be reloaded upon the next call
+     * to initialize().
+     */
+    private void invalidate() {
+        synchronized (this.lock) {
+            if (this.initialized != null && this.initialized.isDone()) {
+                this.initialized = null;
+            }
+        }
+    }
+
+    //endregion
+
+    //region Reading
+
+    private CompletableFuture<SegmentState> getInternal(String segmentName, TimeoutTimer timer) {
+        RecordPointer pointer;
+        SegmentHandle handle;
+        long readGeneration;
+        synchronized (this.lock) {
+            pointer = this.index.get(segmentName);
+            handle = this.readHandle;
+            readGeneration = this.generation;
+        }
+
+        if (pointer == null) {
+            return this.legacyStore == null
+                    ? CompletableFuture.completedFuture(null)
+                    : this.legacyStore.get(segmentName, timer.getRemaining());
+        }
+
+        byte[] frame = new byte[pointer.getLength()];
+        return readFully(handle, pointer.getOffset(), frame, timer.getRemaining())
+                .handleAsync((v, ex) -> {
+                    if (ex == null) {
+                        return CompletableFuture.completedFuture(deserializeState(frame));
+                    }
+
+                    ex = Exceptions.unwrap(ex);
+                    if (ex instanceof StreamSegmentNotExistsException) {
+                        if (hasGenerationChanged(readGeneration)) {
+                            // The State Log was compacted (and deleted) while we were reading from it. Try again.
+                            return getInternal(segmentName, timer);
+                        } else if (this.readOnly) {
+                            // The State Log was compacted by its owner. Reload it and try again.
+                            invalidate();
+                            return refresh().thenComposeAsync(v -> getInternal(segmentName, timer), this.executor);
+                        }
+                    }
+
+                    return Futures.<SegmentState>failedFuture(ex);
+                }, this.executor)
+                .thenCompose(f -> f);
+    }
+
+    private CompletableFuture<Void> readFully(SegmentHandle handle, long offset, byte[] buffer, Duration timeout) {
+        AtomicInteger bytesRead = new AtomicInteger();
+        return Futures.loop(
+                () -> bytesRead.get() < buffer.length,
+                () -> this.storage
+                        .read(handle, offset + bytesRead.get(), buffer, bytesRead.get(), buffer.length - bytesRead.get(), timeout)
+                        .thenAccept(count -> {
+                            if (count <= 0) {
+                                throw new CompletionException(new DataCorruptionException(String.format(
+                                        "State Log '%s' ends before offset %d.", handle.getSegmentName(), offset + buffer.length)));
+                            }
+
+                            bytesRead.addAndGet(count);
+                        }),
+                this.executor);
+    }
+
+    /**
+     * Reads the given State Log sequentially and invokes the given RecordConsumer for every complete record, in order.
+     *
+     * @param handle      A read handle for the State Log.
+     * @param startOffset The offset to begin reading at. This must be the offset of a record.
+     * @param length      The offset to stop reading at.
+     * @param consumer    A RecordConsumer to invoke for every record. If this returns false, the scan will stop.
+     * @param afterChunk  (Optional) A Supplier that will be invoked after each chunk read from Storage has been processed.
+     * @return A CompletableFuture that, when completed, will contain the offset right after the last record that was
+     * accepted by the consumer.
+     */
+    private CompletableFuture<Long> scan(SegmentHandle handle, long startOffset, long length, RecordConsumer consumer,
+                                         Supplier<CompletableFuture<Void>> afterChunk) {
+        LogScanner scanner = new LogScanner(consumer, startOffset);
+        AtomicLong readOffset = new AtomicLong(startOffset);
+        return Futures.loop(
+                () -> readOffset.get() < length && !scanner.isStopped(),
+                () -> {
+                    byte[] buffer = new byte[(int) Math.min(READ_BUFFER_SIZE, length - readOffset.get())];
+                    return this.storage
+                            .read(handle, readOffset.get(), buffer, 0, buffer.length, MAINTENANCE_TIMEOUT)
+                            .thenCompose(count -> {
+                                if (count <= 0) {
+                                    scanner.stop();
+                                    return CompletableFuture.completedFuture(null);
+                                }
+
+                                readOffset.addAndGet(count);
+                                scanner.process(buffer, count);
+                                return afterChunk == null ? CompletableFuture.completedFuture(null) : afterChunk.get();
+                            });
+                },
+                this.executor)
+                .thenApply(v -> scanner.getProcessedLength());
+    }
+
+    //endregion
+
+    //region Writing
+
+    private CompletableFuture<Void> append(PendingRecord record) {
+        synchronized (this.lock) {
+            if (this.closed.get()) {
+                return Futures.failedFuture(new ObjectClosedException(this));
+            }
+
+            this.pendingRecords.addLast(record);
+        }
+
+        triggerWrite();
+        return record.getResult();
+    }
+
+    /**
+     * Writes all pending records (up to MAX_WRITE_LENGTH bytes) to the State Log, unless a write is already in progress.
+     * Upon completion, compacts the State Log (if necessary) and triggers the next write.
+     */
+    private void triggerWrite() {
+        List<PendingRecord> batch = new ArrayList<>();
+        synchronized (this.lock) {
+            if (this.writeInProgress || this.pendingRecords.isEmpty() || this.closed.get()) {
+                return;
+            }
+
+            int batchLength = 0;
+            while (!this.pendingRecords.isEmpty()
+                    && (batch.isEmpty() || batchLength + this.pendingRecords.peekFirst().getFrame().length <= MAX_WRITE_LENGTH)) {
+                PendingRecord record = this.pendingRecords.removeFirst();
+                batch.add(record);
+                batchLength += record.getFrame().length;
+            }
+
+            this.writeInProgress = true;
+        }
+
+        initialize()
+                .thenComposeAsync(v -> writeBatch(batch), this.executor)
+                .handleAsync((r, ex) -> {
+                    if (ex == null) {
+                        batch.forEach(record -> record.getResult().complete(null));
+                        return compactIfNecessary();
+                    } else {
+                        // We do not know how much of the batch made it into the State Log; reload it before the next write.
+                        log.warn("{}: Unable to write to the State Log.", this.traceObjectId, ex);
+                        invalidate();
+                        Throwable cause = Exceptions.unwrap(ex);
+                        batch.forEach(record -> record.getResult().completeExceptionally(cause));
+                        return CompletableFuture.<Void>completedFuture(null);
+                    }
+                }, this.executor)
+                .thenCompose(f -> f)
+                .whenCompleteAsync((r, ex) -> {
+                    if (ex != null) {
+                        log.warn("{}: State Log compaction failed.", this.traceObjectId, ex);
+                    }
+
+                    synchronized (this.lock) {
+                        this.writeInProgress = false;
+                    }
+
+                    triggerWrite();
+                }, this.executor);
+    }
+
+    private CompletableFuture<Void> writeBatch(List<PendingRecord> batch) {
+        SegmentHandle handle;
+        long offset;
+        synchronized (this.lock) {
+            handle = this.writeHandle;
+            offset = this.logLength;
+        }
+
+        EnhancedByteArrayOutputStream data = new EnhancedByteArrayOutputStream();
+        batch.forEach(record -> data.write(record.getFrame()));
+        ByteArraySegment toWrite = data.getData();
+        return this.storage
+                .write(handle, offset, toWrite.getReader(), toWrite.getLength(), batch.get(0).getTimeout())
+                .thenRun(() -> {
+                    synchronized (this.lock) {
+                        long recordOffset = offset;
+                        for (PendingRecord record : batch) {
+                            if (record.isRemoval()) {
+                                this.index.remove(record.getSegmentName());
+                            } else {
+                                this.index.put(record.getSegmentName(), new RecordPointer(recordOffset, record.getFrame().length));
+                            }
+
+                            recordOffset += record.getFrame().length;
+                        }
+
+                        this.logLength = offset + toWrite.getLength();
+                    }
+                });
+    }
+
+    private CompletableFuture<Void> compactIfNecessary() {
+        String sourceName;
+        SegmentHandle sourceHandle;
+        long sourceLength;
+        long sourceGeneration;
+        LogIndex sourceIndex;
+        synchronized (this.lock) {
+            if (this.logLength < this.compactionMinLength || this.index.getLiveLength() * 2 >= this.logLength) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            // No writes can happen while we compact, so the index will not change from under us.
+            sourceName = getLogName(this.generation);
+            sourceHandle = this.readHandle;
+            sourceLength = this.logLength;
+            sourceGeneration = this.generation;
+            sourceIndex = this.index;
+        }
+
+        return compact(sourceName, sourceHandle, sourceLength, sourceGeneration, sourceIndex);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    private <T> CompletableFuture<T> unsupported(String methodName) {
+        return Futures.failedFuture(new UnsupportedOperationException(methodName + " is not supported on a read-only " + getClass().getSimpleName()));
+    }
+
+    private String getLogName(long generation) {
+        return this.logName + "." + (generation & 1);
+    }
+
+    private boolean hasGenerationChanged(long generation) {
+        synchronized (this.lock) {
+            return this.generation != generation;
+        }
+    }
+
+    private CompletableFuture<Void> deleteIfExists(String segmentName) {
+        return this.storage
+                .openWrite(segmentName)
+                .thenComposeAsync(handle -> this.storage.delete(handle, MAINTENANCE_TIMEOUT), this.executor)
+                .exceptionally(this::handleSegmentNotExistsException);
+    }
+
+    @SneakyThrows(Throwable.class)
+    private <T> T handleSegmentNotExistsException(Throwable ex) {
+        ex = Exceptions.unwrap(ex);
+        if (ex instanceof StreamSegmentNotExistsException) {
+            return null;
+        }
+
+        throw ex;
+    }
+
+    private static byte[] serializeHeader(long generation, boolean isCompaction) {
+        return serializeRecord(RECORD_HEADER, output -> {
+            output.writeLong(generation);
+            output.writeBoolean(isCompaction);
+        });
+    }
+
+    /**
+     * Serializes a record, prefixed by its length.
+     */
+    @SneakyThrows(IOException.class)
+    private static byte[] serializeRecord(byte recordType, RecordSerializer serializer) {
+        EnhancedByteArrayOutputStream stream = new EnhancedByteArrayOutputStream();
+        try (DataOutputStream output = new DataOutputStream(stream)) {
+            output.writeInt(0); // Placeholder for the length; filled in below.
+            output.writeByte(recordType);
+            serializer.accept(output);
+        }
+
+        byte[] result = stream.toByteArray();
+        BitConverter.writeInt(result, 0, result.length - FRAME_HEADER_LENGTH);
+        return result;
+    }
+
+    /**
+     * Parses the type and key of the record at the given location, or returns null if the record cannot be parsed.
+     */
+    private static RecordInfo parseRecord(byte[] array, int offset, int length) {
+        try (DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(array, offset + FRAME_HEADER_LENGTH, length - FRAME_HEADER_LENGTH))) {
+            byte type = input.readByte();
+            switch (type) {
+                case RECORD_HEADER:
+                    return new RecordInfo(type, null, input.readLong(), input.readBoolean());
+                case RECORD_PUT:
+                case RECORD_REMOVE:
+                    return new RecordInfo(type, input.readUTF(), 0, false);
+                case RECORD_COMPACTION_END:
+                    return new RecordInfo(type, null, 0, false);
+                default:
+                    return null;
+            }
+        } catch (IOException ex) {
+            return null;
+        }
+    }
+
+    @SneakyThrows
+    private static SegmentState deserializeState(byte[] frame) {
+        try (DataInputStream input = new DataInputStream(
+                new ByteArrayInputStream(frame, FRAME_HEADER_LENGTH, frame.length - FRAME_HEADER_LENGTH))) {
+            byte type = input.readByte();
+            if (type != RECORD_PUT) {
+                throw new DataCorruptionException(String.format("Unexpected State Log record type %d; expected %d.", type, RECORD_PUT));
+            }
+
+            input.readUTF();
+            return SegmentState.deserialize(input);
+        }
+    }
+
+    //endregion
+
+    //region Helper Classes
+
+    @FunctionalInterface
+    private interface RecordSerializer {
+        void accept(DataOutputStream output) throws IOException;
+    }
+
+    @FunctionalInterface
+    private interface RecordConsumer {
+        boolean accept(long offset, RecordInfo record, byte[] array, int arrayOffset, int length);
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class RecordInfo {
+        private final byte type;
+        private final String key;
+        private final long generation;
+        private final boolean compaction;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class RecordPointer {
+        private final long offset;
+        private final int length;
+    }
+
+    @RequiredArgsConstructor
+    @Getter
+    private static class PendingRecord {
+        private final String segmentName;
+        private final byte[] frame;
+        private final boolean removal;
+        private final Duration timeout;
+        private final CompletableFuture<Void> result = new CompletableFuture<>();
+    }
+
+    /**
+     * Maps Segment Names to the location of their latest record in a State Log. Not thread safe.
+     */
+    private static class LogIndex {
+        private final HashMap<String, RecordPointer> pointers = new HashMap<>();
+        @Getter
+        private long liveLength;
+
+        RecordPointer get(String key) {
+            return this.pointers.get(key);
+        }
+
+        boolean isAt(String key, long offset) {
+            RecordPointer pointer = this.pointers.get(key);
+            return pointer != null && pointer.getOffset() == offset;
+        }
+
+        void put(String key, RecordPointer pointer) {
+            RecordPointer previous = this.pointers.put(key, pointer);
+            this.liveLength += pointer.getLength() - (previous == null ? 0 : previous.getLength());
+        }
+
+        void remove(String key) {
+            RecordPointer previous = this.pointers.remove(key);
+            if (previous != null) {
+                this.liveLength -= previous.getLength();
+            }
+        }
+    }
+
+    /**
+     * Information about a State Log, collected while recovering.
+     */
+    @RequiredArgsConstructor
+    @Getter
+    private static class LogInfo {
+        private final String name;
+        private final long length;
+        private final SegmentHandle readHandle;
+        private final LogIndex index = new LogIndex();
+        private long generation;
+        private boolean compaction;
+        private boolean header;
+        private boolean compactionComplete;
+        private long validLength;
+
+        boolean isValid() {
+            return this.header && (!this.compaction || this.compactionComplete);
+        }
+
+        @Override
+        public String toString() {
+            return String.format("%s: Length = %d, Valid = %d, Generation = %d, Compaction = %s, CompactionComplete = %s",
+                    this.name, this.length, this.validLength, this.generation, this.compaction, this.compactionComplete);
+        }
+
+        boolean apply(long offset, RecordInfo record, byte[] array, int arrayOffset, int length) {
+            if (offset == 0) {
+                // The first record must always be the header.
+                if (record.getType() != RECORD_HEADER) {
+                    return false;
+                }
+
+                this.header = true;
+                this.generation = record.getGeneration();
+                this.compaction = record.isCompaction();
+                return true;
+            }
+
+            switch (record.getType()) {
+                case RECORD_PUT:
+                    this.index.put(record.getKey(), new RecordPointer(offset, length));
+                    return true;
+                case RECORD_REMOVE:
+                    this.index.remove(record.getKey());
+                    return true;
+                case RECORD_COMPACTION_END:
+                    this.compactionComplete = true;
+                    return true;
+                default:
+                    return false;
+            }
+        }
+    }
+
+    /**
+     * Splits a sequence of bytes read from a State Log into records. Not thread safe.
+     */
+    private static class LogScanner {
+        private final RecordConsumer consumer;
+        private byte[] pending = new byte[0];
+        private int pendingLength;
+        private long pendingStartOffset;
+        @Getter
+        private boolean stopped;
+
+        LogScanner(RecordConsumer consumer, long startOffset) {
+            this.consumer = consumer;
+            this.pendingStartOffset = startOffset;
+        }
+
+        void stop() {
+            this.stopped = true;
+        }
+
+        long getProcessedLength() {
+            return this.pendingStartOffset;
+        }
+
+        void process(byte[] buffer, int count) {
+            if (this.pending.length < this.pendingLength + count) {
+                this.pending = Arrays.copyOf(this.pending, this.pendingLength + count);
+            }
+
+            System.arraycopy(buffer, 0, this.pending, this.pendingLength, count);
+            this.pendingLength += count;
+
+            int position = 0;
+            while (!this.stopped && this.pendingLength - position >= FRAME_HEADER_LENGTH) {
+                int payloadLength = BitConverter.readInt(this.pending, position);
+                if (payloadLength <= 0 || payloadLength > MAX_RECORD_LENGTH) {
+                    // Corrupted or incomplete length.
+                    stop();
+                    break;
+                }
+
+                int frameLength = FRAME_HEADER_LENGTH + payloadLength;
+                if (this.pendingLength - position < frameLength) {
+                    // Need more data.
+                    break;
+                }
+
+                RecordInfo record = parseRecord(this.pending, position, frameLength);
+                if (record == null || !this.consumer.accept(this.pendingStartOffset + position, record, this.pending, position, frameLength)) {
+                    stop();
+                    break;
+                }
+
+                position += frameLength;
+            }
+
+            System.arraycopy(this.pending, position, this.pending, 0, this.pendingLength - position);
+            this.pendingLength -= position;
+            this.pendingStartOffset += position;
+        }
+    }
+
+    /**
+     * Sequentially appends records to a new State Log, buffering them in memory between flushes. Not thread safe.
+     */
+    @RequiredArgsConstructor
+    private class LogWriter {
+        private final SegmentHandle handle;
+        private final EnhancedByteArrayOutputStream buffer = new EnhancedByteArrayOutputStream();
+        private long flushedLength;
+
+        long getLength() {
+            return this.flushedLength + this.buffer.size();
+        }
+
+        void add(byte[] frame) {
+            this.buffer.write(frame);
+        }
+
+        void add(byte[] array, int offset, int length) {
+            this.buffer.write(array, offset, length);
+        }
+
+        CompletableFuture<Void> flush(boolean force) {
+            if (this.buffer.size() == 0 || (!force && this.buffer.size() < MAX_WRITE_LENGTH)) {
+                return CompletableFuture.completedFuture(null);
+            }
+
+            ByteArraySegment data = this.buffer.getData();
+            return storage
+                    .write(this.handle, this.flushedLength, data.getReader(), data.getLength(), MAINTENANCE_TIMEOUT)
+                    .thenRun(() -> {
+                        this.flushedLength += data.getLength();
+                        this.buffer.reset();
+                    });
+        }
+    }
+
+    //endregion
+}
@@ -25,31 +25,46 @@ import io.pravega.segmentstore.server.reading.StreamSegmentStorageReader;
 import io.pravega.segmentstore.storage.ReadOnlyStorage;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.StorageFactory;
+import io.pravega.shared.segment.SegmentToContainerMapper;
 import java.time.Duration;
 import java.util.Collection;
 import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
 /**
  * A slimmed down version of StreamSegmentContainer that is only able to perform reads from Storage. This SegmentContainer
  * cannot make any modifications to any Segments, nor can it create new or delete existing ones. It also cannot access data
  * that exists solely in DurableDataLog (which has not yet been transferred into permanent Storage).
+ * <p>
+ * Reads from Sealed Segments are served via a StorageReadCache (with read-ahead), which allows nodes running this
+ * container to serve historical reads without owning any regular Segment Containers.
+ * <p>
+ * Segment States (StartOffset, Attributes) are read from the State Log of the Segment Container that owns each Segment
+ * (using a read-only ContainerStateStore per Container, created on demand), falling back to per-Segment State Segments
+ * for Segments whose state was written by an older version.
  */
 @Slf4j
 class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentContainer {
     //region Members
     @VisibleForTesting
     static final int MAX_READ_AT_ONCE_BYTES = 4 * 1024 * 1024;
+    @VisibleForTesting
+    static final int READ_CACHE_BLOCK_SIZE = 1024 * 1024;
     private static final int CONTAINER_ID = Integer.MAX_VALUE; // So that it doesn't collide with any other real Container Id.
     private static final int CONTAINER_EPOCH = 1; // This guarantees that any write operations should be fenced out if attempted.
 
-    private final AsyncMap<String, SegmentState> stateStore;
+    private final SegmentToContainerMapper storedSegmentToContainerMapper;
+    private final AsyncMap<String, SegmentState> legacyStateStore;
+    private final ConcurrentHashMap<Integer, ContainerStateStore> stateStores;
     private final SegmentStateMapper segmentStateMapper;
     private final ReadOnlyStorage storage;
+    private final StorageReadCache readCache;
     private final ScheduledExecutorService executor;
     private final AtomicBoolean closed;
 
@@ -60,16 +75,25 @@ class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentCon
     /**
      * Creates a new instance of the ReadOnlySegmentContainer class.
      *
-     * @param storageFactory A StorageFactory used to create Storage adapters.
-     * @param executor       An Executor to use for async operations.
+     * @param config                         The ContainerConfig to use for this ReadOnlySegmentContainer.
+     * @param storageFactory                 A StorageFactory used to create Storage adapters.
+     * @param storedSegmentToContainerMapper A SegmentToContainerMapper that maps Segments to the (regular) Segment
+     *                                       Containers that wrote them (and their states).
+     * @param executor                       An Executor to use for async operations.
      */
-    ReadOnlySegmentContainer(StorageFactory storageFactory, ScheduledExecutorService executor) {
+    ReadOnlySegmentContainer(ContainerConfig config, StorageFactory storageFactory, SegmentToContainerMapper storedSegmentToContainerMapper,
+                             ScheduledExecutorService executor) {
+        Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(storageFactory, "storageFactory");
+        this.storedSegmentToContainerMapper = Preconditions.checkNotNull(storedSegmentToContainerMapper, "storedSegmentToContainerMapper");
         this.executor = Preconditions.checkNotNull(executor, "executor");
         Storage writableStorage = storageFactory.createStorageAdapter();
         this.storage = writableStorage;
-        this.stateStore = new SegmentStateStore(writableStorage, this.executor);
-        this.segmentStateMapper = new SegmentStateMapper(this.stateStore, writableStorage);
+        this.legacyStateStore = new SegmentStateStore(writableStorage, this.executor);
+        this.stateStores = new ConcurrentHashMap<>();
+        this.segmentStateMapper = new SegmentStateMapper(new StateStoreRouter(writableStorage), writableStorage);
+        this.readCache = new StorageReadCache(this.storage, READ_CACHE_BLOCK_SIZE, config.getReadOnlyCacheSizeBytes(),
+                config.getReadOnlyReadAheadBlockCount(), this.executor);
         this.closed = new AtomicBoolean();
     }
 
@@ -81,6 +105,7 @@ class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentCon
     public void close() {
         if (this.closed.compareAndSet(false, true)) {
             Futures.await(Services.stopAsync(this, this.executor));
+            this.stateStores.values().forEach(ContainerStateStore::close);
             this.storage.close();
             log.info("Closed.");
         }
@@ -120,7 +145,14 @@ class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentCon
         Exceptions.checkNotClosed(this.closed.get(), this);
         TimeoutTimer timer = new TimeoutTimer(timeout);
         return getStreamSegmentInfo(streamSegmentName, false, timer.getRemaining())
-                .thenApply(si -> StreamSegmentStorageReader.read(si, offset, maxLength, MAX_READ_AT_ONCE_BYTES, this.storage));
+                .thenApply(si -> {
+                    if (si.isSealed()) {
+                        // Sealed Segments cannot change anymore, so we can serve them from (and populate) the cache.
+                        return StreamSegmentStorageReader.read(si, offset, maxLength, READ_CACHE_BLOCK_SIZE, this.readCache.getStorage(si));
+                    } else {
+                        return StreamSegmentStorageReader.read(si, offset, maxLength, MAX_READ_AT_ONCE_BYTES, this.storage);
+                    }
+                });
     }
 
     @Override
@@ -189,4 +221,34 @@ class ReadOnlySegmentContainer extends AbstractIdleService implements SegmentCon
     }
 
     //endregion
+
+    //region StateStoreRouter
+
+    /**
+     * Routes state lookups to the read-only ContainerStateStore of the Segment Container that owns each Segment.
+     */
+    @RequiredArgsConstructor
+    private class StateStoreRouter implements AsyncMap<String, SegmentState> {
+        private final Storage storage;
+
+        @Override
+        public CompletableFuture<SegmentState> get(String segmentName, Duration timeout) {
+            int containerId = storedSegmentToContainerMapper.getContainerId(segmentName);
+            return stateStores
+                    .computeIfAbsent(containerId, id -> ContainerStateStore.readOnly(id, this.storage, legacyStateStore, executor))
+                    .get(segmentName, timeout);
+        }
+
+        @Override
+        public CompletableFuture<Void> put(String segmentName, SegmentState state, Duration timeout) {
+            return unsupported("put");
+        }
+
+        @Override
+        public CompletableFuture<Void> remove(String segmentName, Duration timeout) {
+            return unsupported("remove");
+        }
+    }
+
+    //endregion
 }
@@ -0,0 +1,276 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.storage.ReadOnlyStorage;
+import io.pravega.segmentstore.storage.SegmentHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Data;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * A cache for data read from Storage for Sealed Segments. Since the contents of a Sealed Segment can never change, any
+ * data read from it can be cached indefinitely (subject to space constraints).
+ * <p>
+ * Data is cached in fixed-size Blocks (aligned at multiples of the Block Size). When a Block is requested, a number of
+ * Blocks following it are read ahead of time, which speeds up sequential (catch-up) reads. Blocks are evicted in LRU
+ * order once the total size of the cache exceeds its configured maximum. Concurrent requests for the same Block will
+ * only result in one Storage read.
+ * <p>
+ * A Segment may be deleted and then re-created (with different contents) under the same name, so Blocks are keyed by the
+ * Segment's length as well as by its name. Since a Sealed Segment's length can never change, this identifies which
+ * incarnation of the Segment the Blocks belong to. Blocks belonging to a previous incarnation are never served again and
+ * will eventually be evicted.
+ */
+@Slf4j
+@ThreadSafe
+class StorageReadCache {
+    //region Members
+
+    private final ReadOnlyStorage storage;
+    private final int blockSize;
+    private final long maxSize;
+    private final int readAheadCount;
+    private final Executor executor;
+    @GuardedBy("lock")
+    private final LinkedHashMap<BlockKey, CompletableFuture<byte[]>> blocks;
+    @GuardedBy("lock")
+    private long size;
+    private final Object lock = new Object();
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the StorageReadCache class.
+     *
+     * @param storage        The ReadOnlyStorage to read from.
+     * @param blockSize      The size of a Block.
+     * @param maxSize        The maximum number of bytes to cache.
+     * @param readAheadCount The number of Blocks to read ahead.
+     * @param executor       An Executor for async operations.
+     */
+    StorageReadCache(ReadOnlyStorage storage, int blockSize, long maxSize, int readAheadCount, Executor executor) {
+        Preconditions.checkArgument(blockSize > 0, "blockSize must be a positive integer.");
+        Preconditions.checkArgument(maxSize >= 0, "maxSize must be a non-negative number.");
+        Preconditions.checkArgument(readAheadCount >= 0, "readAheadCount must be a non-negative number.");
+        this.storage = Preconditions.checkNotNull(storage, "storage");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.blockSize = blockSize;
+        this.maxSize = maxSize;
+        this.readAheadCount = readAheadCount;
+        this.blocks = new LinkedHashMap<>(16, 0.75f, true);
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Gets a ReadOnlyStorage that serves reads for the given Sealed Segment from this cache.
+     *
+     * @param segmentInfo A SegmentProperties describing the Segment. Must be Sealed.
+     * @return A ReadOnlyStorage.
+     */
+    ReadOnlyStorage getStorage(SegmentProperties segmentInfo) {
+        Preconditions.checkArgument(segmentInfo.isSealed(), "Only Sealed Segments can be cached.");
+        return new CachedSegmentStorage(segmentInfo);
+    }
+
+    /**
+     * Gets the number of bytes currently cached (including Blocks that are being fetched).
+     */
+    @VisibleForTesting
+    long getSize() {
+        synchronized (this.lock) {
+            return this.size;
+        }
+    }
+
+    private CompletableFuture<Integer> read(SegmentProperties segmentInfo, SegmentHandle handle, long offset, byte[] buffer,
+                                            int bufferOffset, int length, Duration timeout) {
+        Exceptions.checkArrayRange(bufferOffset, length, buffer.length, "bufferOffset", "length");
+        Exceptions.checkArgument(offset >= 0 && offset + length <= segmentInfo.getLength(), "offset",
+                "Offset and length must be within the bounds of the Segment.");
+        if (length == 0) {
+            return CompletableFuture.completedFuture(0);
+        }
+
+        long firstBlock = offset / this.blockSize;
+        long lastBlock = (offset + length - 1) / this.blockSize;
+        List<CompletableFuture<byte[]>> blockFutures = new ArrayList<>();
+        for (long blockIndex = firstBlock; blockIndex <= lastBlock; blockIndex++) {
+            blockFutures.add(getBlock(segmentInfo, handle, blockIndex, timeout));
+        }
+
+        // Read ahead. We do not care about the outcome of these reads; any failed Blocks will be removed from the cache.
+        long lastReadAheadBlock = Math.min(lastBlock + this.readAheadCount, (segmentInfo.getLength() - 1) / this.blockSize);
+        for (long blockIndex = lastBlock + 1; blockIndex <= lastReadAheadBlock; blockIndex++) {
+            getBlock(segmentInfo, handle, blockIndex, timeout);
+        }
+
+        return Futures.allOfWithResults(blockFutures)
+                      .thenApply(blockContents -> {
+                          int copied = 0;
+                          long blockStart = firstBlock * this.blockSize;
+                          for (byte[] block : blockContents) {
+                              int blockOffset = (int) Math.max(0, offset + copied - blockStart);
+                              int copyLength = Math.min(length - copied, block.length - blockOffset);
+                              System.arraycopy(block, blockOffset, buffer, bufferOffset + copied, copyLength);
+                              copied += copyLength;
+                              blockStart += this.blockSize;
+                          }
+
+                          return copied;
+                      });
+    }
+
+    private CompletableFuture<byte[]> getBlock(SegmentProperties segmentInfo, SegmentHandle handle, long blockIndex, Duration timeout) {
+        BlockKey key = new BlockKey(segmentInfo.getName(), segmentInfo.getLength(), blockIndex);
+        long blockOffset = blockIndex * this.blockSize;
+        int blockLength = (int) Math.min(this.blockSize, segmentInfo.getLength() - blockOffset);
+        CompletableFuture<byte[]> result;
+        synchronized (this.lock) {
+            result = this.blocks.get(key);
+            if (result != null) {
+                return result;
+            }
+
+            result = new CompletableFuture<>();
+            this.blocks.put(key, result);
+            this.size += blockLength;
+            evictIfNeeded();
+        }
+
+        CompletableFuture<byte[]> blockFuture = result;
+        fetchBlock(handle, blockOffset, blockLength, timeout)
+                .whenComplete((contents, ex) -> {
+                    if (ex != null) {
+                        log.debug("Unable to fetch Block {} for '{}'.", blockIndex, segmentInfo.getName(), ex);
+                        synchronized (this.lock) {
+                            if (this.blocks.remove(key, blockFuture)) {
+                                this.size -= blockLength;
+                            }
+                        }
+
+                        blockFuture.completeExceptionally(ex);
+                    } else {
+                        blockFuture.complete(contents);
+                    }
+                });
+        return blockFuture;
+    }
+
+    private CompletableFuture<byte[]> fetchBlock(SegmentHandle handle, long blockOffset, int blockLength, Duration timeout) {
+        byte[] contents = new byte[blockLength];
+        AtomicInteger bytesRead = new AtomicInteger();
+        CompletableFuture<Void> readAll = Futures.loop(
+                () -> bytesRead.get() < blockLength,
+                () -> this.storage.read(handle, blockOffset + bytesRead.get(), contents, bytesRead.get(), blockLength - bytesRead.get(), timeout),
+                count -> {
+                    if (count <= 0) {
+                        throw new IllegalStateException(String.format("Unable to read beyond offset %d from '%s'.",
+                                blockOffset + bytesRead.get(), handle.getSegmentName()));
+                    }
+
+                    bytesRead.addAndGet(count);
+                },
+                this.executor);
+        return readAll.thenApply(v -> contents);
+    }
+
+    @GuardedBy("lock")
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<BlockKey, CompletableFuture<byte[]>>> iterator = this.blocks.entrySet().iterator();
+        while (this.size > this.maxSize && iterator.hasNext()) {
+            Map.Entry<BlockKey, CompletableFuture<byte[]>> e = iterator.next();
+            if (!e.getValue().isDone()) {
+                // Do not evict Blocks that are being fetched; we do not know their sizes yet (and they are likely to be used soon).
+                continue;
+            }
+
+            this.size -= e.getValue().join().length;
+            iterator.remove();
+        }
+    }
+
+    //endregion
+
+    //region BlockKey
+
+    @Data
+    private static class BlockKey {
+        private final String segmentName;
+        private final long segmentLength;
+        private final long blockIndex;
+    }
+
+    //endregion
+
+    //region CachedSegmentStorage
+
+    /**
+     * A ReadOnlyStorage view for a single Sealed Segment, which serves all reads from the StorageReadCache.
+     */
+    @RequiredArgsConstructor
+    private class CachedSegmentStorage implements ReadOnlyStorage {
+        private final SegmentProperties segmentInfo;
+
+        @Override
+        public void initialize(long containerEpoch) {
+            // Nothing to do; the underlying Storage is already initialized.
+        }
+
+        @Override
+        public CompletableFuture<SegmentHandle> openRead(String streamSegmentName) {
+            return storage.openRead(streamSegmentName);
+        }
+
+        @Override
+        public CompletableFuture<Integer> read(SegmentHandle handle, long offset, byte[] buffer, int bufferOffset, int length, Duration timeout) {
+            Preconditions.checkArgument(handle.getSegmentName().equals(this.segmentInfo.getName()), "Unexpected Segment Handle.");
+            return StorageReadCache.this.read(this.segmentInfo, handle, offset, buffer, bufferOffset, length, timeout);
+        }
+
+        @Override
+        public CompletableFuture<SegmentProperties> getStreamSegmentInfo(String streamSegmentName, Duration timeout) {
+            return storage.getStreamSegmentInfo(streamSegmentName, timeout);
+        }
+
+        @Override
+        public CompletableFuture<Boolean> exists(String streamSegmentName, Duration timeout) {
+            return storage.exists(streamSegmentName, timeout);
+        }
+
+        @Override
+        public void close() {
+            // This is only a view; the underlying Storage is owned by someone else.
+        }
+    }
+
+    //endregion
+}
@@ -17,7 +17,6 @@ import io.pravega.common.LoggerHelpers;
 import io.pravega.common.TimeoutTimer;
 import io.pravega.common.concurrent.Futures;
 import io.pravega.common.concurrent.Services;
-import io.pravega.common.util.AsyncMap;
 import io.pravega.segmentstore.contracts.AttributeUpdate;
 import io.pravega.segmentstore.contracts.ReadResult;
 import io.pravega.segmentstore.contracts.SegmentProperties;
@@ -68,7 +67,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
     private final ReadIndex readIndex;
     private final Writer writer;
     private final Storage storage;
-    private final AsyncMap<String, SegmentState> stateStore;
+    private final ContainerStateStore stateStore;
     private final StreamSegmentMapper segmentMapper;
     private final ScheduledExecutorService executor;
     private final MetadataCleaner metadataCleaner;
@@ -108,7 +107,8 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         shutdownWhenStopped(this.durableLog, "DurableLog");
         this.writer = writerFactory.createWriter(this.metadata, this.durableLog, this.readIndex, this.storage);
         shutdownWhenStopped(this.writer, "Writer");
-        this.stateStore = new SegmentStateStore(this.storage, this.executor);
+        this.stateStore = new ContainerStateStore(streamSegmentContainerId, this.storage,
+                new SegmentStateStore(this.storage, this.executor), this.executor);
         this.metadataCleaner = new MetadataCleaner(config, this.metadata, this.stateStore, this::notifyMetadataRemoved,
                 this.executor, this.traceObjectId);
         shutdownWhenStopped(this.metadataCleaner, "MetadataCleaner");
@@ -127,6 +127,7 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
         if (this.closed.compareAndSet(false, true)) {
             Futures.await(Services.stopAsync(this, this.executor));
             this.metadataCleaner.close();
+            this.stateStore.close();
             this.writer.close();
             this.durableLog.close();
             this.readIndex.close();
@@ -150,6 +151,8 @@ class StreamSegmentContainer extends AbstractService implements SegmentContainer
                         Services.startAsync(this.metadataCleaner, this.executor),
                         Services.startAsync(this.writer, this.executor)))
                 .thenRun(() -> {
+                    // Load the State Store in the background; only the operations that need it will wait for it.
+                    this.stateStore.initialize();
                     log.info("{}: Started.", this.traceObjectId);
                     LoggerHelpers.traceLeave(log, traceObjectId, "doStart", traceId);
                     notifyStarted();
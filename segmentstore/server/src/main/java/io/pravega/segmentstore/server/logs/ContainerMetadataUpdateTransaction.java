@@ -38,12 +38,14 @@ import io.pravega.segmentstore.server.logs.operations.UpdateAttributesOperation;
 import java.io.DataInputStream;
 import java.io.DataOutputStream;
 import java.io.IOException;
+import java.io.OutputStream;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.function.Predicate;
 import java.util.stream.Collectors;
+import java.util.zip.Deflater;
 import java.util.zip.GZIPInputStream;
 import java.util.zip.GZIPOutputStream;
 import javax.annotation.concurrent.NotThreadSafe;
@@ -721,8 +723,13 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         assert operation != null : "operation is null";
         Preconditions.checkState(!this.recoveryMode, "Cannot serialize Metadata in recovery mode.");
 
+        // This is always a full snapshot of the Metadata. Recovery starts from the first MetadataCheckpointOperation it
+        // finds, and truncation discards everything before one, so a checkpoint containing only the Segments that changed
+        // since the previous one could not be used for either. Delta checkpoints need the full snapshot to be persisted
+        // outside of the log (so that truncation does not discard it) and recovery to chain deltas onto it; until then,
+        // this is only made cheaper to compress.
         EnhancedByteArrayOutputStream byteStream = new EnhancedByteArrayOutputStream();
-        GZIPOutputStream zipStream = new GZIPOutputStream(byteStream);
+        GZIPOutputStream zipStream = new CheckpointOutputStream(byteStream);
         DataOutputStream stream = new DataOutputStream(zipStream);
 
         // 1. Version.
@@ -763,7 +770,7 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         Preconditions.checkState(!this.recoveryMode, "Cannot serialize Metadata in recovery mode.");
 
         EnhancedByteArrayOutputStream byteStream = new EnhancedByteArrayOutputStream();
-        GZIPOutputStream zipStream = new GZIPOutputStream(byteStream);
+        GZIPOutputStream zipStream = new CheckpointOutputStream(byteStream);
         DataOutputStream stream = new DataOutputStream(zipStream);
 
         // 1. Version.
@@ -875,5 +882,16 @@ class ContainerMetadataUpdateTransaction implements ContainerMetadata {
         metadata.updateStorageState(storageLength, sealedInStorage, deleted);
     }
 
+    /**
+     * GZIPOutputStream for checkpoints. Checkpoints are serialized while holding up the OperationProcessor, so this favors
+     * speed over compression ratio. The output is still a regular GZIP stream.
+     */
+    private static class CheckpointOutputStream extends GZIPOutputStream {
+        CheckpointOutputStream(OutputStream out) throws IOException {
+            super(out);
+            this.def.setLevel(Deflater.BEST_SPEED);
+        }
+    }
+
     //endregion
 }
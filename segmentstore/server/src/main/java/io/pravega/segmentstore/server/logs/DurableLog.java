@@ -62,6 +62,7 @@ public class DurableLog extends AbstractService implements OperationLog {
     //region Members
 
     private static final Duration RECOVERY_TIMEOUT = Duration.ofSeconds(30);
+    private static final int RECOVERY_PREFETCH_COUNT = 64;
     private final String traceObjectId;
     private final LogItemFactory<Operation> operationFactory;
     private final SequencedItemList<Operation> inMemoryOperationLog;
@@ -106,7 +107,8 @@ public class DurableLog extends AbstractService implements OperationLog {
         this.inMemoryOperationLog = createInMemoryLog();
         this.memoryStateUpdater = new MemoryStateUpdater(this.inMemoryOperationLog, readIndex, this::triggerTailReads);
         MetadataCheckpointPolicy checkpointPolicy = new MetadataCheckpointPolicy(config, this::queueMetadataCheckpoint, this.executor);
-        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy, executor);
+        this.operationProcessor = new OperationProcessor(this.metadata, this.memoryStateUpdater, this.durableDataLog, checkpointPolicy,
+                new WriteThrottler(this.metadata, this.inMemoryOperationLog::size, config), executor);
         Services.onStop(this.operationProcessor, this::queueStoppedHandler, this::queueFailedHandler, this.executor);
         this.tailReads = new HashSet<>();
         this.closed = new AtomicBoolean();
@@ -363,7 +365,10 @@ public class DurableLog extends AbstractService implements OperationLog {
 
         // Read all entries from the DataFrameLog and append them to the InMemoryOperationLog.
         // Also update metadata along the way.
-        try (DataFrameReader<Operation> reader = new DataFrameReader<>(this.durableDataLog, this.operationFactory, getId())) {
+        // Reading Data Frames and deserializing Operations from them is done ahead of time (on a separate thread), so
+        // that it overlaps with applying the Operations to the metadata and in-memory structures (which must be done in order).
+        DataFrameReader<Operation> dataFrameReader = new DataFrameReader<>(this.durableDataLog, this.operationFactory, getId());
+        try (PrefetchingDataFrameReader<Operation> reader = new PrefetchingDataFrameReader<>(dataFrameReader, RECOVERY_PREFETCH_COUNT, this.executor)) {
             DataFrameReader.ReadResult<Operation> readResult;
 
             // We can only recover starting from a MetadataCheckpointOperation; find the first one.
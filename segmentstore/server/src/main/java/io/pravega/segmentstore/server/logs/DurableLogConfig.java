@@ -14,6 +14,7 @@ import io.pravega.common.util.ConfigurationException;
 import io.pravega.common.util.InvalidPropertyValueException;
 import io.pravega.common.util.Property;
 import io.pravega.common.util.TypedProperties;
+import java.time.Duration;
 import lombok.Getter;
 
 /**
@@ -24,6 +25,12 @@ public class DurableLogConfig {
     public static final Property<Integer> CHECKPOINT_MIN_COMMIT_COUNT = Property.named("checkpointMinCommitCount", 300);
     public static final Property<Integer> CHECKPOINT_COMMIT_COUNT = Property.named("checkpointCommitCountThreshold", 300);
     public static final Property<Long> CHECKPOINT_TOTAL_COMMIT_LENGTH = Property.named("checkpointTotalCommitLengthThreshold", 256 * 1024 * 1024L);
+    public static final Property<Long> THROTTLE_UNFLUSHED_BYTES_THRESHOLD = Property.named("throttleUnflushedBytesThreshold", 1024 * 1024 * 1024L);
+    public static final Property<Long> THROTTLE_UNFLUSHED_BYTES_MAX = Property.named("throttleUnflushedBytesMax", 4 * 1024 * 1024 * 1024L);
+    public static final Property<Integer> THROTTLE_OPERATION_LOG_SIZE_THRESHOLD = Property.named("throttleOperationLogSizeThreshold", 500 * 1000);
+    public static final Property<Integer> THROTTLE_OPERATION_LOG_SIZE_MAX = Property.named("throttleOperationLogSizeMax", 2000 * 1000);
+    public static final Property<Integer> THROTTLE_MAX_DELAY = Property.named("throttleMaxDelayMillis", 1000);
+    public static final Property<Integer> THROTTLE_MIN_ADMISSION_RATE = Property.named("throttleMinAdmissionRateBytesPerSecond", 10 * 1024 * 1024);
     private static final String COMPONENT_CODE = "durablelog";
 
     //endregion
@@ -48,6 +55,45 @@ public class DurableLogConfig {
     @Getter
     private final long checkpointTotalCommitLengthThreshold;
 
+    /**
+     * The number of bytes that have been appended but not yet flushed to Storage above which incoming operations will
+     * start being throttled.
+     */
+    @Getter
+    private final long throttleUnflushedBytesThreshold;
+
+    /**
+     * The number of bytes that have been appended but not yet flushed to Storage at which incoming operations will be
+     * throttled by the maximum amount.
+     */
+    @Getter
+    private final long throttleUnflushedBytesMax;
+
+    /**
+     * The number of operations in the in-memory Operation Log above which incoming operations will start being throttled.
+     */
+    @Getter
+    private final int throttleOperationLogSizeThreshold;
+
+    /**
+     * The number of operations in the in-memory Operation Log at which incoming operations will be throttled by the
+     * maximum amount.
+     */
+    @Getter
+    private final int throttleOperationLogSizeMax;
+
+    /**
+     * The maximum amount of time to delay the processing of any batch of incoming operations by when throttling.
+     */
+    @Getter
+    private final Duration throttleMaxDelay;
+
+    /**
+     * The rate (in bytes per second) at which appended data is admitted when throttling by the maximum amount.
+     */
+    @Getter
+    private final int throttleMinAdmissionRate;
+
     //endregion
 
     //region Constructor
@@ -67,6 +113,34 @@ public class DurableLogConfig {
         }
 
         this.checkpointTotalCommitLengthThreshold = properties.getLong(CHECKPOINT_TOTAL_COMMIT_LENGTH);
+        this.throttleUnflushedBytesThreshold = properties.getLong(THROTTLE_UNFLUSHED_BYTES_THRESHOLD);
+        this.throttleUnflushedBytesMax = properties.getLong(THROTTLE_UNFLUSHED_BYTES_MAX);
+        if (this.throttleUnflushedBytesThreshold < 0 || this.throttleUnflushedBytesThreshold >= this.throttleUnflushedBytesMax) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative number smaller than Property '%s' (%d).",
+                    THROTTLE_UNFLUSHED_BYTES_THRESHOLD, this.throttleUnflushedBytesThreshold,
+                    THROTTLE_UNFLUSHED_BYTES_MAX, this.throttleUnflushedBytesMax));
+        }
+
+        this.throttleOperationLogSizeThreshold = properties.getInt(THROTTLE_OPERATION_LOG_SIZE_THRESHOLD);
+        this.throttleOperationLogSizeMax = properties.getInt(THROTTLE_OPERATION_LOG_SIZE_MAX);
+        if (this.throttleOperationLogSizeThreshold < 0 || this.throttleOperationLogSizeThreshold >= this.throttleOperationLogSizeMax) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative number smaller than Property '%s' (%d).",
+                    THROTTLE_OPERATION_LOG_SIZE_THRESHOLD, this.throttleOperationLogSizeThreshold,
+                    THROTTLE_OPERATION_LOG_SIZE_MAX, this.throttleOperationLogSizeMax));
+        }
+
+        int throttleMaxDelayMillis = properties.getInt(THROTTLE_MAX_DELAY);
+        if (throttleMaxDelayMillis < 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a non-negative integer.",
+                    THROTTLE_MAX_DELAY, throttleMaxDelayMillis));
+        }
+
+        this.throttleMaxDelay = Duration.ofMillis(throttleMaxDelayMillis);
+        this.throttleMinAdmissionRate = properties.getInt(THROTTLE_MIN_ADMISSION_RATE);
+        if (this.throttleMinAdmissionRate <= 0) {
+            throw new InvalidPropertyValueException(String.format("Property '%s' (%d) must be a positive integer.",
+                    THROTTLE_MIN_ADMISSION_RATE, this.throttleMinAdmissionRate));
+        }
     }
 
     /**
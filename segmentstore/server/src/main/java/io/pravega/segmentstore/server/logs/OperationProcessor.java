@@ -26,6 +26,8 @@ import io.pravega.segmentstore.server.SegmentStoreMetrics;
 import io.pravega.segmentstore.server.UpdateableContainerMetadata;
 import io.pravega.segmentstore.server.logs.operations.CompletableOperation;
 import io.pravega.segmentstore.server.logs.operations.Operation;
+import io.pravega.segmentstore.server.logs.operations.StorageOperation;
+import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperation;
 import io.pravega.segmentstore.storage.DataLogWriterNotPrimaryException;
 import io.pravega.segmentstore.storage.DurableDataLog;
 import io.pravega.segmentstore.storage.QueueStats;
@@ -40,6 +42,7 @@ import java.util.Map;
 import java.util.Queue;
 import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 import java.util.concurrent.ScheduledExecutorService;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
@@ -70,6 +73,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
     private final QueueProcessingState state;
     @GuardedBy("stateLock")
     private final DataFrameBuilder<Operation> dataFrameBuilder;
+    private final WriteThrottler throttler;
     @Getter
     private final SegmentStoreMetrics.OperationProcessor metrics;
 
@@ -84,14 +88,17 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
      * @param stateUpdater     A MemoryStateUpdater that is used to update in-memory structures upon successful Operation committal.
      * @param durableDataLog   The DataFrameLog to write DataFrames to.
      * @param checkpointPolicy The Checkpoint Policy for Metadata.
+     * @param throttler        A WriteThrottler to determine how much to delay operations by when Storage falls behind.
      * @param executor         An Executor to use for async operations.
      * @throws NullPointerException If any of the arguments are null.
      */
-    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog, MetadataCheckpointPolicy checkpointPolicy, ScheduledExecutorService executor) {
+    OperationProcessor(UpdateableContainerMetadata metadata, MemoryStateUpdater stateUpdater, DurableDataLog durableDataLog,
+                       MetadataCheckpointPolicy checkpointPolicy, WriteThrottler throttler, ScheduledExecutorService executor) {
         super(String.format("OperationProcessor[%d]", metadata.getContainerId()), executor);
         this.metadata = metadata;
         this.metadataUpdater = new OperationMetadataUpdater(this.metadata);
         this.durableDataLog = Preconditions.checkNotNull(durableDataLog, "durableDataLog");
+        this.throttler = Preconditions.checkNotNull(throttler, "throttler");
         this.operationQueue = new BlockingDrainingQueue<>();
         this.state = new QueueProcessingState(stateUpdater, checkpointPolicy);
         val args = new DataFrameBuilder.Args(this.state::frameSealed, this.state::commit, this.state::fail, this.executor);
@@ -114,6 +121,7 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                 .loop(this::isRunning,
                         () -> delayIfNecessary()
                                 .thenComposeAsync(v -> this.operationQueue.take(MAX_READ_AT_ONCE), this.executor)
+                                .thenComposeAsync(this::throttleIfNecessary, this.executor)
                                 .thenAcceptAsync(this::processOperations, this.executor),
                         this.executor)
                 .exceptionally(this::iterationErrorHandler);
@@ -217,6 +225,42 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
         return Futures.delayedFuture(Duration.ofMillis(delayMillis), this.executor);
     }
 
+    /**
+     * If Storage is falling behind, applies back-pressure by delaying the processing of the given operations in proportion
+     * to the number of appended bytes in them. We never fail operations because of this; we only delay their completion,
+     * which in turn delays the acknowledgements sent back to the clients.
+     *
+     * @param operations The operations to process.
+     * @return A CompletableFuture that will be completed with the given operations when they can be processed.
+     */
+    private CompletableFuture<Queue<CompletableOperation>> throttleIfNecessary(Queue<CompletableOperation> operations) {
+        long admittedBytes = 0;
+        for (CompletableOperation o : operations) {
+            if (o.getOperation() instanceof StreamSegmentAppendOperation) {
+                admittedBytes += ((StreamSegmentAppendOperation) o.getOperation()).getData().length;
+            }
+        }
+
+        int delayMillis = this.throttler.getDelayMillis(admittedBytes);
+        this.metrics.throttle(delayMillis, this.throttler.getState().getUnflushedBytes());
+        if (delayMillis <= 0) {
+            return CompletableFuture.completedFuture(operations);
+        }
+
+        return Futures.delayedFuture(Duration.ofMillis(delayMillis), this.executor)
+                      .thenApply(v -> {
+                          if (!isRunning()) {
+                              // We were shut down while these operations were delayed. They are no longer in the queue,
+                              // so nobody else will fail them.
+                              Throwable ex = new CancellationException("OperationProcessor is shutting down.");
+                              cancelIncompleteOperations(operations, ex);
+                              throw new CompletionException(ex);
+                          }
+
+                          return operations;
+                      });
+    }
+
     /**
      * Processes a set of pending operations (essentially a single iteration of the QueueProcessor).
      * Steps:
@@ -267,7 +311,13 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                     this.metrics.processOperations(count, processTimer.getElapsedMillis());
                     processTimer = new Timer(); // Reset this timer since we may be pulling in new operations.
                     count = 0;
-                    operations = this.operationQueue.poll(MAX_READ_AT_ONCE);
+                    if (this.throttler.getState().isThrottling()) {
+                        // Go back to the main loop so that any further operations are throttled.
+                        operations = new ArrayDeque<>();
+                    } else {
+                        operations = this.operationQueue.poll(MAX_READ_AT_ONCE);
+                    }
+
                     if (operations.isEmpty()) {
                         log.debug("{}: processOperations (Flush).", this.traceObjectId);
                         synchronized (this.stateLock) {
@@ -492,6 +542,9 @@ class OperationProcessor extends AbstractThreadPoolService implements AutoClosea
                         CompletableOperation op = this.pendingOperations.pollFirst();
                         try {
                             this.logUpdater.process(op.getOperation());
+                            if (op.getOperation() instanceof StorageOperation) {
+                                OperationProcessor.this.throttler.recordUpdate(((StorageOperation) op.getOperation()).getStreamSegmentId());
+                            }
                         } catch (Throwable ex) {
                             // MemoryStateUpdater.process() should only throw DataCorruptionExceptions, but just in case it
                             // throws something else (i.e. NullPtr), we still need to handle it.
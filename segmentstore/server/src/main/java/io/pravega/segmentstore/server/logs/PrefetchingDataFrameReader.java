@@ -0,0 +1,223 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.util.CloseableIterator;
+import io.pravega.segmentstore.server.LogItem;
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Wraps a DataFrameReader and reads (and deserializes) LogItems ahead of the consumer, on a separate thread. This allows
+ * fetching Data Frames from the DurableDataLog and deserializing them to overlap with whatever processing the consumer
+ * does with the LogItems it gets.
+ * <p>
+ * Items are returned in exactly the same order as the wrapped DataFrameReader would have returned them, and any exception
+ * it throws is surfaced to the consumer in the same position. If the consumer catches up with the prefetcher (or the
+ * prefetcher cannot be scheduled), the consumer reads directly from the wrapped DataFrameReader instead of waiting, so
+ * this class can safely be used from a thread that belongs to the same Executor.
+ */
+@Slf4j
+@ThreadSafe
+class PrefetchingDataFrameReader<T extends LogItem> implements CloseableIterator<DataFrameReader.ReadResult<T>, Exception> {
+    //region Members
+
+    private final DataFrameReader<T> reader;
+    private final int maxPrefetchCount;
+    private final Executor executor;
+    private final Object readLock = new Object();
+    private final Object lock = new Object();
+    @GuardedBy("lock")
+    private final ArrayDeque<Entry<T>> prefetched;
+    @GuardedBy("lock")
+    private boolean endReached;
+    @GuardedBy("lock")
+    private boolean failed;
+    @GuardedBy("lock")
+    private boolean prefetching;
+    @GuardedBy("lock")
+    private boolean closed;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the PrefetchingDataFrameReader class.
+     *
+     * @param reader           The DataFrameReader to wrap.
+     * @param maxPrefetchCount The maximum number of LogItems to read ahead.
+     * @param executor         An Executor to run the prefetching on.
+     */
+    PrefetchingDataFrameReader(DataFrameReader<T> reader, int maxPrefetchCount, Executor executor) {
+        Preconditions.checkArgument(maxPrefetchCount > 0, "maxPrefetchCount must be a positive integer.");
+        this.reader = Preconditions.checkNotNull(reader, "reader");
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.maxPrefetchCount = maxPrefetchCount;
+        this.prefetched = new ArrayDeque<>();
+    }
+
+    //endregion
+
+    //region CloseableIterator Implementation
+
+    @Override
+    public DataFrameReader.ReadResult<T> getNext() throws Exception {
+        Entry<T> entry;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            entry = pollPrefetched();
+        }
+
+        if (entry == null) {
+            // Nothing prefetched yet. Rather than waiting for the prefetcher, read it ourselves. We must check the queue
+            // again once we hold the readLock since the prefetcher may have just added something to it.
+            synchronized (this.readLock) {
+                synchronized (this.lock) {
+                    entry = pollPrefetched();
+                }
+
+                if (entry == null) {
+                    entry = readNext();
+                }
+            }
+        }
+
+        triggerPrefetch();
+        return entry.get();
+    }
+
+    @Override
+    public void close() {
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            this.prefetched.clear();
+        }
+
+        synchronized (this.readLock) {
+            this.reader.close();
+        }
+    }
+
+    //endregion
+
+    //region Prefetching
+
+    private void triggerPrefetch() {
+        synchronized (this.lock) {
+            if (this.prefetching || !canPrefetch()) {
+                return;
+            }
+
+            this.prefetching = true;
+        }
+
+        try {
+            this.executor.execute(this::prefetch);
+        } catch (RejectedExecutionException ex) {
+            // We can't read ahead; the consumer will need to read every item itself.
+            log.debug("Unable to schedule prefetching.", ex);
+            synchronized (this.lock) {
+                this.prefetching = false;
+            }
+        }
+    }
+
+    private void prefetch() {
+        try {
+            while (true) {
+                synchronized (this.readLock) {
+                    synchronized (this.lock) {
+                        if (!canPrefetch()) {
+                            break;
+                        }
+                    }
+
+                    Entry<T> entry = readNext();
+                    synchronized (this.lock) {
+                        if (!this.closed) {
+                            this.prefetched.addLast(entry);
+                        }
+                    }
+                }
+            }
+        } finally {
+            synchronized (this.lock) {
+                this.prefetching = false;
+            }
+        }
+    }
+
+    @GuardedBy("lock")
+    private boolean canPrefetch() {
+        return !this.closed && !this.endReached && !this.failed && this.prefetched.size() < this.maxPrefetchCount;
+    }
+
+    @GuardedBy("lock")
+    private Entry<T> pollPrefetched() {
+        Entry<T> entry = this.prefetched.pollFirst();
+        if (entry == null && this.endReached) {
+            // We reached the end of the log; keep reporting so.
+            entry = new Entry<>(null, null);
+        }
+
+        return entry;
+    }
+
+    @GuardedBy("readLock")
+    private Entry<T> readNext() {
+        Entry<T> entry;
+        try {
+            entry = new Entry<>(this.reader.getNext(), null);
+        } catch (Exception ex) {
+            entry = new Entry<>(null, ex);
+        }
+
+        // Once the wrapped DataFrameReader fails it closes itself, so there is no point in reading ahead anymore. Any
+        // subsequent direct reads will report that it is closed, just like the DataFrameReader would.
+        synchronized (this.lock) {
+            this.endReached |= entry.result == null && entry.failure == null;
+            this.failed |= entry.failure != null;
+        }
+
+        return entry;
+    }
+
+    //endregion
+
+    //region Entry
+
+    @RequiredArgsConstructor
+    private static class Entry<T extends LogItem> {
+        private final DataFrameReader.ReadResult<T> result;
+        private final Exception failure;
+
+        DataFrameReader.ReadResult<T> get() throws Exception {
+            if (this.failure != null) {
+                throw this.failure;
+            }
+
+            return this.result;
+        }
+    }
+
+    //endregion
+}
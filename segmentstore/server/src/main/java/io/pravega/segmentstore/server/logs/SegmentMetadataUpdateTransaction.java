@@ -28,6 +28,7 @@ import io.pravega.segmentstore.server.logs.operations.StreamSegmentAppendOperati
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentSealOperation;
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentTruncateOperation;
 import io.pravega.segmentstore.server.logs.operations.UpdateAttributesOperation;
+import io.pravega.shared.segment.SegmentTimeIndex;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
@@ -205,7 +206,8 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
     /**
      * Pre-processes a StreamSegmentAppendOperation.
      * After this method returns, the given operation will have its SegmentOffset property set to the current
-     * SegmentLength, and all AttributeUpdates will be set to the current values.
+     * SegmentLength, and all AttributeUpdates will be set to the current values. Time index entries (see SegmentTimeIndex)
+     * are set to the offset of the append, unless the Segment already has an entry for their bucket.
      *
      * @param operation The operation to pre-process.
      * @throws StreamSegmentSealedException If the Segment is sealed.
@@ -242,6 +244,7 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
             }
 
             // Attribute validation.
+            preProcessTimeIndex(operation.getAttributeUpdates(), operation.getStreamSegmentOffset());
             preProcessAttributes(operation.getAttributeUpdates());
         }
     }
@@ -391,6 +394,26 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
         }
     }
 
+    /**
+     * Pre-processes the time index entries in a collection of attributes, setting them to the offset of the append they
+     * are part of, to the value they already have, or to NULL_ATTRIBUTE_VALUE if they are not to be added.
+     *
+     * @param attributeUpdates The Updates to process (if any).
+     * @param offset           The offset of the append.
+     */
+    private void preProcessTimeIndex(Collection<AttributeUpdate> attributeUpdates, long offset) {
+        if (attributeUpdates == null) {
+            return;
+        }
+
+        for (AttributeUpdate u : attributeUpdates) {
+            if (SegmentTimeIndex.isTimeIndexAttribute(u.getAttributeId())) {
+                Long value = SegmentTimeIndex.getNewEntryValue(this.attributeValues, u.getAttributeId(), offset);
+                u.setValue(value == null ? SegmentMetadata.NULL_ATTRIBUTE_VALUE : value);
+            }
+        }
+    }
+
     /**
      * Pre-processes a collection of attributes.
      * After this method returns, all AttributeUpdates in the given collection will have the actual (and updated) value
@@ -471,7 +494,12 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
         }
 
         this.length += operation.getData().length;
+        boolean timeIndexChanged = hasNewTimeIndexEntry(operation.getAttributeUpdates());
         acceptAttributes(operation.getAttributeUpdates());
+        if (timeIndexChanged) {
+            compactTimeIndex();
+        }
+
         this.isChanged = true;
     }
 
@@ -521,6 +549,7 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
     void acceptOperation(StreamSegmentTruncateOperation operation) {
         ensureSegmentId(operation);
         this.startOffset = operation.getStreamSegmentOffset();
+        compactTimeIndex();
         this.isChanged = true;
     }
 
@@ -581,6 +610,33 @@ class SegmentMetadataUpdateTransaction implements UpdateableSegmentMetadata {
         }
     }
 
+    /**
+     * Determines whether the given AttributeUpdates add an entry to the time index of the Segment.
+     */
+    private boolean hasNewTimeIndexEntry(Collection<AttributeUpdate> attributeUpdates) {
+        if (attributeUpdates == null) {
+            return false;
+        }
+
+        for (AttributeUpdate au : attributeUpdates) {
+            if (SegmentTimeIndex.isTimeIndexAttribute(au.getAttributeId()) && au.getValue() >= 0
+                    && this.attributeValues.getOrDefault(au.getAttributeId(), SegmentMetadata.NULL_ATTRIBUTE_VALUE) < 0) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    /**
+     * Brings the time index of the Segment back to its bounded layout. This only depends on the state of the Segment,
+     * so it yields the same result when operations are accepted again during recovery.
+     */
+    private void compactTimeIndex() {
+        SegmentTimeIndex.compact(this.attributeValues, this.startOffset).forEach((attributeId, value) ->
+                this.attributeValues.put(attributeId, value == null ? SegmentMetadata.NULL_ATTRIBUTE_VALUE : value));
+    }
+
     //endregion
 
     //region Operations
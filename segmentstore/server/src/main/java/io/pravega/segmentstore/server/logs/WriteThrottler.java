@@ -0,0 +1,219 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.MathHelpers;
+import io.pravega.common.Timer;
+import io.pravega.segmentstore.server.ContainerMetadata;
+import io.pravega.segmentstore.server.SegmentMetadata;
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.IntSupplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Calculates by how much the processing of incoming operations should be delayed in order to apply back-pressure when
+ * Storage (Tier2) falls behind.
+ * <p>
+ * Data that has not yet been flushed to Storage cannot be evicted from the Cache, and the in-memory Operation Log cannot
+ * be truncated until the StorageWriter has caught up. If we kept accepting operations at full speed, both would grow
+ * until we ran out of memory. Instead, once either the number of un-flushed bytes or the size of the in-memory Operation
+ * Log exceeds its configured threshold, the rate at which appended data is admitted is reduced, by an amount that increases
+ * linearly with how far above that threshold we are (down to a configured minimum rate). Each batch of operations is
+ * delayed in proportion to the number of appended bytes it contains, so operations that carry no data (such as
+ * checkpoints, seals or merges) are never delayed on their own account. Operations are never failed because of this;
+ * their completion (and thus the acknowledgement to the client) is simply delayed, which in turn causes the clients to
+ * slow down.
+ * <p>
+ * To avoid inspecting the metadata for every Segment in the Container, only those Segments that have been modified
+ * (and have not yet been fully flushed to Storage) are tracked.
+ */
+@Slf4j
+@ThreadSafe
+class WriteThrottler {
+    //region Members
+
+    private static final Duration DEFAULT_REFRESH_INTERVAL = Duration.ofMillis(100);
+    private final String traceObjectId;
+    private final ContainerMetadata metadata;
+    private final IntSupplier operationLogSize;
+    private final DurableLogConfig config;
+    private final Duration refreshInterval;
+    private final Set<Long> unflushedSegmentIds;
+    @GuardedBy("this")
+    private State state;
+    @GuardedBy("this")
+    private Timer lastRefresh;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the WriteThrottler class.
+     *
+     * @param metadata         The ContainerMetadata of the Container to throttle operations for.
+     * @param operationLogSize An IntSupplier that returns the number of operations in the in-memory Operation Log.
+     * @param config           The DurableLogConfig to use.
+     */
+    WriteThrottler(ContainerMetadata metadata, IntSupplier operationLogSize, DurableLogConfig config) {
+        this(metadata, operationLogSize, config, DEFAULT_REFRESH_INTERVAL);
+    }
+
+    /**
+     * Creates a new instance of the WriteThrottler class.
+     *
+     * @param metadata         The ContainerMetadata of the Container to throttle operations for.
+     * @param operationLogSize An IntSupplier that returns the number of operations in the in-memory Operation Log.
+     * @param config           The DurableLogConfig to use.
+     * @param refreshInterval  The minimum amount of time between two consecutive re-calculations of the throttling state.
+     */
+    @VisibleForTesting
+    WriteThrottler(ContainerMetadata metadata, IntSupplier operationLogSize, DurableLogConfig config, Duration refreshInterval) {
+        this.metadata = Preconditions.checkNotNull(metadata, "metadata");
+        this.operationLogSize = Preconditions.checkNotNull(operationLogSize, "operationLogSize");
+        this.config = Preconditions.checkNotNull(config, "config");
+        this.refreshInterval = Preconditions.checkNotNull(refreshInterval, "refreshInterval");
+        this.traceObjectId = String.format("WriteThrottler[%d]", metadata.getContainerId());
+        this.unflushedSegmentIds = ConcurrentHashMap.newKeySet();
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Records the fact that the given Segment has been modified (its Length may have changed). This should be invoked
+     * after the change has been committed to the ContainerMetadata. The Segment's un-flushed bytes will be taken into
+     * account until it has been fully flushed to Storage.
+     *
+     * @param segmentId The Id of the Segment.
+     */
+    void recordUpdate(long segmentId) {
+        this.unflushedSegmentIds.add(segmentId);
+    }
+
+    /**
+     * Calculates by how much to delay the processing of a batch of operations containing the given number of appended bytes.
+     *
+     * @param admittedBytes The number of appended bytes in the batch.
+     * @return The delay, in milliseconds.
+     */
+    int getDelayMillis(long admittedBytes) {
+        double pressure = getState().getPressure();
+        if (pressure <= 0 || admittedBytes <= 0) {
+            return 0;
+        }
+
+        // At maximum pressure, data is admitted at the minimum admission rate; the rate increases as pressure drops.
+        double delayMillis = pressure * admittedBytes * 1000.0 / this.config.getThrottleMinAdmissionRate();
+        return (int) Math.round(Math.min(delayMillis, this.config.getThrottleMaxDelay().toMillis()));
+    }
+
+    /**
+     * Gets the current throttling State. This is only re-calculated if the previous one is older than the refresh interval.
+     *
+     * @return The current State.
+     */
+    synchronized State getState() {
+        if (this.state == null || this.lastRefresh.getElapsed().compareTo(this.refreshInterval) >= 0) {
+            if (this.state == null) {
+                // We may have been created after a recovery, in which case any Segment may have un-flushed data.
+                this.unflushedSegmentIds.addAll(this.metadata.getAllStreamSegmentIds());
+            }
+
+            State newState = calculateState();
+            if (this.state != null && this.state.isThrottling() != newState.isThrottling()) {
+                if (newState.isThrottling()) {
+                    log.warn("{}: Throttling started. {}", this.traceObjectId, newState);
+                } else {
+                    log.info("{}: Throttling stopped. {}", this.traceObjectId, newState);
+                }
+            }
+
+            this.state = newState;
+            this.lastRefresh = new Timer();
+        }
+
+        return this.state;
+    }
+
+    private State calculateState() {
+        long unflushedBytes = getUnflushedBytes();
+        int operationLogSize = this.operationLogSize.getAsInt();
+        double pressure = this.config.getThrottleMaxDelay().isZero() ? 0 : Math.max(
+                getPressure(unflushedBytes, this.config.getThrottleUnflushedBytesThreshold(), this.config.getThrottleUnflushedBytesMax()),
+                getPressure(operationLogSize, this.config.getThrottleOperationLogSizeThreshold(), this.config.getThrottleOperationLogSizeMax()));
+        return new State(unflushedBytes, operationLogSize, pressure);
+    }
+
+    private long getUnflushedBytes() {
+        long result = 0;
+        Iterator<Long> iterator = this.unflushedSegmentIds.iterator();
+        while (iterator.hasNext()) {
+            long segmentId = iterator.next();
+            SegmentMetadata sm = this.metadata.getStreamSegmentMetadata(segmentId);
+            long unflushed = sm == null || sm.isDeleted() || sm.getStorageLength() < 0 ? 0 : sm.getLength() - sm.getStorageLength();
+            if (unflushed > 0) {
+                result += unflushed;
+            } else {
+                // Nothing left to flush (or nothing we can account for). If it gets modified again, it will be re-added.
+                iterator.remove();
+            }
+        }
+
+        return result;
+    }
+
+    private static double getPressure(long value, long threshold, long max) {
+        return MathHelpers.minMax((double) (value - threshold) / (max - threshold), 0, 1);
+    }
+
+    //endregion
+
+    //region State
+
+    /**
+     * Throttling State.
+     */
+    @Data
+    static class State {
+        /**
+         * The number of bytes that have been appended but not yet flushed to Storage.
+         */
+        private final long unflushedBytes;
+
+        /**
+         * The number of operations in the in-memory Operation Log.
+         */
+        private final int operationLogSize;
+
+        /**
+         * A number between 0 (no throttling) and 1 (maximum throttling) indicating how much to throttle by.
+         */
+        private final double pressure;
+
+        /**
+         * Gets a value indicating whether operations are being throttled.
+         */
+        boolean isThrottling() {
+            return this.pressure > 0;
+        }
+    }
+
+    //endregion
+}
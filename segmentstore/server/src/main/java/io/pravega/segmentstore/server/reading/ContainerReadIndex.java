@@ -60,6 +60,7 @@ public class ContainerReadIndex implements ReadIndex {
     private final ScheduledExecutorService executor;
     private final ReadIndexConfig config;
     private final CacheManager cacheManager;
+    private final StorageReadScheduler storageReadScheduler;
     @GuardedBy("lock")
     private ContainerMetadata metadata;
     @GuardedBy("lock")
@@ -97,6 +98,8 @@ public class ContainerReadIndex implements ReadIndex {
         this.storage = storage;
         this.cacheManager = cacheManager;
         this.executor = executor;
+        this.storageReadScheduler = new StorageReadScheduler(metadata.getContainerId(), config.getStorageReadMaxConcurrency(),
+                config.getStorageReadTailLength(), executor);
         this.preRecoveryMetadata = null;
         this.closed = new AtomicBoolean();
     }
@@ -109,6 +112,7 @@ public class ContainerReadIndex implements ReadIndex {
     public void close() {
         if (!this.closed.getAndSet(true)) {
             closeAllIndices(false); // Do not individually clear the cache; we are wiping it anyway when closing it.
+            this.storageReadScheduler.close();
             this.cache.close();
             log.info("{}: Closed.", this.traceObjectId);
         }
@@ -354,7 +358,8 @@ public class ContainerReadIndex implements ReadIndex {
                 Exceptions.checkArgument(!segmentMetadata.isDeleted(), "streamSegmentId",
                         "StreamSegmentId {} exists in the metadata but is marked as deleted.", streamSegmentId);
 
-                index = new StreamSegmentReadIndex(this.config, segmentMetadata, this.cache, this.storage, this.executor, isRecoveryMode());
+                index = new StreamSegmentReadIndex(this.config, segmentMetadata, this.cache, this.storage, this.storageReadScheduler,
+                        this.executor, isRecoveryMode());
                 this.cacheManager.register(index);
                 this.readIndices.put(streamSegmentId, index);
             }
@@ -28,6 +28,8 @@ public class ReadIndexConfig {
     public static final Property<Long> CACHE_POLICY_MAX_SIZE = Property.named("cacheMaxSize", 16L * 1024 * 1024 * 1024);
     public static final Property<Integer> CACHE_POLICY_MAX_TIME = Property.named("cacheMaxTimeMillis", 30 * 60 * 1000);
     public static final Property<Integer> CACHE_POLICY_GENERATION_TIME = Property.named("cacheGenerationTimeMillis", 5 * 1000);
+    public static final Property<Integer> STORAGE_READ_MAX_CONCURRENCY = Property.named("storageReadMaxConcurrency", 32);
+    public static final Property<Long> STORAGE_READ_TAIL_LENGTH = Property.named("storageReadTailLength", 16L * 1024 * 1024);
     private static final String COMPONENT_CODE = "readindex";
 
     //endregion
@@ -67,6 +69,20 @@ public class ReadIndexConfig {
     @Getter
     private final Duration storageReadDefaultTimeout;
 
+    /**
+     * The maximum number of Storage Reads that can be executed concurrently for a single Container. Any Storage Reads
+     * exceeding this limit will be queued up until an existing one completes.
+     */
+    @Getter
+    private final int storageReadMaxConcurrency;
+
+    /**
+     * The maximum distance (in bytes) from the Segment's Storage Length that a Storage Read may end at in order to be
+     * considered a Tail Read. Tail Reads take priority over all other (Catch-up) Storage Reads when queued up.
+     */
+    @Getter
+    private final long storageReadTailLength;
+
     //endregion
 
     //region Constructor
@@ -84,6 +100,15 @@ public class ReadIndexConfig {
         int cachePolicyMaxTime = properties.getInt(CACHE_POLICY_MAX_TIME);
         int cachePolicyGenerationTime = properties.getInt(CACHE_POLICY_GENERATION_TIME);
         this.cachePolicy = new CachePolicy(cachePolicyMaxSize, Duration.ofMillis(cachePolicyMaxTime), Duration.ofMillis(cachePolicyGenerationTime));
+        this.storageReadMaxConcurrency = properties.getInt(STORAGE_READ_MAX_CONCURRENCY);
+        if (this.storageReadMaxConcurrency <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", STORAGE_READ_MAX_CONCURRENCY));
+        }
+
+        this.storageReadTailLength = properties.getLong(STORAGE_READ_TAIL_LENGTH);
+        if (this.storageReadTailLength < 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a non-negative number.", STORAGE_READ_TAIL_LENGTH));
+        }
     }
 
     /**
@@ -39,8 +39,9 @@ public class StorageReadManager implements AutoCloseable {
 
     private final String traceObjectId;
     private final ReadOnlyStorage storage;
+    private final StorageReadScheduler scheduler;
     private final Executor executor;
-    private final String segmentName;
+    private final SegmentMetadata segmentMetadata;
     @GuardedBy("lock")
     private final TreeMap<Long, Request> pendingRequests;
     @GuardedBy("lock")
@@ -58,15 +59,18 @@ public class StorageReadManager implements AutoCloseable {
      *
      * @param segmentMetadata A SegmentMetadata to create the StorageReadManager for.
      * @param storage         A ReadOnlyStorage to use for data fetching.
+     * @param scheduler       A StorageReadScheduler to schedule the Storage Reads with.
      * @param executor        An Executor to use for running asynchronous tasks.
      */
-    StorageReadManager(SegmentMetadata segmentMetadata, ReadOnlyStorage storage, Executor executor) {
+    StorageReadManager(SegmentMetadata segmentMetadata, ReadOnlyStorage storage, StorageReadScheduler scheduler, Executor executor) {
         Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(scheduler, "scheduler");
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("StorageReader[%d-%d]", segmentMetadata.getContainerId(), segmentMetadata.getId());
-        this.segmentName = segmentMetadata.getName();
+        this.segmentMetadata = segmentMetadata;
         this.storage = storage;
+        this.scheduler = scheduler;
         this.executor = executor;
         this.pendingRequests = new TreeMap<>();
     }
@@ -125,16 +129,16 @@ public class StorageReadManager implements AutoCloseable {
     }
 
     /**
-     * Executes the Storage Read for the given request.
+     * Schedules the Storage Read for the given request with the StorageReadScheduler and executes it once allowed to.
      *
      * @param request The request.
      */
     private void executeStorageRead(Request request) {
         try {
-            byte[] buffer = new byte[request.length];
-            getHandle()
-                    .thenComposeAsync(handle -> this.storage.read(handle, request.offset, buffer, 0, buffer.length, request.getTimeout()), this.executor)
-                    .thenAcceptAsync(bytesRead -> request.complete(new ByteArraySegment(buffer, 0, bytesRead)), this.executor)
+            boolean tailRead = this.scheduler.isTailRead(this.segmentMetadata, request.getEndOffset());
+            this.scheduler
+                    .execute(this.segmentMetadata.getId(), tailRead, () -> readFromStorage(request))
+                    .thenAcceptAsync(request::complete, this.executor)
                     .whenComplete((r, ex) -> {
                         if (ex != null) {
                             request.fail(ex);
@@ -153,6 +157,19 @@ public class StorageReadManager implements AutoCloseable {
         }
     }
 
+    private CompletableFuture<ByteArraySegment> readFromStorage(Request request) {
+        if (request.isDone()) {
+            // The request has been cancelled while it was queued up; no need to read anything anymore.
+            return CompletableFuture.completedFuture(new ByteArraySegment(new byte[0]));
+        }
+
+        // Only allocate the buffer now that the read has been dispatched, so that queued reads do not hold on to memory.
+        byte[] buffer = new byte[request.length];
+        return getHandle()
+                .thenComposeAsync(handle -> this.storage.read(handle, request.offset, buffer, 0, buffer.length, request.getTimeout()), this.executor)
+                .thenApply(bytesRead -> new ByteArraySegment(buffer, 0, bytesRead));
+    }
+
     /**
      * Ensures that the given request has been finalized (if not, it is failed), and unregisters it from the pending reads.
      *
@@ -194,7 +211,7 @@ public class StorageReadManager implements AutoCloseable {
     private CompletableFuture<SegmentHandle> getHandle() {
         synchronized (this.lock) {
             if (this.handle == null) {
-                this.handle = storage.openRead(this.segmentName);
+                this.handle = storage.openRead(this.segmentMetadata.getName());
             }
 
             return this.handle;
@@ -0,0 +1,291 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import com.google.common.annotations.VisibleForTesting;
+import com.google.common.base.Preconditions;
+import io.pravega.common.Exceptions;
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.Timer;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.segmentstore.server.SegmentMetadata;
+import io.pravega.segmentstore.server.SegmentStoreMetrics;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * Schedules Storage Reads for all the Segments in a Container, bounding the number of Storage Reads that may execute
+ * concurrently. Reads that exceed this limit are queued up and executed as soon as capacity becomes available, as follows:
+ * <ul>
+ * <li> Tail Reads (reads ending close to the Segment's Storage Length, which are usually issued by readers that are
+ * almost caught up) take priority over Catch-up Reads (reads from further back in the Segment). To prevent starvation,
+ * a Catch-up Read is still executed for every {@link #TAIL_READS_PER_CATCHUP_READ} consecutive Tail Reads.
+ * <li> Within each class, Segments are served in a round-robin fashion (one read per Segment at a time), so that a
+ * Segment with many queued reads cannot monopolize Storage at the expense of the others.
+ * </ul>
+ */
+@Slf4j
+@ThreadSafe
+class StorageReadScheduler implements AutoCloseable {
+    //region Members
+
+    @VisibleForTesting
+    static final int TAIL_READS_PER_CATCHUP_READ = 4;
+    private final String traceObjectId;
+    private final int maxConcurrency;
+    private final long tailReadLength;
+    private final Executor executor;
+    private final SegmentStoreMetrics.StorageReadScheduler metrics;
+    @GuardedBy("lock")
+    private final LinkedHashMap<Long, ArrayDeque<Task<?>>> tailReads;
+    @GuardedBy("lock")
+    private final LinkedHashMap<Long, ArrayDeque<Task<?>>> catchupReads;
+    @GuardedBy("lock")
+    private int queueSize;
+    @GuardedBy("lock")
+    private int activeCount;
+    @GuardedBy("lock")
+    private int tailReadsSinceCatchupRead;
+    @GuardedBy("lock")
+    private boolean closed;
+    private final Object lock = new Object();
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the StorageReadScheduler class.
+     *
+     * @param containerId    The Id of the Container this StorageReadScheduler belongs to.
+     * @param maxConcurrency The maximum number of Storage Reads that can execute concurrently.
+     * @param tailReadLength The maximum distance from a Segment's Storage Length that a read may end at in order to be
+     *                       considered a Tail Read.
+     * @param executor       An Executor to use for running asynchronous tasks.
+     */
+    StorageReadScheduler(int containerId, int maxConcurrency, long tailReadLength, Executor executor) {
+        Preconditions.checkArgument(maxConcurrency > 0, "maxConcurrency must be a positive integer.");
+        Preconditions.checkArgument(tailReadLength >= 0, "tailReadLength must be a non-negative number.");
+        this.traceObjectId = String.format("StorageReadScheduler[%d]", containerId);
+        this.executor = Preconditions.checkNotNull(executor, "executor");
+        this.maxConcurrency = maxConcurrency;
+        this.tailReadLength = tailReadLength;
+        this.metrics = new SegmentStoreMetrics.StorageReadScheduler(containerId);
+        this.tailReads = new LinkedHashMap<>();
+        this.catchupReads = new LinkedHashMap<>();
+    }
+
+    //endregion
+
+    //region AutoCloseable Implementation
+
+    @Override
+    public void close() {
+        List<Task<?>> toCancel = new ArrayList<>();
+        synchronized (this.lock) {
+            if (this.closed) {
+                return;
+            }
+
+            this.closed = true;
+            this.tailReads.values().forEach(toCancel::addAll);
+            this.catchupReads.values().forEach(toCancel::addAll);
+            this.tailReads.clear();
+            this.catchupReads.clear();
+            this.queueSize = 0;
+        }
+
+        // Fail any reads that have not yet started. Those that are in progress will complete on their own.
+        toCancel.forEach(task -> task.result.completeExceptionally(new ObjectClosedException(this)));
+        this.metrics.close();
+        log.info("{}: Closed. Cancelled {} queued read(s).", this.traceObjectId, toCancel.size());
+    }
+
+    //endregion
+
+    //region Operations
+
+    /**
+     * Determines whether a Storage Read ending at the given offset should be considered a Tail Read.
+     *
+     * @param segmentMetadata The SegmentMetadata of the Segment to read from.
+     * @param endOffset       The offset at which the Storage Read ends.
+     * @return True if a Tail Read, false otherwise.
+     */
+    boolean isTailRead(SegmentMetadata segmentMetadata, long endOffset) {
+        return endOffset + this.tailReadLength >= segmentMetadata.getStorageLength();
+    }
+
+    /**
+     * Schedules the given Storage Read for execution.
+     *
+     * @param segmentId The Id of the Segment to read from.
+     * @param tailRead  True if this is a Tail Read, false if it is a Catch-up Read.
+     * @param read      A Supplier that, when invoked, will initiate the Storage Read and return a CompletableFuture
+     *                  that will be completed when it is done. This is only invoked once the read is dispatched, so any
+     *                  resources it needs (such as read buffers) should be allocated in here and not while queued up.
+     * @param <T>       Return type.
+     * @return A CompletableFuture that will be completed with the result of the Storage Read, once it has executed.
+     * @throws ObjectClosedException If the StorageReadScheduler is closed.
+     */
+    <T> CompletableFuture<T> execute(long segmentId, boolean tailRead, Supplier<CompletableFuture<T>> read) {
+        Task<T> task = new Task<>(tailRead, read);
+        int size;
+        synchronized (this.lock) {
+            Exceptions.checkNotClosed(this.closed, this);
+            (tailRead ? this.tailReads : this.catchupReads).computeIfAbsent(segmentId, id -> new ArrayDeque<>()).addLast(task);
+            size = ++this.queueSize;
+        }
+
+        this.metrics.readQueued(size);
+        executeNext();
+        return task.result;
+    }
+
+    /**
+     * Gets the number of Storage Reads currently executing.
+     */
+    @VisibleForTesting
+    int getActiveCount() {
+        synchronized (this.lock) {
+            return this.activeCount;
+        }
+    }
+
+    /**
+     * Executes as many queued Storage Reads as allowed by the concurrency limit.
+     */
+    private void executeNext() {
+        while (true) {
+            Task<?> task;
+            synchronized (this.lock) {
+                if (this.activeCount >= this.maxConcurrency) {
+                    return;
+                }
+
+                task = pollNext();
+                if (task == null) {
+                    return;
+                }
+
+                this.activeCount++;
+            }
+
+            // Run the task asynchronously. Reads may complete synchronously (i.e., from a cache), and we do not want to
+            // invoke executeNext() recursively from the completion callback.
+            this.executor.execute(task::run);
+        }
+    }
+
+    /**
+     * Picks the next Storage Read to execute, based on the prioritization rules described in the class' Javadoc.
+     *
+     * @return The next Storage Read to execute, or null if nothing is queued up.
+     */
+    @GuardedBy("lock")
+    private Task<?> pollNext() {
+        boolean catchupRead = !this.catchupReads.isEmpty()
+                && (this.tailReads.isEmpty() || this.tailReadsSinceCatchupRead >= TAIL_READS_PER_CATCHUP_READ);
+        Task<?> result;
+        if (catchupRead) {
+            this.tailReadsSinceCatchupRead = 0;
+            result = pollNext(this.catchupReads);
+        } else {
+            result = pollNext(this.tailReads);
+            if (result != null) {
+                this.tailReadsSinceCatchupRead++;
+            }
+        }
+
+        if (result != null) {
+            this.queueSize--;
+        }
+
+        return result;
+    }
+
+    @GuardedBy("lock")
+    private Task<?> pollNext(LinkedHashMap<Long, ArrayDeque<Task<?>>> queues) {
+        Iterator<Map.Entry<Long, ArrayDeque<Task<?>>>> iterator = queues.entrySet().iterator();
+        if (!iterator.hasNext()) {
+            return null;
+        }
+
+        // Take the first read from the Segment that was served least recently, then move that Segment to the end of
+        // the line (if it still has reads queued up).
+        Map.Entry<Long, ArrayDeque<Task<?>>> first = iterator.next();
+        iterator.remove();
+        Task<?> result = first.getValue().pollFirst();
+        if (!first.getValue().isEmpty()) {
+            queues.put(first.getKey(), first.getValue());
+        }
+
+        return result;
+    }
+
+    private void taskCompleted() {
+        synchronized (this.lock) {
+            this.activeCount--;
+        }
+
+        executeNext();
+    }
+
+    //endregion
+
+    //region Task
+
+    /**
+     * A queued Storage Read.
+     */
+    @RequiredArgsConstructor
+    private class Task<T> {
+        private final boolean tailRead;
+        private final Supplier<CompletableFuture<T>> read;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final Timer timer = new Timer();
+
+        void run() {
+            metrics.readStarted(this.tailRead, this.timer.getElapsed());
+            CompletableFuture<T> readFuture;
+            try {
+                readFuture = this.read.get();
+            } catch (Throwable ex) {
+                if (Exceptions.mustRethrow(ex)) {
+                    throw ex;
+                }
+
+                readFuture = Futures.failedFuture(ex);
+            }
+
+            readFuture.whenComplete((r, ex) -> {
+                taskCompleted();
+                if (ex != null) {
+                    this.result.completeExceptionally(ex);
+                } else {
+                    this.result.complete(r);
+                }
+            });
+        }
+    }
+
+    //endregion
+}
@@ -89,15 +89,18 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
      * @param metadata     The StreamSegmentMetadata to use.
      * @param cache        The Cache to use to store, read and manage data entries.
      * @param storage      A ReadOnlyStorage to fetch data if not in Cache.
+     * @param scheduler    A StorageReadScheduler to schedule Storage Reads with.
      * @param executor     An executor to run async operations.
      * @param recoveryMode Whether we are in recovery mode at the time of creation (this can change later on).
      * @throws NullPointerException If any of the arguments are null.
      */
-    StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, Cache cache, ReadOnlyStorage storage, ScheduledExecutorService executor, boolean recoveryMode) {
+    StreamSegmentReadIndex(ReadIndexConfig config, SegmentMetadata metadata, Cache cache, ReadOnlyStorage storage,
+                           StorageReadScheduler scheduler, ScheduledExecutorService executor, boolean recoveryMode) {
         Preconditions.checkNotNull(config, "config");
         Preconditions.checkNotNull(metadata, "metadata");
         Preconditions.checkNotNull(cache, "cache");
         Preconditions.checkNotNull(storage, "storage");
+        Preconditions.checkNotNull(scheduler, "scheduler");
         Preconditions.checkNotNull(executor, "executor");
 
         this.traceObjectId = String.format("ReadIndex[%d-%d]", metadata.getContainerId(), metadata.getId());
@@ -109,7 +112,7 @@ class StreamSegmentReadIndex implements CacheManager.Client, AutoCloseable {
         this.futureReads = new FutureReadResultEntryCollection();
         this.mergeOffsets = new HashMap<>();
         this.lastAppendedOffset = -1;
-        this.storageReadManager = new StorageReadManager(metadata, storage, executor);
+        this.storageReadManager = new StorageReadManager(metadata, storage, scheduler, executor);
         this.executor = executor;
         this.summary = new ReadIndexSummary();
     }
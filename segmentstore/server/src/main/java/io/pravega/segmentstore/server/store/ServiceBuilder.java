@@ -365,9 +365,16 @@ public class ServiceBuilder implements AutoCloseable {
 
     private static class ReadOnlyServiceBuilder extends ServiceBuilder {
         private static final int READONLY_CONTAINER_COUNT = 1; // Everything maps to a single container.
+        private final ContainerConfig containerConfig;
+        private final int storedContainerCount;
 
         private ReadOnlyServiceBuilder(ServiceBuilderConfig serviceBuilderConfig, ServiceConfig serviceConfig, ExecutorBuilder executorBuilder) {
             super(serviceBuilderConfig, serviceConfig, executorBuilder);
+            this.containerConfig = serviceBuilderConfig.getConfig(ContainerConfig::builder);
+
+            // The number of (regular) Segment Containers that wrote the data we are reading; we need it to locate the
+            // Container State Logs.
+            this.storedContainerCount = serviceConfig.getContainerCount();
 
             // We attach a LocalSegmentContainerManager, since we only have one Container Running.
             // Note that withContainerManager() is disabled in ReadOnlyServiceBuilder, hence we must invoke the one on
@@ -383,7 +390,8 @@ public class ServiceBuilder implements AutoCloseable {
         @Override
         protected SegmentContainerFactory createSegmentContainerFactory() {
             StorageFactory storageFactory = createStorageFactory();
-            return new ReadOnlySegmentContainerFactory(storageFactory, getCoreExecutor());
+            return new ReadOnlySegmentContainerFactory(this.containerConfig, storageFactory,
+                    new SegmentToContainerMapper(this.storedContainerCount), getCoreExecutor());
         }
 
         @Override
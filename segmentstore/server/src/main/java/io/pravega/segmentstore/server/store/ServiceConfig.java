@@ -40,6 +40,7 @@ public class ServiceConfig {
     public static final Property<DataLogType> DATALOG_IMPLEMENTATION = Property.named("dataLogImplementation", DataLogType.INMEMORY);
     public static final Property<StorageType> STORAGE_IMPLEMENTATION = Property.named("storageImplementation", StorageType.INMEMORY);
     public static final Property<Boolean> READONLY_SEGMENT_STORE = Property.named("readOnlySegmentStore", false);
+    public static final Property<Integer> MAX_SEGMENT_COUNTERS = Property.named("maxSegmentCounters", 100000);
 
     public static final String COMPONENT_CODE = "pravegaservice";
 
@@ -184,6 +185,13 @@ public class ServiceConfig {
     @Getter
     private final boolean readOnlySegmentStore;
 
+    /**
+     * The maximum number of Segments for which per-Segment metrics Counters are kept bound at any given time. Updates for
+     * Segments beyond this limit are still recorded, but through the (slower) dynamic metrics logger.
+     */
+    @Getter
+    private final int maxSegmentCounters;
+
     //endregion
 
     //region Constructor
@@ -228,6 +236,10 @@ public class ServiceConfig {
         this.dataLogTypeImplementation = properties.getEnum(DATALOG_IMPLEMENTATION, DataLogType.class);
         this.storageImplementation = properties.getEnum(STORAGE_IMPLEMENTATION, StorageType.class);
         this.readOnlySegmentStore = properties.getBoolean(READONLY_SEGMENT_STORE);
+        this.maxSegmentCounters = properties.getInt(MAX_SEGMENT_COUNTERS);
+        if (this.maxSegmentCounters <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_SEGMENT_COUNTERS));
+        }
     }
 
     /**
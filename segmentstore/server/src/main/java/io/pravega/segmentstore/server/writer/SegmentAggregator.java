@@ -39,6 +39,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.time.Duration;
 import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.CompletionException;
 import java.util.concurrent.Executor;
@@ -46,6 +48,7 @@ import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.stream.Collectors;
 import javax.annotation.concurrent.GuardedBy;
 import javax.annotation.concurrent.ThreadSafe;
 import lombok.Getter;
@@ -718,7 +721,7 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
     }
 
     /**
-     * Executes a merger of a Transaction StreamSegment into this one.
+     * Executes a merger of one or more Transaction StreamSegments into this one.
      * Conditions for merger:
      * <ul>
      * <li> This StreamSegment is stand-alone (not a Transaction).
@@ -731,6 +734,11 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
      * <li> The given Transaction Segment will cease to exist.
      * </ul>
      * <p>
+     * If the next outstanding operations are consecutive MergeTransactionOperations that all meet the conditions above
+     * (up to WriterConfig.getMaxMergeBatchCount()), they will all be merged as part of the same batch. The Transactions
+     * are verified against Storage in parallel, concatenated in order, and the post-merger verification of this StreamSegment
+     * is done only once, after the last concatenation.
+     * <p>
      * Note that various other data integrity checks are done pre and post merger as part of this operation which are meant
      * to ensure the StreamSegment is not in a corrupted state.
      *
@@ -744,16 +752,20 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
         assert !this.metadata.isTransaction() : "Cannot merge into a Transaction StreamSegment.";
         long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "mergeIfNecessary");
 
-        StorageOperation first = this.operations.getFirst();
-        if (first == null || !(first instanceof MergeTransactionOperation)) {
-            // Either no operation or first operation is not a MergeTransaction. Nothing to do.
+        List<MergeCandidate> candidates;
+        try {
+            candidates = getMergeCandidates();
+        } catch (DataCorruptionException ex) {
+            return Futures.failedFuture(ex);
+        }
+
+        if (candidates.isEmpty()) {
+            // Either no operation, first operation is not a MergeTransaction or it is not eligible for merger yet.
             LoggerHelpers.traceLeave(log, this.traceObjectId, "mergeIfNecessary", traceId, flushResult);
             return CompletableFuture.completedFuture(flushResult);
         }
 
-        MergeTransactionOperation mergeTransactionOperation = (MergeTransactionOperation) first;
-        UpdateableSegmentMetadata transactionMetadata = this.dataSource.getStreamSegmentMetadata(mergeTransactionOperation.getTransactionSegmentId());
-        return mergeWith(transactionMetadata, mergeTransactionOperation, timer)
+        return mergeWith(candidates, timer)
                 .thenApply(mergeResult -> {
                     flushResult.withFlushResult(mergeResult);
                     LoggerHelpers.traceLeave(log, this.traceObjectId, "mergeIfNecessary", traceId, flushResult);
@@ -762,80 +774,86 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
     }
 
     /**
-     * Merges the Transaction StreamSegment with given metadata into this one at the current offset.
+     * Collects the MergeTransactionOperations at the head of the operation queue whose Transactions can be merged right
+     * away. Stops at the first operation that is not a MergeTransactionOperation or whose Transaction is not yet eligible
+     * for merger, or when WriterConfig.getMaxMergeBatchCount() candidates have been collected.
      *
-     * @param transactionMetadata The metadata of the Transaction StreamSegment to merge.
-     * @param timer               Timer for the operation.
-     * @return A CompletableFuture that, when completed, will contain the number of bytes that were merged into this
-     * StreamSegment. If failed, the Future will contain the exception that caused it.
+     * @return A List of MergeCandidates, in the order in which they need to be merged.
+     * @throws DataCorruptionException If any of the Transactions to merge is already deleted.
      */
-    private CompletableFuture<FlushResult> mergeWith(UpdateableSegmentMetadata transactionMetadata, MergeTransactionOperation mergeOp, TimeoutTimer timer) {
-        if (transactionMetadata.isDeleted()) {
-            return Futures.failedFuture(new DataCorruptionException(String.format("Attempted to merge with deleted Transaction segment '%s'.", transactionMetadata.getName())));
-        }
+    private List<MergeCandidate> getMergeCandidates() throws DataCorruptionException {
+        List<MergeCandidate> result = new ArrayList<>();
+        for (StorageOperation op : this.operations.getFirst(this.config.getMaxMergeBatchCount())) {
+            if (!(op instanceof MergeTransactionOperation)) {
+                break;
+            }
 
-        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "mergeWith", transactionMetadata.getId(), transactionMetadata.getName(), transactionMetadata.isSealedInStorage());
-        FlushResult result = new FlushResult();
-        if (!transactionMetadata.isSealedInStorage() || transactionMetadata.getLength() > transactionMetadata.getStorageLength()) {
-            // Nothing to do. Given Transaction is not eligible for merger yet.
-            LoggerHelpers.traceLeave(log, this.traceObjectId, "mergeWith", traceId, result);
-            return CompletableFuture.completedFuture(result);
+            MergeTransactionOperation mergeOp = (MergeTransactionOperation) op;
+            UpdateableSegmentMetadata transactionMetadata = this.dataSource.getStreamSegmentMetadata(mergeOp.getTransactionSegmentId());
+            if (transactionMetadata.isDeleted()) {
+                throw new DataCorruptionException(String.format("Attempted to merge with deleted Transaction segment '%s'.", transactionMetadata.getName()));
+            }
+
+            if (!transactionMetadata.isSealedInStorage() || transactionMetadata.getLength() > transactionMetadata.getStorageLength()) {
+                // Given Transaction is not eligible for merger yet; neither is anything after it.
+                break;
+            }
+
+            result.add(new MergeCandidate(mergeOp, transactionMetadata));
         }
 
-        AtomicLong mergedLength = new AtomicLong();
-        return this.storage
-                .getStreamSegmentInfo(transactionMetadata.getName(), timer.getRemaining())
-                .thenAcceptAsync(transProperties -> {
-                    // One last verification before the actual merger:
-                    // Check that the Storage agrees with our metadata (if not, we have a problem ...)
-                    if (transProperties.getLength() != transactionMetadata.getStorageLength()) {
-                        throw new CompletionException(new DataCorruptionException(String.format(
-                                "Transaction Segment '%s' cannot be merged into parent '%s' because its metadata disagrees with the Storage. Metadata.StorageLength=%d, Storage.StorageLength=%d",
-                                transactionMetadata.getName(),
-                                this.metadata.getName(),
-                                transactionMetadata.getStorageLength(),
-                                transProperties.getLength())));
-                    }
+        return result;
+    }
 
-                    if (transProperties.getLength() != mergeOp.getLength()) {
-                        throw new CompletionException(new DataCorruptionException(String.format(
-                                "Transaction Segment '%s' cannot be merged into parent '%s' because the declared length in the operation disagrees with the Storage. Operation.Length=%d, Storage.StorageLength=%d",
-                                transactionMetadata.getName(),
-                                this.metadata.getName(),
-                                mergeOp.getLength(),
-                                transProperties.getLength())));
-                    }
+    /**
+     * Merges the given Transaction StreamSegments into this one, in order.
+     *
+     * @param candidates The Transaction StreamSegments to merge, along with their MergeTransactionOperations.
+     * @param timer      Timer for the operation.
+     * @return A CompletableFuture that, when completed, will contain the number of bytes that were merged into this
+     * StreamSegment. If failed, the Future will contain the exception that caused it.
+     */
+    private CompletableFuture<FlushResult> mergeWith(List<MergeCandidate> candidates, TimeoutTimer timer) {
+        long traceId = LoggerHelpers.traceEnterWithContext(log, this.traceObjectId, "mergeWith", candidates.size());
+        FlushResult result = new FlushResult();
 
-                    mergedLength.set(transProperties.getLength());
-                }, this.executor)
-                .thenComposeAsync(v1 -> storage.concat(this.handle.get(), mergeOp.getStreamSegmentOffset(), transactionMetadata.getName(), timer.getRemaining()), this.executor)
-                .thenComposeAsync(v2 -> storage.getStreamSegmentInfo(this.metadata.getName(), timer.getRemaining()), this.executor)
-                .thenApplyAsync(segmentProperties -> {
-                    // We have processed a MergeTransactionOperation, pop the first operation off and decrement the counter.
-                    StorageOperation processedOperation = this.operations.removeFirst();
-                    assert processedOperation != null && processedOperation instanceof MergeTransactionOperation : "First outstanding operation was not a MergeTransactionOperation";
-                    assert ((MergeTransactionOperation) processedOperation).getTransactionSegmentId() == transactionMetadata.getId() : "First outstanding operation was a MergeTransactionOperation for the wrong Transaction id.";
-                    int newCount = this.mergeTransactionCount.decrementAndGet();
-                    assert newCount >= 0 : "Negative value for mergeTransactionCount";
+        // Verify all Transactions against the Storage before merging any of them. These are independent of each other,
+        // so they can be done in parallel.
+        List<CompletableFuture<Void>> verifications = candidates
+                .stream()
+                .map(c -> this.storage
+                        .getStreamSegmentInfo(c.getTransactionMetadata().getName(), timer.getRemaining())
+                        .thenAcceptAsync(transProperties -> verifyPreMerger(c, transProperties), this.executor))
+                .collect(Collectors.toList());
+
+        // Then concatenate them one by one, in order, updating our state after each one.
+        CompletableFuture<Void> concatenations = Futures.allOf(verifications);
+        for (MergeCandidate c : candidates) {
+            concatenations = concatenations
+                    .thenComposeAsync(v -> this.storage.concat(this.handle.get(), c.getMergeOp().getStreamSegmentOffset(),
+                            c.getTransactionMetadata().getName(), timer.getRemaining()), this.executor)
+                    .thenRunAsync(() -> {
+                        updateStatePostMerger(c);
+                        result.withMergedBytes(c.getMergeOp().getLength());
+                    }, this.executor);
+        }
 
+        return concatenations
+                .thenComposeAsync(v -> this.storage.getStreamSegmentInfo(this.metadata.getName(), timer.getRemaining()), this.executor)
+                .thenApplyAsync(segmentProperties -> {
                     // Post-merger validation. Verify we are still in agreement with the storage.
-                    long expectedNewLength = this.metadata.getStorageLength() + mergedLength.get();
-                    if (segmentProperties.getLength() != expectedNewLength) {
+                    if (segmentProperties.getLength() != this.metadata.getStorageLength()) {
                         throw new CompletionException(new DataCorruptionException(String.format(
-                                "Transaction Segment '%s' was merged into parent '%s' but the parent segment has an unexpected StorageLength after the merger. Previous=%d, MergeLength=%d, Expected=%d, Actual=%d",
-                                transactionMetadata.getName(),
+                                "%d Transaction Segment(s) were merged into parent '%s' but the parent segment has an unexpected StorageLength after the merger. MergeLength=%d, Expected=%d, Actual=%d",
+                                candidates.size(),
                                 this.metadata.getName(),
-                                segmentProperties.getLength(),
-                                mergedLength.get(),
-                                expectedNewLength,
+                                result.getMergedBytes(),
+                                this.metadata.getStorageLength(),
                                 segmentProperties.getLength())));
                     }
 
                     updateMetadata(segmentProperties);
-                    updateMetadataForTransactionPostMerger(transactionMetadata);
-
                     this.lastFlush.set(this.timer.getElapsed());
-                    result.withMergedBytes(mergedLength.get());
                     LoggerHelpers.traceLeave(log, this.traceObjectId, "mergeWith", traceId, result);
                     return result;
                 }, this.executor)
@@ -853,6 +871,34 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
                 });
     }
 
+    /**
+     * Performs the last verification before the actual merger: checks that the Storage agrees with our metadata
+     * (if not, we have a problem ...).
+     *
+     * @param candidate       The MergeCandidate to verify.
+     * @param transProperties The current state of the Transaction StreamSegment in Storage.
+     */
+    private void verifyPreMerger(MergeCandidate candidate, SegmentProperties transProperties) {
+        UpdateableSegmentMetadata transactionMetadata = candidate.getTransactionMetadata();
+        if (transProperties.getLength() != transactionMetadata.getStorageLength()) {
+            throw new CompletionException(new DataCorruptionException(String.format(
+                    "Transaction Segment '%s' cannot be merged into parent '%s' because its metadata disagrees with the Storage. Metadata.StorageLength=%d, Storage.StorageLength=%d",
+                    transactionMetadata.getName(),
+                    this.metadata.getName(),
+                    transactionMetadata.getStorageLength(),
+                    transProperties.getLength())));
+        }
+
+        if (transProperties.getLength() != candidate.getMergeOp().getLength()) {
+            throw new CompletionException(new DataCorruptionException(String.format(
+                    "Transaction Segment '%s' cannot be merged into parent '%s' because the declared length in the operation disagrees with the Storage. Operation.Length=%d, Storage.StorageLength=%d",
+                    transactionMetadata.getName(),
+                    this.metadata.getName(),
+                    candidate.getMergeOp().getLength(),
+                    transProperties.getLength())));
+        }
+    }
+
     /**
      * Seals the StreamSegment in Storage, if necessary.
      *
@@ -1262,6 +1308,25 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
         }
     }
 
+    /**
+     * Updates the metadata and the internal state after a Transaction was successfully concatenated into this StreamSegment.
+     *
+     * @param candidate The MergeCandidate that was merged.
+     */
+    private void updateStatePostMerger(MergeCandidate candidate) {
+        // We have processed a MergeTransactionOperation, pop the first operation off and decrement the counter.
+        StorageOperation processedOperation = this.operations.removeFirst();
+        assert processedOperation != null && processedOperation instanceof MergeTransactionOperation : "First outstanding operation was not a MergeTransactionOperation";
+        assert ((MergeTransactionOperation) processedOperation).getTransactionSegmentId() == candidate.getTransactionMetadata().getId() : "First outstanding operation was a MergeTransactionOperation for the wrong Transaction id.";
+        int newCount = this.mergeTransactionCount.decrementAndGet();
+        assert newCount >= 0 : "Negative value for mergeTransactionCount";
+
+        // The merged Transaction is now part of this StreamSegment. The final StorageLength will be validated against
+        // the Storage once the entire batch has been merged.
+        this.metadata.setStorageLength(candidate.getMergeOp().getLastStreamSegmentOffset());
+        updateMetadataForTransactionPostMerger(candidate.getTransactionMetadata());
+    }
+
     /**
      * Updates the internal state after a Truncate was completed.
      */
@@ -1360,6 +1425,16 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
         }
     }
 
+    /**
+     * A MergeTransactionOperation along with the metadata of the Transaction StreamSegment it refers to.
+     */
+    @Getter
+    @RequiredArgsConstructor
+    private static class MergeCandidate {
+        private final MergeTransactionOperation mergeOp;
+        private final UpdateableSegmentMetadata transactionMetadata;
+    }
+
     /**
      * Represents a set of arguments for a Storage Flush Operation.
      */
@@ -1460,6 +1535,10 @@ class SegmentAggregator implements OperationProcessor, AutoCloseable {
             return this.queue.peekFirst();
         }
 
+        synchronized List<StorageOperation> getFirst(int maxCount) {
+            return this.queue.stream().limit(maxCount).collect(Collectors.toList());
+        }
+
         synchronized StorageOperation removeFirst() {
             return this.queue.pollFirst();
         }
@@ -26,6 +26,7 @@ public class WriterConfig {
     public static final Property<Integer> FLUSH_THRESHOLD_BYTES = Property.named("flushThresholdBytes", 4 * 1024 * 1024);
     public static final Property<Long> FLUSH_THRESHOLD_MILLIS = Property.named("flushThresholdMillis", 30 * 1000L);
     public static final Property<Integer> MAX_FLUSH_SIZE_BYTES = Property.named("maxFlushSizeBytes", FLUSH_THRESHOLD_BYTES.getDefaultValue());
+    public static final Property<Integer> MAX_MERGE_BATCH_COUNT = Property.named("maxMergeBatchCount", 100);
     public static final Property<Integer> MAX_ITEMS_TO_READ_AT_ONCE = Property.named("maxItemsToReadAtOnce", 1000);
     public static final Property<Long> MIN_READ_TIMEOUT_MILLIS = Property.named("minReadTimeoutMillis", 2 * 1000L);
     public static final Property<Long> MAX_READ_TIMEOUT_MILLIS = Property.named("maxReadTimeoutMillis", 30 * 60 * 1000L);
@@ -57,6 +58,12 @@ public class WriterConfig {
     @Getter
     private final int maxFlushSizeBytes;
 
+    /**
+     * The maximum number of consecutive Transaction mergers that can be executed as part of a single batch.
+     */
+    @Getter
+    private final int maxMergeBatchCount;
+
     /**
      * The maximum number of items to read every time a read is issued to the OperationLog.
      */
@@ -116,6 +123,11 @@ public class WriterConfig {
 
         this.flushThresholdTime = Duration.ofMillis(properties.getLong(FLUSH_THRESHOLD_MILLIS));
         this.maxFlushSizeBytes = properties.getInt(MAX_FLUSH_SIZE_BYTES);
+        this.maxMergeBatchCount = properties.getInt(MAX_MERGE_BATCH_COUNT);
+        if (this.maxMergeBatchCount <= 0) {
+            throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_MERGE_BATCH_COUNT));
+        }
+
         this.maxItemsToReadAtOnce = properties.getInt(MAX_ITEMS_TO_READ_AT_ONCE);
         if (this.maxItemsToReadAtOnce <= 0) {
             throw new ConfigurationException(String.format("Property '%s' must be a positive integer.", MAX_ITEMS_TO_READ_AT_ONCE));
@@ -68,6 +68,8 @@ public class TestStorage implements Storage {
     private ConcatInterceptor concatInterceptor;
     @Setter
     private TruncateInterceptor truncateInterceptor;
+    @Setter
+    private GetInfoInterceptor getInfoInterceptor;
 
     public TestStorage(InMemoryStorage wrappedStorage, Executor executor) {
         Preconditions.checkNotNull(wrappedStorage, "wrappedStorage");
@@ -194,8 +196,15 @@ public class TestStorage implements Storage {
 
     @Override
     public CompletableFuture<SegmentProperties> getStreamSegmentInfo(String streamSegmentName, Duration timeout) {
-        return ErrorInjector.throwAsyncExceptionIfNeeded(this.getErrorInjector,
-                () -> this.wrappedStorage.getStreamSegmentInfo(streamSegmentName, timeout));
+        return ErrorInjector.throwAsyncExceptionIfNeeded(this.getErrorInjector, () -> {
+                                GetInfoInterceptor gi = this.getInfoInterceptor;
+                                CompletableFuture<Void> result = null;
+                                if (gi != null) {
+                                    result = gi.apply(streamSegmentName, this.wrappedStorage);
+                                }
+
+                                return result != null ? result : CompletableFuture.completedFuture(null);
+                            }).thenCompose(v -> this.wrappedStorage.getStreamSegmentInfo(streamSegmentName, timeout));
     }
 
     @Override
@@ -239,4 +248,9 @@ public class TestStorage implements Storage {
     public interface TruncateInterceptor {
         CompletableFuture<Void> apply(String streamSegmentName, long truncateOffset, Storage wrappedStorage);
     }
+
+    @FunctionalInterface
+    public interface GetInfoInterceptor {
+        CompletableFuture<Void> apply(String streamSegmentName, Storage wrappedStorage);
+    }
 }
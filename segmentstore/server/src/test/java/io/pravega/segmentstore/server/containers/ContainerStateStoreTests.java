@@ -0,0 +1,292 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.util.AsyncMap;
+import io.pravega.segmentstore.contracts.StreamSegmentInformation;
+import io.pravega.segmentstore.server.DataCorruptionException;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import io.pravega.shared.segment.StreamSegmentNameUtils;
+import io.pravega.test.common.AssertExtensions;
+import java.io.ByteArrayInputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+/**
+ * Unit tests for the ContainerStateStore class.
+ */
+public class ContainerStateStoreTests extends StateStoreTests {
+    private static final int CONTAINER_ID = 1;
+    private static final String LOG_NAME = StreamSegmentNameUtils.getContainerStateSegmentName(CONTAINER_ID);
+    private static final long COMPACTION_MIN_LENGTH = 10 * 1024;
+    private Storage storage;
+
+    @Before
+    public void setUp() {
+        this.storage = InMemoryStorageFactory.newStorage(executorService());
+        this.storage.initialize(1);
+    }
+
+    @Override
+    public int getThreadPoolSize() {
+        return 5;
+    }
+
+    @Override
+    protected AsyncMap<String, SegmentState> createStateStore() {
+        return new ContainerStateStore(CONTAINER_ID, this.storage, null, executorService());
+    }
+
+    /**
+     * Tests that a new instance of the ContainerStateStore recovers all the states written by a previous one, and that
+     * concurrent updates are applied correctly.
+     */
+    @Test
+    public void testRecovery() throws Exception {
+        final int segmentCount = 100;
+        val store1 = createStateStore();
+        val expected = new HashMap<String, SegmentState>();
+        val futures = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < segmentCount; i++) {
+            String segmentName = "Segment" + i;
+            SegmentState state = createState(segmentName, i);
+            expected.put(segmentName, state);
+            futures.add(store1.put(segmentName, state, TIMEOUT));
+        }
+
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        // Remove every other state.
+        for (int i = 0; i < segmentCount; i += 2) {
+            String segmentName = "Segment" + i;
+            store1.remove(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            expected.remove(segmentName);
+        }
+
+        val store2 = createStateStore();
+        checkStates(store2, expected, segmentCount);
+    }
+
+    /**
+     * Tests that the State Log is compacted once it contains enough obsolete records, and that the compacted State Log
+     * can be recovered.
+     */
+    @Test
+    public void testCompaction() throws Exception {
+        final int segmentCount = 10;
+        final int updateCount = 200;
+        val store1 = new ContainerStateStore(CONTAINER_ID, this.storage, null, COMPACTION_MIN_LENGTH, executorService());
+        val expected = new HashMap<String, SegmentState>();
+        for (int i = 0; i < updateCount; i++) {
+            String segmentName = "Segment" + (i % segmentCount);
+            SegmentState state = createState(segmentName, i);
+            expected.put(segmentName, state);
+            store1.put(segmentName, state, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        long totalLength = getLogLength(LOG_NAME + ".0") + getLogLength(LOG_NAME + ".1");
+        Assert.assertTrue("Expected the State Log to have been compacted.", totalLength < COMPACTION_MIN_LENGTH);
+        Assert.assertFalse("Expected only one State Log to exist.",
+                this.storage.exists(LOG_NAME + ".0", TIMEOUT).join() && this.storage.exists(LOG_NAME + ".1", TIMEOUT).join());
+        checkStates(store1, expected, segmentCount);
+
+        val store2 = new ContainerStateStore(CONTAINER_ID, this.storage, null, COMPACTION_MIN_LENGTH, executorService());
+        checkStates(store2, expected, segmentCount);
+    }
+
+    /**
+     * Tests recovery from a State Log that has an incomplete record at the end (i.e., a partial write).
+     */
+    @Test
+    public void testIncompleteTail() throws Exception {
+        final int segmentCount = 10;
+        val store1 = createStateStore();
+        val expected = new HashMap<String, SegmentState>();
+        for (int i = 0; i < segmentCount; i++) {
+            String segmentName = "Segment" + i;
+            SegmentState state = createState(segmentName, i);
+            expected.put(segmentName, state);
+            store1.put(segmentName, state, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        }
+
+        // Simulate a partial write: a length prefix announcing more bytes than are available.
+        String activeLog = LOG_NAME + ".0";
+        long length = getLogLength(activeLog);
+        byte[] partialRecord = new byte[]{0, 0, 1, 0, 1, 2, 3};
+        this.storage.openWrite(activeLog)
+                    .thenCompose(h -> this.storage.write(h, length, new ByteArrayInputStream(partialRecord), partialRecord.length, TIMEOUT))
+                    .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        val store2 = createStateStore();
+        checkStates(store2, expected, segmentCount);
+
+        // Verify we can still write, and that the update survives another recovery.
+        SegmentState newState = createState("Segment0", segmentCount);
+        expected.put("Segment0", newState);
+        store2.put("Segment0", newState, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        checkStates(createStateStore(), expected, segmentCount);
+    }
+
+    /**
+     * Tests that states which only exist in the Legacy Store are still accessible, and that removals are forwarded to it.
+     */
+    @Test
+    public void testLegacyStore() throws Exception {
+        final String segmentName = "Legacy";
+        val legacyStore = new SegmentStateStore(this.storage, executorService());
+        SegmentState legacyState = createState(segmentName, 1);
+        legacyStore.put(segmentName, legacyState, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        val store = new ContainerStateStore(CONTAINER_ID, this.storage, legacyStore, executorService());
+        checkStates(store, Collections.singletonMap(segmentName, legacyState), 0);
+
+        // Newer states take precedence over the legacy ones.
+        SegmentState newState = createState(segmentName, 2);
+        store.put(segmentName, newState, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        checkStates(store, Collections.singletonMap(segmentName, newState), 0);
+
+        store.remove(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        Assert.assertNull("Not expecting any state after removal.", store.get(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+        Assert.assertNull("Not expecting any legacy state after removal.", legacyStore.get(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS));
+    }
+
+    /**
+     * Tests a read-only ContainerStateStore reading a State Log while another instance is writing to (and compacting) it.
+     */
+    @Test
+    public void testReadOnly() throws Exception {
+        final int segmentCount = 10;
+        final int updateCount = 200;
+        @Cleanup
+        val readOnlyStore = ContainerStateStore.readOnly(CONTAINER_ID, this.storage, null, executorService());
+
+        // No State Log yet.
+        checkStates(readOnlyStore, Collections.emptyMap(), segmentCount);
+        Assert.assertFalse("Not expecting a read-only store to create a State Log.", this.storage.exists(LOG_NAME + ".0", TIMEOUT).join());
+
+        @Cleanup
+        val store = new ContainerStateStore(CONTAINER_ID, this.storage, null, COMPACTION_MIN_LENGTH, executorService());
+        val expected = new HashMap<String, SegmentState>();
+        for (int i = 0; i < updateCount; i++) {
+            String segmentName = "Segment" + (i % segmentCount);
+            SegmentState state = createState(segmentName, i);
+            expected.put(segmentName, state);
+            store.put(segmentName, state, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            if (i % 3 == 0) {
+                store.remove(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+                expected.remove(segmentName);
+            }
+
+            if (i % 7 == 0) {
+                // This will see both appends to the same State Log and compactions into new ones.
+                checkStates(readOnlyStore, expected, segmentCount);
+            }
+        }
+
+        checkStates(readOnlyStore, expected, segmentCount);
+        AssertExtensions.assertThrows(
+                "put() was allowed on a read-only store.",
+                () -> readOnlyStore.put("Segment0", createState("Segment0", 0), TIMEOUT),
+                ex -> ex instanceof UnsupportedOperationException);
+        AssertExtensions.assertThrows(
+                "remove() was allowed on a read-only store.",
+                () -> readOnlyStore.remove("Segment0", TIMEOUT),
+                ex -> ex instanceof UnsupportedOperationException);
+    }
+
+    /**
+     * Tests that the ContainerStateStore does not discard existing data (by starting a new State Log) if it cannot
+     * recover any valid State Log from it.
+     */
+    @Test
+    public void testNoValidStateLog() throws Exception {
+        String activeLog = LOG_NAME + ".0";
+        byte[] garbage = new byte[]{0, 0, 0, 3, 1, 2, 3};
+        this.storage.create(activeLog, TIMEOUT)
+                    .thenCompose(si -> this.storage.openWrite(activeLog))
+                    .thenCompose(h -> this.storage.write(h, 0, new ByteArrayInputStream(garbage), garbage.length, TIMEOUT))
+                    .get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+
+        @Cleanup
+        val store = new ContainerStateStore(CONTAINER_ID, this.storage, null, executorService());
+        AssertExtensions.assertThrows(
+                "get() did not fail when no valid State Log exists.",
+                () -> store.get("Segment0", TIMEOUT),
+                ex -> ex instanceof DataCorruptionException);
+        AssertExtensions.assertThrows(
+                "put() did not fail when no valid State Log exists.",
+                () -> store.put("Segment0", createState("Segment0", 0), TIMEOUT),
+                ex -> ex instanceof DataCorruptionException);
+        Assert.assertEquals("Not expecting the State Log to have been modified.", garbage.length, getLogLength(activeLog));
+    }
+
+    /**
+     * Tests the close() method.
+     */
+    @Test
+    public void testClose() throws Exception {
+        val store = new ContainerStateStore(CONTAINER_ID, this.storage, null, executorService());
+        store.put("Segment0", createState("Segment0", 0), TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+        store.close();
+        AssertExtensions.assertThrows(
+                "get() worked after close().",
+                () -> store.get("Segment0", TIMEOUT),
+                ex -> ex instanceof ObjectClosedException);
+        AssertExtensions.assertThrows(
+                "put() worked after close().",
+                () -> store.put("Segment0", createState("Segment0", 1), TIMEOUT),
+                ex -> ex instanceof ObjectClosedException);
+    }
+
+    private void checkStates(AsyncMap<String, SegmentState> store, Map<String, SegmentState> expected, int segmentCount) throws Exception {
+        List<String> segmentNames = new ArrayList<>(expected.keySet());
+        for (int i = 0; i < segmentCount; i++) {
+            if (!expected.containsKey("Segment" + i)) {
+                segmentNames.add("Segment" + i);
+            }
+        }
+
+        for (String segmentName : segmentNames) {
+            SegmentState expectedState = expected.get(segmentName);
+            SegmentState actualState = store.get(segmentName, TIMEOUT).get(TIMEOUT.toMillis(), TimeUnit.MILLISECONDS);
+            if (expectedState == null) {
+                Assert.assertNull("Not expecting any state for " + segmentName, actualState);
+            } else {
+                Assert.assertNotNull("Expecting a state for " + segmentName, actualState);
+                Assert.assertEquals("Unexpected segment id for " + segmentName, expectedState.getSegmentId(), actualState.getSegmentId());
+                Assert.assertEquals("Unexpected start offset for " + segmentName, expectedState.getStartOffset(), actualState.getStartOffset());
+                Assert.assertEquals("Unexpected attributes for " + segmentName, expectedState.getAttributes(), actualState.getAttributes());
+            }
+        }
+    }
+
+    private long getLogLength(String logName) {
+        return this.storage.exists(logName, TIMEOUT).join() ? this.storage.getStreamSegmentInfo(logName, TIMEOUT).join().getLength() : 0;
+    }
+
+    private SegmentState createState(String segmentName, long seed) {
+        val attributes = new HashMap<UUID, Long>();
+        attributes.put(UUID.randomUUID(), seed);
+        return new SegmentState(seed, StreamSegmentInformation.builder().name(segmentName).startOffset(seed).attributes(attributes).build());
+    }
+}
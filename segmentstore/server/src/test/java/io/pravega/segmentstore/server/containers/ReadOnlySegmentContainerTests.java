@@ -16,6 +16,7 @@ import io.pravega.segmentstore.server.SegmentContainer;
 import io.pravega.segmentstore.server.reading.StreamSegmentStorageReaderTests;
 import io.pravega.segmentstore.storage.Storage;
 import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import io.pravega.shared.segment.SegmentToContainerMapper;
 import io.pravega.test.common.AssertExtensions;
 import io.pravega.test.common.ThreadPooledTestSuite;
 import java.io.ByteArrayInputStream;
@@ -39,6 +40,7 @@ public class ReadOnlySegmentContainerTests extends ThreadPooledTestSuite {
     private static final int SEGMENT_LENGTH = 3 * ReadOnlySegmentContainer.MAX_READ_AT_ONCE_BYTES;
     private static final Duration TIMEOUT = Duration.ofSeconds(10);
     private static final String SEGMENT_NAME = "Segment";
+    private static final int STORED_CONTAINER_COUNT = 4;
     @Rule
     public Timeout globalTimeout = Timeout.seconds(10);
 
@@ -82,6 +84,33 @@ public class ReadOnlySegmentContainerTests extends ThreadPooledTestSuite {
         AssertExtensions.assertMapEquals("Unexpected Attributes.", expectedInfo.getAttributes(), actual.getAttributes());
     }
 
+    /**
+     * Tests the getStreamSegmentInfo() method for a Segment whose state was written by an older version (in a per-Segment
+     * State Segment) and then updated in the Container State Log.
+     */
+    @Test
+    public void testGetStreamSegmentInfoLegacyState() {
+        @Cleanup
+        val context = new TestContext();
+        context.container.startAsync().awaitRunning();
+        val storageInfo = context.storage.create(SEGMENT_NAME, TIMEOUT)
+                .thenCompose(si -> context.storage.getStreamSegmentInfo(SEGMENT_NAME, TIMEOUT)).join();
+        val legacyInfo = StreamSegmentInformation.from(storageInfo)
+                .attributes(Collections.singletonMap(UUID.randomUUID(), 1L))
+                .build();
+        context.legacyStateStore.put(SEGMENT_NAME, new SegmentState(1, legacyInfo), TIMEOUT).join();
+        AssertExtensions.assertMapEquals("Unexpected Attributes for legacy state.", legacyInfo.getAttributes(),
+                context.container.getStreamSegmentInfo(SEGMENT_NAME, false, TIMEOUT).join().getAttributes());
+
+        // Once the owning Container writes a new state, that one must be used.
+        val newInfo = StreamSegmentInformation.from(storageInfo)
+                .attributes(Collections.singletonMap(UUID.randomUUID(), 2L))
+                .build();
+        context.stateStore.put(SEGMENT_NAME, new SegmentState(1, newInfo), TIMEOUT).join();
+        AssertExtensions.assertMapEquals("Unexpected Attributes after the state was updated.", newInfo.getAttributes(),
+                context.container.getStreamSegmentInfo(SEGMENT_NAME, false, TIMEOUT).join().getAttributes());
+    }
+
     /**
      * Tests the read() method.
      */
@@ -115,6 +144,32 @@ public class ReadOnlySegmentContainerTests extends ThreadPooledTestSuite {
                 (int) (writtenData.length - truncatedInfo.getStartOffset()), writtenData);
     }
 
+    /**
+     * Tests the read() method on a Sealed Segment, which is served via the cache.
+     */
+    @Test
+    public void testReadSealed() throws Exception {
+        @Cleanup
+        val context = new TestContext();
+        context.container.startAsync().awaitRunning();
+        val writtenData = populate(SEGMENT_LENGTH, 0, context);
+        context.storage.openWrite(SEGMENT_NAME).thenCompose(h -> context.storage.seal(h, TIMEOUT)).join();
+        val sealedInfo = context.container.getStreamSegmentInfo(SEGMENT_NAME, false, TIMEOUT).join();
+        Assert.assertTrue("Expected the segment to be sealed.", sealedInfo.isSealed());
+
+        // Read the whole segment twice (the second time it should come from the cache), then read from an unaligned offset.
+        for (int i = 0; i < 2; i++) {
+            @Cleanup
+            val rr = context.container.read(SEGMENT_NAME, 0, writtenData.length, TIMEOUT).join();
+            StreamSegmentStorageReaderTests.verifyReadResult(rr, sealedInfo, 0, writtenData.length, writtenData);
+        }
+
+        final int offset = ReadOnlySegmentContainer.READ_CACHE_BLOCK_SIZE / 2 + 1;
+        @Cleanup
+        val rr = context.container.read(SEGMENT_NAME, offset, writtenData.length, TIMEOUT).join();
+        StreamSegmentStorageReaderTests.verifyReadResult(rr, sealedInfo, offset, writtenData.length - offset, writtenData);
+    }
+
     /**
      * Tests the read() method when the segment does not exist.
      */
@@ -175,19 +230,27 @@ public class ReadOnlySegmentContainerTests extends ThreadPooledTestSuite {
     private class TestContext implements AutoCloseable {
         final SegmentContainer container;
         final Storage storage;
-        final AsyncMap<String, SegmentState> stateStore;
+        final AsyncMap<String, SegmentState> legacyStateStore;
+        final ContainerStateStore stateStore;
         private final InMemoryStorageFactory storageFactory;
 
         TestContext() {
             this.storageFactory = new InMemoryStorageFactory(executorService());
-            this.container = new ReadOnlySegmentContainer(this.storageFactory, executorService());
+            val segmentToContainerMapper = new SegmentToContainerMapper(STORED_CONTAINER_COUNT);
+            this.container = new ReadOnlySegmentContainer(ContainerConfig.builder().build(), this.storageFactory,
+                    segmentToContainerMapper, executorService());
             this.storage = this.storageFactory.createStorageAdapter();
-            this.stateStore = new SegmentStateStore(this.storage, executorService());
+
+            // Simulate the Segment Container that owns the Segment (and writes its state).
+            this.legacyStateStore = new SegmentStateStore(this.storage, executorService());
+            this.stateStore = new ContainerStateStore(segmentToContainerMapper.getContainerId(SEGMENT_NAME), this.storage,
+                    this.legacyStateStore, executorService());
         }
 
         @Override
         public void close() {
             this.container.close();
+            this.stateStore.close();
             this.storage.close();
             this.storageFactory.close();
         }
@@ -0,0 +1,134 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.containers;
+
+import io.pravega.segmentstore.contracts.SegmentProperties;
+import io.pravega.segmentstore.storage.Storage;
+import io.pravega.segmentstore.storage.mocks.InMemoryStorageFactory;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.io.ByteArrayInputStream;
+import java.time.Duration;
+import java.util.Random;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the StorageReadCache class.
+ */
+public class StorageReadCacheTests extends ThreadPooledTestSuite {
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    private static final String SEGMENT_NAME = "Segment";
+    private static final int BLOCK_SIZE = 1000;
+    private static final int SEGMENT_LENGTH = 10 * BLOCK_SIZE + BLOCK_SIZE / 2;
+    private static final int READ_AHEAD_COUNT = 2;
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 3;
+    }
+
+    /**
+     * Tests reading various ranges (aligned, unaligned and spanning multiple Blocks) via the cache, including read-ahead.
+     */
+    @Test
+    public void testRead() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val data = populate(storage);
+        val segmentInfo = storage.getStreamSegmentInfo(SEGMENT_NAME, TIMEOUT).join();
+        val cache = new StorageReadCache(storage, BLOCK_SIZE, Long.MAX_VALUE, READ_AHEAD_COUNT, executorService());
+
+        // Reading the first byte should fetch the first Block and read ahead the next ones.
+        checkRead(cache, segmentInfo, 0, 1, data);
+        Assert.assertEquals("Unexpected cache size after first read.", (1 + READ_AHEAD_COUNT) * BLOCK_SIZE, cache.getSize());
+
+        // Unaligned, multi-block reads, including the last (partial) Block.
+        checkRead(cache, segmentInfo, BLOCK_SIZE / 2, 2 * BLOCK_SIZE, data);
+        checkRead(cache, segmentInfo, SEGMENT_LENGTH - BLOCK_SIZE - 1, BLOCK_SIZE + 1, data);
+        checkRead(cache, segmentInfo, 0, SEGMENT_LENGTH, data);
+        Assert.assertEquals("Unexpected cache size after reading everything.", SEGMENT_LENGTH, cache.getSize());
+
+        // Reads outside of the Segment bounds are not allowed.
+        AssertExtensions.assertThrows(
+                "read() allowed reading beyond the end of the Segment.",
+                () -> cache.getStorage(segmentInfo).read(storage.openRead(SEGMENT_NAME).join(), SEGMENT_LENGTH - 1, new byte[2], 0, 2, TIMEOUT),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Tests that Blocks are evicted once the cache exceeds its maximum size.
+     */
+    @Test
+    public void testEviction() {
+        final int maxBlockCount = 3;
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val data = populate(storage);
+        val segmentInfo = storage.getStreamSegmentInfo(SEGMENT_NAME, TIMEOUT).join();
+        val cache = new StorageReadCache(storage, BLOCK_SIZE, maxBlockCount * BLOCK_SIZE, 0, executorService());
+
+        for (int i = 0; i < SEGMENT_LENGTH; i += BLOCK_SIZE) {
+            checkRead(cache, segmentInfo, i, Math.min(BLOCK_SIZE, SEGMENT_LENGTH - i), data);
+            AssertExtensions.assertLessThanOrEqual("Cache exceeded its maximum size.", maxBlockCount * BLOCK_SIZE, cache.getSize());
+        }
+
+        // Evicted Blocks must be re-read correctly.
+        checkRead(cache, segmentInfo, 0, SEGMENT_LENGTH, data);
+    }
+
+    /**
+     * Tests that Blocks cached for a Segment are not served for a different Segment that was later created with the same name.
+     */
+    @Test
+    public void testRecreatedSegment() {
+        @Cleanup
+        val storage = InMemoryStorageFactory.newStorage(executorService());
+        storage.initialize(1);
+        val data1 = populate(storage, SEGMENT_LENGTH, 0);
+        val segmentInfo1 = storage.getStreamSegmentInfo(SEGMENT_NAME, TIMEOUT).join();
+        val cache = new StorageReadCache(storage, BLOCK_SIZE, Long.MAX_VALUE, READ_AHEAD_COUNT, executorService());
+        checkRead(cache, segmentInfo1, 0, SEGMENT_LENGTH, data1);
+
+        // Delete the Segment and re-create it with different contents.
+        storage.openWrite(SEGMENT_NAME).thenCompose(h -> storage.delete(h, TIMEOUT)).join();
+        val data2 = populate(storage, SEGMENT_LENGTH - 1, 1);
+        val segmentInfo2 = storage.getStreamSegmentInfo(SEGMENT_NAME, TIMEOUT).join();
+        checkRead(cache, segmentInfo2, 0, SEGMENT_LENGTH - 1, data2);
+    }
+
+    private void checkRead(StorageReadCache cache, SegmentProperties segmentInfo, int offset, int length, byte[] data) {
+        val readStorage = cache.getStorage(segmentInfo);
+        val handle = readStorage.openRead(SEGMENT_NAME).join();
+        byte[] buffer = new byte[length];
+        int bytesRead = readStorage.read(handle, offset, buffer, 0, length, TIMEOUT).join();
+        Assert.assertEquals("Unexpected number of bytes read.", length, bytesRead);
+        AssertExtensions.assertArrayEquals("Unexpected data read.", data, offset, buffer, 0, length);
+    }
+
+    private byte[] populate(Storage storage) {
+        return populate(storage, SEGMENT_LENGTH, 0);
+    }
+
+    private byte[] populate(Storage storage, int length, int seed) {
+        byte[] data = new byte[length];
+        new Random(seed).nextBytes(data);
+        storage.create(SEGMENT_NAME, TIMEOUT)
+               .thenCompose(si -> storage.openWrite(SEGMENT_NAME))
+               .thenCompose(h -> storage.write(h, 0, new ByteArrayInputStream(data), data.length, TIMEOUT)
+                                        .thenCompose(v -> storage.seal(h, TIMEOUT)))
+               .join();
+        return data;
+    }
+}
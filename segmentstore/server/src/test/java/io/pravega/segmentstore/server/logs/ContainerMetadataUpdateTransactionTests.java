@@ -39,6 +39,7 @@ import io.pravega.segmentstore.server.logs.operations.StreamSegmentSealOperation
 import io.pravega.segmentstore.server.logs.operations.StreamSegmentTruncateOperation;
 import io.pravega.segmentstore.server.logs.operations.TransactionMapOperation;
 import io.pravega.segmentstore.server.logs.operations.UpdateAttributesOperation;
+import io.pravega.shared.segment.SegmentTimeIndex;
 import io.pravega.test.common.AssertExtensions;
 import java.util.ArrayList;
 import java.util.Arrays;
@@ -254,6 +255,67 @@ public class ContainerMetadataUpdateTransactionTests {
         testWithBadAttributes(attributeUpdates -> new StreamSegmentAppendOperation(SEGMENT_ID, DEFAULT_APPEND_DATA, attributeUpdates));
     }
 
+    /**
+     * Tests the ability of the ContainerMetadataUpdateTransaction to fill in (and compact) the time index of a Segment
+     * from StreamSegmentAppends that carry time index entries.
+     */
+    @Test
+    public void testStreamSegmentAppendWithTimeIndex() throws Exception {
+        final long bucket = SegmentTimeIndex.GRANULARITY.toMillis();
+        UpdateableContainerMetadata metadata = createMetadata();
+        val txn = createUpdateTransaction(metadata);
+
+        // First append in a bucket: the entry is set to the offset of the append.
+        val firstAppend = createAppendWithTimeIndex(10 * bucket);
+        txn.preProcessOperation(firstAppend);
+        txn.acceptOperation(firstAppend);
+        Assert.assertEquals("Unexpected entry for a new bucket.",
+                SEGMENT_LENGTH, (long) firstAppend.getAttributeUpdates().iterator().next().getValue());
+
+        // Another append in the same bucket: the entry is left as it is.
+        val secondAppend = createAppendWithTimeIndex(10 * bucket + 1);
+        txn.preProcessOperation(secondAppend);
+        txn.acceptOperation(secondAppend);
+        Assert.assertEquals("Unexpected entry for an existing bucket.",
+                SEGMENT_LENGTH, (long) secondAppend.getAttributeUpdates().iterator().next().getValue());
+
+        // An append in an older bucket: no entry is added.
+        val olderAppend = createAppendWithTimeIndex(9 * bucket);
+        txn.preProcessOperation(olderAppend);
+        txn.acceptOperation(olderAppend);
+        Assert.assertEquals("Unexpected entry for an older bucket.",
+                SegmentMetadata.NULL_ATTRIBUTE_VALUE, (long) olderAppend.getAttributeUpdates().iterator().next().getValue());
+
+        // An append in a later bucket.
+        val laterAppend = createAppendWithTimeIndex(12 * bucket);
+        txn.preProcessOperation(laterAppend);
+        txn.acceptOperation(laterAppend);
+        final long laterOffset = laterAppend.getStreamSegmentOffset();
+
+        txn.commit(metadata);
+        val attributes = metadata.getStreamSegmentMetadata(SEGMENT_ID).getAttributes();
+        Assert.assertNull("Unexpected entry for a bucket before the index.",
+                SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(9 * bucket)));
+        Assert.assertEquals("Unexpected entry for the first bucket.", SEGMENT_LENGTH,
+                (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(10 * bucket)));
+        Assert.assertEquals("Unexpected entry for a bucket with no appends.", SEGMENT_LENGTH,
+                (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(11 * bucket)));
+        Assert.assertEquals("Unexpected entry for the last bucket.", laterOffset,
+                (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(12 * bucket)));
+
+        // Truncating the Segment removes the entries below the truncation offset.
+        val truncate = createTruncate(laterOffset);
+        val txn2 = createUpdateTransaction(metadata);
+        txn2.preProcessOperation(truncate);
+        txn2.acceptOperation(truncate);
+        txn2.commit(metadata);
+        val truncatedAttributes = metadata.getStreamSegmentMetadata(SEGMENT_ID).getAttributes();
+        Assert.assertNull("Entry below the truncation offset was not removed.",
+                SegmentTimeIndex.findOffset(truncatedAttributes, SegmentTimeIndex.getAttributeId(11 * bucket)));
+        Assert.assertEquals("Unexpected entry for the last bucket after truncation.", laterOffset,
+                (long) SegmentTimeIndex.findOffset(truncatedAttributes, SegmentTimeIndex.getAttributeId(12 * bucket)));
+    }
+
     //endregion
 
     //region UpdateAttributesOperation
@@ -1423,6 +1485,11 @@ public class ContainerMetadataUpdateTransactionTests {
         return new StreamSegmentAppendOperation(SEGMENT_ID, offset, DEFAULT_APPEND_DATA, createAttributeUpdates());
     }
 
+    private StreamSegmentAppendOperation createAppendWithTimeIndex(long timestamp) {
+        val timeIndexUpdate = new AttributeUpdate(SegmentTimeIndex.getAttributeId(timestamp), AttributeUpdateType.Replace, 0);
+        return new StreamSegmentAppendOperation(SEGMENT_ID, DEFAULT_APPEND_DATA, Collections.singleton(timeIndexUpdate));
+    }
+
     private Collection<AttributeUpdate> createAttributeUpdates() {
         return Arrays.stream(ATTRIBUTE_UPDATE_TYPES)
                      .map(ut -> new AttributeUpdate(UUID.randomUUID(), ut, NEXT_ATTRIBUTE_VALUE.get()))
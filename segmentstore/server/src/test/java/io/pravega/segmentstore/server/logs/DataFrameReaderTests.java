@@ -12,6 +12,7 @@ package io.pravega.segmentstore.server.logs;
 import io.pravega.common.Exceptions;
 import io.pravega.common.ObjectClosedException;
 import io.pravega.common.function.Callbacks;
+import io.pravega.common.util.CloseableIterator;
 import io.pravega.segmentstore.server.DataCorruptionException;
 import io.pravega.segmentstore.server.LogItemFactory;
 import io.pravega.segmentstore.server.TestDurableDataLog;
@@ -24,9 +25,11 @@ import java.io.IOException;
 import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashSet;
 import java.util.List;
 import java.util.function.BiConsumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
 import lombok.val;
 import org.junit.Assert;
@@ -156,6 +159,7 @@ public class DataFrameReaderTests extends ThreadPooledTestSuite {
             TestLogItemFactory logItemFactory = new TestLogItemFactory();
             logItemFactory.setDeserializationErrorInjector(errorInjector);
             testReadWithException(dataLog, logItemFactory, ex -> ex instanceof DataCorruptionException);
+            testReadWithException(dataLog, logItemFactory, this::prefetch, ex -> ex instanceof DataCorruptionException);
         }
     }
 
@@ -204,8 +208,69 @@ public class DataFrameReaderTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the PrefetchingDataFrameReader: it must return the same items, in the same order, as the DataFrameReader it
+     * wraps, regardless of how fast the consumer is.
+     */
+    @Test
+    public void testPrefetchingReads() throws Exception {
+        ArrayList<TestLogItem> records = DataFrameTestHelpers.generateLogItems(100, SMALL_RECORD_MIN_SIZE, SMALL_RECORD_MAX_SIZE, 0);
+        records.addAll(DataFrameTestHelpers.generateLogItems(100, LARGE_RECORD_MIN_SIZE, LARGE_RECORD_MAX_SIZE, records.size()));
+        try (TestDurableDataLog dataLog = TestDurableDataLog.create(CONTAINER_ID, FRAME_SIZE, executorService())) {
+            dataLog.initialize(TIMEOUT);
+
+            BiConsumer<Throwable, DataFrameBuilder.CommitArgs> errorCallback = (ex, a) ->
+                    Assert.fail(String.format("Unexpected error occurred upon commit. %s", ex));
+            val args = new DataFrameBuilder.Args(Callbacks::doNothing, Callbacks::doNothing, errorCallback, executorService());
+            try (DataFrameBuilder<TestLogItem> b = new DataFrameBuilder<>(dataLog, args)) {
+                for (TestLogItem r : records) {
+                    b.append(r);
+                }
+            }
+
+            TestLogItemFactory logItemFactory = new TestLogItemFactory();
+            try (PrefetchingDataFrameReader<TestLogItem> reader = prefetch(new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID))) {
+                List<TestLogItem> readItems = readAll(reader);
+                checkReadResult(records, Collections.emptyList(), readItems);
+                Assert.assertNull("Not expecting any more items after reaching the end.", reader.getNext());
+            }
+
+            // Slow consumer: give the prefetcher a chance to fill up its buffer between reads.
+            try (PrefetchingDataFrameReader<TestLogItem> reader = prefetch(new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID))) {
+                List<TestLogItem> readItems = new ArrayList<>();
+                DataFrameReader.ReadResult<TestLogItem> readResult;
+                while ((readResult = reader.getNext()) != null) {
+                    readItems.add(readResult.getItem());
+                    if (readItems.size() % 20 == 0) {
+                        Thread.sleep(10);
+                    }
+                }
+
+                checkReadResult(records, Collections.emptyList(), readItems);
+            }
+
+            // Closed reader.
+            val reader = prefetch(new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID));
+            reader.close();
+            AssertExtensions.assertThrows(
+                    "getNext() did not throw when the reader was closed.",
+                    reader::getNext,
+                    ex -> ex instanceof ObjectClosedException);
+        }
+    }
+
+    private PrefetchingDataFrameReader<TestLogItem> prefetch(DataFrameReader<TestLogItem> reader) {
+        return new PrefetchingDataFrameReader<>(reader, 10, executorService());
+    }
+
     private void testReadWithException(DurableDataLog dataLog, LogItemFactory<TestLogItem> logItemFactory, Predicate<Throwable> exceptionVerifier) throws Exception {
-        try (DataFrameReader<TestLogItem> reader = new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID)) {
+        testReadWithException(dataLog, logItemFactory, r -> r, exceptionVerifier);
+    }
+
+    private void testReadWithException(DurableDataLog dataLog, LogItemFactory<TestLogItem> logItemFactory,
+                                       Function<DataFrameReader<TestLogItem>, CloseableIterator<DataFrameReader.ReadResult<TestLogItem>, Exception>> wrapReader,
+                                       Predicate<Throwable> exceptionVerifier) throws Exception {
+        try (CloseableIterator<DataFrameReader.ReadResult<TestLogItem>, Exception> reader = wrapReader.apply(new DataFrameReader<>(dataLog, logItemFactory, CONTAINER_ID))) {
             boolean encounteredException = false;
             while (true) {
                 DataFrameReader.ReadResult<TestLogItem> readResult;
@@ -257,7 +322,7 @@ public class DataFrameReaderTests extends ThreadPooledTestSuite {
         }
     }
 
-    private ArrayList<TestLogItem> readAll(DataFrameReader<TestLogItem> reader) throws Exception {
+    private ArrayList<TestLogItem> readAll(CloseableIterator<DataFrameReader.ReadResult<TestLogItem>, Exception> reader) throws Exception {
         ArrayList<TestLogItem> result = new ArrayList<>();
         long lastDataFrameSequence = -1;
         boolean expectDifferentDataFrameSequence = true;
@@ -106,7 +106,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -156,7 +156,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -242,7 +242,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -300,7 +300,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         ErrorInjector<Exception> aSyncErrorInjector = new ErrorInjector<>(
@@ -349,7 +349,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         ErrorInjector<Exception> aSyncErrorInjector = new ErrorInjector<>(
@@ -405,7 +405,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -493,7 +493,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -527,7 +527,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         dataLog.initialize(TIMEOUT);
         @Cleanup
         OperationProcessor operationProcessor = new OperationProcessor(context.metadata, context.stateUpdater,
-                dataLog, getNoOpCheckpointPolicy(), executorService());
+                dataLog, getNoOpCheckpointPolicy(), context.throttler, executorService());
         operationProcessor.startAsync().awaitRunning();
 
         // Process all generated operations.
@@ -631,6 +631,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
         final UpdateableContainerMetadata metadata;
         final ReadIndex readIndex;
         final MemoryStateUpdater stateUpdater;
+        final WriteThrottler throttler;
 
         TestContext() {
             this.cacheFactory = new InMemoryCacheFactory();
@@ -644,6 +645,7 @@ public class OperationProcessorTests extends OperationLogTestBase {
             this.readIndex = new ContainerReadIndex(readIndexConfig, this.metadata, this.cacheFactory, this.storage, this.cacheManager, executorService());
             this.memoryLog = new SequencedItemList<>();
             this.stateUpdater = new MemoryStateUpdater(this.memoryLog, this.readIndex);
+            this.throttler = new WriteThrottler(this.metadata, this.memoryLog::size, DurableLogConfig.builder().build());
         }
 
         @Override
@@ -0,0 +1,163 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.logs;
+
+import io.pravega.segmentstore.server.MetadataBuilder;
+import io.pravega.segmentstore.server.UpdateableSegmentMetadata;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the WriteThrottler class.
+ */
+public class WriteThrottlerTests {
+    private static final int CONTAINER_ID = 1;
+    private static final long UNFLUSHED_BYTES_THRESHOLD = 1000;
+    private static final long UNFLUSHED_BYTES_MAX = 2000;
+    private static final int OPERATION_LOG_SIZE_THRESHOLD = 100;
+    private static final int OPERATION_LOG_SIZE_MAX = 200;
+    private static final int MAX_DELAY_MILLIS = 1000;
+    private static final int MIN_ADMISSION_RATE = 1000;
+    private static final double DELTA = 0.0001;
+    private static final DurableLogConfig CONFIG = DurableLogConfig
+            .builder()
+            .with(DurableLogConfig.THROTTLE_UNFLUSHED_BYTES_THRESHOLD, UNFLUSHED_BYTES_THRESHOLD)
+            .with(DurableLogConfig.THROTTLE_UNFLUSHED_BYTES_MAX, UNFLUSHED_BYTES_MAX)
+            .with(DurableLogConfig.THROTTLE_OPERATION_LOG_SIZE_THRESHOLD, OPERATION_LOG_SIZE_THRESHOLD)
+            .with(DurableLogConfig.THROTTLE_OPERATION_LOG_SIZE_MAX, OPERATION_LOG_SIZE_MAX)
+            .with(DurableLogConfig.THROTTLE_MAX_DELAY, MAX_DELAY_MILLIS)
+            .with(DurableLogConfig.THROTTLE_MIN_ADMISSION_RATE, MIN_ADMISSION_RATE)
+            .build();
+
+    /**
+     * Tests that the pressure is calculated based on the number of un-flushed bytes.
+     */
+    @Test
+    public void testUnflushedBytes() {
+        val metadata = new MetadataBuilder(CONTAINER_ID).build();
+        val throttler = new WriteThrottler(metadata, () -> 0, CONFIG, Duration.ZERO);
+        UpdateableSegmentMetadata s1 = metadata.mapStreamSegmentId("s1", 1);
+        UpdateableSegmentMetadata s2 = metadata.mapStreamSegmentId("s2", 2);
+        s1.setStorageLength(0);
+        s2.setStorageLength(0);
+
+        // Below the threshold: no throttling.
+        s1.setLength(UNFLUSHED_BYTES_THRESHOLD / 2);
+        s2.setLength(UNFLUSHED_BYTES_THRESHOLD / 2);
+        checkState(throttler.getState(), UNFLUSHED_BYTES_THRESHOLD, 0);
+
+        // Half-way between the threshold and the maximum: half the maximum pressure.
+        s2.setLength(UNFLUSHED_BYTES_THRESHOLD / 2 + (UNFLUSHED_BYTES_MAX - UNFLUSHED_BYTES_THRESHOLD) / 2);
+        throttler.recordUpdate(s2.getId());
+        checkState(throttler.getState(), (UNFLUSHED_BYTES_THRESHOLD + UNFLUSHED_BYTES_MAX) / 2, 0.5);
+
+        // Way above the maximum: maximum pressure.
+        s1.setLength(UNFLUSHED_BYTES_MAX * 10);
+        throttler.recordUpdate(s1.getId());
+        Assert.assertEquals("Unexpected pressure above maximum.", 1, throttler.getState().getPressure(), DELTA);
+
+        // Data gets flushed: no throttling. Deleted Segments are not counted.
+        s1.setStorageLength(s1.getLength());
+        s2.markDeleted();
+        checkState(throttler.getState(), 0, 0);
+    }
+
+    /**
+     * Tests that only those Segments that have been recorded as updated (since they were last fully flushed) are inspected.
+     */
+    @Test
+    public void testUnflushedSegmentTracking() {
+        val metadata = new MetadataBuilder(CONTAINER_ID).build();
+        val throttler = new WriteThrottler(metadata, () -> 0, CONFIG, Duration.ZERO);
+        UpdateableSegmentMetadata s1 = metadata.mapStreamSegmentId("s1", 1);
+        s1.setStorageLength(0);
+        s1.setLength(UNFLUSHED_BYTES_THRESHOLD);
+
+        // The first calculation inspects all Segments (there may be un-flushed data from before a recovery).
+        checkState(throttler.getState(), UNFLUSHED_BYTES_THRESHOLD, 0);
+
+        // Once fully flushed, a Segment is no longer inspected until it is updated again.
+        s1.setStorageLength(s1.getLength());
+        checkState(throttler.getState(), 0, 0);
+        s1.setLength(UNFLUSHED_BYTES_MAX);
+        checkState(throttler.getState(), 0, 0);
+        throttler.recordUpdate(s1.getId());
+        checkState(throttler.getState(), UNFLUSHED_BYTES_MAX - UNFLUSHED_BYTES_THRESHOLD, 0);
+
+        // Segments that are not (yet) in the metadata are ignored.
+        throttler.recordUpdate(s1.getId() + 1);
+        checkState(throttler.getState(), UNFLUSHED_BYTES_MAX - UNFLUSHED_BYTES_THRESHOLD, 0);
+    }
+
+    /**
+     * Tests that the pressure is calculated based on the size of the in-memory Operation Log.
+     */
+    @Test
+    public void testOperationLogSize() {
+        val metadata = new MetadataBuilder(CONTAINER_ID).build();
+        val operationLogSize = new AtomicInteger();
+        val throttler = new WriteThrottler(metadata, operationLogSize::get, CONFIG, Duration.ZERO);
+
+        operationLogSize.set(OPERATION_LOG_SIZE_THRESHOLD);
+        Assert.assertEquals("Unexpected pressure at threshold.", 0, throttler.getState().getPressure(), DELTA);
+
+        operationLogSize.set((OPERATION_LOG_SIZE_THRESHOLD + OPERATION_LOG_SIZE_MAX) / 2);
+        Assert.assertEquals("Unexpected pressure half-way.", 0.5, throttler.getState().getPressure(), DELTA);
+        Assert.assertTrue("Expected to be throttling.", throttler.getState().isThrottling());
+
+        operationLogSize.set(OPERATION_LOG_SIZE_MAX);
+        Assert.assertEquals("Unexpected pressure at maximum.", 1, throttler.getState().getPressure(), DELTA);
+    }
+
+    /**
+     * Tests that the delay is proportional to the number of admitted bytes and to the pressure, and that it is capped.
+     */
+    @Test
+    public void testGetDelayMillis() {
+        val metadata = new MetadataBuilder(CONTAINER_ID).build();
+        val operationLogSize = new AtomicInteger();
+        val throttler = new WriteThrottler(metadata, operationLogSize::get, CONFIG, Duration.ZERO);
+
+        // No pressure: no delay.
+        Assert.assertEquals("Not expecting a delay without pressure.", 0, throttler.getDelayMillis(MIN_ADMISSION_RATE));
+
+        // Half pressure: data is admitted at twice the minimum rate. Batches without any data are never delayed.
+        operationLogSize.set((OPERATION_LOG_SIZE_THRESHOLD + OPERATION_LOG_SIZE_MAX) / 2);
+        Assert.assertEquals("Not expecting a delay for a batch without data.", 0, throttler.getDelayMillis(0));
+        Assert.assertEquals("Unexpected delay at half pressure.", 50, throttler.getDelayMillis(MIN_ADMISSION_RATE / 10));
+
+        // Maximum pressure: data is admitted at the minimum rate, but no batch is delayed more than the maximum delay.
+        operationLogSize.set(OPERATION_LOG_SIZE_MAX);
+        Assert.assertEquals("Unexpected delay at maximum pressure.", 100, throttler.getDelayMillis(MIN_ADMISSION_RATE / 10));
+        Assert.assertEquals("Unexpected delay for a large batch.", MAX_DELAY_MILLIS, throttler.getDelayMillis(MIN_ADMISSION_RATE * 10));
+    }
+
+    /**
+     * Tests that the state is not re-calculated more often than the refresh interval.
+     */
+    @Test
+    public void testRefreshInterval() {
+        val metadata = new MetadataBuilder(CONTAINER_ID).build();
+        val operationLogSize = new AtomicInteger();
+        val throttler = new WriteThrottler(metadata, operationLogSize::get, CONFIG, Duration.ofHours(1));
+        Assert.assertEquals("Unexpected initial pressure.", 0, throttler.getState().getPressure(), DELTA);
+        operationLogSize.set(OPERATION_LOG_SIZE_MAX);
+        Assert.assertEquals("Not expecting the state to be re-calculated before the refresh interval.",
+                0, throttler.getState().getPressure(), DELTA);
+    }
+
+    private void checkState(WriteThrottler.State state, long expectedUnflushedBytes, double expectedPressure) {
+        Assert.assertEquals("Unexpected unflushed bytes.", expectedUnflushedBytes, state.getUnflushedBytes());
+        Assert.assertEquals("Unexpected pressure.", expectedPressure, state.getPressure(), DELTA);
+    }
+}
@@ -70,7 +70,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         storage.initialize(1);
         byte[] segmentData = populateSegment(storage);
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, createScheduler(), executorService());
         HashMap<StorageReadManager.Request, CompletableFuture<StorageReadManager.Result>> requestCompletions = new HashMap<>();
         int readOffset = 0;
         while (readOffset < segmentData.length) {
@@ -107,7 +107,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         storage.initialize(1);
         byte[] segmentData = populateSegment(storage);
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, createScheduler(), executorService());
 
         // Segment does not exist.
         AssertExtensions.assertThrows(
@@ -115,7 +115,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
                 () -> {
                     SegmentMetadata sm = new StreamSegmentMetadata("foo", 0, 0);
                     @Cleanup
-                    StorageReadManager nonExistentReader = new StorageReadManager(sm, storage, executorService());
+                    StorageReadManager nonExistentReader = new StorageReadManager(sm, storage, createScheduler(), executorService());
                     sendRequest(nonExistentReader, 0, 1).join();
                 },
                 ex -> ex instanceof StreamSegmentNotExistsException);
@@ -157,7 +157,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         };
 
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, createScheduler(), executorService());
 
         // Create some reads.
         CompletableFuture<StorageReadManager.Result> c1 = new CompletableFuture<>();
@@ -188,7 +188,7 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         TestStorage storage = new TestStorage();
         storage.readImplementation = CompletableFuture::new; // Just return a Future which we will never complete - simulates a high latency read.
         @Cleanup
-        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, executorService());
+        StorageReadManager reader = new StorageReadManager(SEGMENT_METADATA, storage, createScheduler(), executorService());
 
         // Create some reads.
         HashMap<StorageReadManager.Request, CompletableFuture<StorageReadManager.Result>> requestCompletions = new HashMap<>();
@@ -227,6 +227,10 @@ public class StorageReadManagerTests extends ThreadPooledTestSuite {
         return segmentData;
     }
 
+    private StorageReadScheduler createScheduler() {
+        return new StorageReadScheduler(0, 10, 0, executorService());
+    }
+
     private static class TestStorage implements ReadOnlyStorage {
         Supplier<CompletableFuture<Integer>> readImplementation;
 
@@ -0,0 +1,180 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.segmentstore.server.reading;
+
+import io.pravega.common.ObjectClosedException;
+import io.pravega.common.concurrent.Futures;
+import io.pravega.segmentstore.server.containers.StreamSegmentMetadata;
+import io.pravega.test.common.AssertExtensions;
+import io.pravega.test.common.ThreadPooledTestSuite;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import lombok.Cleanup;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.Timeout;
+
+/**
+ * Unit tests for the StorageReadScheduler class.
+ */
+public class StorageReadSchedulerTests extends ThreadPooledTestSuite {
+    private static final int CONTAINER_ID = 0;
+    private static final Duration TIMEOUT = Duration.ofSeconds(10);
+    @Rule
+    public Timeout globalTimeout = Timeout.seconds(TIMEOUT.getSeconds());
+
+    @Override
+    protected int getThreadPoolSize() {
+        return 5;
+    }
+
+    /**
+     * Tests that no more than the configured number of Storage Reads execute concurrently.
+     */
+    @Test
+    public void testMaxConcurrency() {
+        final int maxConcurrency = 3;
+        final int readCount = 20;
+        @Cleanup
+        val scheduler = new StorageReadScheduler(CONTAINER_ID, maxConcurrency, 0, executorService());
+        val maxActive = new AtomicInteger();
+        val pendingReads = Collections.synchronizedList(new ArrayList<CompletableFuture<Integer>>());
+        val results = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < readCount; i++) {
+            results.add(scheduler.execute(i % 2, i % 3 == 0, () -> {
+                maxActive.accumulateAndGet(scheduler.getActiveCount(), Math::max);
+                val read = new CompletableFuture<Integer>();
+                pendingReads.add(read);
+                return read;
+            }));
+        }
+
+        // Complete the reads one by one, as they get executed.
+        int completedCount = 0;
+        while (completedCount < readCount) {
+            CompletableFuture<Integer> read = null;
+            synchronized (pendingReads) {
+                if (!pendingReads.isEmpty()) {
+                    read = pendingReads.remove(0);
+                }
+            }
+
+            if (read == null) {
+                Thread.yield();
+                continue;
+            }
+
+            AssertExtensions.assertLessThanOrEqual("Too many concurrent reads.", maxConcurrency, scheduler.getActiveCount());
+            read.complete(completedCount++);
+        }
+
+        Futures.allOf(results).join();
+        AssertExtensions.assertLessThanOrEqual("Too many concurrent reads.", maxConcurrency, maxActive.get());
+        Assert.assertEquals("Unexpected number of active reads after completion.", 0, scheduler.getActiveCount());
+    }
+
+    /**
+     * Tests that Tail Reads are prioritized over Catch-up Reads (without starving them) and that Segments are served
+     * in a round-robin fashion.
+     */
+    @Test
+    public void testPrioritization() {
+        @Cleanup
+        val scheduler = new StorageReadScheduler(CONTAINER_ID, 1, 0, executorService());
+
+        // Block the scheduler so that everything else gets queued up.
+        val blocker = new CompletableFuture<Integer>();
+        val blockerResult = scheduler.execute(0, false, () -> blocker);
+
+        val executionOrder = Collections.synchronizedList(new ArrayList<Long>());
+        val results = new ArrayList<CompletableFuture<Integer>>();
+        for (int i = 0; i < 3; i++) {
+            results.add(queue(scheduler, 1, false, executionOrder));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            results.add(queue(scheduler, 2, true, executionOrder));
+        }
+
+        for (int i = 0; i < 4; i++) {
+            results.add(queue(scheduler, 3, true, executionOrder));
+        }
+
+        Assert.assertTrue("Not expecting any reads to have executed yet.", executionOrder.isEmpty());
+        blocker.complete(0);
+        blockerResult.join();
+        Futures.allOf(results).join();
+
+        // Segments 2 and 3 have Tail Reads (interleaved), while Segment 1 only gets a Catch-up Read in after every
+        // TAIL_READS_PER_CATCHUP_READ Tail Reads.
+        Assert.assertEquals("Unexpected test setup.", 4, StorageReadScheduler.TAIL_READS_PER_CATCHUP_READ);
+        val expectedOrder = Arrays.asList(2L, 3L, 2L, 3L, 1L, 2L, 3L, 2L, 3L, 1L, 1L);
+        Assert.assertEquals("Unexpected execution order.", expectedOrder, executionOrder);
+    }
+
+    /**
+     * Tests the isTailRead() method.
+     */
+    @Test
+    public void testIsTailRead() {
+        final long tailLength = 100;
+        @Cleanup
+        val scheduler = new StorageReadScheduler(CONTAINER_ID, 1, tailLength, executorService());
+        val metadata = new StreamSegmentMetadata("Segment", 0, CONTAINER_ID);
+        metadata.setStorageLength(1000);
+        Assert.assertTrue("Expected a Tail Read at the end of the Segment.", scheduler.isTailRead(metadata, 1000));
+        Assert.assertTrue("Expected a Tail Read within the tail length.", scheduler.isTailRead(metadata, 1000 - tailLength));
+        Assert.assertFalse("Not expecting a Tail Read outside the tail length.", scheduler.isTailRead(metadata, 1000 - tailLength - 1));
+    }
+
+    /**
+     * Tests that closing the StorageReadScheduler fails all queued reads and rejects new ones.
+     */
+    @Test
+    public void testClose() {
+        val scheduler = new StorageReadScheduler(CONTAINER_ID, 1, 0, executorService());
+        val blocker = new CompletableFuture<Integer>();
+        val blockerResult = scheduler.execute(0, true, () -> blocker);
+        val executed = new AtomicInteger();
+        val queued = scheduler.execute(1, true, () -> {
+            executed.incrementAndGet();
+            return CompletableFuture.completedFuture(1);
+        });
+
+        scheduler.close();
+        AssertExtensions.assertThrows(
+                "Queued read was not failed when closed.",
+                queued,
+                ex -> ex instanceof ObjectClosedException);
+        AssertExtensions.assertThrows(
+                "execute() worked after close().",
+                () -> scheduler.execute(1, true, () -> CompletableFuture.completedFuture(1)),
+                ex -> ex instanceof ObjectClosedException);
+
+        // Reads that are already executing should complete normally.
+        blocker.complete(2);
+        Assert.assertEquals("Unexpected result for in-progress read.", 2, (int) blockerResult.join());
+        Assert.assertEquals("Not expecting any queued reads to execute after close().", 0, executed.get());
+    }
+
+    private CompletableFuture<Integer> queue(StorageReadScheduler scheduler, long segmentId, boolean tailRead, List<Long> executionOrder) {
+        return scheduler.execute(segmentId, tailRead, () -> {
+            executionOrder.add(segmentId);
+            return CompletableFuture.completedFuture(0);
+        });
+    }
+}
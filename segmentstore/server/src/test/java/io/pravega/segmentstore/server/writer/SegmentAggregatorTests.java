@@ -901,6 +901,87 @@ public class SegmentAggregatorTests extends ThreadPooledTestSuite {
         }
     }
 
+    /**
+     * Tests the flush() method with multiple consecutive MergeTransactionOperations, which should be merged in batches.
+     * Verifies that a single call to flush() merges all eligible Transactions, in order.
+     */
+    @Test
+    public void testMergeBatch() throws Exception {
+        final int appendCount = 10;
+        final WriterConfig config = WriterConfig
+                .builder()
+                .with(WriterConfig.FLUSH_THRESHOLD_BYTES, appendCount * 50) // Extra high length threshold.
+                .with(WriterConfig.FLUSH_THRESHOLD_MILLIS, 1000L)
+                .with(WriterConfig.MAX_MERGE_BATCH_COUNT, TRANSACTION_COUNT / 3)
+                .with(WriterConfig.MIN_READ_TIMEOUT_MILLIS, 10L)
+                .build();
+
+        @Cleanup
+        TestContext context = new TestContext(config);
+
+        // Create and initialize all segments.
+        context.storage.create(context.segmentAggregator.getMetadata().getName(), TIMEOUT).join();
+        context.segmentAggregator.initialize(TIMEOUT).join();
+        for (SegmentAggregator a : context.transactionAggregators) {
+            context.storage.create(a.getMetadata().getName(), TIMEOUT).join();
+            a.initialize(TIMEOUT).join();
+        }
+
+        // Add a few appends to each Transaction, seal it and flush it to Storage.
+        @Cleanup
+        ByteArrayOutputStream parentData = new ByteArrayOutputStream();
+        for (SegmentAggregator transactionAggregator : context.transactionAggregators) {
+            long transactionId = transactionAggregator.getMetadata().getId();
+            for (int appendId = 0; appendId < appendCount; appendId++) {
+                StorageOperation appendOp = generateAppendAndUpdateMetadata(appendId, transactionId, context);
+                transactionAggregator.add(appendOp);
+                getAppendData(appendOp, parentData, context);
+            }
+
+            transactionAggregator.add(generateSealAndUpdateMetadata(transactionId, context));
+            transactionAggregator.flush(TIMEOUT).join();
+            Assert.assertTrue("Transaction was not sealed in Storage.", transactionAggregator.getMetadata().isSealedInStorage());
+        }
+
+        // Merge all the Transactions into the parent, using consecutive MergeTransactionOperations.
+        val expectedConcatSources = new ArrayList<String>();
+        for (SegmentAggregator transactionAggregator : context.transactionAggregators) {
+            context.segmentAggregator.add(generateMergeTransactionAndUpdateMetadata(transactionAggregator.getMetadata().getId(), context));
+            expectedConcatSources.add(transactionAggregator.getMetadata().getName());
+        }
+
+        val actualConcatSources = new ArrayList<String>();
+        context.storage.setConcatInterceptor((targetSegment, offset, sourceSegment, storage) -> {
+            synchronized (actualConcatSources) {
+                actualConcatSources.add(sourceSegment);
+            }
+            return null;
+        });
+        val parentInfoCount = new AtomicInteger();
+        val transactionInfoCount = new AtomicInteger();
+        String parentName = context.segmentAggregator.getMetadata().getName();
+        context.storage.setGetInfoInterceptor((segmentName, storage) -> {
+            (segmentName.equals(parentName) ? parentInfoCount : transactionInfoCount).incrementAndGet();
+            return null;
+        });
+
+        // A single flush should merge everything.
+        FlushResult flushResult = context.segmentAggregator.flush(TIMEOUT).join();
+        Assert.assertEquals("Unexpected number of bytes merged.", parentData.size(), flushResult.getMergedBytes());
+        Assert.assertEquals("Not expecting any flushed bytes in this test.", 0, flushResult.getFlushedBytes());
+        Assert.assertEquals("Unexpected concat order.", expectedConcatSources, actualConcatSources);
+        Assert.assertEquals("Unexpected number of Storage lookups for the Transactions.", TRANSACTION_COUNT, transactionInfoCount.get());
+        int batchSize = config.getMaxMergeBatchCount();
+        Assert.assertEquals("Expected a single Storage lookup for the parent for each batch of merged Transactions.",
+                (TRANSACTION_COUNT + batchSize - 1) / batchSize, parentInfoCount.get());
+        Assert.assertEquals("Unexpected StorageLength in metadata.", parentData.size(), context.segmentAggregator.getMetadata().getStorageLength());
+        for (SegmentAggregator transactionAggregator : context.transactionAggregators) {
+            Assert.assertTrue("Merged Transaction was not marked as deleted in metadata.", transactionAggregator.getMetadata().isDeleted());
+        }
+
+        verifySegmentData(parentData.toByteArray(), context);
+    }
+
     /**
      * Tests the flush() method with Append and MergeTransactionOperations.
      */
@@ -9,7 +9,10 @@
  */
 package io.pravega.segmentstore.storage.rolling;
 
+import com.google.common.annotations.VisibleForTesting;
 import com.google.common.base.Preconditions;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import io.pravega.common.Exceptions;
 import io.pravega.common.LoggerHelpers;
 import io.pravega.common.util.ByteArraySegment;
@@ -30,7 +33,7 @@ import io.pravega.segmentstore.storage.SyncStorage;
 import io.pravega.shared.segment.StreamSegmentNameUtils;
 import java.io.ByteArrayInputStream;
 import java.io.InputStream;
-import java.util.Collections;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicLong;
@@ -62,13 +65,26 @@ import lombok.val;
  * ** The concat() method should be overridden (in a derived class) to not convert Segments without Header into Segments
  * with Header.
  * ** Existing Segments (made up of Header and multi-SegmentChunks) can still be accessed by means of this class.
+ *
+ * A note about Handle caching:
+ * * The most recently used write Handle for every Segment that is created or modified using this instance is kept in
+ * memory. getStreamSegmentInfo() and exists() use it instead of reloading the Header and the last SegmentChunk from the
+ * base Storage every time.
+ * * At most MAX_CACHED_HANDLES Handles are kept; the least recently used ones are evicted first. Handles of Segments
+ * that are sealed, concatenated or deleted are evicted right away, as these Segments will not be modified again.
+ * * This relies on the fact that only one RollingStorage instance may modify a Segment at any given time (the others are
+ * fenced out by the base Storage). Any failed modification evicts the Handle from the cache, so that the next access
+ * reloads it from the base Storage.
+ * * openRead() and openWrite() always reload the Handle from the base Storage.
  */
 @Slf4j
 public class RollingStorage implements SyncStorage {
     //region Members
 
+    private static final int MAX_CACHED_HANDLES = 10000;
     private final SyncStorage baseStorage;
     private final SegmentRollingPolicy defaultRollingPolicy;
+    private final Cache<String, RollingSegmentHandle> writeHandles;
     private final AtomicBoolean closed;
 
     //endregion
@@ -92,8 +108,23 @@ public class RollingStorage implements SyncStorage {
      *                             defined.
      */
     public RollingStorage(SyncStorage baseStorage, SegmentRollingPolicy defaultRollingPolicy) {
+        this(baseStorage, defaultRollingPolicy, MAX_CACHED_HANDLES);
+    }
+
+    /**
+     * Creates a new instance of the RollingStorage class.
+     *
+     * @param baseStorage          A SyncStorage that will be used to execute operations.
+     * @param defaultRollingPolicy A SegmentRollingPolicy to apply to every StreamSegment that does not have its own policy
+     *                             defined.
+     * @param maxCachedHandles     The maximum number of write Handles to keep in memory.
+     */
+    @VisibleForTesting
+    RollingStorage(SyncStorage baseStorage, SegmentRollingPolicy defaultRollingPolicy, int maxCachedHandles) {
+        Preconditions.checkArgument(maxCachedHandles >= 0, "maxCachedHandles must be a non-negative number.");
         this.baseStorage = Preconditions.checkNotNull(baseStorage, "baseStorage");
         this.defaultRollingPolicy = Preconditions.checkNotNull(defaultRollingPolicy, "defaultRollingPolicy");
+        this.writeHandles = CacheBuilder.newBuilder().maximumSize(maxCachedHandles).build();
         this.closed = new AtomicBoolean();
     }
 
@@ -104,6 +135,7 @@ public class RollingStorage implements SyncStorage {
     @Override
     public void close() {
         if (!this.closed.getAndSet(true)) {
+            this.writeHandles.invalidateAll();
             this.baseStorage.close();
             log.info("Closed");
         }
@@ -206,7 +238,11 @@ public class RollingStorage implements SyncStorage {
 
     @Override
     public SegmentProperties getStreamSegmentInfo(String segmentName) throws StreamSegmentException {
-        val handle = (RollingSegmentHandle) openRead(segmentName);
+        RollingSegmentHandle handle = getCachedHandle(segmentName);
+        if (handle == null) {
+            handle = (RollingSegmentHandle) openRead(segmentName);
+        }
+
         return StreamSegmentInformation
                 .builder()
                 .name(handle.getSegmentName())
@@ -218,6 +254,10 @@ public class RollingStorage implements SyncStorage {
     @Override
     @SneakyThrows(StreamSegmentException.class)
     public boolean exists(String segmentName) {
+        if (getCachedHandle(segmentName) != null) {
+            return true;
+        }
+
         try {
             // Try to open-read the segment, this checks both the header file and the existence of the last SegmentChunk.
             openRead(segmentName);
@@ -261,7 +301,9 @@ public class RollingStorage implements SyncStorage {
             }
 
             headerHandle = this.baseStorage.openWrite(headerName);
-            serializeHandle(new RollingSegmentHandle(headerHandle, rollingPolicy, Collections.emptyList()));
+            val handle = new RollingSegmentHandle(headerHandle, rollingPolicy, new ArrayList<>());
+            serializeHandle(handle);
+            cacheHandle(handle);
         } catch (StreamSegmentExistsException ex) {
             throw ex;
         } catch (Exception ex) {
@@ -295,6 +337,7 @@ public class RollingStorage implements SyncStorage {
             handle.setActiveChunkHandle(activeHandle);
         }
 
+        cacheHandle(handle);
         LoggerHelpers.traceLeave(log, "openWrite", traceId, handle);
         return handle;
     }
@@ -310,20 +353,26 @@ public class RollingStorage implements SyncStorage {
         // We run this in a loop because we may have to split the write over multiple SegmentChunks in order to avoid exceeding
         // any SegmentChunk's maximum length.
         int bytesWritten = 0;
-        while (bytesWritten < length) {
-            if (h.getActiveChunkHandle() == null || h.lastChunk().getLength() >= h.getRollingPolicy().getMaxLength()) {
-                rollover(h);
-            }
+        try {
+            while (bytesWritten < length) {
+                if (h.getActiveChunkHandle() == null || h.lastChunk().getLength() >= h.getRollingPolicy().getMaxLength()) {
+                    rollover(h);
+                }
 
-            SegmentChunk last = h.lastChunk();
-            int writeLength = (int) Math.min(length - bytesWritten, h.getRollingPolicy().getMaxLength() - last.getLength());
-            assert writeLength > 0 : "non-positive write length";
-            long chunkOffset = offset + bytesWritten - last.getStartOffset();
-            this.baseStorage.write(h.getActiveChunkHandle(), chunkOffset, data, writeLength);
-            last.increaseLength(writeLength);
-            bytesWritten += writeLength;
+                SegmentChunk last = h.lastChunk();
+                int writeLength = (int) Math.min(length - bytesWritten, h.getRollingPolicy().getMaxLength() - last.getLength());
+                assert writeLength > 0 : "non-positive write length";
+                long chunkOffset = offset + bytesWritten - last.getStartOffset();
+                this.baseStorage.write(h.getActiveChunkHandle(), chunkOffset, data, writeLength);
+                last.increaseLength(writeLength);
+                bytesWritten += writeLength;
+            }
+        } catch (Exception ex) {
+            evictHandle(h);
+            throw ex;
         }
 
+        cacheHandle(h);
         LoggerHelpers.traceLeave(log, "write", traceId, handle, offset, bytesWritten);
     }
 
@@ -332,13 +381,21 @@ public class RollingStorage implements SyncStorage {
         val h = asWritableHandle(handle);
         ensureNotDeleted(h);
         long traceId = LoggerHelpers.traceEnter(log, "seal", handle);
-        sealActiveChunk(h);
-        SegmentHandle headerHandle = h.getHeaderHandle();
-        if (headerHandle != null) {
-            this.baseStorage.seal(headerHandle);
+        try {
+            sealActiveChunk(h);
+            SegmentHandle headerHandle = h.getHeaderHandle();
+            if (headerHandle != null) {
+                this.baseStorage.seal(headerHandle);
+            }
+        } catch (Exception ex) {
+            evictHandle(h);
+            throw ex;
         }
 
         h.markSealed();
+
+        // Sealed Segments can only be read, deleted or used as concat sources, none of which need the cached Handle.
+        evictHandle(h);
         log.debug("Sealed Header for '{}'.", h.getSegmentName());
         LoggerHelpers.traceLeave(log, "seal", traceId, handle);
     }
@@ -356,10 +413,26 @@ public class RollingStorage implements SyncStorage {
         ensureNotSealed(target);
         long traceId = LoggerHelpers.traceEnter(log, "concat", target, targetOffset, sourceSegment);
 
-        // We can only use a Segment as a concat source if it is Sealed.
         RollingSegmentHandle source = (RollingSegmentHandle) openWrite(sourceSegment);
+
+        try {
+            concatInternal(target, source);
+        } catch (Exception ex) {
+            evictHandle(target);
+            throw ex;
+        } finally {
+            // Whether the concat succeeded or not, the source's cached handle is no longer usable.
+            evictHandle(source);
+        }
+
+        cacheHandle(target);
+        LoggerHelpers.traceLeave(log, "concat", traceId, target, targetOffset, sourceSegment);
+    }
+
+    private void concatInternal(RollingSegmentHandle target, RollingSegmentHandle source) throws StreamSegmentException {
+        // We can only use a Segment as a concat source if it is Sealed.
         Preconditions.checkState(source.isSealed(), "Cannot concat segment '%s' into '%s' because it is not sealed.",
-                sourceSegment, target.getSegmentName());
+                source.getSegmentName(), target.getSegmentName());
         if (source.length() == 0) {
             // Source is empty; do not bother with concatenation.
             log.debug("Concat source '{}' is empty. Deleting instead of concatenating.", source);
@@ -415,14 +488,13 @@ public class RollingStorage implements SyncStorage {
             // unseal the segment (even though it's unsealed) - that is determined by the Header file seal status.
             unsealLastChunkIfNecessary(target);
         }
-
-        LoggerHelpers.traceLeave(log, "concat", traceId, target, targetOffset, sourceSegment);
     }
 
     @Override
     public void delete(SegmentHandle handle) throws StreamSegmentException {
         val h = asReadableHandle(handle);
         long traceId = LoggerHelpers.traceEnter(log, "delete", handle);
+        evictHandle(h);
 
         SegmentHandle headerHandle = h.getHeaderHandle();
         if (headerHandle == null) {
@@ -478,7 +550,14 @@ public class RollingStorage implements SyncStorage {
             rollover(h);
         }
 
-        deleteChunks(h, s -> canTruncate(s, truncationOffset));
+        try {
+            deleteChunks(h, s -> canTruncate(s, truncationOffset));
+        } catch (Exception ex) {
+            evictHandle(h);
+            throw ex;
+        }
+
+        cacheHandle(h);
         LoggerHelpers.traceLeave(log, "truncate", traceId, h, truncationOffset);
     }
 
@@ -755,6 +834,26 @@ public class RollingStorage implements SyncStorage {
         }
     }
 
+    private RollingSegmentHandle getCachedHandle(String segmentName) {
+        RollingSegmentHandle handle = this.writeHandles.getIfPresent(segmentName);
+        if (handle != null && handle.isDeleted()) {
+            this.writeHandles.asMap().remove(segmentName, handle);
+            handle = null;
+        }
+
+        return handle;
+    }
+
+    private void cacheHandle(RollingSegmentHandle handle) {
+        if (!handle.isReadOnly() && !handle.isDeleted() && !handle.isSealed()) {
+            this.writeHandles.put(handle.getSegmentName(), handle);
+        }
+    }
+
+    private void evictHandle(RollingSegmentHandle handle) {
+        this.writeHandles.invalidate(handle.getSegmentName());
+    }
+
     private RollingSegmentHandle asWritableHandle(SegmentHandle handle) {
         Preconditions.checkArgument(!handle.isReadOnly(), "handle must not be read-only.");
         return asReadableHandle(handle);
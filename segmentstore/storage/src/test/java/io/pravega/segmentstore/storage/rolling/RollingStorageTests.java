@@ -9,6 +9,7 @@
  */
 package io.pravega.segmentstore.storage.rolling;
 
+import io.pravega.segmentstore.contracts.SegmentProperties;
 import io.pravega.segmentstore.contracts.StreamSegmentException;
 import io.pravega.segmentstore.contracts.StreamSegmentExistsException;
 import io.pravega.segmentstore.contracts.StreamSegmentNotExistsException;
@@ -24,6 +25,7 @@ import io.pravega.test.common.IntentionalException;
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
 import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import lombok.Cleanup;
 import lombok.val;
@@ -77,6 +79,83 @@ public class RollingStorageTests extends RollingStorageTestBase {
         checkWrittenData(writtenData, readHandle, s);
     }
 
+    /**
+     * Tests the fact that write Handles are cached and used to serve getStreamSegmentInfo() and exists(), and that they are
+     * evicted when the Segment is sealed or when a modification fails.
+     */
+    @Test
+    public void testHandleCache() throws Exception {
+        final String sourceSegmentName = "SourceSegment";
+        @Cleanup
+        val baseStorage = new TestStorage();
+        @Cleanup
+        val s = new RollingStorage(baseStorage, DEFAULT_ROLLING_POLICY);
+        s.initialize(1);
+        s.create(SEGMENT_NAME);
+        val writeHandle = (RollingSegmentHandle) s.openWrite(SEGMENT_NAME);
+        val writeStream = new ByteArrayOutputStream();
+        populate(s, writeHandle, writeStream);
+
+        // The Segment has been modified using this instance, so we should not need to touch the base Storage to answer these.
+        baseStorage.getInfoCount.set(0);
+        Assert.assertEquals("Unexpected segment length.", writeStream.size(), s.getStreamSegmentInfo(SEGMENT_NAME).getLength());
+        Assert.assertTrue("Expected the segment to exist.", s.exists(SEGMENT_NAME));
+        Assert.assertEquals("Not expecting any base Storage lookups for a cached handle.", 0, baseStorage.getInfoCount.get());
+
+        // Concat a source that was written and sealed using this instance. Sealing evicts its handle.
+        s.create(sourceSegmentName);
+        val sourceHandle = s.openWrite(sourceSegmentName);
+        populate(s, sourceHandle, writeStream);
+        s.seal(sourceHandle);
+        baseStorage.getInfoCount.set(0);
+        Assert.assertTrue("Unexpected sealed status for source.", s.getStreamSegmentInfo(sourceSegmentName).isSealed());
+        AssertExtensions.assertGreaterThan("Expected the base Storage to be used for a sealed segment.", 0, baseStorage.getInfoCount.get());
+        s.concat(writeHandle, writeHandle.length(), sourceSegmentName);
+        Assert.assertFalse("Expecting the source segment to not exist anymore.", s.exists(sourceSegmentName));
+        Assert.assertEquals("Unexpected segment length after concat.", writeStream.size(), s.getStreamSegmentInfo(SEGMENT_NAME).getLength());
+        checkWrittenData(writeStream.toByteArray(), s.openRead(SEGMENT_NAME), s);
+
+        // A failed modification must evict the handle, so that the next lookup reloads it from the base Storage.
+        s.create(sourceSegmentName);
+        val sourceHandle2 = s.openWrite(sourceSegmentName);
+        populate(s, sourceHandle2, null);
+        s.seal(sourceHandle2);
+        baseStorage.concatFailure = sn -> new IntentionalException();
+        AssertExtensions.assertThrows(
+                "concat() did not propagate proper exception on failure.",
+                () -> s.concat(writeHandle, writeHandle.length(), sourceSegmentName),
+                ex -> ex instanceof IntentionalException);
+        baseStorage.concatFailure = null;
+
+        baseStorage.getInfoCount.set(0);
+        Assert.assertEquals("Unexpected segment length after failed concat.", writeHandle.length(), s.getStreamSegmentInfo(SEGMENT_NAME).getLength());
+        AssertExtensions.assertGreaterThan("Expected the base Storage to be used after a failed modification.", 0, baseStorage.getInfoCount.get());
+    }
+
+    /**
+     * Tests the fact that only a limited number of write Handles are cached, and that the least recently used ones are
+     * evicted first.
+     */
+    @Test
+    public void testHandleCacheLimit() throws Exception {
+        final String otherSegmentName = "OtherSegment";
+        @Cleanup
+        val baseStorage = new TestStorage();
+        @Cleanup
+        val s = new RollingStorage(baseStorage, DEFAULT_ROLLING_POLICY, 1);
+        s.initialize(1);
+        s.create(SEGMENT_NAME);
+        populate(s, s.openWrite(SEGMENT_NAME), null);
+        s.create(otherSegmentName);
+        populate(s, s.openWrite(otherSegmentName), null);
+
+        baseStorage.getInfoCount.set(0);
+        Assert.assertTrue("Expected the segment to exist.", s.exists(otherSegmentName));
+        Assert.assertEquals("Not expecting any base Storage lookups for the most recently used handle.", 0, baseStorage.getInfoCount.get());
+        Assert.assertTrue("Expected the segment to exist.", s.exists(SEGMENT_NAME));
+        AssertExtensions.assertGreaterThan("Expected the base Storage to be used for an evicted handle.", 0, baseStorage.getInfoCount.get());
+    }
+
     /**
      * Tests the ability to truncate Segments.
      */
@@ -542,6 +621,13 @@ public class RollingStorageTests extends RollingStorageTestBase {
     private static class TestStorage extends InMemoryStorage {
         private Function<String, IntentionalException> deleteFailure;
         private Function<String, IntentionalException> concatFailure;
+        private final AtomicInteger getInfoCount = new AtomicInteger();
+
+        @Override
+        public SegmentProperties getStreamSegmentInfo(String streamSegmentName) throws StreamSegmentNotExistsException {
+            this.getInfoCount.incrementAndGet();
+            return super.getStreamSegmentInfo(streamSegmentName);
+        }
 
         @Override
         public void delete(SegmentHandle handle) throws StreamSegmentNotExistsException {
@@ -24,6 +24,9 @@ public final class MetricsNames {
     public static final String STORAGE_WRITE_LATENCY = "tier2_write_latency_ms"; // Timer
     public static final String STORAGE_READ_BYTES = "tier2_read_bytes";          // Counter
     public static final String STORAGE_WRITE_BYTES = "tier2_write_bytes";        // Counter
+    public static final String STORAGE_TAIL_READ_QUEUE_DELAY = "tier2_tail_read_queue_delay_ms";        // Timer
+    public static final String STORAGE_CATCHUP_READ_QUEUE_DELAY = "tier2_catchup_read_queue_delay_ms";  // Timer
+    public static final String STORAGE_READ_QUEUE_SIZE = "tier2_read_queue_size";
 
     //Cache (RocksDB) stats
     public static final String CACHE_INSERT_LATENCY = "cache_insert_latency";
@@ -55,6 +58,8 @@ public final class MetricsNames {
     public static final String OPERATION_PROCESSOR_IN_FLIGHT = "operation_processor_in_flight";
     public static final String OPERATION_QUEUE_WAIT_TIME = "operation_queue_wait_time";
     public static final String OPERATION_PROCESSOR_DELAY_MILLIS = "operation_processor_delay_ms";
+    public static final String OPERATION_PROCESSOR_THROTTLE_DELAY_MILLIS = "operation_processor_throttle_delay_ms";
+    public static final String CONTAINER_UNFLUSHED_BYTES = "container_unflushed_bytes";
     public static final String OPERATION_COMMIT_LATENCY = "operation_commit_latency_ms";
     public static final String OPERATION_LATENCY = "operation_latency_ms";
     public static final String OPERATION_COMMIT_METADATA_TXN_COUNT = "operation_commit_metadata_txn_count";
@@ -86,6 +91,9 @@ public final class MetricsNames {
     public static final String SEGMENTS_SPLITS = "controller.segment_splits"; // Dynamic Counter
     public static final String SEGMENTS_MERGES = "controller.segment_merges"; // Dynamic Counter
 
+    // Controller event processing (Dynamic)
+    public static final String CONTROLLER_EVENT_QUEUE_SIZE = "controller.event_queue_size"; // Dynamic Gauge
+
     private static String escapeSpecialChar(String name) {
         return name.replace('/', '.').replace(':', '.').replace('|', '.').replaceAll("\\s+", "_");
     }
@@ -22,6 +22,17 @@ public interface DynamicLogger {
      */
     void incCounterValue(String name, long delta);
 
+    /**
+     * Creates (or gets, if already created) a Counter with given name. The returned Counter is bound to the underlying
+     * metric, so it can be updated directly without looking it up by name every time. It is preferable to
+     * incCounterValue for Counters that are updated very frequently. The Counter stays registered until freezeCounter
+     * is invoked for it.
+     *
+     * @param name the name of Counter
+     * @return the Counter
+     */
+    Counter createCounter(String name);
+
     /**
      * Get the value of counter.
      *
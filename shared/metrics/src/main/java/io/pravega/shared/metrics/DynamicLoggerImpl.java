@@ -18,6 +18,7 @@ import com.google.common.cache.RemovalCause;
 import com.google.common.cache.RemovalListener;
 import com.google.common.cache.RemovalNotification;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutionException;
 import lombok.extern.slf4j.Slf4j;
 
@@ -28,6 +29,7 @@ public class DynamicLoggerImpl implements DynamicLogger {
     private final MetricRegistry metrics;
     private final StatsLogger underlying;
     private final Cache<String, Counter> countersCache;
+    private final ConcurrentHashMap<String, Counter> boundCounters;
     private final Cache<String, Gauge> gaugesCache;
     private final Cache<String, Meter> metersCache;
 
@@ -38,6 +40,7 @@ public class DynamicLoggerImpl implements DynamicLogger {
         this.metrics = metrics;
         this.underlying = statsLogger;
         this.cacheSize = metricsConfig.getDynamicCacheSize();
+        this.boundCounters = new ConcurrentHashMap<>();
 
         countersCache = CacheBuilder.newBuilder().
                 maximumSize(cacheSize).
@@ -103,6 +106,15 @@ public class DynamicLoggerImpl implements DynamicLogger {
         }
     }
 
+    @Override
+    public Counter createCounter(String name) {
+        Exceptions.checkNotNullOrEmpty(name, "name");
+        String counterName = name + ".Counter";
+
+        // These are not subject to cache eviction; they are only removed when frozen.
+        return boundCounters.computeIfAbsent(counterName, underlying::createCounter);
+    }
+
     @Override
     public void updateCounterValue(String name, long value) {
         Exceptions.checkNotNullOrEmpty(name, "name");
@@ -122,6 +134,10 @@ public class DynamicLoggerImpl implements DynamicLogger {
     public void freezeCounter(String name) {
         String counterName = name + ".Counter";
         countersCache.invalidate(counterName);
+        Counter boundCounter = boundCounters.remove(counterName);
+        if (boundCounter != null) {
+            boundCounter.close();
+        }
         metrics.remove(counterName);
     }
 
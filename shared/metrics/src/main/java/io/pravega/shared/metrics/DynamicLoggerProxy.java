@@ -9,10 +9,12 @@
  */
 package io.pravega.shared.metrics;
 
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.atomic.AtomicReference;
 
 public class DynamicLoggerProxy implements DynamicLogger {
     private final AtomicReference<DynamicLogger> instance = new AtomicReference<>();
+    private final ConcurrentHashMap<String, CounterProxy> counters = new ConcurrentHashMap<>();
 
     DynamicLoggerProxy(DynamicLogger logger) {
         this.instance.set(logger);
@@ -20,6 +22,12 @@ public class DynamicLoggerProxy implements DynamicLogger {
 
     void setLogger(DynamicLogger logger) {
         this.instance.set(logger);
+        this.counters.values().forEach(v -> {
+            // The old and the new Counters may be registered under the same name, so the old one must be closed (which
+            // unregisters it) before creating the new one.
+            v.updateInstance(NullStatsLogger.NULLCOUNTER);
+            v.updateInstance(logger.createCounter(v.getProxyName()));
+        });
     }
 
     @Override
@@ -27,6 +35,22 @@ public class DynamicLoggerProxy implements DynamicLogger {
         this.instance.get().incCounterValue(name, delta);
     }
 
+    @Override
+    public Counter createCounter(String name) {
+        CounterProxy proxy = this.counters.get(name);
+        if (proxy == null) {
+            // The underlying DynamicLogger returns the same Counter for the same name, so there is nothing to clean up
+            // if we lose the race.
+            CounterProxy newProxy = new CounterProxy(this.instance.get().createCounter(name), name, this.counters::remove);
+            proxy = this.counters.putIfAbsent(name, newProxy);
+            if (proxy == null) {
+                proxy = newProxy;
+            }
+        }
+
+        return proxy;
+    }
+
     @Override
     public void updateCounterValue(String name, long value) {
         this.instance.get().updateCounterValue(name, value);
@@ -34,6 +58,7 @@ public class DynamicLoggerProxy implements DynamicLogger {
 
     @Override
     public void freezeCounter(String name) {
+        this.counters.remove(name);
         this.instance.get().freezeCounter(name);
     }
 
@@ -0,0 +1,304 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.metrics;
+
+import com.codahale.metrics.Reservoir;
+import com.codahale.metrics.Snapshot;
+import com.google.common.base.Preconditions;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import javax.annotation.concurrent.GuardedBy;
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * A Reservoir that records every value into a log-linear histogram (similar in spirit to an HdrHistogram), as opposed
+ * to sampling them. Every power of two is split into SUB_BUCKET_COUNT linear buckets, which bounds the relative error of
+ * any reported quantile to 1/SUB_BUCKET_COUNT, regardless of how many values were recorded or how skewed they are. This
+ * makes tail percentiles (P99.9, P99.99) trustworthy, which is not the case with the default (sampling) reservoir.
+ *
+ * Recording a value is lock-free (a single atomic increment). Bucket arrays for a power of two are only allocated the
+ * first time a value in that range is recorded, so the memory footprint is proportional to the range of values seen.
+ *
+ * Snapshots are interval-based: each Snapshot reflects only the values recorded during the last completed interval.
+ * Intervals are not based on wall-clock time; they are closed explicitly (via closeInterval()) by whoever drives the
+ * reporting (see StatsProviderImpl), right before the reporters are invoked. getSnapshot() never closes an interval, so
+ * any number of readers (all reporters, toOpStatsData(), etc.) observe the same values and do not interfere with each
+ * other. Until the first interval is closed, getSnapshot() reflects all the values recorded so far.
+ */
+@ThreadSafe
+class HistogramReservoir implements Reservoir {
+    //region Members
+
+    private static final int SUB_BUCKET_BITS = 5;
+    private static final int SUB_BUCKET_COUNT = 1 << SUB_BUCKET_BITS;
+    private static final int RANGE_COUNT = Long.SIZE - SUB_BUCKET_BITS;
+    private static final int MAX_SNAPSHOT_VALUES = 1 << 16;
+
+    private final AtomicReferenceArray<AtomicLongArray> counts;
+    @GuardedBy("this")
+    private final long[][] intervalBase;
+    @GuardedBy("this")
+    private IntervalSnapshot lastSnapshot;
+
+    //endregion
+
+    //region Constructor
+
+    /**
+     * Creates a new instance of the HistogramReservoir class.
+     */
+    HistogramReservoir() {
+        this.counts = new AtomicReferenceArray<>(RANGE_COUNT);
+        this.intervalBase = new long[RANGE_COUNT][];
+    }
+
+    //endregion
+
+    //region Reservoir Implementation
+
+    @Override
+    public int size() {
+        return getSnapshot().size();
+    }
+
+    @Override
+    public void update(long value) {
+        value = Math.max(0, value);
+        int range = getRange(value);
+        AtomicLongArray rangeCounts = this.counts.get(range);
+        if (rangeCounts == null) {
+            this.counts.compareAndSet(range, null, new AtomicLongArray(SUB_BUCKET_COUNT));
+            rangeCounts = this.counts.get(range);
+        }
+
+        rangeCounts.incrementAndGet(getSubBucket(value, range));
+    }
+
+    /**
+     * Gets a Snapshot of the values recorded during the last completed interval or, if no interval has been closed yet,
+     * of all the values recorded so far. This does not close the current interval.
+     *
+     * @return The Snapshot.
+     */
+    @Override
+    public synchronized Snapshot getSnapshot() {
+        return this.lastSnapshot == null ? calculateSnapshot(false) : this.lastSnapshot;
+    }
+
+    //endregion
+
+    //region Intervals
+
+    /**
+     * Closes the current interval and begins a new one. Subsequent calls to getSnapshot() will reflect exactly the values
+     * recorded between the previous invocation of this method and this one.
+     */
+    synchronized void closeInterval() {
+        this.lastSnapshot = calculateSnapshot(true);
+    }
+
+    //endregion
+
+    //region Helpers
+
+    /**
+     * Calculates the bucket counts accumulated since the last interval was closed.
+     *
+     * @param newInterval If true, the current counts become the base of the next interval.
+     */
+    @GuardedBy("this")
+    private IntervalSnapshot calculateSnapshot(boolean newInterval) {
+        // Values are laid out in increasing order (by range, then by sub-bucket), so the resulting arrays are sorted.
+        long[] values = new long[RANGE_COUNT * SUB_BUCKET_COUNT];
+        long[] valueCounts = new long[values.length];
+        int bucketCount = 0;
+        for (int range = 0; range < RANGE_COUNT; range++) {
+            AtomicLongArray rangeCounts = this.counts.get(range);
+            if (rangeCounts == null) {
+                continue;
+            }
+
+            long[] base = this.intervalBase[range];
+            if (base == null) {
+                base = new long[SUB_BUCKET_COUNT];
+                this.intervalBase[range] = base;
+            }
+
+            for (int subBucket = 0; subBucket < SUB_BUCKET_COUNT; subBucket++) {
+                long current = rangeCounts.get(subBucket);
+                long delta = current - base[subBucket];
+                if (newInterval) {
+                    base[subBucket] = current;
+                }
+
+                if (delta > 0) {
+                    values[bucketCount] = getBucketValue(range, subBucket);
+                    valueCounts[bucketCount] = delta;
+                    bucketCount++;
+                }
+            }
+        }
+
+        return new IntervalSnapshot(values, valueCounts, bucketCount);
+    }
+
+    /**
+     * Gets the index of the power-of-two range that the given value belongs to. Range 0 holds all values smaller than
+     * SUB_BUCKET_COUNT (one bucket per value); range r > 0 holds all values in [2^(r + SUB_BUCKET_BITS - 1), 2^(r + SUB_BUCKET_BITS)).
+     */
+    private static int getRange(long value) {
+        int highestBit = Long.SIZE - 1 - Long.numberOfLeadingZeros(value);
+        return Math.max(0, highestBit - SUB_BUCKET_BITS + 1);
+    }
+
+    private static int getSubBucket(long value, int range) {
+        if (range == 0) {
+            return (int) value;
+        }
+
+        // The top SUB_BUCKET_BITS + 1 bits of the value; the leading bit is always set, so we strip it off.
+        return (int) (value >>> (range - 1)) - SUB_BUCKET_COUNT;
+    }
+
+    /**
+     * Gets a value representative for the given bucket (the midpoint of the values it covers).
+     */
+    private static long getBucketValue(int range, int subBucket) {
+        if (range == 0) {
+            return subBucket;
+        }
+
+        int shift = range - 1;
+        long lowerBound = (long) (subBucket + SUB_BUCKET_COUNT) << shift;
+        return lowerBound + ((1L << shift) >>> 1);
+    }
+
+    //endregion
+
+    //region IntervalSnapshot
+
+    /**
+     * A Snapshot of the values recorded during one interval, stored as (value, count) pairs sorted by value.
+     */
+    private static class IntervalSnapshot extends Snapshot {
+        private final long[] values;
+        private final long[] counts;
+        private final int bucketCount;
+        private final long totalCount;
+        private final double mean;
+        private final double stdDev;
+
+        IntervalSnapshot(long[] values, long[] counts, int bucketCount) {
+            this.values = values;
+            this.counts = counts;
+            this.bucketCount = bucketCount;
+            long total = 0;
+            double sum = 0;
+            for (int i = 0; i < bucketCount; i++) {
+                total += counts[i];
+                sum += (double) values[i] * counts[i];
+            }
+
+            this.totalCount = total;
+            this.mean = total == 0 ? 0 : sum / total;
+            double variance = 0;
+            if (total > 1) {
+                for (int i = 0; i < bucketCount; i++) {
+                    double diff = values[i] - this.mean;
+                    variance += diff * diff * counts[i];
+                }
+
+                variance = variance / (total - 1);
+            }
+
+            this.stdDev = Math.sqrt(variance);
+        }
+
+        @Override
+        public double getValue(double quantile) {
+            Preconditions.checkArgument(quantile >= 0.0 && quantile <= 1.0 && !Double.isNaN(quantile),
+                    "%s is not in [0..1]", quantile);
+            if (this.totalCount == 0) {
+                return 0.0;
+            }
+
+            long rank = Math.max(1, (long) Math.ceil(quantile * this.totalCount));
+            long cumulative = 0;
+            for (int i = 0; i < this.bucketCount; i++) {
+                cumulative += this.counts[i];
+                if (cumulative >= rank) {
+                    return this.values[i];
+                }
+            }
+
+            return this.values[this.bucketCount - 1];
+        }
+
+        /**
+         * Gets the recorded values, in sorted order. If more than MAX_SNAPSHOT_VALUES were recorded during this interval,
+         * the result is downsampled so that every bucket is represented proportionally to its count.
+         */
+        @Override
+        public long[] getValues() {
+            double scale = this.totalCount <= MAX_SNAPSHOT_VALUES ? 1.0 : (double) MAX_SNAPSHOT_VALUES / this.totalCount;
+            long[] result = new long[(int) Math.min(this.totalCount, MAX_SNAPSHOT_VALUES) + this.bucketCount];
+            int index = 0;
+            for (int i = 0; i < this.bucketCount; i++) {
+                long count = Math.max(1, Math.round(this.counts[i] * scale));
+                for (long j = 0; j < count && index < result.length; j++) {
+                    result[index++] = this.values[i];
+                }
+            }
+
+            return index == result.length ? result : Arrays.copyOf(result, index);
+        }
+
+        @Override
+        public int size() {
+            return (int) Math.min(Integer.MAX_VALUE, this.totalCount);
+        }
+
+        @Override
+        public long getMax() {
+            return this.bucketCount == 0 ? 0 : this.values[this.bucketCount - 1];
+        }
+
+        @Override
+        public double getMean() {
+            return this.mean;
+        }
+
+        @Override
+        public long getMin() {
+            return this.bucketCount == 0 ? 0 : this.values[0];
+        }
+
+        @Override
+        public double getStdDev() {
+            return this.stdDev;
+        }
+
+        @Override
+        public void dump(OutputStream output) {
+            try (PrintWriter out = new PrintWriter(new OutputStreamWriter(output, StandardCharsets.UTF_8))) {
+                for (int i = 0; i < this.bucketCount; i++) {
+                    out.printf("%d %d%n", this.values[i], this.counts[i]);
+                }
+            }
+        }
+    }
+
+    //endregion
+}
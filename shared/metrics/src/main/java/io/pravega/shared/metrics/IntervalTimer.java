@@ -0,0 +1,35 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.metrics;
+
+import com.codahale.metrics.Timer;
+
+/**
+ * A Timer backed by a HistogramReservoir, whose Snapshots reflect one reporting interval at a time.
+ */
+class IntervalTimer extends Timer {
+    private final HistogramReservoir reservoir;
+
+    IntervalTimer() {
+        this(new HistogramReservoir());
+    }
+
+    private IntervalTimer(HistogramReservoir reservoir) {
+        super(reservoir);
+        this.reservoir = reservoir;
+    }
+
+    /**
+     * Closes the current reporting interval. See HistogramReservoir.closeInterval().
+     */
+    void closeInterval() {
+        this.reservoir.closeInterval();
+    }
+}
@@ -17,6 +17,11 @@ public class NullDynamicLogger implements DynamicLogger {
         // nop
     }
 
+    @Override
+    public Counter createCounter(String name) {
+        return NullStatsLogger.NULLCOUNTER;
+    }
+
     @Override
     public void updateCounterValue(String name, long value) {
         // nop
@@ -22,6 +22,8 @@ import static com.codahale.metrics.MetricRegistry.name;
 class OpStatsLoggerImpl implements OpStatsLogger {
     //region Members
 
+    private static final double NANOS_PER_MILLI = TimeUnit.MILLISECONDS.toNanos(1);
+
     private final Timer success;
     private final String successName;
     private final Timer fail;
@@ -36,8 +38,10 @@ class OpStatsLoggerImpl implements OpStatsLogger {
         this.metricRegistry = Preconditions.checkNotNull(metricRegistry, "metrics");
         this.successName = name(basename, statName);
         this.failName = name(basename, statName + "-fail");
-        this.success = this.metricRegistry.timer(this.successName);
-        this.fail = this.metricRegistry.timer(this.failName);
+
+        // Use full-fidelity histograms instead of the default (sampling) reservoir, so that tail latencies are accurate.
+        this.success = this.metricRegistry.timer(this.successName, IntervalTimer::new);
+        this.fail = this.metricRegistry.timer(this.failName, IntervalTimer::new);
     }
 
     //endregion
@@ -66,12 +70,12 @@ class OpStatsLoggerImpl implements OpStatsLogger {
 
     @Override
     public void reportFailEvent(Duration duration) {
-        fail.update(duration.toMillis(), TimeUnit.MILLISECONDS);
+        fail.update(duration.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     @Override
     public void reportSuccessEvent(Duration duration) {
-        success.update(duration.toMillis(), TimeUnit.MILLISECONDS);
+        success.update(duration.toNanos(), TimeUnit.NANOSECONDS);
     }
 
     @Override
@@ -96,12 +100,13 @@ class OpStatsLoggerImpl implements OpStatsLogger {
         long numFailed = fail.getCount();
         long numSuccess = success.getCount();
         Snapshot s = success.getSnapshot();
-        double avgLatencyMillis = s.getMean();
 
+        // Timers record values in nanoseconds.
+        double avgLatencyMillis = s.getMean() / NANOS_PER_MILLI;
         EnumMap<OpStatsData.Percentile, Long> percentileLongMap  =
                 new EnumMap<OpStatsData.Percentile, Long>(OpStatsData.Percentile.class);
         for (OpStatsData.Percentile percent : OpStatsData.PERCENTILESET) {
-            percentileLongMap.put(percent, (long) s.getValue(percent.getValue() / 100));
+            percentileLongMap.put(percent, (long) (s.getValue(percent.getValue() / 100) / NANOS_PER_MILLI));
         }
         return new OpStatsData(numSuccess, numFailed, avgLatencyMillis, percentileLongMap);
     }
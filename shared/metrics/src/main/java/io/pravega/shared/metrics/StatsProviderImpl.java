@@ -24,11 +24,13 @@ import com.google.common.base.Preconditions;
 import com.google.common.base.Strings;
 import com.readytalk.metrics.StatsDReporter;
 import info.ganglia.gmetric4j.gmetric.GMetric;
+import io.pravega.common.concurrent.ExecutorServiceHelpers;
 import java.io.File;
 import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeUnit;
 import lombok.Getter;
 import lombok.Synchronized;
@@ -40,6 +42,7 @@ class StatsProviderImpl implements StatsProvider {
     private final MetricRegistry metrics = MetricsProvider.METRIC_REGISTRY;
     private final List<ScheduledReporter> reporters = new ArrayList<ScheduledReporter>();
     private final MetricsConfig conf;
+    private ScheduledExecutorService reportExecutor;
 
     StatsProviderImpl(MetricsConfig conf) {
         this.conf = Preconditions.checkNotNull(conf, "conf");
@@ -124,17 +127,26 @@ class StatsProviderImpl implements StatsProvider {
                 .convertDurationsTo(TimeUnit.MILLISECONDS)
                 .build());
         }
-        for (ScheduledReporter r : reporters) {
-            r.start(conf.getStatsOutputFrequencySeconds(), TimeUnit.SECONDS);
+        // Drive all reporters from a single schedule (instead of starting each of them), so that every report covers
+        // exactly one histogram interval and all reporters publish the same values for it.
+        if (!reporters.isEmpty()) {
+            reportExecutor = ExecutorServiceHelpers.newScheduledThreadPool(1, "metrics-reporter");
+            reportExecutor.scheduleAtFixedRate(this::report, conf.getStatsOutputFrequencySeconds(),
+                    conf.getStatsOutputFrequencySeconds(), TimeUnit.SECONDS);
         }
     }
 
     @Synchronized
     @Override
     public void close() {
+        if (reportExecutor != null) {
+            reportExecutor.shutdown();
+            reportExecutor = null;
+        }
+
+        report();
         for (ScheduledReporter r : reporters) {
             try {
-                r.report();
                 r.stop();
             } catch (Exception e) {
                 log.error("Exception report or stop reporter", e);
@@ -155,4 +167,20 @@ class StatsProviderImpl implements StatsProvider {
         init();
         return new DynamicLoggerImpl(conf, metrics, new StatsLoggerImpl(getMetrics(), "pravega"));
     }
+
+    /**
+     * Closes the current interval of all the interval-based Timers and then invokes all the reporters.
+     */
+    private void report() {
+        try {
+            metrics.getTimers().values().stream()
+                   .filter(t -> t instanceof IntervalTimer)
+                   .forEach(t -> ((IntervalTimer) t).closeInterval());
+            for (ScheduledReporter r : reporters) {
+                r.report();
+            }
+        } catch (Exception e) {
+            log.error("Exception reporting metrics", e);
+        }
+    }
 }
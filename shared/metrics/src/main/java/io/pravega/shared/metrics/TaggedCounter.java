@@ -0,0 +1,202 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.metrics;
+
+import com.google.common.base.Preconditions;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import javax.annotation.concurrent.ThreadSafe;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * A family of Counters for the same metric, each bound to a different tag (such as a Segment name).
+ *
+ * The Counter for each tag is created once (using DynamicLogger.createCounter) and then cached, so updating it does not
+ * require building its name or looking it up in the DynamicLogger. Counters should be released (using release()) when
+ * their tag is no longer in use; those that are not updated between two consecutive calls to releaseIdle() are released
+ * automatically. A Counter is never released while it is being updated, so no update is lost. If more
+ * than a given number of tags are in use at any time, updates for new tags go through the DynamicLogger directly (which
+ * is slower, but bounded by its own cache) until some of the existing tags are released.
+ */
+@ThreadSafe
+public class TaggedCounter {
+    private final DynamicLogger dynamicLogger;
+    private final Function<String, String> nameFromTag;
+    private final int maxTagCount;
+    private final ConcurrentHashMap<String, Binding> counters;
+    private final Object lock = new Object();
+
+    /**
+     * Creates a new instance of the TaggedCounter class.
+     *
+     * @param dynamicLogger The DynamicLogger to create Counters with.
+     * @param nameFromTag   A Function that generates a Counter name from a tag.
+     * @param maxTagCount   The maximum number of Counters to keep at any given time.
+     */
+    public TaggedCounter(DynamicLogger dynamicLogger, Function<String, String> nameFromTag, int maxTagCount) {
+        Preconditions.checkArgument(maxTagCount > 0, "maxTagCount must be a positive integer.");
+        this.dynamicLogger = Preconditions.checkNotNull(dynamicLogger, "dynamicLogger");
+        this.nameFromTag = Preconditions.checkNotNull(nameFromTag, "nameFromTag");
+        this.maxTagCount = maxTagCount;
+        this.counters = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Adds the given value to the Counter for the given tag, creating the Counter if necessary.
+     *
+     * @param tag   The tag.
+     * @param delta The value to add.
+     */
+    public void add(String tag, long delta) {
+        Binding binding = this.counters.get(tag);
+        if (binding == null || !binding.acquire()) {
+            binding = acquireBinding(tag);
+            if (binding == null) {
+                // Too many tags in use; do not evict a Counter that may be in use by someone else.
+                this.dynamicLogger.incCounterValue(this.nameFromTag.apply(tag), delta);
+                return;
+            }
+        }
+
+        try {
+            binding.counter.add(delta);
+            if (!binding.used) {
+                binding.used = true;
+            }
+        } finally {
+            binding.release();
+        }
+    }
+
+    /**
+     * Releases the Counters that have not been updated since the previous invocation of this method. This is meant to be
+     * invoked periodically, so that Counters for tags that went idle without being explicitly released do not stay bound.
+     */
+    public void releaseIdle() {
+        for (Map.Entry<String, Binding> e : this.counters.entrySet()) {
+            Binding binding = e.getValue();
+            if (binding.used) {
+                binding.used = false;
+            } else {
+                release(e.getKey());
+            }
+        }
+    }
+
+    /**
+     * Releases the Counter for the given tag (if any) and notifies the DynamicLogger that it will not be updated anymore.
+     * This waits for any in-progress updates to the Counter to complete, so that none of them are lost.
+     *
+     * @param tag The tag.
+     */
+    public void release(String tag) {
+        synchronized (this.lock) {
+            Binding binding = this.counters.get(tag);
+            if (binding != null) {
+                binding.close();
+                this.counters.remove(tag, binding);
+            }
+
+            this.dynamicLogger.freezeCounter(this.nameFromTag.apply(tag));
+        }
+    }
+
+    /**
+     * Gets the number of Counters currently bound.
+     *
+     * @return The number of Counters.
+     */
+    public int size() {
+        return this.counters.size();
+    }
+
+    private Binding acquireBinding(String tag) {
+        synchronized (this.lock) {
+            // Bindings are only closed and removed while holding the lock, so the one we get here can be acquired.
+            Binding binding = this.counters.get(tag);
+            if (binding == null) {
+                if (this.counters.size() >= this.maxTagCount) {
+                    return null;
+                }
+
+                binding = new Binding(this.dynamicLogger.createCounter(this.nameFromTag.apply(tag)));
+                this.counters.put(tag, binding);
+            }
+
+            boolean acquired = binding.acquire();
+            assert acquired : "Binding found closed while holding the lock.";
+            return binding;
+        }
+    }
+
+    /**
+     * A Counter along with the number of updates in progress on it.
+     */
+    @RequiredArgsConstructor
+    private static class Binding {
+        private static final int CLOSED = Integer.MIN_VALUE;
+        private final Counter counter;
+        private final AtomicInteger users = new AtomicInteger();
+        private volatile boolean used = true;
+
+        /**
+         * Registers an update on the Counter. Fails if the Binding is closed.
+         */
+        boolean acquire() {
+            int current;
+            do {
+                current = this.users.get();
+                if (current < 0) {
+                    return false;
+                }
+            } while (!this.users.compareAndSet(current, current + 1));
+            return true;
+        }
+
+        /**
+         * Unregisters an update on the Counter.
+         */
+        void release() {
+            if (this.users.decrementAndGet() == CLOSED) {
+                synchronized (this) {
+                    notifyAll();
+                }
+            }
+        }
+
+        /**
+         * Closes this Binding (so that it can no longer be acquired) and waits for all in-progress updates to complete.
+         */
+        void close() {
+            int current;
+            do {
+                current = this.users.get();
+            } while (current >= 0 && !this.users.compareAndSet(current, current + CLOSED));
+
+            // Updates are short, so wait for them even if interrupted.
+            boolean interrupted = false;
+            synchronized (this) {
+                while (this.users.get() != CLOSED) {
+                    try {
+                        wait();
+                    } catch (InterruptedException ex) {
+                        interrupted = true;
+                    }
+                }
+            }
+
+            if (interrupted) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
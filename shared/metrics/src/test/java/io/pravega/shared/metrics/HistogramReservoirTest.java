@@ -0,0 +1,129 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.metrics;
+
+import com.codahale.metrics.Snapshot;
+import java.util.ArrayList;
+import java.util.List;
+import lombok.val;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for the HistogramReservoir class.
+ */
+public class HistogramReservoirTest {
+    private static final double MAX_RELATIVE_ERROR = 1.0 / 32;
+
+    /**
+     * Tests that quantiles are reported within the expected relative error, including for tail percentiles.
+     */
+    @Test
+    public void testQuantiles() {
+        val reservoir = new HistogramReservoir();
+        final int count = 100000;
+        for (int i = 1; i <= count; i++) {
+            reservoir.update(i * 1000L);
+        }
+
+        // A few large outliers, which a sampling reservoir would most likely miss.
+        for (int i = 0; i < 10; i++) {
+            reservoir.update(1000L * 1000 * 1000);
+        }
+
+        Snapshot s = reservoir.getSnapshot();
+        Assert.assertEquals("Unexpected size.", count + 10, s.size());
+        checkValue(count * 1000L / 2, s.getMedian(), "P50");
+        checkValue(count * 1000L * 99 / 100, s.get99thPercentile(), "P99");
+        checkValue(count * 1000L * 999 / 1000, s.get999thPercentile(), "P99.9");
+        checkValue(1000L * 1000 * 1000, s.getValue(1.0), "P100");
+        checkValue(1000L * 1000 * 1000, s.getMax(), "Max");
+        checkValue(1000L, s.getMin(), "Min");
+
+        // Small values are recorded exactly.
+        val small = new HistogramReservoir();
+        small.update(0);
+        small.update(7);
+        small.update(-1);
+        Assert.assertEquals("Unexpected min for small values.", 0, small.getSnapshot().getMin());
+        Assert.assertEquals("Unexpected max for small values.", 7, small.getSnapshot().getMax());
+    }
+
+    /**
+     * Tests that snapshots only include the values recorded within the last completed interval, and that intervals are
+     * only closed explicitly (reading a snapshot does not affect what the next reader sees).
+     */
+    @Test
+    public void testIntervals() {
+        val reservoir = new HistogramReservoir();
+        reservoir.update(100);
+        reservoir.update(200);
+
+        // Before the first interval is closed, snapshots reflect everything recorded so far.
+        Assert.assertEquals("Unexpected size before closing any interval.", 2, reservoir.getSnapshot().size());
+        reservoir.update(300);
+        Assert.assertEquals("Unexpected size before closing any interval.", 3, reservoir.getSnapshot().size());
+
+        reservoir.closeInterval();
+        Snapshot s1 = reservoir.getSnapshot();
+        Assert.assertEquals("Unexpected size for first interval.", 3, s1.size());
+        Assert.assertEquals("Unexpected number of values for first interval.", 3, s1.getValues().length);
+
+        // Values recorded in the current interval must not be visible until it is closed, no matter how many readers.
+        reservoir.update(400);
+        Assert.assertSame("Expected the same snapshot within an interval.", s1, reservoir.getSnapshot());
+        Assert.assertSame("Expected the same snapshot within an interval.", s1, reservoir.getSnapshot());
+
+        reservoir.closeInterval();
+        Snapshot s2 = reservoir.getSnapshot();
+        Assert.assertEquals("Unexpected size for second interval.", 1, s2.size());
+        checkValue(400, s2.getMin(), "Min");
+
+        // Empty interval.
+        reservoir.closeInterval();
+        Snapshot s3 = reservoir.getSnapshot();
+        Assert.assertEquals("Unexpected size for empty interval.", 0, s3.size());
+        Assert.assertEquals("Unexpected mean for empty interval.", 0, s3.getMean(), 0);
+        Assert.assertEquals("Unexpected value for empty interval.", 0, s3.get99thPercentile(), 0);
+    }
+
+    /**
+     * Tests concurrent updates.
+     */
+    @Test(timeout = 10000)
+    public void testConcurrentUpdates() throws Exception {
+        final int threadCount = 8;
+        final int perThreadCount = 50000;
+        val reservoir = new HistogramReservoir();
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < threadCount; t++) {
+            final long offset = t;
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < perThreadCount; i++) {
+                    reservoir.update(offset * 1000000 + i);
+                }
+            }));
+        }
+
+        threads.forEach(Thread::start);
+        for (Thread t : threads) {
+            t.join();
+        }
+
+        Snapshot s = reservoir.getSnapshot();
+        Assert.assertEquals("Unexpected size.", threadCount * perThreadCount, s.size());
+        checkValue((threadCount - 1) * 1000000L + perThreadCount - 1, s.getMax(), "Max");
+    }
+
+    private void checkValue(long expected, double actual, String name) {
+        double error = Math.abs(actual - expected) / expected;
+        Assert.assertTrue(String.format("Unexpected %s. Expected %d, actual %s.", name, expected, actual), error <= MAX_RELATIVE_ERROR);
+    }
+}
@@ -10,7 +10,11 @@
 package io.pravega.shared.metrics;
 
 import io.pravega.common.Timer;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.junit.Assert;
 import org.junit.Before;
@@ -77,6 +81,88 @@ public class MetricsProviderTest {
         assertEquals(null, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.dynamicCounter.Counter"));
     }
 
+    /**
+     * Test pre-bound Counters created through TaggedCounter.
+     */
+    @Test
+    public void testTaggedCounter() {
+        TaggedCounter taggedCounter = new TaggedCounter(dynamicLogger, tag -> "taggedCounter." + tag, 2);
+        taggedCounter.add("a", 3);
+        taggedCounter.add("a", 4);
+        assertEquals(1, taggedCounter.size());
+        assertEquals(7, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.a.Counter").getCount());
+
+        // Updates through the DynamicLogger should be reflected in the same metric.
+        dynamicLogger.incCounterValue("taggedCounter.a", 1);
+        assertEquals(8, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.a.Counter").getCount());
+
+        // Exceeding the maximum number of tags should not release existing Counters, but still record the updates.
+        taggedCounter.add("b", 1);
+        taggedCounter.add("c", 2);
+        assertEquals(2, taggedCounter.size());
+        assertEquals(8, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.a.Counter").getCount());
+        assertEquals(2, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.c.Counter").getCount());
+
+        taggedCounter.release("b");
+        taggedCounter.release("c");
+        taggedCounter.release("a");
+        assertEquals(0, taggedCounter.size());
+        assertEquals(null, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.a.Counter"));
+        assertEquals(null, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.b.Counter"));
+        assertEquals(null, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounter.c.Counter"));
+    }
+
+    /**
+     * Test that TaggedCounter releases the Counters that are not updated between two consecutive calls to releaseIdle().
+     */
+    @Test
+    public void testTaggedCounterReleaseIdle() {
+        TaggedCounter taggedCounter = new TaggedCounter(dynamicLogger, tag -> "taggedCounterIdle." + tag, 10);
+        taggedCounter.add("a", 1);
+        taggedCounter.add("b", 1);
+
+        // Newly bound Counters are not released by the first pass.
+        taggedCounter.releaseIdle();
+        assertEquals(2, taggedCounter.size());
+
+        taggedCounter.add("a", 1);
+        taggedCounter.releaseIdle();
+        assertEquals(1, taggedCounter.size());
+        assertEquals(null, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounterIdle.b.Counter"));
+        assertEquals(2, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounterIdle.a.Counter").getCount());
+
+        taggedCounter.releaseIdle();
+        assertEquals(0, taggedCounter.size());
+        assertEquals(null, MetricsProvider.METRIC_REGISTRY.getCounters().get("pravega.taggedCounterIdle.a.Counter"));
+    }
+
+    /**
+     * Test that releasing a TaggedCounter while it is being updated does not lose any updates, i.e., no Counter is
+     * updated after it has been frozen.
+     */
+    @Test(timeout = 10000)
+    public void testTaggedCounterConcurrentRelease() throws Exception {
+        final int updateCount = 20000;
+        FreezeTrackingLogger logger = new FreezeTrackingLogger(dynamicLogger);
+        TaggedCounter taggedCounter = new TaggedCounter(logger, tag -> "taggedCounterConcurrent." + tag, 2);
+        AtomicBoolean done = new AtomicBoolean();
+        Thread updater = new Thread(() -> {
+            for (int i = 0; i < updateCount; i++) {
+                taggedCounter.add("a", 1);
+            }
+            done.set(true);
+        });
+
+        updater.start();
+        while (!done.get()) {
+            taggedCounter.release("a");
+        }
+
+        updater.join();
+        taggedCounter.release("a");
+        assertEquals("Unexpected number of updates recorded before freezing.", updateCount, logger.frozenTotal.get());
+    }
+
     /**
      * Test Meter registered and  worked well with StatsLogger.
      */
@@ -185,4 +271,56 @@ public class MetricsProviderTest {
         counter.add(1L);
         assertEquals(1L, counter.get());
     }
+
+    /**
+     * DynamicLogger that records the value of each bound Counter at the time it is frozen.
+     */
+    @RequiredArgsConstructor
+    private static class FreezeTrackingLogger implements DynamicLogger {
+        private final DynamicLogger wrapped;
+        private final AtomicLong frozenTotal = new AtomicLong();
+        private final ConcurrentHashMap<String, Counter> bound = new ConcurrentHashMap<>();
+
+        @Override
+        public Counter createCounter(String name) {
+            Counter counter = this.wrapped.createCounter(name);
+            this.bound.put(name, counter);
+            return counter;
+        }
+
+        @Override
+        public void freezeCounter(String name) {
+            Counter counter = this.bound.remove(name);
+            if (counter != null) {
+                this.frozenTotal.addAndGet(counter.get());
+            }
+
+            this.wrapped.freezeCounter(name);
+        }
+
+        @Override
+        public void incCounterValue(String name, long delta) {
+            this.wrapped.incCounterValue(name, delta);
+        }
+
+        @Override
+        public void updateCounterValue(String name, long value) {
+            this.wrapped.updateCounterValue(name, value);
+        }
+
+        @Override
+        public <T extends Number> void reportGaugeValue(String name, T value) {
+            this.wrapped.reportGaugeValue(name, value);
+        }
+
+        @Override
+        public void freezeGaugeValue(String name) {
+            this.wrapped.freezeGaugeValue(name);
+        }
+
+        @Override
+        public void recordMeterEvents(String name, long number) {
+            this.wrapped.recordMeterEvents(name, number);
+        }
+    }
 }
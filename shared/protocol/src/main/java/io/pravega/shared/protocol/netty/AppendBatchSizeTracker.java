@@ -19,6 +19,14 @@ public interface AppendBatchSizeTracker {
      */
     void recordAppend(long eventNumber, int size);
 
+    /**
+     * Records that all the events up to (and including) the given one have been written out to the connection (that is,
+     * the append block containing them, if any, has been closed).
+     *
+     * @param eventNumber the number of the last event written out
+     */
+    void recordFlush(long eventNumber);
+
     /**
      * Records that one or more events have been acked.
      * 
@@ -11,6 +11,7 @@ package io.pravega.shared.protocol.netty;
 
 import io.pravega.shared.protocol.netty.WireCommands.AppendBlock;
 import io.pravega.shared.protocol.netty.WireCommands.AppendBlockEnd;
+import io.pravega.shared.protocol.netty.WireCommands.CompressedEvent;
 import io.pravega.shared.protocol.netty.WireCommands.ConditionalAppend;
 import io.pravega.shared.protocol.netty.WireCommands.Event;
 import io.pravega.shared.protocol.netty.WireCommands.Flush;
@@ -63,18 +64,43 @@ import lombok.extern.slf4j.Slf4j;
  * need to be parsed out of individual messages. Notably this includes the event number of the last
  * event in the block, so that it can be acknowledged.
  *
+ * If a {@link CompressionCodec} is configured, the data of each event is compressed individually and it is sent as a
+ * CompressedEvent instead of an Event. The server stores these as-is, and they are decompressed by the reader.
+ * Events are only compressed once the peer has reported (via {@link #setPeerVersion(int)}) a wire version of at least
+ * {@link WireCommands#COMPRESSED_EVENT_VERSION}, so that older servers never receive a command they cannot parse.
+ *
  */
 @NotThreadSafe
-@RequiredArgsConstructor
 @Slf4j
 public class CommandEncoder extends MessageToByteEncoder<Object> {
     private static final byte[] LENGTH_PLACEHOLDER = new byte[4];
 
     private final AppendBatchSizeTracker blockSizeSupplier;
+    private final EventCompressor eventCompressor;
     private final HashMap<String, Session> setupSegments = new HashMap<>();
     private String segmentBeingAppendedTo;
     private int currentBlockSize;
     private int bytesLeftInBlock;
+    private int peerVersion = WireCommands.OLDEST_COMPATIBLE_VERSION;
+
+    public CommandEncoder(AppendBatchSizeTracker blockSizeSupplier) {
+        this(blockSizeSupplier, CompressionCodec.NONE);
+    }
+
+    public CommandEncoder(AppendBatchSizeTracker blockSizeSupplier, CompressionCodec compressionCodec) {
+        this.blockSizeSupplier = blockSizeSupplier;
+        this.eventCompressor = new EventCompressor(compressionCodec);
+    }
+
+    /**
+     * Records the highest wire version supported by the other end of the connection, as reported in its Hello.
+     * This must be called from the channel's event loop.
+     *
+     * @param peerVersion The high version from the peer's Hello.
+     */
+    public void setPeerVersion(int peerVersion) {
+        this.peerVersion = peerVersion;
+    }
 
     @Data
     private static final class Session {
@@ -101,8 +127,9 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 ConditionalAppend ca = new ConditionalAppend(append.writerId,
                         append.eventNumber,
                         append.getExpectedLength(),
-                        wrappedBuffer(serializeMessage(new Event(append.getData()))));
+                        wrappedBuffer(serializeMessage(toEvent(append.getData()))));
                 writeMessage(ca, out);
+                blockSizeSupplier.recordFlush(append.getEventNumber());
             } else {
                 Preconditions.checkState(bytesLeftInBlock == 0 || bytesLeftInBlock > TYPE_PLUS_LENGTH_SIZE,
                         "Bug in CommandEncoder.encode, block is too small.");
@@ -124,12 +151,14 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                 session.lastEventNumber = append.getEventNumber();
                 session.eventCount++;
                 ByteBuf data = append.getData();
-                int msgSize = TYPE_PLUS_LENGTH_SIZE + data.readableBytes();
+                ByteBuf compressed = compress(data);
+                WireCommand event = compressed == null ? new Event(data) : new CompressedEvent(compressed);
+                int msgSize = TYPE_PLUS_LENGTH_SIZE + (compressed == null ? data : compressed).readableBytes();
                 // Is there enough space for a subsequent message after this one?
                 if (bytesLeftInBlock - msgSize > TYPE_PLUS_LENGTH_SIZE) {
-                    bytesLeftInBlock -= writeMessage(new Event(data), out);
+                    bytesLeftInBlock -= writeMessage(event, out);
                 } else {
-                    byte[] serializedMessage = serializeMessage(new Event(data));
+                    byte[] serializedMessage = serializeMessage(event);
                     int bytesInBlock = bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE;
                     ByteBuf dataInsideBlock = wrappedBuffer(serializedMessage, 0, bytesInBlock);
                     ByteBuf dataRemainging = wrappedBuffer(serializedMessage,
@@ -142,6 +171,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                                                     session.eventCount,
                                                     session.lastEventNumber,
                                                     0L), out);
+                    blockSizeSupplier.recordFlush(session.lastEventNumber);
                     bytesLeftInBlock = 0;
                     session.eventCount = 0;
                 }
@@ -164,6 +194,18 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
         }
     }
 
+    private WireCommand toEvent(ByteBuf data) {
+        ByteBuf compressed = compress(data);
+        return compressed == null ? new Event(data) : new CompressedEvent(compressed);
+    }
+
+    private ByteBuf compress(ByteBuf data) {
+        if (peerVersion < WireCommands.COMPRESSED_EVENT_VERSION) {
+            return null;
+        }
+        return eventCompressor.compress(data);
+    }
+
     private void breakFromAppend(ByteBuf out) {
         if (bytesLeftInBlock != 0) {
             writeMessage(new Padding(bytesLeftInBlock - TYPE_PLUS_LENGTH_SIZE), out);
@@ -173,6 +215,7 @@ public class CommandEncoder extends MessageToByteEncoder<Object> {
                     null,
                     session.eventCount,
                     session.lastEventNumber, 0L), out);
+            blockSizeSupplier.recordFlush(session.lastEventNumber);
             bytesLeftInBlock = 0;
             currentBlockSize = 0;
             session.eventCount = 0;
@@ -0,0 +1,52 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+/**
+ * The codecs that can be used to compress events written by a writer.
+ * The id of the codec is stored in every {@link WireCommands.CompressedEvent}, so readers are able to decode events
+ * regardless of which codec the writer was configured with.
+ */
+public enum CompressionCodec {
+    /**
+     * Events are written uncompressed.
+     */
+    NONE((byte) 0),
+    /**
+     * Events are compressed using DEFLATE, tuned for speed rather than compression ratio.
+     */
+    DEFLATE((byte) 1);
+
+    private final byte id;
+
+    CompressionCodec(byte id) {
+        this.id = id;
+    }
+
+    public byte getId() {
+        return id;
+    }
+
+    /**
+     * Gets the CompressionCodec with the given id.
+     *
+     * @param id The id of the codec.
+     * @return The CompressionCodec.
+     * @throws InvalidMessageException If there is no codec with the given id.
+     */
+    public static CompressionCodec fromId(byte id) {
+        for (CompressionCodec codec : values()) {
+            if (codec.id == id) {
+                return codec;
+            }
+        }
+        throw new InvalidMessageException("Unknown compression codec: " + id);
+    }
+}
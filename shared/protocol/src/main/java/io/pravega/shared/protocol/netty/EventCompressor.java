@@ -0,0 +1,132 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import com.google.common.base.Preconditions;
+import io.netty.buffer.ByteBuf;
+import java.nio.ByteBuffer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Deflater;
+import java.util.zip.Inflater;
+import javax.annotation.concurrent.NotThreadSafe;
+
+import static io.netty.buffer.Unpooled.wrappedBuffer;
+
+/**
+ * Compresses and decompresses the payload of {@link WireCommands.CompressedEvent}s.
+ *
+ * The payload of a CompressedEvent is encoded as:
+ * Codec - 1 byte id of the {@link CompressionCodec} used.
+ * Length - 4 byte length of the uncompressed event.
+ * Data - The compressed event.
+ *
+ * Compression is applied to each event individually (rather than to a whole AppendBlock) so that events keep their
+ * own offsets within the segment, and can still be located by EventPointers and read starting from any event boundary.
+ * The underlying Deflater and Inflater are reused across calls, so an instance must not be shared between threads.
+ */
+@NotThreadSafe
+public class EventCompressor {
+    /**
+     * Events smaller than this are never compressed, as the savings would not outweigh the header.
+     */
+    static final int MIN_COMPRESSIBLE_SIZE = 64;
+    static final int HEADER_SIZE = 5;
+
+    private final CompressionCodec codec;
+    private Deflater deflater;
+    private Inflater inflater;
+
+    public EventCompressor(CompressionCodec codec) {
+        this.codec = Preconditions.checkNotNull(codec);
+    }
+
+    /**
+     * Compresses the given event data using the codec of this EventCompressor.
+     *
+     * @param data The data of the event.
+     * @return The payload for a CompressedEvent, or null if the event should be sent uncompressed (either because no
+     * codec is configured or because compressing it would not reduce its size).
+     */
+    public ByteBuf compress(ByteBuf data) {
+        int length = data.readableBytes();
+        if (codec == CompressionCodec.NONE || length < MIN_COMPRESSIBLE_SIZE) {
+            return null;
+        }
+        if (deflater == null) {
+            deflater = new Deflater(Deflater.BEST_SPEED);
+        }
+        deflater.reset();
+        if (data.hasArray()) {
+            deflater.setInput(data.array(), data.arrayOffset() + data.readerIndex(), length);
+        } else {
+            byte[] input = new byte[length];
+            data.getBytes(data.readerIndex(), input);
+            deflater.setInput(input);
+        }
+        deflater.finish();
+        // Anything that does not fit in the size of the original event is not worth sending compressed.
+        byte[] result = new byte[length];
+        ByteBuffer.wrap(result).put(codec.getId()).putInt(length);
+        int size = HEADER_SIZE;
+        while (!deflater.finished()) {
+            if (size == result.length) {
+                return null;
+            }
+            size += deflater.deflate(result, size, result.length - size);
+        }
+        return wrappedBuffer(result, 0, size);
+    }
+
+    /**
+     * Decompresses the payload of a CompressedEvent.
+     *
+     * @param payload The payload of the CompressedEvent.
+     * @return A buffer containing the original event data.
+     * @throws InvalidMessageException If the payload is not a valid compressed event.
+     */
+    public ByteBuffer decompress(ByteBuffer payload) {
+        if (payload.remaining() < HEADER_SIZE) {
+            throw new InvalidMessageException("Compressed event of invalid length: " + payload.remaining());
+        }
+        CompressionCodec eventCodec = CompressionCodec.fromId(payload.get());
+        int length = payload.getInt();
+        if (eventCodec != CompressionCodec.DEFLATE) {
+            throw new InvalidMessageException("Unexpected codec for compressed event: " + eventCodec);
+        }
+        if (length < 0 || length > WireCommands.MAX_WIRECOMMAND_SIZE) {
+            throw new InvalidMessageException("Compressed event of invalid uncompressed length: " + length);
+        }
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.reset();
+        if (payload.hasArray()) {
+            inflater.setInput(payload.array(), payload.arrayOffset() + payload.position(), payload.remaining());
+        } else {
+            byte[] input = new byte[payload.remaining()];
+            payload.duplicate().get(input);
+            inflater.setInput(input);
+        }
+        byte[] result = new byte[length];
+        int size = 0;
+        try {
+            while (size < length) {
+                int inflated = inflater.inflate(result, size, length - size);
+                if (inflated == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    throw new InvalidMessageException("Compressed event is truncated.");
+                }
+                size += inflated;
+            }
+        } catch (DataFormatException e) {
+            throw new InvalidMessageException(e);
+        }
+        return ByteBuffer.wrap(result);
+    }
+}
@@ -28,6 +28,7 @@ public enum WireCommandType {
     PARTIAL_EVENT(-2, WireCommands.PartialEvent::readFrom),
 
     EVENT(0, null), // Is read manually.
+    COMPRESSED_EVENT(-3, null), // Is read manually.
 
     SETUP_APPEND(1, WireCommands.SetupAppend::readFrom),
     APPEND_SETUP(2, WireCommands.AppendSetup::readFrom),
@@ -43,8 +43,13 @@ import static io.netty.buffer.Unpooled.wrappedBuffer;
  * Incompatible changes should instead create a new WireCommand object.
  */
 public final class WireCommands {
-    public static final int WIRE_VERSION = 4;
+    public static final int WIRE_VERSION = 5;
     public static final int OLDEST_COMPATIBLE_VERSION = 1;
+    /**
+     * The first wire version that understands {@link CompressedEvent}s. They must not be sent to a peer that reports
+     * an older version.
+     */
+    public static final int COMPRESSED_EVENT_VERSION = 5;
     public static final int TYPE_SIZE = 4;
     public static final int TYPE_PLUS_LENGTH_SIZE = 8;
     public static final int MAX_WIRECOMMAND_SIZE = 0x007FFFFF; // 8MB
@@ -384,6 +389,29 @@ public final class WireCommands {
         }
     }
 
+    @Data
+    public static final class CompressedEvent implements WireCommand {
+        final WireCommandType type = WireCommandType.COMPRESSED_EVENT;
+        final ByteBuf data;
+
+        @Override
+        public void writeFields(DataOutput out) throws IOException {
+            if (data.hasArray()) {
+                out.write(data.array(), data.arrayOffset() + data.readerIndex(), data.readableBytes());
+            } else {
+                byte[] bytes = new byte[data.readableBytes()];
+                data.getBytes(data.readerIndex(), bytes);
+                out.write(bytes);
+            }
+        }
+
+        public static WireCommand readFrom(DataInput in, int length) throws IOException {
+            byte[] msg = new byte[length];
+            in.readFully(msg);
+            return new CompressedEvent(wrappedBuffer(msg));
+        }
+    }
+
     @Data
     public static final class SetupAppend implements Request, WireCommand {
         final WireCommandType type = WireCommandType.SETUP_APPEND;
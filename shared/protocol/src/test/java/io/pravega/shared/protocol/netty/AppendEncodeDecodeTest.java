@@ -71,6 +71,10 @@ public class AppendEncodeDecodeTest {
 
         }
 
+        @Override
+        public void recordFlush(long eventNumber) {
+        }
+
         @Override
         public void recordAck(long eventNumber) {
         }
@@ -122,6 +126,36 @@ public class AppendEncodeDecodeTest {
         assertEquals(msg.data.readableBytes() + TYPE_PLUS_LENGTH_SIZE, readAppend.data.readableBytes());
     }
 
+    @Test
+    public void testCompressionRequiresPeerVersion() throws Exception {
+        @Cleanup("release")
+        ByteBuf fakeNetwork = ByteBufAllocator.DEFAULT.buffer();
+        byte[] content = new byte[1000];
+        Arrays.fill(content, (byte) 1);
+        CommandEncoder commandEncoder = new CommandEncoder(new FixedBatchSizeTracker(3), CompressionCodec.DEFLATE);
+        SetupAppend setupAppend = new SetupAppend(1, writerId, "segment");
+        commandEncoder.encode(null, setupAppend, fakeNetwork);
+        appendDecoder.processCommand(setupAppend);
+
+        // Until the peer reports its version, events go out uncompressed.
+        ArrayList<Object> received = new ArrayList<>();
+        commandEncoder.encode(null, new Append("segment", writerId, 1, Unpooled.wrappedBuffer(content), null), fakeNetwork);
+        commandEncoder.setPeerVersion(WireCommands.COMPRESSED_EVENT_VERSION - 1);
+        commandEncoder.encode(null, new Append("segment", writerId, 2, Unpooled.wrappedBuffer(content), null), fakeNetwork);
+        commandEncoder.setPeerVersion(WireCommands.WIRE_VERSION);
+        commandEncoder.encode(null, new Append("segment", writerId, 3, Unpooled.wrappedBuffer(content), null), fakeNetwork);
+        read(fakeNetwork, received);
+        assertEquals(4, received.size());
+        for (int i = 1; i <= 2; i++) {
+            Append readAppend = (Append) received.get(i);
+            assertEquals(EVENT.getCode(), readAppend.data.getInt(readAppend.data.readerIndex()));
+            assertEquals(content.length + TYPE_PLUS_LENGTH_SIZE, readAppend.data.readableBytes());
+        }
+        Append compressed = (Append) received.get(3);
+        assertEquals(WireCommandType.COMPRESSED_EVENT.getCode(), compressed.data.getInt(compressed.data.readerIndex()));
+        assertTrue(compressed.data.readableBytes() < content.length);
+    }
+
     @Test
     public void testSwitchingStream() throws Exception {
         int size = appendBlockSize;
@@ -0,0 +1,88 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.protocol.netty;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class EventCompressorTest {
+
+    @Test
+    public void testRoundTrip() {
+        EventCompressor compressor = new EventCompressor(CompressionCodec.DEFLATE);
+        for (int i = 0; i < 10; i++) {
+            byte[] event = getCompressibleEvent(1000 + i);
+            ByteBuf compressed = compressor.compress(Unpooled.wrappedBuffer(event));
+            assertNotNull(compressed);
+            assertTrue(compressed.readableBytes() < event.length);
+            ByteBuffer payload = ByteBuffer.allocate(compressed.readableBytes());
+            compressed.readBytes(payload);
+            payload.flip();
+            assertEquals(ByteBuffer.wrap(event), compressor.decompress(payload));
+        }
+    }
+
+    @Test
+    public void testNotCompressed() {
+        byte[] event = getCompressibleEvent(1000);
+        assertNull(new EventCompressor(CompressionCodec.NONE).compress(Unpooled.wrappedBuffer(event)));
+
+        EventCompressor compressor = new EventCompressor(CompressionCodec.DEFLATE);
+        byte[] small = getCompressibleEvent(EventCompressor.MIN_COMPRESSIBLE_SIZE - 1);
+        assertNull(compressor.compress(Unpooled.wrappedBuffer(small)));
+        byte[] random = new byte[1000];
+        new Random(0).nextBytes(random);
+        assertNull(compressor.compress(Unpooled.wrappedBuffer(random)));
+    }
+
+    @Test(expected = InvalidMessageException.class)
+    public void testTruncatedHeader() {
+        new EventCompressor(CompressionCodec.DEFLATE).decompress(ByteBuffer.wrap(new byte[3]));
+    }
+
+    @Test(expected = InvalidMessageException.class)
+    public void testTruncatedData() {
+        EventCompressor compressor = new EventCompressor(CompressionCodec.DEFLATE);
+        byte[] payload = getPayload(compressor.compress(Unpooled.wrappedBuffer(getCompressibleEvent(1000))));
+        compressor.decompress(ByteBuffer.wrap(Arrays.copyOf(payload, payload.length / 2)));
+    }
+
+    @Test(expected = InvalidMessageException.class)
+    public void testUnknownCodec() {
+        EventCompressor compressor = new EventCompressor(CompressionCodec.DEFLATE);
+        byte[] payload = getPayload(compressor.compress(Unpooled.wrappedBuffer(getCompressibleEvent(1000))));
+        payload[0] = 42;
+        compressor.decompress(ByteBuffer.wrap(payload));
+    }
+
+    private byte[] getPayload(ByteBuf compressed) {
+        byte[] payload = new byte[compressed.readableBytes()];
+        compressed.readBytes(payload);
+        return payload;
+    }
+
+    private byte[] getCompressibleEvent(int size) {
+        StringBuilder builder = new StringBuilder();
+        while (builder.length() < size) {
+            builder.append("{\"key\": \"value\", \"count\": ").append(builder.length()).append("}");
+        }
+        return builder.substring(0, size).getBytes(StandardCharsets.UTF_8);
+    }
+}
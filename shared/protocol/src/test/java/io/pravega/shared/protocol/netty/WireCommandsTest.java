@@ -64,6 +64,17 @@ public class WireCommandsTest {
         testCommand(new WireCommands.AppendBlockEnd(uuid, i, buf, i, i, l));
     }
 
+    @Test
+    public void testCompressedEvent() throws IOException {
+        testCommand(new WireCommands.CompressedEvent(buf));
+        // Only the readable bytes of the buffer are written.
+        ByteBuf sliced = Unpooled.wrappedBuffer(new byte[]{9, 9, 1, 2, 3, 9}, 1, 4);
+        sliced.readerIndex(1);
+        ByteArrayOutputStream bout = new ByteArrayOutputStream();
+        new WireCommands.CompressedEvent(sliced).writeFields(new DataOutputStream(bout));
+        assertEquals(ByteBuffer.wrap(new byte[]{1, 2, 3}), ByteBuffer.wrap(bout.toByteArray()));
+    }
+
     @Test
     public void testConditionalAppend() throws IOException {
         testCommand(new WireCommands.ConditionalAppend(uuid, l, l, buf));
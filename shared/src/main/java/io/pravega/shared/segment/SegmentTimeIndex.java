@@ -0,0 +1,240 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.segment;
+
+import io.pravega.common.Exceptions;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+
+/**
+ * Defines the layout of a Segment's time index, which maps wall-clock time to offsets within the Segment.
+ * <p>
+ * Time is divided into buckets of {@link #GRANULARITY}. When data is first appended to the Segment in a bucket, an entry
+ * for that bucket is added. The entry is stored as a Segment Attribute whose Id identifies the bucket and whose value is
+ * the offset of that append, so reading the Segment from there gets everything that was appended during or after that
+ * bucket. The offset is always at an append (and hence event) boundary.
+ * <p>
+ * The index is kept bounded by {@link #compact}, which is invoked whenever a bucket is added or the Segment is truncated:
+ * <ul>
+ * <li> Entries below the Segment's start offset are removed.
+ * <li> Entries are kept for every bucket of the last hour, every 10 minutes of the last day, every hour of the last week
+ * and every day before that (relative to the latest entry). The entry kept for each of these is the one for the latest
+ * bucket at or before it, so gaps in the index are filled and coarse entries never point past any data in their range.
+ * <li> At most {@link #MAX_ENTRIES} entries are kept; the oldest ones are removed first.
+ * </ul>
+ * This layout, along with an Attribute that holds the latest bucket, allows {@link #findOffset} to look up the entry for
+ * any time with a handful of Attribute lookups.
+ * <p>
+ * The Attribute Ids used by the index are in the well-known Attribute Id range (so they are retained when a Segment is
+ * sealed), with Least Significant Bits starting at {@link #ID_BASE} - 1.
+ */
+public final class SegmentTimeIndex {
+    /**
+     * The size of a time index bucket. Each Segment gets at most one index entry per bucket.
+     */
+    public static final Duration GRANULARITY = Duration.ofMinutes(1);
+
+    /**
+     * The maximum number of entries in a Segment's time index.
+     */
+    public static final int MAX_ENTRIES = 512;
+
+    /**
+     * Prefix (Most Significant Bits) of the Ids of all time index Attributes.
+     */
+    private static final long ID_PREFIX = Long.MIN_VALUE;
+
+    /**
+     * Least Significant Bits of the Id of the time index Attribute for the bucket that starts at the epoch. Other
+     * buckets follow sequentially.
+     */
+    private static final long ID_BASE = 1L << 32;
+
+    /**
+     * Id of the Attribute that holds the latest bucket in the index.
+     */
+    private static final UUID LATEST_BUCKET_ID = new UUID(ID_PREFIX, ID_BASE - 1);
+
+    /**
+     * Spacing of the entries (in buckets) kept at each level of the index, from the most recent to the oldest.
+     */
+    private static final long[] LEVEL_SPACING = {1, 10, 60, 24 * 60};
+
+    /**
+     * How far back (in buckets, from the latest entry) each level of the index goes. The last level is unbounded.
+     */
+    private static final long[] LEVEL_AGE = {60, 24 * 60, 7 * 24 * 60};
+
+    private SegmentTimeIndex() {
+    }
+
+    /**
+     * Gets the Id of the time index Attribute for the bucket that contains the given time.
+     *
+     * @param timestamp Time, in milliseconds since the epoch.
+     * @return The Attribute Id.
+     */
+    public static UUID getAttributeId(long timestamp) {
+        Exceptions.checkArgument(timestamp >= 0, "timestamp", "timestamp must be a non-negative number.");
+        return getBucketId(timestamp / GRANULARITY.toMillis());
+    }
+
+    /**
+     * Determines whether the given Attribute Id refers to a time index Attribute.
+     *
+     * @param attributeId The Attribute Id to check.
+     * @return True if the Attribute is a time index entry, false otherwise.
+     */
+    public static boolean isTimeIndexAttribute(UUID attributeId) {
+        return attributeId.getMostSignificantBits() == ID_PREFIX && attributeId.getLeastSignificantBits() >= ID_BASE;
+    }
+
+    /**
+     * Gets the start time of the bucket referred to by the given time index Attribute Id.
+     *
+     * @param attributeId The Attribute Id. Must be a time index Attribute Id.
+     * @return The start time of the bucket, in milliseconds since the epoch.
+     */
+    public static long getTimestamp(UUID attributeId) {
+        Exceptions.checkArgument(isTimeIndexAttribute(attributeId), "attributeId", "Not a time index attribute id.");
+        return getBucket(attributeId) * GRANULARITY.toMillis();
+    }
+
+    /**
+     * Looks up the offset from which to read a Segment in order to get everything that was appended during or after the
+     * bucket referred to by the given time index Attribute Id. This is the entry of the latest bucket at or before the
+     * given one, since everything appended since then is at or after that offset.
+     *
+     * @param attributes  The Segment's Attributes.
+     * @param attributeId The time index Attribute Id for the desired bucket.
+     * @return The offset, or null if the Segment has no time index entry for that bucket or any bucket before it.
+     */
+    public static Long findOffset(Map<UUID, Long> attributes, UUID attributeId) {
+        Exceptions.checkArgument(isTimeIndexAttribute(attributeId), "attributeId", "Not a time index attribute id.");
+        Long latest = getValue(attributes, LATEST_BUCKET_ID);
+        if (latest == null) {
+            return null;
+        }
+
+        // The entry for a bucket is at the bucket itself if it is recent, or at the start of its range at some coarser
+        // level otherwise (see compact()).
+        long bucket = Math.min(getBucket(attributeId), latest);
+        for (long spacing : LEVEL_SPACING) {
+            Long offset = getValue(attributes, getBucketId(bucket - bucket % spacing));
+            if (offset != null) {
+                return offset;
+            }
+        }
+
+        return null;
+    }
+
+    /**
+     * Gets the value of a time index entry that is about to be added along with an append.
+     *
+     * @param attributes  The Segment's Attributes.
+     * @param attributeId The time index Attribute Id for the bucket the append was made in.
+     * @param offset      The offset of the append.
+     * @return The value of the entry: the existing one if there is one already, or the given offset if the entry is for
+     * a new bucket. Null if no entry is to be added, because the bucket is older than the latest one (which may happen
+     * if appends made at around the same time are processed out of order); such a bucket is already covered by the
+     * entry for the bucket before it.
+     */
+    public static Long getNewEntryValue(Map<UUID, Long> attributes, UUID attributeId, long offset) {
+        Exceptions.checkArgument(isTimeIndexAttribute(attributeId), "attributeId", "Not a time index attribute id.");
+        Long existing = getValue(attributes, attributeId);
+        if (existing != null) {
+            return existing;
+        }
+
+        Long latest = getValue(attributes, LATEST_BUCKET_ID);
+        return latest != null && getBucket(attributeId) < latest ? null : offset;
+    }
+
+    /**
+     * Calculates the changes needed to bring a Segment's time index to its canonical (bounded) layout, after an entry has
+     * been added to it or the Segment has been truncated. The result only depends on the given arguments, so it can be
+     * recalculated when recovering the Segment.
+     *
+     * @param attributes  The Segment's Attributes. Entries with negative values are considered removed.
+     * @param startOffset The Segment's start offset. Entries below it are removed.
+     * @return The Attributes to update, mapped to their new values, or to null if they are to be removed.
+     */
+    public static Map<UUID, Long> compact(Map<UUID, Long> attributes, long startOffset) {
+        TreeMap<Long, Long> entries = new TreeMap<>();
+        attributes.forEach((id, offset) -> {
+            if (isTimeIndexAttribute(id) && offset != null && offset >= 0) {
+                entries.put(getBucket(id), offset);
+            }
+        });
+
+        Map<Long, Long> layout = new HashMap<>();
+        if (!entries.isEmpty()) {
+            long latest = entries.lastKey();
+            long bucket = latest;
+            while (bucket >= 0 && layout.size() < MAX_ENTRIES) {
+                Map.Entry<Long, Long> entry = entries.floorEntry(bucket);
+                if (entry == null || entry.getValue() < startOffset) {
+                    break;
+                }
+
+                layout.put(bucket, entry.getValue());
+                long previous = bucket - 1;
+                bucket = previous - Math.floorMod(previous, getSpacing(latest - previous));
+            }
+        }
+
+        Map<UUID, Long> changes = new HashMap<>();
+        entries.forEach((bucket, offset) -> {
+            if (!layout.containsKey(bucket)) {
+                changes.put(getBucketId(bucket), null);
+            }
+        });
+        layout.forEach((bucket, offset) -> {
+            if (!offset.equals(entries.get(bucket))) {
+                changes.put(getBucketId(bucket), offset);
+            }
+        });
+
+        Long latest = layout.isEmpty() ? null : entries.lastKey();
+        Long currentLatest = getValue(attributes, LATEST_BUCKET_ID);
+        if (latest == null ? currentLatest != null : !latest.equals(currentLatest)) {
+            changes.put(LATEST_BUCKET_ID, latest);
+        }
+
+        return changes;
+    }
+
+    private static long getSpacing(long age) {
+        for (int i = 0; i < LEVEL_AGE.length; i++) {
+            if (age < LEVEL_AGE[i]) {
+                return LEVEL_SPACING[i];
+            }
+        }
+
+        return LEVEL_SPACING[LEVEL_SPACING.length - 1];
+    }
+
+    private static Long getValue(Map<UUID, Long> attributes, UUID attributeId) {
+        Long value = attributes.get(attributeId);
+        return value == null || value < 0 ? null : value;
+    }
+
+    private static long getBucket(UUID attributeId) {
+        return attributeId.getLeastSignificantBits() - ID_BASE;
+    }
+
+    private static UUID getBucketId(long bucket) {
+        return new UUID(ID_PREFIX, ID_BASE + bucket);
+    }
+}
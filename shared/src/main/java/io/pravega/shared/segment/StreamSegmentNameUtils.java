@@ -23,6 +23,11 @@ public final class StreamSegmentNameUtils {
      */
     private static final String STATE_SUFFIX = "$state";
 
+    /**
+     * Prefix for the names of the meta-Segments that store the Segment States of an entire Segment Container.
+     */
+    private static final String CONTAINER_STATE_PREFIX = "_system/containers/state_";
+
     /**
      * This is appended to the end of the Segment/Transaction name to indicate it stores its Rolling Storage Header.
      */
@@ -99,6 +104,18 @@ public final class StreamSegmentNameUtils {
         return segmentName + STATE_SUFFIX;
     }
 
+    /**
+     * Gets the name of the meta-Segment that is responsible with storing the Segment States of all the Segments owned
+     * by the given Segment Container.
+     *
+     * @param containerId The Id of the Segment Container.
+     * @return The result.
+     */
+    public static String getContainerStateSegmentName(int containerId) {
+        Preconditions.checkArgument(containerId >= 0, "containerId must be a non-negative number.");
+        return CONTAINER_STATE_PREFIX + containerId;
+    }
+
     /**
      * Gets the name of the meta-Segment mapped to the given Segment Name that is responsible with storing its Rollover
      * information.
@@ -0,0 +1,173 @@
+/**
+ * Copyright (c) 2017 Dell Inc., or its subsidiaries. All Rights Reserved.
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *     http://www.apache.org/licenses/LICENSE-2.0
+ */
+package io.pravega.shared.segment;
+
+import io.pravega.test.common.AssertExtensions;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.UUID;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * Unit tests for SegmentTimeIndex class.
+ */
+public class SegmentTimeIndexTests {
+    private static final long BUCKET = SegmentTimeIndex.GRANULARITY.toMillis();
+
+    /**
+     * Tests the mapping between timestamps and Attribute Ids.
+     */
+    @Test
+    public void testAttributeIds() {
+        Assert.assertEquals("Timestamps in the same bucket should map to the same id.",
+                SegmentTimeIndex.getAttributeId(10 * BUCKET), SegmentTimeIndex.getAttributeId(11 * BUCKET - 1));
+        Assert.assertNotEquals("Timestamps in different buckets should map to different ids.",
+                SegmentTimeIndex.getAttributeId(10 * BUCKET), SegmentTimeIndex.getAttributeId(11 * BUCKET));
+
+        long now = System.currentTimeMillis();
+        UUID id = SegmentTimeIndex.getAttributeId(now);
+        Assert.assertTrue("Expected a time index attribute.", SegmentTimeIndex.isTimeIndexAttribute(id));
+        Assert.assertEquals("Unexpected bucket start time.", now - now % BUCKET, SegmentTimeIndex.getTimestamp(id));
+
+        Assert.assertFalse("Unexpected result for a well-known attribute.",
+                SegmentTimeIndex.isTimeIndexAttribute(new UUID(Long.MIN_VALUE, 1)));
+        Assert.assertFalse("Unexpected result for a dynamic attribute.",
+                SegmentTimeIndex.isTimeIndexAttribute(UUID.randomUUID()));
+        AssertExtensions.assertThrows("getTimestamp() accepted a non-time index attribute.",
+                () -> SegmentTimeIndex.getTimestamp(new UUID(Long.MIN_VALUE, 1)),
+                ex -> ex instanceof IllegalArgumentException);
+        AssertExtensions.assertThrows("getAttributeId() accepted a negative timestamp.",
+                () -> SegmentTimeIndex.getAttributeId(-1),
+                ex -> ex instanceof IllegalArgumentException);
+    }
+
+    /**
+     * Tests looking up offsets, including for buckets that have no entry of their own.
+     */
+    @Test
+    public void testFindOffset() {
+        Map<UUID, Long> attributes = new HashMap<>();
+        attributes.put(new UUID(Long.MIN_VALUE, 1), 1000L);
+        attributes.put(UUID.randomUUID(), 2000L);
+        Assert.assertNull("Unexpected offset for a segment without a time index.",
+                SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(10 * BUCKET)));
+
+        addEntry(attributes, 10, 100, 0);
+        addEntry(attributes, 12, 300, 0);
+        Assert.assertNull("Unexpected offset for a time before the first entry.",
+                SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(9 * BUCKET)));
+        Assert.assertEquals(100L, (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(10 * BUCKET)));
+        Assert.assertEquals("Expected the entry for the previous bucket.",
+                100L, (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(11 * BUCKET)));
+        Assert.assertEquals(300L, (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(12 * BUCKET)));
+        Assert.assertEquals("Expected the latest entry.",
+                300L, (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(100 * BUCKET)));
+    }
+
+    /**
+     * Tests adding entries for buckets that already have one, or that are older than the latest one.
+     */
+    @Test
+    public void testNewEntryValue() {
+        Map<UUID, Long> attributes = new HashMap<>();
+        UUID id = SegmentTimeIndex.getAttributeId(10 * BUCKET);
+        Assert.assertEquals(100L, (long) SegmentTimeIndex.getNewEntryValue(attributes, id, 100));
+        addEntry(attributes, 10, 100, 0);
+        Assert.assertEquals("Expected the existing entry to be kept.",
+                100L, (long) SegmentTimeIndex.getNewEntryValue(attributes, id, 200));
+        Assert.assertNull("Expected no entry for a bucket older than the latest one.",
+                SegmentTimeIndex.getNewEntryValue(attributes, SegmentTimeIndex.getAttributeId(9 * BUCKET), 200));
+        Assert.assertEquals(200L, (long) SegmentTimeIndex.getNewEntryValue(attributes, SegmentTimeIndex.getAttributeId(11 * BUCKET), 200));
+    }
+
+    /**
+     * Tests that the index stays bounded as entries are added over a long time, and that lookups still return, for every
+     * bucket, an entry that is at or before the one that was added for it, and exactly that one for recent buckets.
+     */
+    @Test
+    public void testCompaction() {
+        final long day = 24 * 60;
+        final long bucketCount = 300 * day;
+        Map<UUID, Long> attributes = new HashMap<>();
+        TreeMap<Long, Long> added = new TreeMap<>();
+        Random random = new Random(0);
+        long offset = 0;
+        for (long bucket = 0; bucket < bucketCount; bucket++) {
+            // Appends every 12 hours at first, then (nearly) every minute for the last two days.
+            boolean recent = bucket >= bucketCount - 2 * day;
+            if (recent ? random.nextInt(5) == 0 : bucket % (day / 2) != 0) {
+                continue;
+            }
+
+            addEntry(attributes, bucket, offset, 0);
+            added.put(bucket, offset);
+            offset += 1 + random.nextInt(1000);
+            Assert.assertTrue("Too many entries.", getEntryCount(attributes) <= SegmentTimeIndex.MAX_ENTRIES);
+        }
+
+        long latest = added.lastKey();
+        for (long bucket = 0; bucket < bucketCount + 10; bucket++) {
+            long expected = added.floorEntry(bucket).getValue();
+            Long actual = SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(bucket * BUCKET));
+            if (bucket > latest - 60) {
+                Assert.assertEquals("Unexpected offset for recent bucket " + bucket, expected, (long) actual);
+            } else if (actual != null) {
+                Assert.assertTrue("Offset past the entry for bucket " + bucket, actual <= expected);
+            }
+        }
+        Assert.assertNotNull("Expected entries older than a week.",
+                SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId((latest - 10 * day) * BUCKET)));
+        Assert.assertNull("Expected the oldest entries to have been removed.",
+                SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(0)));
+
+        // Truncating the segment removes the entries below the truncation offset.
+        long truncatedBucket = added.floorKey(latest - 30);
+        long truncationOffset = added.get(truncatedBucket);
+        applyChanges(attributes, SegmentTimeIndex.compact(attributes, truncationOffset));
+        Assert.assertNull("Expected no entries below the truncation offset.",
+                SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId((truncatedBucket - 1) * BUCKET)));
+        Assert.assertEquals(truncationOffset,
+                (long) SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(truncatedBucket * BUCKET)));
+        Assert.assertTrue("Compaction is not idempotent.", SegmentTimeIndex.compact(attributes, truncationOffset).isEmpty());
+
+        applyChanges(attributes, SegmentTimeIndex.compact(attributes, offset));
+        Assert.assertEquals("Expected no entries after truncating everything.", 0, getEntryCount(attributes));
+        Assert.assertNull(SegmentTimeIndex.findOffset(attributes, SegmentTimeIndex.getAttributeId(latest * BUCKET)));
+    }
+
+    /**
+     * Adds an entry the way the Segment Store does for an append made at the given bucket and offset.
+     */
+    private void addEntry(Map<UUID, Long> attributes, long bucket, long offset, long startOffset) {
+        UUID id = SegmentTimeIndex.getAttributeId(bucket * BUCKET);
+        Long value = SegmentTimeIndex.getNewEntryValue(attributes, id, offset);
+        if (value != null) {
+            attributes.put(id, value);
+            applyChanges(attributes, SegmentTimeIndex.compact(attributes, startOffset));
+        }
+    }
+
+    private void applyChanges(Map<UUID, Long> attributes, Map<UUID, Long> changes) {
+        changes.forEach((id, value) -> {
+            if (value == null) {
+                attributes.remove(id);
+            } else {
+                attributes.put(id, value);
+            }
+        });
+    }
+
+    private long getEntryCount(Map<UUID, Long> attributes) {
+        return attributes.keySet().stream().filter(SegmentTimeIndex::isTimeIndexAttribute).count();
+    }
+}